@@ -0,0 +1,108 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos ficheros de resultados JMH en formato JSON.
+ * - Por cada benchmark y combinación de parámetros compara el tiempo medio (ns/op)
+ *   y la memoria asignada por operación (gc.alloc.rate.norm, B/op)
+ * - Se considera regresión si cualquiera de los dos empeora más del umbral relativo
+ * - Los benchmarks que no están en ambos ficheros se ignoran
+ *
+ * También puede ejecutarse por separado: CompararConBaseline baseline.json resultados.json [umbral]
+ */
+public final class CompararConBaseline {
+
+    private static final String ASIGNACION = "gc.alloc.rate.norm";
+
+    private CompararConBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararConBaseline <baseline.json> <resultados.json> [umbral]");
+            System.exit(2);
+        }
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        if (comparar(Path.of(args[0]), Path.of(args[1]), umbral, System.out)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Imprime la comparación y devuelve si hay alguna regresión.
+     *
+     * @param baseline   Resultados de referencia
+     * @param resultados Resultados actuales
+     * @param umbral     Empeoramiento relativo admitido (0.10 = 10 %)
+     * @param salida     Destino del informe
+     * @return true si algún benchmark empeora más del umbral
+     */
+    public static boolean comparar(Path baseline, Path resultados, double umbral, PrintStream salida)
+            throws IOException {
+        Map<String, Medida> referencia = leer(baseline);
+        Map<String, Medida> actual = leer(resultados);
+
+        boolean regresion = false;
+        salida.printf("%-75s %14s %14s %8s %12s %12s %8s%n",
+                "Benchmark", "ns/op base", "ns/op", "Δ", "B/op base", "B/op", "Δ");
+        for (Map.Entry<String, Medida> entrada : actual.entrySet()) {
+            Medida antes = referencia.get(entrada.getKey());
+            if (antes == null) {
+                continue;
+            }
+            Medida ahora = entrada.getValue();
+            double deltaTiempo = variacion(antes.tiempo(), ahora.tiempo());
+            double deltaAsignacion = variacion(antes.asignacion(), ahora.asignacion());
+            boolean empeora = deltaTiempo > umbral || deltaAsignacion > umbral;
+            regresion |= empeora;
+            salida.printf("%-75s %14.1f %14.1f %+7.1f%% %12.0f %12.0f %+7.1f%%%s%n",
+                    entrada.getKey(), antes.tiempo(), ahora.tiempo(), deltaTiempo * 100,
+                    antes.asignacion(), ahora.asignacion(), deltaAsignacion * 100,
+                    empeora ? "  << REGRESIÓN" : "");
+        }
+        return regresion;
+    }
+
+    private static double variacion(double antes, double ahora) {
+        return antes == 0 ? 0 : (ahora - antes) / antes;
+    }
+
+    private static Map<String, Medida> leer(Path fichero) throws IOException {
+        Map<String, Medida> medidas = new LinkedHashMap<>();
+        for (JsonNode resultado : new ObjectMapper().readTree(fichero.toFile())) {
+            double asignacion = 0;
+            Iterator<Map.Entry<String, JsonNode>> secundarias = resultado.path("secondaryMetrics").fields();
+            while (secundarias.hasNext()) {
+                Map.Entry<String, JsonNode> metrica = secundarias.next();
+                if (metrica.getKey().endsWith(ASIGNACION)) {
+                    asignacion = metrica.getValue().path("score").asDouble();
+                }
+            }
+            medidas.put(clave(resultado),
+                    new Medida(resultado.path("primaryMetric").path("score").asDouble(), asignacion));
+        }
+        return medidas;
+    }
+
+    private static String clave(JsonNode resultado) {
+        String benchmark = resultado.path("benchmark").asText();
+        String nombre = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        Map<String, String> parametros = new TreeMap<>();
+        resultado.path("params").fields()
+                .forEachRemaining(parametro -> parametros.put(parametro.getKey(), parametro.getValue().asText()));
+        return parametros.isEmpty() ? nombre : nombre + parametros;
+    }
+
+    private record Medida(double tiempo, double asignacion) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ProductoDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedidos de ejemplo con un número dado de líneas de producto, con datos realistas
+ * (precios con dos decimales, nombres de longitud variable, fecha de creación).
+ */
+final class DatosPedido {
+
+    private DatosPedido() {
+    }
+
+    static PedidoDTO pedidoDTO(int lineas) {
+        List<ProductoDTO> productos = new ArrayList<>(lineas);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineas; i++) {
+            ProductoDTO producto = new ProductoDTO();
+            producto.setId(1_000L + i);
+            producto.setNombre("Producto de catálogo " + i);
+            producto.setCantidad(1 + i % 5);
+            producto.setPrecioUnitario(BigDecimal.valueOf(999 + i * 37L, 2));
+            productos.add(producto);
+            total = total.add(producto.getPrecioUnitario().multiply(BigDecimal.valueOf(producto.getCantidad())));
+        }
+
+        PedidoDTO pedido = new PedidoDTO();
+        pedido.setId(42L);
+        pedido.setNombreCliente("José Miguel García López");
+        pedido.setContactoCliente("jose.miguel@example.com");
+        pedido.setMontoTotal(total);
+        pedido.setEstado(EstadoPedido.CONFIRMED);
+        pedido.setFechaCreacion(LocalDateTime.of(2025, 3, 14, 10, 15, 30, 123_456_000));
+        pedido.setVersion(3L);
+        pedido.setProductos(productos);
+        return pedido;
+    }
+
+    static Pedido pedido(int lineas) {
+        PedidoDTO dto = pedidoDTO(lineas);
+        Pedido pedido = PedidoMapper.toEntityActualizacion(dto);
+        pedido.setId(dto.getId());
+        pedido.setEstado(dto.getEstado());
+        pedido.setFechaCreacion(dto.getFechaCreacion());
+        pedido.setVersion(dto.getVersion());
+        return pedido;
+    }
+
+    /**
+     * ObjectMapper con la configuración que aplica Spring Boot (fechas ISO-8601 en lugar de arrays).
+     */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Punto de entrada de benchmarks.jar.
+ * - Acepta las opciones de línea de comandos de JMH (por ejemplo, un filtro "Mapeo" o -p lineas=500)
+ * - Siempre activa el profiler de GC, que añade gc.alloc.rate.norm (bytes por operación)
+ * - Escribe los resultados en target/jmh-resultados.json y los compara con baseline/jmh-baseline.json
+ *
+ * Propiedades del sistema:
+ * - baseline: fichero de referencia (por defecto baseline/jmh-baseline.json)
+ * - umbral: regresión relativa admitida (por defecto 0.10)
+ * - actualizarBaseline=true: sustituye la referencia por los resultados de esta ejecución
+ */
+public final class EjecutarBenchmarks {
+
+    private static final Path RESULTADOS = Path.of("target", "jmh-resultados.json");
+
+    private EjecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Files.createDirectories(RESULTADOS.getParent());
+        Options opciones = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTADOS.toString())
+                .build();
+        new Runner(opciones).run();
+
+        Path baseline = Path.of(System.getProperty("baseline", "baseline/jmh-baseline.json"));
+        if (Boolean.getBoolean("actualizarBaseline")) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(RESULTADOS, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline actualizada: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("Sin baseline en " + baseline + ": no se comparan los resultados");
+            return;
+        }
+
+        double umbral = Double.parseDouble(System.getProperty("umbral", "0.10"));
+        boolean regresion = CompararConBaseline.comparar(baseline, RESULTADOS, umbral, System.out);
+        if (regresion) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión entre PedidoDTO y Pedido con PedidoMapper (creación, actualización y lectura).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoPedidoBenchmark {
+
+    @Param({"1", "10", "500"})
+    private int lineas;
+
+    private PedidoDTO dto;
+    private Pedido pedido;
+
+    @Setup
+    public void preparar() {
+        dto = DatosPedido.pedidoDTO(lineas);
+        pedido = DatosPedido.pedido(lineas);
+    }
+
+    @Benchmark
+    public Pedido toEntity() {
+        return PedidoMapper.toEntity(dto);
+    }
+
+    @Benchmark
+    public Pedido toEntityActualizacion() {
+        return PedidoMapper.toEntityActualizacion(dto);
+    }
+
+    @Benchmark
+    public PedidoDTO toDTO() {
+        return PedidoMapper.toDTO(pedido);
+    }
+}
@@ -0,0 +1,91 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabajo de CPU y memoria de una petición completa, sin base de datos:
+ * - listar: página de pedidos ya cargados → DTOs → JSON (GET /api/pedidos)
+ * - crear: JSON → DTO → entidad, y la entidad guardada → DTO → JSON (POST /api/pedidos)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeticionPedidoBenchmark {
+
+    private static final int PEDIDOS_POR_PAGINA = 20;
+
+    /**
+     * Spring MVC escribe la respuesta en el stream del servlet, sin construir un byte[] completo.
+     */
+    private static final OutputStream SALIDA = new Descartar();
+
+    @Param({"1", "10", "500"})
+    private int lineas;
+
+    private ObjectMapper objectMapper;
+    private List<Pedido> pagina;
+    private Pedido guardado;
+    private byte[] cuerpoCreacion;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = DatosPedido.objectMapper();
+        pagina = new ArrayList<>(PEDIDOS_POR_PAGINA);
+        for (int i = 0; i < PEDIDOS_POR_PAGINA; i++) {
+            pagina.add(DatosPedido.pedido(lineas));
+        }
+        guardado = DatosPedido.pedido(lineas);
+        cuerpoCreacion = objectMapper.writeValueAsBytes(DatosPedido.pedidoDTO(lineas));
+    }
+
+    @Benchmark
+    public void listar() throws IOException {
+        objectMapper.writeValue(SALIDA, PedidoMapper.toDTOs(pagina));
+    }
+
+    @Benchmark
+    public void crear() throws IOException {
+        Pedido pedido = PedidoMapper.toEntity(objectMapper.readValue(cuerpoCreacion, PedidoDTO.class));
+        if (pedido.getProductos().size() != guardado.getProductos().size()) {
+            throw new IllegalStateException("Conversión incompleta");
+        }
+        objectMapper.writeValue(SALIDA, PedidoMapper.toDTO(guardado));
+    }
+
+    /**
+     * Descarta lo escrito y admite seguir escribiendo tras close(), que Jackson invoca en cada writeValue.
+     */
+    private static final class Descartar extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int desde, int longitud) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de PedidoDTO (LocalDateTime, BigDecimal, enum) con la misma
+ * configuración de Jackson que usa Spring MVC, en ambos sentidos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionPedidoBenchmark {
+
+    @Param({"1", "10", "500"})
+    private int lineas;
+
+    private ObjectMapper objectMapper;
+    private PedidoDTO pedido;
+    private byte[] json;
+
+    @Setup
+    public void preparar() throws IOException {
+        objectMapper = DatosPedido.objectMapper();
+        pedido = DatosPedido.pedidoDTO(lineas);
+        json = objectMapper.writeValueAsBytes(pedido);
+    }
+
+    @Benchmark
+    public byte[] escribir() throws IOException {
+        return objectMapper.writeValueAsBytes(pedido);
+    }
+
+    @Benchmark
+    public PedidoDTO leer() throws IOException {
+        return objectMapper.readValue(json, PedidoDTO.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.josemiguel.ordermanagement.benchmark;
+
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation de PedidoDTO con sus ProductoDTO anidados (@Valid), como en @Valid @RequestBody.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionPedidoBenchmark {
+
+    @Param({"1", "10", "500"})
+    private int lineas;
+
+    private ValidatorFactory fabrica;
+    private Validator validator;
+    private PedidoDTO valido;
+    private PedidoDTO invalido;
+
+    @Setup
+    public void preparar() {
+        fabrica = Validation.buildDefaultValidatorFactory();
+        validator = fabrica.getValidator();
+        valido = DatosPedido.pedidoDTO(lineas);
+        invalido = DatosPedido.pedidoDTO(lineas);
+        invalido.setNombreCliente(" ");
+        invalido.getProductos().get(lineas - 1).setCantidad(0);
+    }
+
+    @TearDown
+    public void cerrar() {
+        fabrica.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PedidoDTO>> validarValido() {
+        return validator.validate(valido);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PedidoDTO>> validarInvalido() {
+        return validator.validate(invalido);
+    }
+}
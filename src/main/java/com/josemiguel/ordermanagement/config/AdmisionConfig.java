@@ -0,0 +1,76 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.admision.LimitadorAdmision;
+import com.josemiguel.ordermanagement.infraestructura.cache.CachePedidos;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Control de admisión de peticiones a /api (ver LimitadorAdmision).
+ * - Con hilos de plataforma, el pool de Tomcat ya acota la concurrencia, pero las peticiones
+ *   que no consiguen conexión bloquean su hilo hasta el connection-timeout de Hikari
+ * - Con hilos virtuales (spring.threads.virtual.enabled) no hay ese límite: el limitador es
+ *   lo que impide acumular miles de peticiones esperando conexión
+ * - GET /api/pedidos/{id} con el pedido en caché (incluido el 304 de If-None-Match) no usa
+ *   la base de datos y no toma permiso; si la entrada expira entre la comprobación y la
+ *   lectura, esa lectura queda fuera del límite
+ */
+@Configuration
+public class AdmisionConfig implements WebMvcConfigurer {
+
+    private static final Pattern PEDIDO_POR_ID = Pattern.compile("/api/pedidos/(\\d{1,18})");
+
+    private final AdmisionProperties propiedades;
+    private final int tamanioPool;
+    private final ObjectProvider<MeterRegistry> registro;
+    private final CachePedidos cachePedidos;
+
+    public AdmisionConfig(AdmisionProperties propiedades,
+                          @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanioPool,
+                          ObjectProvider<MeterRegistry> registro,
+                          CachePedidos cachePedidos) {
+        this.propiedades = propiedades;
+        this.tamanioPool = tamanioPool;
+        this.registro = registro;
+        this.cachePedidos = cachePedidos;
+    }
+
+    @Bean
+    public LimitadorAdmision limitadorAdmision() {
+        int permisos = propiedades.permisos() != null ? propiedades.permisos() : tamanioPool;
+        return new LimitadorAdmision(permisos, propiedades.espera(), propiedades.reintentarTras(),
+                registro.getObject(), this::pedidoEnCache);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptores) {
+        if (propiedades.habilitada()) {
+            // Antes que cualquier otro interceptor: una petición rechazada no debe hacer más trabajo
+            interceptores.addInterceptor(limitadorAdmision())
+                    .addPathPatterns("/api/**")
+                    .order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+
+    /**
+     * GET de un pedido que se servirá desde la caché.
+     */
+    private boolean pedidoEnCache(HttpServletRequest peticion) {
+        if (!HttpMethod.GET.matches(peticion.getMethod())) {
+            return false;
+        }
+        Matcher pedido = PEDIDO_POR_ID.matcher(peticion.getRequestURI().substring(peticion.getContextPath().length()));
+        return pedido.matches() && cachePedidos.contiene(Long.valueOf(pedido.group(1)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del limitador de admisión de peticiones a /api.
+ * - habilitada: si es false, las peticiones esperan directamente a Hikari (connection-timeout)
+ * - permisos: peticiones en curso a la vez; si no se indica, el tamaño del pool de conexiones
+ * - espera: tiempo máximo que una petición espera turno antes de responder 503
+ * - reintentarTras: valor de la cabecera Retry-After de las respuestas 503
+ */
+@ConfigurationProperties(prefix = "pedidos.admision")
+public record AdmisionProperties(@DefaultValue("true") boolean habilitada,
+                                 Integer permisos,
+                                 @DefaultValue("500ms") Duration espera,
+                                 @DefaultValue("1s") Duration reintentarTras) {
+}
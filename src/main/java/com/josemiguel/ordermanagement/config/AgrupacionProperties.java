@@ -0,0 +1,14 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de la agrupación de lecturas concurrentes idénticas (single-flight).
+ * - habilitada: si es false, cada lectura consulta la base de datos por su cuenta
+ * - franjas: particiones de las lecturas en curso, cada una con su propio cerrojo
+ */
+@ConfigurationProperties(prefix = "pedidos.agrupacion")
+public record AgrupacionProperties(@DefaultValue("true") boolean habilitada,
+                                   @DefaultValue("64") int franjas) {
+}
@@ -0,0 +1,20 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de la búsqueda de pedidos por nombre de cliente.
+ * - motor: "postgres" (índice GIN pg_trgm) o "memoria" (índice de trigramas en proceso)
+ * - similitudMinima: puntuación mínima para aceptar coincidencias aproximadas
+ * - paginaMaxima: última página permitida, para acotar el coste del OFFSET
+ * - maximoCandidatos: coincidencias que se puntúan como mucho en cada búsqueda; con más,
+ *   el coste no crece con ellas, pero solo se ordenan esas (cuáles, no está especificado)
+ */
+@ConfigurationProperties(prefix = "pedidos.busqueda")
+public record BusquedaProperties(
+        @DefaultValue("postgres") String motor,
+        @DefaultValue("0.3") double similitudMinima,
+        @DefaultValue("50") int paginaMaxima,
+        @DefaultValue("1000") int maximoCandidatos) {
+}
@@ -0,0 +1,19 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la caché de consultas de pedidos por id.
+ * - tamanioMaximo: número máximo de pedidos en caché
+ * - ttlActivo: tiempo de vida de pedidos que todavía pueden cambiar de estado
+ * - ttlFinal: tiempo de vida de pedidos en estado final, que ya no se modifican
+ */
+@ConfigurationProperties(prefix = "pedidos.cache")
+public record CacheProperties(
+        @DefaultValue("10000") long tamanioMaximo,
+        @DefaultValue("30s") Duration ttlActivo,
+        @DefaultValue("1h") Duration ttlFinal) {
+}
@@ -0,0 +1,28 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.cambios.FeedCambiosPedidos;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * Programación de la purga de marcas de borrado del feed de cambios (ver FeedCambiosPedidos).
+ */
+@Configuration
+public class CambiosConfig implements SchedulingConfigurer {
+
+    private static final Duration INTERVALO_PURGA = Duration.ofHours(1);
+
+    private final FeedCambiosPedidos feedCambiosPedidos;
+
+    public CambiosConfig(FeedCambiosPedidos feedCambiosPedidos) {
+        this.feedCambiosPedidos = feedCambiosPedidos;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar tareas) {
+        tareas.addFixedDelayTask(feedCambiosPedidos::purgarEliminados, INTERVALO_PURGA);
+    }
+}
@@ -0,0 +1,21 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del feed de cambios de pedidos (GET /api/pedidos/cambios).
+ * - margen: los cambios más recientes que este margen aún no se entregan. La fecha de
+ *   modificación se asigna antes del commit, así que una transacción en curso puede
+ *   confirmar un cambio con fecha anterior a otro ya visible; el margen evita que el
+ *   cursor del cliente lo deje atrás. Debe superar la duración de las transacciones
+ *   de escritura y el desfase de reloj entre nodos
+ * - retencionEliminados: tiempo que se conservan las marcas de borrado; un token más
+ *   antiguo ya no permite una sincronización incremental (410 Gone)
+ */
+@ConfigurationProperties(prefix = "pedidos.cambios")
+public record CambiosProperties(@DefaultValue("5s") Duration margen,
+                                @DefaultValue("30d") Duration retencionEliminados) {
+}
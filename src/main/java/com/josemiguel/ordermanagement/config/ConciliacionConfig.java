@@ -0,0 +1,43 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.conciliacion.ConciliadorMontos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Programación de la conciliación de montos (ver ConciliadorMontos).
+ * Con pedidos.conciliacion.programada=true se ejecuta cada pedidos.conciliacion.intervalo,
+ * corrigiendo los descuadres si pedidos.conciliacion.reparar=true.
+ */
+@Configuration
+@EnableScheduling
+public class ConciliacionConfig implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionConfig.class);
+
+    private final ConciliacionProperties propiedades;
+    private final ConciliadorMontos conciliadorMontos;
+
+    public ConciliacionConfig(ConciliacionProperties propiedades, ConciliadorMontos conciliadorMontos) {
+        this.propiedades = propiedades;
+        this.conciliadorMontos = conciliadorMontos;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar tareas) {
+        if (!propiedades.programada()) {
+            return;
+        }
+        tareas.addFixedDelayTask(() -> {
+            try {
+                conciliadorMontos.conciliar(propiedades.reparar());
+            } catch (RuntimeException e) {
+                log.warn("No se ha podido completar la conciliación de montos: {}", e.getMessage());
+            }
+        }, propiedades.intervalo());
+    }
+}
@@ -0,0 +1,22 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la conciliación de montos de pedidos con sus líneas (ver ConciliadorMontos).
+ * - hilos: tramos que se revisan a la vez; cada uno ocupa una conexión mientras consulta
+ * - tamanioBloque: ids por tramo; cada tramo se revisa con una consulta agregada
+ * - muestra: descuadres que se detallan en el informe (se cuentan todos)
+ * - programada: si es true, se ejecuta cada intervalo, reparando si reparar es true
+ */
+@ConfigurationProperties(prefix = "pedidos.conciliacion")
+public record ConciliacionProperties(@DefaultValue("2") int hilos,
+                                     @DefaultValue("1000") int tamanioBloque,
+                                     @DefaultValue("100") int muestra,
+                                     @DefaultValue("false") boolean programada,
+                                     @DefaultValue("24h") Duration intervalo,
+                                     @DefaultValue("false") boolean reparar) {
+}
@@ -34,6 +34,16 @@ public class CorsConfig {
         // Cabeceras permitidas
         config.setAllowedHeaders(List.of("*"));
 
+        // Cabeceras de respuesta legibles desde el frontend
+        config.setExposedHeaders(List.of(
+                "ETag",
+                "Retry-After",
+                "X-Lineas-Modificadas",
+                "X-Lineas-Insertadas",
+                "X-Lineas-Actualizadas",
+                "X-Lineas-Eliminadas"
+        ));
+
         // Permitir credenciales
         config.setAllowCredentials(true);
 
@@ -0,0 +1,24 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.exportacion.TiempoExportacion;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Timeout propio de las exportaciones en streaming (ver TiempoExportacion).
+ */
+@Configuration
+public class ExportacionConfig implements WebMvcConfigurer {
+
+    private final ExportacionProperties propiedades;
+
+    public ExportacionConfig(ExportacionProperties propiedades) {
+        this.propiedades = propiedades;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurador) {
+        configurador.registerCallableInterceptors(new TiempoExportacion(propiedades.timeout()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la exportación de pedidos en streaming (GET /api/pedidos/exportar).
+ * - timeout: tiempo máximo de una exportación; sustituye al timeout general de las peticiones
+ *   asíncronas (spring.mvc.async.request-timeout), pensado para respuestas cortas
+ */
+@ConfigurationProperties(prefix = "pedidos.exportacion")
+public record ExportacionProperties(@DefaultValue("1h") Duration timeout) {
+}
@@ -0,0 +1,51 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.idempotencia.AlmacenIdempotencia;
+import com.josemiguel.ordermanagement.infraestructura.idempotencia.FiltroIdempotencia;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.time.Duration;
+
+/**
+ * Idempotencia de las escrituras de pedidos (ver FiltroIdempotencia).
+ * - Registra el filtro sobre /api/pedidos; el filtro solo actúa en los endpoints de creación,
+ *   actualización y cambio de estado con cabecera Idempotency-Key
+ * - Purga cada hora las claves caducadas del almacén
+ * Con pedidos.idempotencia.habilitada=false no se registra el filtro.
+ */
+@Configuration
+public class IdempotenciaConfig implements SchedulingConfigurer {
+
+    private static final Duration INTERVALO_PURGA = Duration.ofHours(1);
+
+    private final AlmacenIdempotencia almacen;
+
+    public IdempotenciaConfig(AlmacenIdempotencia almacen) {
+        this.almacen = almacen;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pedidos.idempotencia.habilitada", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<FiltroIdempotencia> filtroIdempotencia(
+            IdempotenciaProperties propiedades,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolutorExcepciones,
+            MeterRegistry registro) {
+        FilterRegistrationBean<FiltroIdempotencia> filtro = new FilterRegistrationBean<>(
+                new FiltroIdempotencia(almacen, propiedades, resolutorExcepciones, registro));
+        filtro.addUrlPatterns("/api/pedidos", "/api/pedidos/*");
+        return filtro;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar tareas) {
+        tareas.addFixedDelayTask(almacen::purgarCaducadas, INTERVALO_PURGA);
+    }
+}
@@ -0,0 +1,27 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las claves de idempotencia (cabecera Idempotency-Key).
+ * - habilitada: si es false, la cabecera se ignora
+ * - almacen: memoria (un solo nodo) o base-datos (tabla claves_idempotencia, compartida entre nodos)
+ * - ttl: tiempo que se conserva la respuesta de una clave; los reintentos posteriores se ejecutan de nuevo
+ * - espera: tiempo máximo que una petición repetida espera a que termine la original antes de responder 409
+ * - reservaMaxima: una reserva en curso más antigua se considera abandonada (p. ej. caída del nodo)
+ *   y otra petición con la misma clave puede ejecutarse
+ * - tamanioMaximo: claves conservadas por el almacén en memoria; al superarlo se descartan las más antiguas
+ * - franjas: particiones del almacén en memoria, cada una con su propio cerrojo
+ */
+@ConfigurationProperties(prefix = "pedidos.idempotencia")
+public record IdempotenciaProperties(@DefaultValue("true") boolean habilitada,
+                                     @DefaultValue("memoria") String almacen,
+                                     @DefaultValue("24h") Duration ttl,
+                                     @DefaultValue("10s") Duration espera,
+                                     @DefaultValue("1m") Duration reservaMaxima,
+                                     @DefaultValue("100000") int tamanioMaximo,
+                                     @DefaultValue("64") int franjas) {
+}
@@ -0,0 +1,16 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de las operaciones por lotes de pedidos.
+ * - tamanioBloque: pedidos que se insertan o cambian de estado en cada transacción
+ * - maximoTransiciones: pedidos que admite un cambio de estado masivo
+ * - maximoIds: ids que admite una consulta de pedidos por ids (POST /api/pedidos/buscar-ids)
+ */
+@ConfigurationProperties(prefix = "pedidos.lote")
+public record LoteProperties(@DefaultValue("500") int tamanioBloque,
+                             @DefaultValue("50000") int maximoTransiciones,
+                             @DefaultValue("500") int maximoIds) {
+}
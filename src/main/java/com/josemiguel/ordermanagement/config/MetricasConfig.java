@@ -0,0 +1,60 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.metricas.ContadorHibernate;
+import com.josemiguel.ordermanagement.infraestructura.metricas.MetricasPeticionInterceptor;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuración de métricas (Micrometer, exportadas en /actuator/prometheus).
+ * - Tiempos por endpoint (http.server.requests) y pool Hikari: los registra Spring Boot Actuator
+ * - Tiempos por método de servicio: @Timed, mediante TimedAspect
+ * - Sentencias SQL y entidades cargadas por petición: ContadorHibernate + interceptor
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<MeterRegistry> registro;
+
+    public MetricasConfig(ObjectProvider<MeterRegistry> registro) {
+        this.registro = registro;
+    }
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registro) {
+        return new TimedAspect(registro);
+    }
+
+    @Bean
+    public ContadorHibernate contadorHibernate() {
+        return new ContadorHibernate();
+    }
+
+    /**
+     * Registra ContadorHibernate como StatementInspector y como listener de carga de entidades.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer metricasHibernate(ContadorHibernate contadorHibernate) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, contadorHibernate);
+            propiedades.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(contadorHibernate));
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptores) {
+        interceptores.addInterceptor(new MetricasPeticionInterceptor(contadorHibernate(), registro.getObject()))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,49 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.outbox.RelevoOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * Programación del relevo del outbox (ver RelevoOutbox).
+ * - Publicación de pendientes cada pedidos.outbox.intervalo, tras terminar la pasada anterior
+ * - Purga de eventos publicados cada hora
+ * Con pedidos.outbox.relevo-habilitado=false no se programa ninguna tarea.
+ */
+@Configuration
+@EnableScheduling
+public class OutboxConfig implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxConfig.class);
+
+    private static final Duration INTERVALO_PURGA = Duration.ofHours(1);
+
+    private final OutboxProperties propiedades;
+    private final RelevoOutbox relevoOutbox;
+
+    public OutboxConfig(OutboxProperties propiedades, RelevoOutbox relevoOutbox) {
+        this.propiedades = propiedades;
+        this.relevoOutbox = relevoOutbox;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar tareas) {
+        if (!propiedades.relevoHabilitado()) {
+            return;
+        }
+        tareas.addFixedDelayTask(() -> {
+            try {
+                relevoOutbox.publicarPendientes();
+            } catch (RuntimeException e) {
+                log.warn("No se han podido publicar los eventos pendientes, se reintentará: {}", e.getMessage());
+            }
+        }, propiedades.intervalo());
+        tareas.addFixedDelayTask(relevoOutbox::purgarPublicados, INTERVALO_PURGA);
+    }
+}
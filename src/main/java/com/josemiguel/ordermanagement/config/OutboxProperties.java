@@ -0,0 +1,25 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración del outbox de eventos de pedidos.
+ * - destino: memoria (suscriptores dentro del proceso) | fichero (NDJSON)
+ * - fichero: ruta del fichero NDJSON cuando destino=fichero
+ * - relevoHabilitado: si es false, los eventos se registran pero solo se publican
+ *   llamando a RelevoOutbox.publicarPendientes (tests)
+ * - intervalo: pausa entre dos pasadas del relevo
+ * - tamanioLote: eventos que se publican y marcan en cada transacción
+ * - retencion: tiempo que se conservan los eventos ya publicados
+ */
+@ConfigurationProperties(prefix = "pedidos.outbox")
+public record OutboxProperties(@DefaultValue("memoria") String destino,
+                               @DefaultValue("outbox/eventos-pedidos.ndjson") String fichero,
+                               @DefaultValue("true") boolean relevoHabilitado,
+                               @DefaultValue("1s") Duration intervalo,
+                               @DefaultValue("500") int tamanioLote,
+                               @DefaultValue("7d") Duration retencion) {
+}
@@ -0,0 +1,28 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuración de la paginación de listados de pedidos.
+ * - tamanioDefecto: tamaño de página si el cliente no indica ninguno
+ * - tamanioMaximo: límite duro, cualquier tamaño superior se recorta
+ */
+@ConfigurationProperties(prefix = "pedidos.paginacion")
+public record PaginacionProperties(
+        @DefaultValue("20") int tamanioDefecto,
+        @DefaultValue("200") int tamanioMaximo) {
+
+    /**
+     * Normaliza el tamaño de página solicitado al rango [1, tamanioMaximo].
+     *
+     * @param solicitado Tamaño pedido por el cliente (puede ser null)
+     * @return Tamaño de página efectivo
+     */
+    public int tamanioEfectivo(Integer solicitado) {
+        if (solicitado == null || solicitado < 1) {
+            return Math.min(tamanioDefecto, tamanioMaximo);
+        }
+        return Math.min(solicitado, tamanioMaximo);
+    }
+}
@@ -0,0 +1,26 @@
+package com.josemiguel.ordermanagement.config;
+
+import com.josemiguel.ordermanagement.infraestructura.sse.DifusorPedidos;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Programación de los latidos de las conexiones SSE de pedidos (ver DifusorPedidos).
+ */
+@Configuration
+public class SseConfig implements SchedulingConfigurer {
+
+    private final SseProperties propiedades;
+    private final DifusorPedidos difusorPedidos;
+
+    public SseConfig(SseProperties propiedades, DifusorPedidos difusorPedidos) {
+        this.propiedades = propiedades;
+        this.difusorPedidos = difusorPedidos;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar tareas) {
+        tareas.addFixedRateTask(difusorPedidos::latir, propiedades.latido());
+    }
+}
@@ -0,0 +1,22 @@
+package com.josemiguel.ordermanagement.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuración de las suscripciones en directo a cambios de pedidos (Server-Sent Events).
+ * - duracion: tiempo máximo de una conexión; el navegador (EventSource) se reconecta solo
+ * - latido: intervalo de los comentarios que mantienen viva la conexión a través de proxies
+ * - buffer: eventos pendientes por suscriptor; si se llena se descartan los más antiguos
+ * - hilosEnvio: hilos compartidos que escriben los eventos en las conexiones
+ * - maximoSuscriptores: conexiones abiertas a la vez en este nodo; por encima se responde 503
+ */
+@ConfigurationProperties(prefix = "pedidos.sse")
+public record SseProperties(@DefaultValue("30m") Duration duracion,
+                            @DefaultValue("25s") Duration latido,
+                            @DefaultValue("64") int buffer,
+                            @DefaultValue("4") int hilosEnvio,
+                            @DefaultValue("10000") int maximoSuscriptores) {
+}
@@ -0,0 +1,20 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de un pedido en el feed de cambios.
+ * - MODIFICADO: el pedido se creó o modificó; el cliente lo vuelve a leer
+ * - ELIMINADO: el pedido ya no existe; el cliente lo borra de su copia
+ *
+ * @param id    ID del pedido
+ * @param tipo  Tipo de cambio
+ * @param fecha Fecha del cambio
+ */
+public record CambioPedidoDTO(Long id, Tipo tipo, LocalDateTime fecha) {
+
+    public enum Tipo {
+        MODIFICADO,
+        ELIMINADO
+    }
+}
@@ -0,0 +1,13 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Pedido cuyo monto total no coincide con la suma de sus líneas.
+ *
+ * @param id          ID del pedido
+ * @param montoTotal  Monto total guardado
+ * @param montoLineas Suma de cantidad * precioUnitario de sus líneas
+ */
+public record DescuadreMontoDTO(Long id, BigDecimal montoTotal, BigDecimal montoLineas) {
+}
@@ -0,0 +1,14 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Número de pedidos y suma de montoTotal de los pedidos creados un día.
+ *
+ * @param dia        Día de creación
+ * @param pedidos    Número de pedidos
+ * @param montoTotal Suma de montoTotal
+ */
+public record EstadisticaDiaDTO(LocalDate dia, long pedidos, BigDecimal montoTotal) {
+}
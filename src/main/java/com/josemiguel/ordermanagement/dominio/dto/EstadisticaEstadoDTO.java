@@ -0,0 +1,15 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+import java.math.BigDecimal;
+
+/**
+ * Número de pedidos y suma de montoTotal de un estado.
+ *
+ * @param estado     Estado de los pedidos
+ * @param pedidos    Número de pedidos
+ * @param montoTotal Suma de montoTotal
+ */
+public record EstadisticaEstadoDTO(EstadoPedido estado, long pedidos, BigDecimal montoTotal) {
+}
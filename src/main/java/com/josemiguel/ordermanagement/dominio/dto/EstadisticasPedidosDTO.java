@@ -0,0 +1,19 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Estadísticas de los pedidos creados en un rango de días.
+ *
+ * @param desde      Primer día del rango
+ * @param hasta      Último día del rango
+ * @param pedidos    Número total de pedidos
+ * @param montoTotal Suma total de montoTotal
+ * @param porEstado  Desglose por estado
+ * @param porDia     Desglose por día de creación
+ */
+public record EstadisticasPedidosDTO(LocalDate desde, LocalDate hasta, long pedidos, BigDecimal montoTotal,
+                                     List<EstadisticaEstadoDTO> porEstado, List<EstadisticaDiaDTO> porDia) {
+}
@@ -0,0 +1,31 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.EventoPedido;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de modificación de un pedido tal como se entrega a los consumidores.
+ * Los eventos se entregan por orden de id, que no es el orden de los cambios: los ids se reservan
+ * por bloques en cada instancia y varias instancias publican a la vez. Los consumidores deben
+ * ordenar los eventos de un pedido por (pedidoId, versionPedido).
+ *
+ * @param id             ID del evento (único: los consumidores pueden descartar duplicados)
+ * @param pedidoId       ID del pedido modificado
+ * @param tipo           Tipo de modificación
+ * @param estadoAnterior Estado antes del cambio (null al crear)
+ * @param estadoNuevo    Estado después del cambio (null al eliminar)
+ * @param versionPedido  Versión del pedido tras el cambio (la última que tuvo al eliminar)
+ * @param fecha          Momento del cambio
+ */
+public record EventoPedidoDTO(Long id, Long pedidoId, PedidoModificadoEvento.Tipo tipo,
+                              EstadoPedido estadoAnterior, EstadoPedido estadoNuevo, Long versionPedido,
+                              LocalDateTime fecha) {
+
+    public static EventoPedidoDTO de(EventoPedido evento) {
+        return new EventoPedidoDTO(evento.getId(), evento.getPedidoId(), evento.getTipo(),
+                evento.getEstadoAnterior(), evento.getEstadoNuevo(), evento.getVersionPedido(), evento.getFecha());
+    }
+}
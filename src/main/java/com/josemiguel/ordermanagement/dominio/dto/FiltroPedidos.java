@@ -0,0 +1,22 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtro opcional de pedidos, equivalente a los finders de PedidoRepositorio.
+ * Cualquier campo null se ignora.
+ *
+ * @param estado        Estado del pedido
+ * @param desde         Fecha de creación mínima (inclusive)
+ * @param hasta         Fecha de creación máxima (inclusive)
+ * @param nombreCliente Nombre o parte del nombre del cliente (sin distinguir mayúsculas)
+ */
+public record FiltroPedidos(
+        EstadoPedido estado,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+        String nombreCliente) {
+}
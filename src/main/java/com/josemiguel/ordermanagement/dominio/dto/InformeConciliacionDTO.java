@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una conciliación de montos.
+ *
+ * @param revisados    Pedidos con líneas revisados
+ * @param descuadrados Pedidos cuyo monto no coincidía con sus líneas
+ * @param corregidos   Pedidos corregidos (0 si no se pidió reparar)
+ * @param reparar      Si se pidió corregir los descuadres
+ * @param milisegundos Duración de la conciliación
+ * @param muestra      Primeros descuadres, por id ascendente
+ */
+public record InformeConciliacionDTO(long revisados, long descuadrados, long corregidos, boolean reparar,
+                                     long milisegundos, List<DescuadreMontoDTO> muestra) {
+}
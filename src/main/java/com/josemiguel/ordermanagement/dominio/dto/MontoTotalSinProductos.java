@@ -0,0 +1,48 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.math.BigDecimal;
+
+/**
+ * El monto total de un PedidoDTO es obligatorio y mayor que cero solo si el pedido no tiene productos.
+ * Con productos lo calcula el servidor (MontoPedido) y el valor recibido no se valida.
+ * El error se asocia al campo montoTotal.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = MontoTotalSinProductos.Validador.class)
+public @interface MontoTotalSinProductos {
+
+    String message() default "El monto total es obligatorio y debe ser mayor a cero en pedidos sin productos";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class Validador implements ConstraintValidator<MontoTotalSinProductos, PedidoDTO> {
+
+        @Override
+        public boolean isValid(PedidoDTO pedido, ConstraintValidatorContext contexto) {
+            if (pedido == null || (pedido.getProductos() != null && !pedido.getProductos().isEmpty())) {
+                return true;
+            }
+            BigDecimal monto = pedido.getMontoTotal();
+            if (monto != null && monto.signum() > 0) {
+                return true;
+            }
+            contexto.disableDefaultConstraintViolation();
+            contexto.buildConstraintViolationWithTemplate(contexto.getDefaultConstraintMessageTemplate())
+                    .addPropertyNode("montoTotal")
+                    .addConstraintViolation();
+            return false;
+        }
+    }
+}
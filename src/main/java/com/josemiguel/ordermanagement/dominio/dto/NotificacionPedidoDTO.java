@@ -0,0 +1,25 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cambio de un pedido notificado en directo a los clientes suscritos (Server-Sent Events).
+ *
+ * @param pedidoId       ID del pedido modificado
+ * @param tipo           Tipo de modificación
+ * @param estadoAnterior Estado antes del cambio (null al crear)
+ * @param estadoNuevo    Estado después del cambio (null al eliminar)
+ * @param fecha          Momento en que se confirmó el cambio
+ */
+public record NotificacionPedidoDTO(Long pedidoId, PedidoModificadoEvento.Tipo tipo,
+                                    EstadoPedido estadoAnterior, EstadoPedido estadoNuevo,
+                                    LocalDateTime fecha) {
+
+    public static NotificacionPedidoDTO de(PedidoModificadoEvento evento) {
+        return new NotificacionPedidoDTO(evento.pedidoId(), evento.tipo(), evento.estadoAnterior(),
+                evento.estadoNuevo(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,14 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados de búsqueda, ordenados de mayor a menor puntuación.
+ *
+ * @param resultados Resultados de la página
+ * @param pagina     Número de página (empezando en 0)
+ * @param tamanio    Tamaño de página
+ * @param hayMas     true si existen más resultados
+ */
+public record PaginaBusquedaDTO(List<ResultadoBusquedaDTO> resultados, int pagina, int tamanio, boolean hayMas) {
+}
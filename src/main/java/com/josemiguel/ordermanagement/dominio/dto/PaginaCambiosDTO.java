@@ -0,0 +1,15 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Página del feed de cambios de pedidos.
+ * A diferencia de la paginación del listado, el token siguiente se devuelve siempre:
+ * el cliente lo guarda y lo envía como desde en su próxima sincronización.
+ *
+ * @param cambios   Cambios en orden de fecha e id
+ * @param siguiente Token desde el que continuar
+ * @param hayMas    true si ya hay más cambios disponibles tras esta página
+ */
+public record PaginaCambiosDTO(List<CambioPedidoDTO> cambios, String siguiente, boolean hayMas) {
+}
@@ -12,6 +12,7 @@ import java.util.List;
  * DTO para la transferencia de datos de un Pedido.
  * Contiene información básica del cliente, monto, estado y lista de productos.
  */
+@MontoTotalSinProductos
 public class PedidoDTO {
 
     private Long id;
@@ -24,8 +25,11 @@ public class PedidoDTO {
     @Size(max = 100, message = "El contacto del cliente no puede exceder 100 caracteres")
     private String contactoCliente;
 
-    @NotNull(message = "El monto total es obligatorio")
-    @DecimalMin(value = "0.0", inclusive = false, message = "El monto total debe ser mayor a cero")
+    /**
+     * Monto total del pedido.
+     * Con productos lo calcula el servidor a partir de las líneas y el valor recibido se ignora
+     * (puede omitirse). Sin productos es obligatorio y mayor que cero (ver MontoTotalSinProductos).
+     */
     private BigDecimal montoTotal;
 
     /**
@@ -37,6 +41,12 @@ public class PedidoDTO {
     // AÑADE ESTE CAMPO
     private LocalDateTime fechaCreacion;
 
+    /**
+     * Versión del pedido para bloqueo optimista.
+     * Es la misma que se envía en la cabecera ETag.
+     */
+    private Long version;
+
     /**
      * Lista de productos asociados al pedido.
      * @Valid asegura que cada ProductoDTO sea validado
@@ -63,6 +73,9 @@ public class PedidoDTO {
     public LocalDateTime getFechaCreacion() { return fechaCreacion; }
     public void setFechaCreacion(LocalDateTime fechaCreacion) { this.fechaCreacion = fechaCreacion; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public List<ProductoDTO> getProductos() { return productos; }
     public void setProductos(List<ProductoDTO> productos) { this.productos = productos; }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Pedidos obtenidos por id.
+ *
+ * @param pedidos       Pedidos encontrados, en el orden de los ids solicitados (sin repetidos)
+ * @param noEncontrados IDs solicitados que no existen, en el mismo orden
+ */
+public record PedidosPorIdsDTO(List<PedidoDTO> pedidos, List<Long> noEncontrados) {
+}
@@ -0,0 +1,25 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de una carga por lotes de pedidos.
+ * Contiene el resumen y el resultado de cada elemento en el orden de entrada.
+ *
+ * @param total      Número de pedidos recibidos
+ * @param creados    Número de pedidos creados
+ * @param fallidos   Número de pedidos no creados (inválidos o con error)
+ * @param resultados Resultado de cada pedido
+ */
+public record RespuestaLoteDTO(int total, int creados, int fallidos, List<ResultadoLoteDTO> resultados) {
+
+    public static RespuestaLoteDTO de(List<ResultadoLoteDTO> resultados) {
+        int creados = 0;
+        for (ResultadoLoteDTO resultado : resultados) {
+            if (resultado.estado() == ResultadoLoteDTO.Estado.CREADO) {
+                creados++;
+            }
+        }
+        return new RespuestaLoteDTO(resultados.size(), creados, resultados.size() - creados, resultados);
+    }
+}
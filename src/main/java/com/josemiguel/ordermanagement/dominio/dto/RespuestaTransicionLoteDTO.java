@@ -0,0 +1,27 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de un cambio de estado masivo.
+ * Contiene el resumen y el resultado de cada pedido en el orden de entrada.
+ *
+ * @param total      Número de pedidos procesados
+ * @param aplicados  Número de pedidos que cambiaron de estado
+ * @param rechazados Número de pedidos que no cambiaron (final, transición ilegal o inexistente)
+ * @param resultados Resultado de cada pedido
+ */
+public record RespuestaTransicionLoteDTO(int total, int aplicados, int rechazados,
+                                         List<ResultadoTransicionDTO> resultados) {
+
+    public static RespuestaTransicionLoteDTO de(List<ResultadoTransicionDTO> resultados) {
+        int aplicados = 0;
+        for (ResultadoTransicionDTO resultado : resultados) {
+            if (resultado.resultado() == ResultadoTransicionDTO.Resultado.APLICADO) {
+                aplicados++;
+            }
+        }
+        return new RespuestaTransicionLoteDTO(resultados.size(), aplicados, resultados.size() - aplicados,
+                resultados);
+    }
+}
@@ -0,0 +1,25 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pedido encontrado en una búsqueda por nombre de cliente.
+ *
+ * @param id            ID del pedido
+ * @param nombreCliente Nombre del cliente
+ * @param estado        Estado del pedido
+ * @param montoTotal    Monto total del pedido
+ * @param fechaCreacion Fecha de creación
+ * @param puntuacion    Similitud con el texto buscado, entre 0 y 1
+ */
+public record ResultadoBusquedaDTO(
+        Long id,
+        String nombreCliente,
+        EstadoPedido estado,
+        BigDecimal montoTotal,
+        LocalDateTime fechaCreacion,
+        double puntuacion) {
+}
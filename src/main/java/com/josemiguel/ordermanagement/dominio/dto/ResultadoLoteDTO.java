@@ -0,0 +1,35 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de un elemento dentro de una carga por lotes de pedidos.
+ *
+ * @param indice  Posición del pedido en la entrada (empezando en 0)
+ * @param estado  Resultado del elemento
+ * @param id      ID asignado al pedido si se creó, null en caso contrario
+ * @param errores Mensajes de error si no se creó
+ */
+public record ResultadoLoteDTO(int indice, Estado estado, Long id, List<String> errores) {
+
+    /**
+     * Resultado posible de cada elemento del lote.
+     */
+    public enum Estado {
+        CREADO,   // Pedido insertado
+        INVALIDO, // No supera la validación del DTO
+        ERROR     // Falló al persistir
+    }
+
+    public static ResultadoLoteDTO creado(int indice, Long id) {
+        return new ResultadoLoteDTO(indice, Estado.CREADO, id, List.of());
+    }
+
+    public static ResultadoLoteDTO invalido(int indice, List<String> errores) {
+        return new ResultadoLoteDTO(indice, Estado.INVALIDO, null, errores);
+    }
+
+    public static ResultadoLoteDTO error(int indice, String error) {
+        return new ResultadoLoteDTO(indice, Estado.ERROR, null, List.of(error));
+    }
+}
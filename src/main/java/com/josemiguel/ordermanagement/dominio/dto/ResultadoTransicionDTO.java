@@ -0,0 +1,39 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+/**
+ * Resultado del cambio de estado de un pedido dentro de un cambio masivo.
+ *
+ * @param id             ID del pedido
+ * @param resultado      Resultado del pedido
+ * @param estadoAnterior Estado del pedido antes del cambio (null si no existe)
+ */
+public record ResultadoTransicionDTO(Long id, Resultado resultado, EstadoPedido estadoAnterior) {
+
+    /**
+     * Resultado posible de cada pedido.
+     */
+    public enum Resultado {
+        APLICADO,          // Estado cambiado
+        YA_FINAL,          // El pedido está en estado final y no admite cambios
+        TRANSICION_ILEGAL, // La transición no está permitida desde el estado actual
+        NO_ENCONTRADO      // No existe ningún pedido con ese id
+    }
+
+    public static ResultadoTransicionDTO aplicado(Long id, EstadoPedido estadoAnterior) {
+        return new ResultadoTransicionDTO(id, Resultado.APLICADO, estadoAnterior);
+    }
+
+    public static ResultadoTransicionDTO yaFinal(Long id, EstadoPedido estadoAnterior) {
+        return new ResultadoTransicionDTO(id, Resultado.YA_FINAL, estadoAnterior);
+    }
+
+    public static ResultadoTransicionDTO ilegal(Long id, EstadoPedido estadoAnterior) {
+        return new ResultadoTransicionDTO(id, Resultado.TRANSICION_ILEGAL, estadoAnterior);
+    }
+
+    public static ResultadoTransicionDTO noEncontrado(Long id) {
+        return new ResultadoTransicionDTO(id, Resultado.NO_ENCONTRADO, null);
+    }
+}
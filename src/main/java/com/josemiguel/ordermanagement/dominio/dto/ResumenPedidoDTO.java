@@ -0,0 +1,49 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resumen de un pedido para los listados (vista=resumen).
+ * Se lee con una proyección que solo selecciona estas columnas, sin cargar la entidad
+ * ni sus productos. Los campos no pedidos con fields= se omiten del JSON.
+ *
+ * @param id            ID del pedido
+ * @param nombreCliente Nombre del cliente
+ * @param estado        Estado del pedido
+ * @param montoTotal    Monto total del pedido
+ * @param fechaCreacion Fecha de creación
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResumenPedidoDTO(
+        Long id,
+        String nombreCliente,
+        EstadoPedido estado,
+        BigDecimal montoTotal,
+        LocalDateTime fechaCreacion) {
+
+    /**
+     * Campos que pueden pedirse con fields=.
+     */
+    public static final List<String> CAMPOS = List.of("id", "nombreCliente", "estado", "montoTotal", "fechaCreacion");
+
+    /**
+     * Copia del resumen con solo los campos indicados; el id se conserva siempre.
+     *
+     * @param campos Campos a conservar
+     * @return Resumen con el resto de campos a null
+     */
+    public ResumenPedidoDTO conCampos(Set<String> campos) {
+        return new ResumenPedidoDTO(
+                id,
+                campos.contains("nombreCliente") ? nombreCliente : null,
+                campos.contains("estado") ? estado : null,
+                campos.contains("montoTotal") ? montoTotal : null,
+                campos.contains("fechaCreacion") ? fechaCreacion : null);
+    }
+}
@@ -0,0 +1,14 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Solicitud de varios pedidos por id (POST /api/pedidos/buscar-ids).
+ *
+ * @param ids IDs de los pedidos, en el orden en que se quieren recibir
+ */
+public record SolicitudPedidosPorIdsDTO(
+        @NotNull(message = "Los ids son obligatorios") List<@NotNull Long> ids) {
+}
@@ -0,0 +1,42 @@
+package com.josemiguel.ordermanagement.dominio.dto;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Solicitud de cambio de estado masivo.
+ * Los pedidos se indican por ids o por filtro (estado y rango de fechas de creación), no ambos.
+ *
+ * @param ids         IDs de los pedidos (opcional si se indica filtro)
+ * @param estado      Estado actual de los pedidos a cambiar (filtro)
+ * @param desde       Fecha de creación mínima, inclusive (filtro)
+ * @param hasta       Fecha de creación máxima, inclusive (filtro)
+ * @param estadoNuevo Estado al que se pasan los pedidos
+ */
+public record SolicitudTransicionLoteDTO(
+        List<@NotNull Long> ids,
+        EstadoPedido estado,
+        LocalDateTime desde,
+        LocalDateTime hasta,
+        @NotNull(message = "El estado nuevo es obligatorio") EstadoPedido estadoNuevo) {
+
+    /**
+     * Indica si los pedidos se seleccionan por ids.
+     *
+     * @return true si se enviaron ids
+     */
+    public boolean porIds() {
+        return ids != null;
+    }
+
+    @AssertTrue(message = "Se deben indicar los ids o el filtro completo (estado, desde y hasta), no ambos")
+    public boolean isCriterioValido() {
+        boolean hayFiltro = estado != null || desde != null || hasta != null;
+        boolean filtroCompleto = estado != null && desde != null && hasta != null;
+        return porIds() ? !hayFiltro : filtroCompleto;
+    }
+}
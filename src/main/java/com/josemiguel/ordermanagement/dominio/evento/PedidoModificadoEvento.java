@@ -0,0 +1,35 @@
+package com.josemiguel.ordermanagement.dominio.evento;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Evento de dominio publicado por PedidoServicio cada vez que se modifica un pedido.
+ * Se publica dentro de la transacción; los listeners que deban actuar solo si
+ * el cambio se confirma usan @TransactionalEventListener(AFTER_COMMIT).
+ *
+ * @param pedidoId       ID del pedido modificado
+ * @param tipo           Tipo de modificación
+ * @param estadoAnterior Estado antes del cambio (null al crear)
+ * @param estadoNuevo    Estado después del cambio (null al eliminar)
+ * @param dia            Día de creación del pedido
+ * @param montoAnterior  Monto total antes del cambio (null al crear)
+ * @param montoNuevo     Monto total después del cambio (null al eliminar)
+ * @param version        Versión del pedido tras el cambio (la última que tuvo al eliminar);
+ *                       ordena los eventos de un mismo pedido
+ */
+public record PedidoModificadoEvento(Long pedidoId, Tipo tipo, EstadoPedido estadoAnterior, EstadoPedido estadoNuevo,
+                                     LocalDate dia, BigDecimal montoAnterior, BigDecimal montoNuevo, Long version) {
+
+    /**
+     * Tipos de modificación de un pedido.
+     */
+    public enum Tipo {
+        CREADO,
+        ACTUALIZADO,
+        ESTADO_CAMBIADO,
+        ELIMINADO
+    }
+}
@@ -6,8 +6,9 @@ import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
 import com.josemiguel.ordermanagement.dominio.modelo.Producto;
 import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.stream.Collectors;
+import java.util.List;
 
 /**
  * Mapper entre DTOs y entidades.
@@ -24,22 +25,19 @@ public class PedidoMapper {
      * @return Pedido convertido
      */
     public static Pedido toEntity(PedidoDTO dto) {
-        return Pedido.builder()
-                // ¡IMPORTANTE! NO copiamos el id aquí para creación de nuevos pedidos
-                // Solo se copia en actualizaciones (ver actualizarPedido en el servicio)
-                .nombreCliente(dto.getNombreCliente())
-                .contactoCliente(dto.getContactoCliente())
-                .montoTotal(dto.getMontoTotal())
-                .estado(dto.getEstado() != null ? dto.getEstado() : EstadoPedido.CREATED)
-                .productos(dto.getProductos() != null ? dto.getProductos().stream()
-                        .map(p -> Producto.builder()
-                                .nombre(p.getNombre())
-                                .cantidad(p.getCantidad())
-                                .precioUnitario(p.getPrecioUnitario())
-                                .build())
-                        .collect(Collectors.toList())
-                        : Collections.emptyList())
-                .build();
+        return toEntity(dto, false);
+    }
+
+    /**
+     * Convierte un PedidoDTO a la entidad Pedido para una actualización
+     * - Igual que toEntity, pero conserva el id de cada producto para poder
+     *   sincronizar las líneas existentes en lugar de reemplazarlas
+     *
+     * @param dto PedidoDTO con los datos actualizados
+     * @return Pedido convertido
+     */
+    public static Pedido toEntityActualizacion(PedidoDTO dto) {
+        return toEntity(dto, true);
     }
 
     /**
@@ -60,18 +58,67 @@ public class PedidoMapper {
         dto.setMontoTotal(pedido.getMontoTotal());
         dto.setEstado(pedido.getEstado());
         dto.setFechaCreacion(pedido.getFechaCreacion());
+        dto.setVersion(pedido.getVersion());
 
-        dto.setProductos(pedido.getProductos() != null ? pedido.getProductos().stream()
-                .map(p -> {
-                    ProductoDTO pdto = new ProductoDTO();
-                    // También copia el ID de los productos si existe
-                    pdto.setId(p.getId());
-                    pdto.setNombre(p.getNombre());
-                    pdto.setCantidad(p.getCantidad());
-                    pdto.setPrecioUnitario(p.getPrecioUnitario());
-                    return pdto;
-                }).collect(Collectors.toList())
-                : Collections.emptyList());
+        List<Producto> productos = pedido.getProductos();
+        if (productos == null) {
+            dto.setProductos(Collections.emptyList());
+            return dto;
+        }
+        List<ProductoDTO> productosDTO = new ArrayList<>(productos.size());
+        for (Producto p : productos) {
+            ProductoDTO pdto = new ProductoDTO();
+            // También copia el ID de los productos si existe
+            pdto.setId(p.getId());
+            pdto.setNombre(p.getNombre());
+            pdto.setCantidad(p.getCantidad());
+            pdto.setPrecioUnitario(p.getPrecioUnitario());
+            productosDTO.add(pdto);
+        }
+        dto.setProductos(productosDTO);
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * Convierte una lista de Pedido a PedidoDTO, en una lista del tamaño exacto
+     *
+     * @param pedidos Pedidos a convertir
+     * @return Lista de PedidoDTO en el mismo orden
+     */
+    public static List<PedidoDTO> toDTOs(List<Pedido> pedidos) {
+        List<PedidoDTO> dtos = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            dtos.add(toDTO(pedido));
+        }
+        return dtos;
+    }
+
+    /**
+     * Conversión común de creación y actualización.
+     * - Un solo recorrido de las líneas, sin stream ni builder por producto
+     * - La lista de productos se reserva con su tamaño final
+     */
+    private static Pedido toEntity(PedidoDTO dto, boolean conservarIdsProductos) {
+        List<ProductoDTO> productosDTO = dto.getProductos();
+        List<Producto> productos;
+        if (productosDTO == null) {
+            productos = Collections.emptyList();
+        } else {
+            productos = new ArrayList<>(productosDTO.size());
+            for (ProductoDTO p : productosDTO) {
+                productos.add(new Producto(conservarIdsProductos ? p.getId() : null,
+                        p.getNombre(), p.getCantidad(), p.getPrecioUnitario()));
+            }
+        }
+
+        Pedido pedido = new Pedido();
+        // ¡IMPORTANTE! NO copiamos el id aquí para creación de nuevos pedidos
+        // Solo se copia en actualizaciones (ver actualizarPedido en el servicio)
+        pedido.setNombreCliente(dto.getNombreCliente());
+        pedido.setContactoCliente(dto.getContactoCliente());
+        pedido.setMontoTotal(dto.getMontoTotal());
+        pedido.setEstado(dto.getEstado() != null ? dto.getEstado() : EstadoPedido.CREATED);
+        pedido.setProductos(productos);
+        return pedido;
+    }
+}
@@ -0,0 +1,23 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import java.math.BigDecimal;
+
+/**
+ * Resumen de las líneas de producto modificadas al actualizar un pedido.
+ *
+ * @param insertadas  Líneas nuevas
+ * @param actualizadas Líneas existentes con algún dato distinto
+ * @param eliminadas  Líneas que ya no están en el pedido
+ * @param diferenciaMonto Variación del total por las líneas modificadas (ver MontoPedido)
+ */
+public record CambiosProductos(int insertadas, int actualizadas, int eliminadas, BigDecimal diferenciaMonto) {
+
+    /**
+     * Número total de líneas modificadas.
+     *
+     * @return Suma de inserciones, actualizaciones y eliminaciones
+     */
+    public int total() {
+        return insertadas + actualizadas + eliminadas;
+    }
+}
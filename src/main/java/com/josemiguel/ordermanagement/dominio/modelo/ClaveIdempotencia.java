@@ -0,0 +1,47 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de idempotencia (cabecera Idempotency-Key) y la respuesta de su petición.
+ * Mientras la petición está en curso, estadoHttp es null.
+ * Solo se usa con pedidos.idempotencia.almacen=base-datos.
+ */
+@Entity
+@Table(name = "claves_idempotencia")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaveIdempotencia {
+
+    @Id
+    @Column(length = 255)
+    private String clave;
+
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    private Integer estadoHttp;
+
+    @Column(length = 4000)
+    private String cabeceras;
+
+    @Column(length = 1_048_576)
+    private byte[] cuerpo;
+
+    @Column(nullable = false)
+    private LocalDateTime reservadaHasta;
+
+    @Column(nullable = false)
+    private LocalDateTime caduca;
+}
@@ -0,0 +1,59 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Agregado de pedidos por día de creación y estado: número de pedidos y suma de montoTotal.
+ * Se mantiene de forma incremental en la transacción de cada cambio (ver EstadisticasPedidos),
+ * de modo que las estadísticas se leen de unas pocas filas por día en lugar de recorrer los pedidos.
+ */
+@Entity
+@Table(name = "estadisticas_pedidos")
+@IdClass(EstadisticaPedidos.Clave.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaPedidos {
+
+    @Id
+    private LocalDate dia;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private EstadoPedido estado;
+
+    @Column(nullable = false)
+    private long pedidos;
+
+    @Column(nullable = false)
+    private BigDecimal montoTotal;
+
+    /**
+     * Clave compuesta (día, estado).
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Clave implements Serializable {
+        private LocalDate dia;
+        private EstadoPedido estado;
+    }
+}
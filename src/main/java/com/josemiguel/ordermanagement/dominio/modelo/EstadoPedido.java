@@ -10,5 +10,15 @@ public enum EstadoPedido {
     SHIPPED,   // Pedido enviado a transportista
     DELIVERED, // Pedido entregado al cliente (final exitoso)
     CANCELLED, // Pedido cancelado (final negativo)
-    RETURNED   // Pedido devuelto o no entregado (final negativo)
+    RETURNED;  // Pedido devuelto o no entregado (final negativo)
+
+    /**
+     * Determina si el estado es final (DELIVERED, CANCELLED, RETURNED).
+     * Un pedido en estado final ya no admite cambios.
+     *
+     * @return true si el estado es final
+     */
+    public boolean esFinal() {
+        return this == DELIVERED || this == CANCELLED || this == RETURNED;
+    }
 }
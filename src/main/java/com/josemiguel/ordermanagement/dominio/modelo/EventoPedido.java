@@ -0,0 +1,64 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.infraestructura.persistencia.SecuenciaPorLotes;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad EventoPedido (outbox transaccional).
+ * Cada modificación de un pedido escribe una fila en la misma transacción que el cambio,
+ * de modo que el evento existe si y solo si el cambio se ha confirmado.
+ * RelevoOutbox publica las filas pendientes y las marca con publicadoEn.
+ */
+@Entity
+@Table(name = "eventos_pedidos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventoPedido {
+
+    /**
+     * Id asignado desde la secuencia eventos_pedidos_seq en bloques, para permitir INSERT por lotes.
+     * Define el orden de publicación, pero no el de los cambios: cada instancia reserva su propio
+     * bloque de ids, y con varias instancias cada una publica lotes distintos a la vez.
+     * El orden de los eventos de un pedido lo da versionPedido.
+     */
+    @Id
+    @SecuenciaPorLotes("eventos_pedidos_seq")
+    private Long id;
+
+    /**
+     * Pedido modificado. Sin clave ajena: el evento de eliminación sobrevive al pedido.
+     */
+    @Column(nullable = false)
+    private Long pedidoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PedidoModificadoEvento.Tipo tipo;
+
+    @Enumerated(EnumType.STRING)
+    private EstadoPedido estadoAnterior;
+
+    @Enumerated(EnumType.STRING)
+    private EstadoPedido estadoNuevo;
+
+    /**
+     * Versión del pedido tras el cambio (la última que tuvo, si se ha eliminado).
+     * Nula en los eventos registrados antes de V10.
+     */
+    private Long versionPedido;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    /**
+     * Momento en que el relevo lo entregó al destino (null mientras está pendiente).
+     */
+    private LocalDateTime publicadoEn;
+}
@@ -0,0 +1,86 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Transiciones de estado permitidas para un pedido, definidas como tabla.
+ * - Los estados finales no tienen transiciones de salida
+ * - Un pedido enviado (SHIPPED) no se puede cancelar
+ * - El resto de cambios entre estados no finales están permitidos
+ * La tabla inversa (orígenes permitidos hacia cada destino) se precalcula para
+ * poder aplicar una transición con un UPDATE condicionado a "estado IN (...)".
+ */
+public final class MaquinaEstadosPedido {
+
+    private static final Map<EstadoPedido, Set<EstadoPedido>> DESTINOS = new EnumMap<>(EstadoPedido.class);
+    private static final Map<EstadoPedido, Set<EstadoPedido>> ORIGENES = new EnumMap<>(EstadoPedido.class);
+
+    static {
+        permitir(EstadoPedido.CREATED, EnumSet.allOf(EstadoPedido.class));
+        permitir(EstadoPedido.CONFIRMED, EnumSet.allOf(EstadoPedido.class));
+        permitir(EstadoPedido.SHIPPED, EnumSet.complementOf(EnumSet.of(EstadoPedido.CANCELLED)));
+        permitir(EstadoPedido.DELIVERED, EnumSet.noneOf(EstadoPedido.class));
+        permitir(EstadoPedido.CANCELLED, EnumSet.noneOf(EstadoPedido.class));
+        permitir(EstadoPedido.RETURNED, EnumSet.noneOf(EstadoPedido.class));
+
+        for (EstadoPedido destino : EstadoPedido.values()) {
+            EnumSet<EstadoPedido> origenes = EnumSet.noneOf(EstadoPedido.class);
+            DESTINOS.forEach((origen, destinos) -> {
+                if (destinos.contains(destino)) {
+                    origenes.add(origen);
+                }
+            });
+            ORIGENES.put(destino, Collections.unmodifiableSet(origenes));
+        }
+    }
+
+    private MaquinaEstadosPedido() {
+    }
+
+    private static void permitir(EstadoPedido origen, EnumSet<EstadoPedido> destinos) {
+        DESTINOS.put(origen, Collections.unmodifiableSet(destinos));
+    }
+
+    /**
+     * Indica si un pedido puede pasar de un estado a otro.
+     *
+     * @param origen  Estado actual
+     * @param destino Estado nuevo
+     * @return true si la transición está permitida
+     */
+    public static boolean permite(EstadoPedido origen, EstadoPedido destino) {
+        return DESTINOS.get(origen).contains(destino);
+    }
+
+    /**
+     * Estados desde los que se puede llegar a un destino.
+     *
+     * @param destino Estado nuevo
+     * @return Conjunto (no modificable) de estados de origen permitidos
+     */
+    public static Set<EstadoPedido> origenesHacia(EstadoPedido destino) {
+        return ORIGENES.get(destino);
+    }
+
+    /**
+     * Motivo por el que se rechaza una transición no permitida.
+     *
+     * @param origen  Estado actual
+     * @param destino Estado nuevo
+     * @return Mensaje descriptivo para el cliente
+     */
+    public static String motivoRechazo(EstadoPedido origen, EstadoPedido destino) {
+        if (origen.esFinal()) {
+            return "No se puede cambiar el estado de un pedido en estado final: " + origen;
+        }
+        if (origen == EstadoPedido.SHIPPED && destino == EstadoPedido.CANCELLED) {
+            return "No se puede cancelar un pedido ya enviado (SHIPPED). " +
+                    "Considera marcarlo como RETURNED si es un error de entrega.";
+        }
+        return "No se puede pasar un pedido de " + origen + " a " + destino;
+    }
+}
@@ -0,0 +1,13 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id de un pedido y fecha de su último cambio (modificación o eliminación),
+ * leídos sin cargar la entidad.
+ *
+ * @param id    ID del pedido
+ * @param fecha Fecha del cambio
+ */
+public record MarcaCambio(Long id, LocalDateTime fecha) {
+}
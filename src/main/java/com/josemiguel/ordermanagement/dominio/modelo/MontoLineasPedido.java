@@ -0,0 +1,28 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Monto guardado de un pedido junto a la suma de sus líneas, calculada en la base de datos.
+ * Incluye versión, estado y fecha de creación para poder corregir el monto y publicar el evento.
+ *
+ * @param id            ID del pedido
+ * @param version       Versión leída del pedido
+ * @param estado        Estado actual del pedido
+ * @param fechaCreacion Fecha de creación del pedido
+ * @param montoTotal    Monto total guardado
+ * @param montoLineas   Suma de cantidad * precioUnitario de sus líneas
+ */
+public record MontoLineasPedido(Long id, Long version, EstadoPedido estado, LocalDateTime fechaCreacion,
+                                BigDecimal montoTotal, BigDecimal montoLineas) {
+
+    /**
+     * Indica si el monto guardado no coincide con la suma de las líneas (comparado por valor).
+     *
+     * @return true si el pedido está descuadrado
+     */
+    public boolean descuadrado() {
+        return montoTotal == null || montoTotal.compareTo(montoLineas) != 0;
+    }
+}
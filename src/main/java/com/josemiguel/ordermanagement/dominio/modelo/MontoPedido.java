@@ -0,0 +1,87 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Cálculo del monto total de un pedido a partir de sus líneas de producto.
+ * - Precios y montos se guardan con ESCALA decimales (columnas NUMERIC(38, 2))
+ * - El precio unitario se redondea a ESCALA con REDONDEO antes de calcular, de modo que el
+ *   importe de cada línea (precio * cantidad) es exacto y coincide con lo que queda guardado
+ * - El total es la suma exacta de los importes, sin redondeos intermedios
+ * - Un pedido sin líneas conserva el monto indicado por el cliente (pedidos sin detalle)
+ */
+public final class MontoPedido {
+
+    /**
+     * Decimales de precios y montos.
+     */
+    public static final int ESCALA = 2;
+
+    /**
+     * Redondeo de precios con más decimales que ESCALA (redondeo bancario).
+     */
+    public static final RoundingMode REDONDEO = RoundingMode.HALF_EVEN;
+
+    private MontoPedido() {
+    }
+
+    /**
+     * Redondea un precio o monto a la escala de la base de datos.
+     *
+     * @param valor Valor a redondear (puede ser null)
+     * @return Valor con ESCALA decimales, o null
+     */
+    public static BigDecimal normalizar(BigDecimal valor) {
+        return valor == null ? null : valor.setScale(ESCALA, REDONDEO);
+    }
+
+    /**
+     * Importe de una línea: precio unitario normalizado por cantidad.
+     *
+     * @param producto Línea de producto con cantidad y precio
+     * @return Importe exacto con ESCALA decimales
+     */
+    public static BigDecimal importe(Producto producto) {
+        return normalizar(producto.getPrecioUnitario()).multiply(BigDecimal.valueOf(producto.getCantidad()));
+    }
+
+    /**
+     * Suma de los importes de las líneas.
+     *
+     * @param productos Líneas del pedido
+     * @return Total exacto con ESCALA decimales (0.00 sin líneas)
+     */
+    public static BigDecimal total(List<Producto> productos) {
+        BigDecimal total = BigDecimal.ZERO.setScale(ESCALA);
+        for (Producto producto : productos) {
+            total = total.add(importe(producto));
+        }
+        return total;
+    }
+
+    /**
+     * Normaliza los precios de las líneas y asigna al pedido la suma de sus importes.
+     * Sin líneas, normaliza el monto indicado por el cliente.
+     *
+     * @param pedido Pedido nuevo con sus líneas
+     */
+    public static void asignarTotal(Pedido pedido) {
+        List<Producto> productos = pedido.getProductos();
+        if (productos == null || productos.isEmpty()) {
+            pedido.setMontoTotal(normalizar(pedido.getMontoTotal()));
+            return;
+        }
+        for (Producto producto : productos) {
+            if (producto.getCantidad() == null || producto.getPrecioUnitario() == null) {
+                // Línea incompleta: la rechaza la validación de la entidad al guardar
+                return;
+            }
+        }
+        for (Producto producto : productos) {
+            producto.setPrecioUnitario(normalizar(producto.getPrecioUnitario()));
+        }
+        pedido.setMontoTotal(total(productos));
+    }
+}
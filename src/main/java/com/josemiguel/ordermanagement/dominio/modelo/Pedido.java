@@ -1,8 +1,10 @@
 package com.josemiguel.ordermanagement.dominio.modelo;
 
+import com.josemiguel.ordermanagement.infraestructura.persistencia.SecuenciaPorLotes;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -23,8 +25,17 @@ import java.util.List;
 @Builder
 public class Pedido {
 
+    /**
+     * Número de pedidos cuyos productos se cargan en cada consulta por lotes.
+     * Coincide con el tamaño máximo de página por defecto.
+     */
+    public static final int TAMANIO_LOTE_PRODUCTOS = 200;
+
+    /**
+     * Id asignado desde la secuencia pedidos_seq en bloques, para permitir INSERT por lotes.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SecuenciaPorLotes("pedidos_seq")
     private Long id;
 
     @NotBlank(message = "El nombre del cliente es obligatorio")
@@ -49,23 +60,46 @@ public class Pedido {
     @Column(nullable = false, updatable = false)
     private LocalDateTime fechaCreacion;
 
+    /**
+     * Fecha de la última modificación: creación, actualización o cambio de estado.
+     * - Posición del pedido en el feed de cambios (GET /api/pedidos/cambios)
+     * - Los UPDATE de estado por JPQL la asignan en la propia sentencia
+     */
+    @Column(nullable = false)
+    private LocalDateTime fechaModificacion;
+
+    /**
+     * Versión para bloqueo optimista.
+     * - Hibernate la incrementa en cada UPDATE y lo condiciona a la versión leída
+     * - Se expone como ETag para peticiones condicionales (If-None-Match / If-Match)
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /**
      * Lista de productos asociados al pedido.
      * Siempre inicializada para evitar nulls en Angular.
+     * - pedido_id NOT NULL: la clave ajena se incluye en el INSERT del producto,
+     *   sin un UPDATE posterior por cada línea
+     * - @BatchSize: al recorrer una lista de pedidos, los productos de hasta
+     *   TAMANIO_LOTE_PRODUCTOS pedidos se cargan con una sola consulta IN
      */
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "pedido_id")
+    @JoinColumn(name = "pedido_id", nullable = false)
+    @BatchSize(size = TAMANIO_LOTE_PRODUCTOS)
     @Builder.Default
     private List<Producto> productos = new ArrayList<>();
 
     /**
      * Método que se ejecuta al crear el pedido.
-     * - Asigna fecha de creación
+     * - Asigna fecha de creación, que es también la primera fecha de modificación
      * - Inicializa estado en CREATED
      */
     @PrePersist
     protected void alCrear() {
         this.fechaCreacion = LocalDateTime.now();
+        this.fechaModificacion = this.fechaCreacion;
         this.estado = EstadoPedido.CREATED;
     }
 }
@@ -0,0 +1,32 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marca de borrado (tombstone) de un pedido eliminado.
+ * Permite que el feed de cambios informe de las eliminaciones a los clientes que
+ * sincronizan de forma incremental. Se conserva pedidos.cambios.retencion-eliminados.
+ */
+@Entity
+@Table(name = "pedidos_eliminados")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoEliminado {
+
+    @Id
+    private Long pedidoId;
+
+    @Column(nullable = false)
+    private LocalDateTime fechaEliminacion;
+}
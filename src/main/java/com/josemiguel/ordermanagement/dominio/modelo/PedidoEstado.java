@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.dominio.modelo;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Id y estado de un pedido, leídos sin cargar la entidad ni sus productos.
+ * Incluye la fecha de creación y el monto, que necesitan las estadísticas al cambiar el estado.
+ *
+ * @param id            ID del pedido
+ * @param estado        Estado actual del pedido
+ * @param version       Versión actual del pedido
+ * @param fechaCreacion Fecha de creación del pedido
+ * @param montoTotal    Monto total del pedido
+ */
+public record PedidoEstado(Long id, EstadoPedido estado, Long version, LocalDateTime fechaCreacion, BigDecimal montoTotal) {
+}
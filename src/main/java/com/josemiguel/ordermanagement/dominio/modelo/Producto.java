@@ -1,5 +1,6 @@
 package com.josemiguel.ordermanagement.dominio.modelo;
 
+import com.josemiguel.ordermanagement.infraestructura.persistencia.SecuenciaPorLotes;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -19,8 +20,11 @@ import java.math.BigDecimal;
 @Builder
 public class Producto {
 
+    /**
+     * Id asignado desde la secuencia productos_seq en bloques, para permitir INSERT por lotes.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SecuenciaPorLotes("productos_seq")
     private Long id;
 
     @NotBlank(message = "El nombre del producto es obligatorio")
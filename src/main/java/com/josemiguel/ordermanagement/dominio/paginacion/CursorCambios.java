@@ -0,0 +1,60 @@
+package com.josemiguel.ordermanagement.dominio.paginacion;
+
+import com.josemiguel.ordermanagement.infraestructura.excepcion.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición en el feed de cambios de pedidos.
+ * Se compone de la fecha y el id del último cambio entregado; el feed está ordenado
+ * por ese par, así que identifica de forma única el punto desde el que continuar.
+ * Se expone al cliente como un token opaco codificado en Base64 URL-safe.
+ *
+ * @param fecha Fecha del último cambio entregado
+ * @param id    ID del pedido del último cambio entregado
+ */
+public record CursorCambios(LocalDateTime fecha, Long id) {
+
+    /**
+     * Posición anterior a cualquier cambio: sincronización completa.
+     */
+    public static final CursorCambios INICIO = new CursorCambios(LocalDateTime.of(1970, 1, 1, 0, 0), 0L);
+
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Codifica el cursor como token opaco.
+     *
+     * @return Token para enviar al cliente
+     */
+    public String codificar() {
+        String plano = fecha + String.valueOf(SEPARADOR) + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente.
+     *
+     * @param token Token opaco generado por {@link #codificar()}
+     * @return Cursor decodificado
+     * @throws CursorInvalidoException si el token no es válido
+     */
+    public static CursorCambios decodificar(String token) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = plano.lastIndexOf(SEPARADOR);
+            if (separador <= 0) {
+                throw new CursorInvalidoException(token);
+            }
+            return new CursorCambios(
+                    LocalDateTime.parse(plano.substring(0, separador)),
+                    Long.valueOf(plano.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CursorInvalidoException(token);
+        }
+    }
+}
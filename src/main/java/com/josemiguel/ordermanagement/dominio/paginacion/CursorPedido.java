@@ -0,0 +1,55 @@
+package com.josemiguel.ordermanagement.dominio.paginacion;
+
+import com.josemiguel.ordermanagement.infraestructura.excepcion.CursorInvalidoException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición de la paginación por cursor de pedidos.
+ * Se compone de la fecha de creación y el id del último pedido devuelto,
+ * que juntos identifican de forma única el punto desde el que continuar.
+ * Se expone al cliente como un token opaco codificado en Base64 URL-safe.
+ *
+ * @param fechaCreacion Fecha de creación del último pedido de la página
+ * @param id            ID del último pedido de la página
+ */
+public record CursorPedido(LocalDateTime fechaCreacion, Long id) {
+
+    private static final char SEPARADOR = '|';
+
+    /**
+     * Codifica el cursor como token opaco.
+     *
+     * @return Token para enviar al cliente
+     */
+    public String codificar() {
+        String plano = fechaCreacion + String.valueOf(SEPARADOR) + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un token recibido del cliente.
+     *
+     * @param token Token opaco generado por {@link #codificar()}
+     * @return Cursor decodificado
+     * @throws CursorInvalidoException si el token no es válido
+     */
+    public static CursorPedido decodificar(String token) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = plano.lastIndexOf(SEPARADOR);
+            if (separador <= 0) {
+                throw new CursorInvalidoException(token);
+            }
+            return new CursorPedido(
+                    LocalDateTime.parse(plano.substring(0, separador)),
+                    Long.valueOf(plano.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CursorInvalidoException(token);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.josemiguel.ordermanagement.dominio.paginacion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados obtenida mediante paginación por cursor (keyset).
+ * - contenido: elementos de la página en orden
+ * - siguienteCursor: cursor opaco para pedir la siguiente página, null si es la última
+ *
+ * @param <T> Tipo de los elementos de la página
+ */
+public record Pagina<T>(List<T> contenido, String siguienteCursor) {
+
+    /**
+     * Indica si existen más resultados tras esta página.
+     *
+     * @return true si hay siguiente página
+     */
+    public boolean isHayMas() {
+        return siguienteCursor != null;
+    }
+
+    /**
+     * Transforma el contenido de la página manteniendo el cursor.
+     *
+     * @param conversor Función de conversión de cada elemento
+     * @param <R>       Tipo destino
+     * @return Nueva página con el contenido convertido
+     */
+    public <R> Pagina<R> map(Function<? super T, ? extends R> conversor) {
+        List<R> convertidos = new ArrayList<>(contenido.size());
+        for (T elemento : contenido) {
+            convertidos.add(conversor.apply(elemento));
+        }
+        return new Pagina<>(convertidos, siguienteCursor);
+    }
+}
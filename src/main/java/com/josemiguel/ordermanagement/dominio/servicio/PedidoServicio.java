@@ -1,26 +1,86 @@
 package com.josemiguel.ordermanagement.dominio.servicio;
 
+import com.josemiguel.ordermanagement.config.BusquedaProperties;
+import com.josemiguel.ordermanagement.config.LoteProperties;
+import com.josemiguel.ordermanagement.config.PaginacionProperties;
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.dto.PaginaBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PedidosPorIdsDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoTransicionDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ResumenPedidoDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.CambiosProductos;
 import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.PedidoEstado;
 import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoYVersion;
+import com.josemiguel.ordermanagement.dominio.modelo.MaquinaEstadosPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.MontoLineasPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.MontoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.paginacion.CursorPedido;
+import com.josemiguel.ordermanagement.dominio.paginacion.Pagina;
+import com.josemiguel.ordermanagement.infraestructura.busqueda.BuscadorPedidos;
+import com.josemiguel.ordermanagement.infraestructura.busqueda.Trigramas;
+import com.josemiguel.ordermanagement.infraestructura.cache.AgrupadorLecturas;
+import com.josemiguel.ordermanagement.infraestructura.cache.CachePedidos;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.BusquedaInvalidaException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.LoteInvalidoException;
 import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
 import com.josemiguel.ordermanagement.infraestructura.excepcion.PedidoNoEncontradoException;
 import com.josemiguel.ordermanagement.infraestructura.excepcion.EstadoFinalException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.VersionNoCoincideException;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Servicio encargado de la lógica de negocio para la gestión de pedidos.
  * Contiene métodos para crear, listar, actualizar, cambiar estado y eliminar pedidos.
+ * Cada modificación publica un PedidoModificadoEvento dentro de la transacción.
+ * Cada método público registra su duración en pedidos.servicio (etiqueta method).
  */
 @Service
+@Timed(value = "pedidos.servicio", description = "Duración de los métodos de PedidoServicio")
 @RequiredArgsConstructor
 public class PedidoServicio {
 
+    /**
+     * Intentos de aplicar una transición de estado si otra petición modifica el pedido a la vez.
+     */
+    private static final int MAX_INTENTOS_TRANSICION = 3;
+
     private final PedidoRepositorio pedidoRepositorio;
+    private final PaginacionProperties paginacion;
+    private final CachePedidos cachePedidos;
+    private final ApplicationEventPublisher eventos;
+    private final BuscadorPedidos buscadorPedidos;
+    private final BusquedaProperties busqueda;
+    private final AgrupadorLecturas agrupador;
+    private final LoteProperties lote;
 
     /**
      * Determina si un estado es final (DELIVERED, CANCELLED, RETURNED)
@@ -29,30 +89,194 @@ public class PedidoServicio {
      * @return true si el estado es final
      */
     private boolean esEstadoFinal(EstadoPedido estado) {
-        return estado == EstadoPedido.DELIVERED ||
-                estado == EstadoPedido.CANCELLED ||
-                estado == EstadoPedido.RETURNED;
+        return estado != null && estado.esFinal();
     }
 
     /**
      * Crea un nuevo pedido.
      * - El estado y la fecha de creación se asignan automáticamente en @PrePersist de la entidad Pedido.
+     * - El monto total se calcula a partir de las líneas (MontoPedido), no se toma del cliente
      *
      * @param pedido Pedido a crear
      * @return Pedido creado
      */
     @Transactional
     public Pedido crearPedido(Pedido pedido) {
-        return pedidoRepositorio.save(pedido);
+        MontoPedido.asignarTotal(pedido);
+        Pedido creado = pedidoRepositorio.save(pedido);
+        eventos.publishEvent(eventoCreado(creado));
+        return creado;
+    }
+
+    /**
+     * Crea varios pedidos en una sola transacción.
+     * - Los ids se asignan desde secuencia, por lo que Hibernate agrupa los INSERT en lotes JDBC
+     * - Si falla cualquier pedido se revierte el bloque completo
+     * - El monto total de cada pedido se calcula a partir de sus líneas, como en crearPedido
+     *
+     * @param pedidos Pedidos a crear
+     * @return Pedidos creados, en el mismo orden
+     */
+    @Transactional
+    public List<Pedido> crearPedidos(List<Pedido> pedidos) {
+        for (Pedido pedido : pedidos) {
+            MontoPedido.asignarTotal(pedido);
+        }
+        List<Pedido> creados = pedidoRepositorio.saveAll(pedidos);
+        pedidoRepositorio.flush();
+        for (Pedido creado : creados) {
+            eventos.publishEvent(eventoCreado(creado));
+        }
+        return creados;
+    }
+
+    private static PedidoModificadoEvento eventoCreado(Pedido creado) {
+        return new PedidoModificadoEvento(creado.getId(), PedidoModificadoEvento.Tipo.CREADO, null,
+                creado.getEstado(), creado.getFechaCreacion().toLocalDate(), null, creado.getMontoTotal(),
+                creado.getVersion());
+    }
+
+    /**
+     * Lista los pedidos más recientes, como mucho pedidos.paginacion.tamanio-maximo.
+     * Es la primera página de listarDTOsPaginados con el tamaño máximo: no recorre la tabla
+     * entera; el resto se pide a listarDTOsPaginados con el siguienteCursor.
+     *
+     * @return Primera página de pedidos en formato DTO
+     */
+    @Transactional(readOnly = true)
+    public Pagina<PedidoDTO> listarPedidos() {
+        return listarDTOsPaginados(null, paginacion.tamanioMaximo());
+    }
+
+    /**
+     * Lista pedidos de forma paginada por cursor, del más reciente al más antiguo.
+     * - Sin cursor devuelve la primera página
+     * - El tamaño se recorta al máximo configurado
+     * - Se pide un elemento extra para saber si hay siguiente página
+     *
+     * @param cursor  Cursor opaco devuelto por la página anterior (puede ser null)
+     * @param tamanio Tamaño de página solicitado (puede ser null)
+     * @return Página de pedidos con el cursor de la siguiente
+     */
+    @Transactional(readOnly = true)
+    public Pagina<Pedido> listarPedidosPaginados(String cursor, Integer tamanio) {
+        int tamanioPagina = paginacion.tamanioEfectivo(tamanio);
+        Limit limite = Limit.of(tamanioPagina + 1);
+
+        List<Pedido> pedidos;
+        if (cursor == null || cursor.isBlank()) {
+            pedidos = pedidoRepositorio.findPrimeraPagina(limite);
+        } else {
+            CursorPedido posicion = CursorPedido.decodificar(cursor);
+            pedidos = pedidoRepositorio.findPaginaTras(posicion.fechaCreacion(), posicion.id(), limite);
+        }
+        return paginar(pedidos, tamanioPagina, p -> new CursorPedido(p.getFechaCreacion(), p.getId()));
+    }
+
+    /**
+     * Lista pedidos paginados por cursor, ya convertidos a DTO.
+     * Los productos se cargan dentro de la transacción: sin Open Session in View
+     * no pueden inicializarse después en el controlador.
+     *
+     * @param cursor  Cursor opaco devuelto por la página anterior (puede ser null)
+     * @param tamanio Tamaño de página solicitado (puede ser null)
+     * @return Página de pedidos en formato DTO con el cursor de la siguiente
+     */
+    @Transactional(readOnly = true)
+    public Pagina<PedidoDTO> listarDTOsPaginados(String cursor, Integer tamanio) {
+        return listarPedidosPaginados(cursor, tamanio).map(PedidoMapper::toDTO);
+    }
+
+    /**
+     * Lista el resumen (id, cliente, estado, monto y fecha) de los pedidos más recientes,
+     * como mucho pedidos.paginacion.tamanio-maximo, como listarPedidos.
+     *
+     * @return Primera página de resúmenes
+     */
+    public Pagina<ResumenPedidoDTO> listarResumenes() {
+        return listarResumenesPaginados(null, paginacion.tamanioMaximo());
+    }
+
+    /**
+     * Lista resúmenes de pedidos paginados por cursor.
+     * Mismo orden, cursores y límites que listarPedidosPaginados, por lo que los
+     * cursores de una vista sirven para la otra.
+     * - Las peticiones concurrentes de la misma página comparten una única consulta
+     * - Sin transacción propia: la consulta del repositorio abre la suya, y las peticiones
+     *   que esperan a otra no ocupan una conexión
+     *
+     * @param cursor  Cursor opaco devuelto por la página anterior (puede ser null)
+     * @param tamanio Tamaño de página solicitado (puede ser null)
+     * @return Página de resúmenes con el cursor de la siguiente
+     */
+    public Pagina<ResumenPedidoDTO> listarResumenesPaginados(String cursor, Integer tamanio) {
+        int tamanioPagina = paginacion.tamanioEfectivo(tamanio);
+        Limit limite = Limit.of(tamanioPagina + 1);
+        CursorPedido posicion = cursor == null || cursor.isBlank() ? null : CursorPedido.decodificar(cursor);
+
+        List<ResumenPedidoDTO> resumenes = agrupador.consulta("listarResumenesPaginados",
+                Arrays.asList(posicion, tamanioPagina), () -> posicion == null
+                        ? pedidoRepositorio.findResumenesPrimeraPagina(limite)
+                        : pedidoRepositorio.findResumenesTras(posicion.fechaCreacion(), posicion.id(), limite));
+        return paginar(resumenes, tamanioPagina, r -> new CursorPedido(r.fechaCreacion(), r.id()));
     }
 
     /**
-     * Lista todos los pedidos existentes en la base de datos.
+     * Construye la página a partir de los elementos leídos con un elemento extra.
      *
-     * @return Lista de pedidos
+     * @param elementos     Elementos leídos (hasta tamanioPagina + 1)
+     * @param tamanioPagina Tamaño de la página
+     * @param posicion      Posición de un elemento para el cursor de la siguiente página
+     * @return Página con el cursor de la siguiente, o sin él si no hay más
      */
-    public List<Pedido> listarPedidos() {
-        return pedidoRepositorio.findAll();
+    private static <T> Pagina<T> paginar(List<T> elementos, int tamanioPagina, Function<T, CursorPedido> posicion) {
+        if (elementos.size() <= tamanioPagina) {
+            return new Pagina<>(elementos, null);
+        }
+        List<T> contenido = elementos.subList(0, tamanioPagina);
+        return new Pagina<>(contenido, posicion.apply(contenido.get(tamanioPagina - 1)).codificar());
+    }
+
+    /**
+     * Busca pedidos por nombre de cliente usando el índice de trigramas.
+     * - Devuelve coincidencias exactas (contiene) y aproximadas, de más a menos relevante
+     * - Exige al menos Trigramas.LONGITUD_MINIMA caracteres para poder usar el índice
+     * - Las búsquedas concurrentes idénticas comparten una única consulta
+     *
+     * @param texto   Texto a buscar
+     * @param pagina  Número de página (empezando en 0, limitado por configuración)
+     * @param tamanio Tamaño de página (limitado por la configuración de paginación)
+     * @return Página de resultados ordenados por puntuación
+     */
+    public PaginaBusquedaDTO buscarPedidos(String texto, int pagina, Integer tamanio) {
+        String normalizado = texto == null ? "" : texto.strip();
+        if (normalizado.length() < Trigramas.LONGITUD_MINIMA) {
+            throw new BusquedaInvalidaException("El texto de búsqueda debe tener al menos "
+                    + Trigramas.LONGITUD_MINIMA + " caracteres");
+        }
+        if (pagina < 0 || pagina > busqueda.paginaMaxima()) {
+            throw new BusquedaInvalidaException("La página debe estar entre 0 y " + busqueda.paginaMaxima());
+        }
+
+        int tamanioPagina = paginacion.tamanioEfectivo(tamanio);
+        List<ResultadoBusquedaDTO> resultados = agrupador.consulta("buscarPedidos",
+                Arrays.asList(normalizado, pagina, tamanioPagina),
+                () -> buscadorPedidos.buscar(normalizado, pagina * tamanioPagina, tamanioPagina + 1));
+        boolean hayMas = resultados.size() > tamanioPagina;
+        return new PaginaBusquedaDTO(hayMas ? resultados.subList(0, tamanioPagina) : resultados,
+                pagina, tamanioPagina, hayMas);
+    }
+
+    /**
+     * Recorre en bloques los pedidos que cumplen el filtro, con memoria constante.
+     * - Los pedidos de cada bloque dejan de estar gestionados tras procesarlo
+     *
+     * @param filtro     Filtro de pedidos (campos null se ignoran)
+     * @param consumidor Recibe cada bloque de pedidos con sus productos accesibles
+     */
+    @Transactional(readOnly = true)
+    public void recorrerPedidos(FiltroPedidos filtro, Consumer<List<Pedido>> consumidor) {
+        pedidoRepositorio.recorrerPedidos(filtro, consumidor);
     }
 
     /**
@@ -65,52 +289,298 @@ public class PedidoServicio {
         return pedidoRepositorio.findById(id);
     }
 
+    /**
+     * Obtiene un pedido por su ID ya convertido a DTO, a través de la caché de lectura.
+     * - Un acierto de caché no accede a la base de datos
+     * - El pedido y sus productos se cargan con una única consulta (entity graph)
+     * - Ante un fallo de caché, las peticiones concurrentes del mismo id comparten esa consulta
+     *   y el DTO construido, también cuando el pedido no existe
+     *
+     * @param id Identificador del pedido
+     * @return Optional con el pedido si existe
+     */
+    public Optional<PedidoDTO> obtenerDTOPorId(Long id) {
+        PedidoDTO enCache = cachePedidos.consultarSinFallo(id);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        return Optional.ofNullable(agrupador.porPedido("obtenerDTOPorId", id, () -> cachePedidos.obtener(id,
+                clave -> pedidoRepositorio.findById(clave).map(PedidoMapper::toDTO).orElse(null))));
+    }
+
+    /**
+     * Obtiene varios pedidos por id, ya convertidos a DTO.
+     * - Los pedidos en la caché de lectura no acceden a la base de datos
+     * - El resto se carga con una única consulta IN que incluye sus productos (entity graph)
+     * - Los cargados no se guardan en la caché: una invalidación concurrente no podría descartarlos,
+     *   a diferencia de la carga por id de obtenerDTOPorId
+     * - Respeta el orden de los ids; los repetidos se devuelven una sola vez
+     *
+     * @param ids IDs de los pedidos (como máximo pedidos.lote.maximo-ids distintos)
+     * @return Pedidos encontrados y ids que no existen, en el orden solicitado
+     * @throws LoteInvalidoException si se superan los ids permitidos
+     */
+    public PedidosPorIdsDTO obtenerDTOsPorIds(List<Long> ids) {
+        Set<Long> solicitados = new LinkedHashSet<>(ids);
+        if (solicitados.size() > lote.maximoIds()) {
+            throw new LoteInvalidoException("Una consulta por ids admite como máximo "
+                    + lote.maximoIds() + " ids distintos");
+        }
+
+        Map<Long, PedidoDTO> encontrados = new HashMap<>(solicitados.size() * 2);
+        List<Long> sinCache = new ArrayList<>();
+        for (Long id : solicitados) {
+            PedidoDTO enCache = cachePedidos.consultar(id);
+            if (enCache != null) {
+                encontrados.put(id, enCache);
+            } else {
+                sinCache.add(id);
+            }
+        }
+        if (!sinCache.isEmpty()) {
+            for (Pedido pedido : pedidoRepositorio.findConProductosByIdIn(sinCache)) {
+                encontrados.put(pedido.getId(), PedidoMapper.toDTO(pedido));
+            }
+        }
+
+        List<PedidoDTO> pedidos = new ArrayList<>(encontrados.size());
+        List<Long> noEncontrados = new ArrayList<>();
+        for (Long id : solicitados) {
+            PedidoDTO pedido = encontrados.get(id);
+            if (pedido != null) {
+                pedidos.add(pedido);
+            } else {
+                noEncontrados.add(id);
+            }
+        }
+        return new PedidosPorIdsDTO(pedidos, noEncontrados);
+    }
+
+    /**
+     * Obtiene la versión actual de un pedido sin construir su DTO.
+     * - Si el pedido está en caché no accede a la base de datos
+     * - Si no, consulta solo la columna version por clave primaria
+     *
+     * @param id Identificador del pedido
+     * @return Optional con la versión si el pedido existe
+     */
+    public Optional<Long> obtenerVersion(Long id) {
+        PedidoDTO enCache = cachePedidos.consultar(id);
+        if (enCache != null) {
+            return Optional.ofNullable(enCache.getVersion());
+        }
+        return pedidoRepositorio.findVersionById(id);
+    }
+
+    /**
+     * Actualiza los datos de un pedido existente, sin comprobar su versión.
+     *
+     * @param id ID del pedido a actualizar
+     * @param pedidoActualizado Pedido con los nuevos datos (los productos conservan su id)
+     * @return Pedido actualizado y resumen de líneas modificadas
+     */
+    @Transactional
+    public ResultadoActualizacion actualizarPedido(Long id, Pedido pedidoActualizado) {
+        return actualizarPedido(id, pedidoActualizado, null);
+    }
+
     /**
      * Actualiza los datos de un pedido existente.
      * - No permite actualizar pedidos en estado final (DELIVERED, CANCELLED, RETURNED)
-     * - Actualiza los campos básicos: nombreCliente, contactoCliente, montoTotal
-     * - Sustituye la lista de productos con la nueva lista proporcionada
+     * - Actualiza los campos básicos: nombreCliente y contactoCliente
+     * - Sincroniza los productos por id: solo inserta, actualiza o elimina las líneas que cambian
+     * - El monto total se ajusta con la diferencia de importe de las líneas modificadas, sin
+     *   recorrer el resto; el indicado por el cliente solo se usa si el pedido queda sin líneas
+     * - Si se indica versionEsperada, falla cuando el pedido ya tiene otra versión
+     * - Cualquier cambio incrementa la versión y la fecha de modificación, también si solo
+     *   cambian datos de productos
      *
      * @param id ID del pedido a actualizar
-     * @param pedidoActualizado Pedido con los nuevos datos
-     * @return Pedido actualizado
+     * @param pedidoActualizado Pedido con los nuevos datos (los productos conservan su id)
+     * @param versionEsperada Versión leída por el cliente (null para no comprobarla)
+     * @return Pedido actualizado y resumen de líneas modificadas
      */
     @Transactional
-    public Pedido actualizarPedido(Long id, Pedido pedidoActualizado) {
+    public ResultadoActualizacion actualizarPedido(Long id, Pedido pedidoActualizado, Long versionEsperada) {
         Pedido pedidoExistente = pedidoRepositorio.findById(id)
                 .orElseThrow(() -> new PedidoNoEncontradoException(id));
+        comprobarVersion(pedidoExistente, versionEsperada);
 
         if (esEstadoFinal(pedidoExistente.getEstado())) {
             throw new EstadoFinalException("No se puede actualizar un pedido en estado final: "
                     + pedidoExistente.getEstado());
         }
 
-        pedidoExistente.setNombreCliente(pedidoActualizado.getNombreCliente());
-        pedidoExistente.setContactoCliente(pedidoActualizado.getContactoCliente());
-        pedidoExistente.setMontoTotal(pedidoActualizado.getMontoTotal());
+        BigDecimal montoAnterior = pedidoExistente.getMontoTotal();
+        boolean teniaLineas = !pedidoExistente.getProductos().isEmpty();
+        boolean cabeceraCambia = copiarCabeceraSiCambia(pedidoActualizado, pedidoExistente);
+        CambiosProductos cambios = sincronizarProductos(
+                pedidoExistente.getProductos(), pedidoActualizado.getProductos());
+        BigDecimal montoNuevo = montoTrasCambios(pedidoExistente, teniaLineas, cambios,
+                pedidoActualizado.getMontoTotal());
+        if (montoNuevo == null || montoAnterior == null || montoNuevo.compareTo(montoAnterior) != 0) {
+            pedidoExistente.setMontoTotal(montoNuevo);
+            cabeceraCambia = true;
+        }
+        if (cabeceraCambia || cambios.total() > 0) {
+            // El UPDATE de la cabecera incrementa también la versión (@Version),
+            // aunque solo cambien datos de productos
+            pedidoExistente.setFechaModificacion(LocalDateTime.now());
+        }
 
-        // Actualizamos la lista de productos
-        pedidoExistente.getProductos().clear();
-        if (pedidoActualizado.getProductos() != null) {
-            pedidoExistente.getProductos().addAll(pedidoActualizado.getProductos());
+        Pedido guardado = pedidoRepositorio.save(pedidoExistente);
+        // El evento lleva la versión resultante: el UPDATE debe ejecutarse antes
+        pedidoRepositorio.flush();
+        eventos.publishEvent(new PedidoModificadoEvento(id, PedidoModificadoEvento.Tipo.ACTUALIZADO,
+                guardado.getEstado(), guardado.getEstado(), guardado.getFechaCreacion().toLocalDate(),
+                montoAnterior, guardado.getMontoTotal(), guardado.getVersion()));
+        return new ResultadoActualizacion(guardado, cambios);
+    }
+
+    /**
+     * Falla si el cliente indicó una versión y el pedido tiene otra.
+     * El UPDATE posterior también se condiciona a la versión (@Version), lo que cubre
+     * las escrituras concurrentes entre esta comprobación y el commit.
+     */
+    private void comprobarVersion(Pedido pedido, Long versionEsperada) {
+        if (versionEsperada != null && !versionEsperada.equals(pedido.getVersion())) {
+            throw new VersionNoCoincideException(pedido.getId(), versionEsperada, pedido.getVersion());
         }
+    }
+
+    /**
+     * Copia nombreCliente y contactoCliente sobre el pedido persistido.
+     *
+     * @return true si alguno de los campos cambia
+     */
+    private boolean copiarCabeceraSiCambia(Pedido origen, Pedido destino) {
+        boolean cambia = !Objects.equals(origen.getNombreCliente(), destino.getNombreCliente())
+                || !Objects.equals(origen.getContactoCliente(), destino.getContactoCliente());
+        destino.setNombreCliente(origen.getNombreCliente());
+        destino.setContactoCliente(origen.getContactoCliente());
+        return cambia;
+    }
+
+    /**
+     * Monto total del pedido tras sincronizar sus líneas.
+     * - Sin líneas: el monto indicado por el cliente (pedido sin detalle)
+     * - Con líneas por primera vez: la suma de todas ellas, porque el monto anterior no salía de líneas
+     * - En otro caso: el monto anterior más la diferencia de las líneas modificadas; si el anterior
+     *   estaba descuadrado, lo corrige ConciliadorMontos
+     */
+    private static BigDecimal montoTrasCambios(Pedido pedido, boolean teniaLineas, CambiosProductos cambios,
+                                               BigDecimal montoCliente) {
+        if (pedido.getProductos().isEmpty()) {
+            return MontoPedido.normalizar(montoCliente);
+        }
+        if (!teniaLineas || pedido.getMontoTotal() == null) {
+            return MontoPedido.total(pedido.getProductos());
+        }
+        return pedido.getMontoTotal().add(cambios.diferenciaMonto());
+    }
+
+    /**
+     * Aplica sobre la lista de productos persistida únicamente las diferencias con la nueva lista.
+     * - Línea con id existente: se copian sus datos solo si alguno cambia (UPDATE)
+     * - Línea sin id, con id desconocido o repetido: se añade como nueva (INSERT)
+     * - Línea existente ausente en la nueva lista: se elimina por orphanRemoval (DELETE)
+     * - Los precios recibidos se normalizan a MontoPedido.ESCALA antes de comparar
+     *
+     * @param actuales Productos gestionados del pedido
+     * @param nuevos   Productos recibidos (puede ser null)
+     * @return Número de líneas insertadas, actualizadas y eliminadas, y variación de su importe
+     */
+    private CambiosProductos sincronizarProductos(List<Producto> actuales, List<Producto> nuevos) {
+        Map<Long, Producto> actualesPorId = new HashMap<>(actuales.size() * 2);
+        for (Producto actual : actuales) {
+            actualesPorId.put(actual.getId(), actual);
+        }
+
+        List<Producto> aInsertar = new ArrayList<>();
+        Set<Long> conservados = new HashSet<>();
+        int actualizadas = 0;
+        BigDecimal diferencia = BigDecimal.ZERO.setScale(MontoPedido.ESCALA);
+        if (nuevos != null) {
+            for (Producto nuevo : nuevos) {
+                nuevo.setPrecioUnitario(MontoPedido.normalizar(nuevo.getPrecioUnitario()));
+                Producto actual = nuevo.getId() != null ? actualesPorId.get(nuevo.getId()) : null;
+                if (actual == null || !conservados.add(actual.getId())) {
+                    nuevo.setId(null);
+                    aInsertar.add(nuevo);
+                    diferencia = diferencia.add(MontoPedido.importe(nuevo));
+                } else {
+                    BigDecimal importeAnterior = MontoPedido.importe(actual);
+                    if (copiarSiCambia(nuevo, actual)) {
+                        actualizadas++;
+                        diferencia = diferencia.add(MontoPedido.importe(actual)).subtract(importeAnterior);
+                    }
+                }
+            }
+        }
+
+        int antes = actuales.size();
+        for (Producto actual : actuales) {
+            if (!conservados.contains(actual.getId())) {
+                diferencia = diferencia.subtract(MontoPedido.importe(actual));
+            }
+        }
+        actuales.removeIf(actual -> !conservados.contains(actual.getId()));
+        int eliminadas = antes - actuales.size();
+        actuales.addAll(aInsertar);
+
+        return new CambiosProductos(aInsertar.size(), actualizadas, eliminadas, diferencia);
+    }
+
+    /**
+     * Copia los datos de una línea sobre la persistida si difieren.
+     * Los precios se comparan por valor (10.0 y 10.00 son iguales) para no generar UPDATE innecesarios.
+     *
+     * @return true si se modificó la línea persistida
+     */
+    private boolean copiarSiCambia(Producto origen, Producto destino) {
+        boolean cambia = !Objects.equals(origen.getNombre(), destino.getNombre())
+                || !Objects.equals(origen.getCantidad(), destino.getCantidad())
+                || origen.getPrecioUnitario() == null
+                || destino.getPrecioUnitario() == null
+                || origen.getPrecioUnitario().compareTo(destino.getPrecioUnitario()) != 0;
+        if (cambia) {
+            destino.setNombre(origen.getNombre());
+            destino.setCantidad(origen.getCantidad());
+            destino.setPrecioUnitario(origen.getPrecioUnitario());
+        }
+        return cambia;
+    }
 
-        return pedidoRepositorio.save(pedidoExistente);
+    /**
+     * Cambia el estado de un pedido existente, sin comprobar su versión.
+     *
+     * @param id ID del pedido
+     * @param estadoStr Nuevo estado como String
+     * @return Transición aplicada
+     */
+    @Transactional
+    public TransicionEstado cambiarEstado(Long id, String estadoStr) {
+        return cambiarEstado(id, estadoStr, null);
     }
 
     /**
      * Cambia el estado de un pedido existente.
-     * - Valida que el pedido no esté en estado final
-     * - Evita cancelar un pedido ya enviado (SHIPPED)
+     * - Las transiciones permitidas se definen en MaquinaEstadosPedido
+     * - Desde un estado final lanza EstadoFinalException; otras transiciones no permitidas,
+     *   como cancelar un pedido ya enviado (SHIPPED), lanzan IllegalStateException
+     * - Si se indica versionEsperada, falla cuando el pedido ya tiene otra versión
+     * - No carga el pedido: lee estado y versión (de la caché si está) y aplica un UPDATE
+     *   condicionado a ambos. Si otra petición cambia el pedido entre medias, se vuelve a
+     *   leer y validar hasta MAX_INTENTOS_TRANSICION veces
      *
      * @param id ID del pedido
      * @param estadoStr Nuevo estado como String
-     * @return Pedido con estado actualizado
+     * @param versionEsperada Versión leída por el cliente (null para no comprobarla)
+     * @return Transición aplicada
      */
     @Transactional
-    public Pedido cambiarEstado(Long id, String estadoStr) {
-        Pedido pedido = pedidoRepositorio.findById(id)
-                .orElseThrow(() -> new PedidoNoEncontradoException(id));
+    public TransicionEstado cambiarEstado(Long id, String estadoStr, Long versionEsperada) {
+        EstadoYVersion actual = leerEstadoYVersion(id, true);
 
         EstadoPedido nuevoEstado;
         try {
@@ -119,31 +589,161 @@ public class PedidoServicio {
             throw new IllegalArgumentException("Estado inválido: " + estadoStr);
         }
 
-        if (esEstadoFinal(pedido.getEstado())) {
-            throw new EstadoFinalException("No se puede cambiar el estado de un pedido en estado final: "
-                    + pedido.getEstado());
+        for (int intento = 1; ; intento++) {
+            // Como en actualizarPedido: un ETag obsoleto es 412 aunque la transición tampoco sea válida
+            if (versionEsperada != null && !versionEsperada.equals(actual.version())) {
+                throw new VersionNoCoincideException(id, versionEsperada, actual.version());
+            }
+            validarTransicion(actual.estado(), nuevoEstado);
+            if (pedidoRepositorio.actualizarEstado(id, nuevoEstado, actual.version(),
+                    MaquinaEstadosPedido.origenesHacia(nuevoEstado), LocalDateTime.now()) == 1) {
+                eventos.publishEvent(new PedidoModificadoEvento(id, PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO,
+                        actual.estado(), nuevoEstado, actual.fechaCreacion().toLocalDate(),
+                        actual.montoTotal(), actual.montoTotal(), actual.version() + 1));
+                return new TransicionEstado(id, actual.estado(), nuevoEstado, actual.version() + 1);
+            }
+            if (intento == MAX_INTENTOS_TRANSICION) {
+                throw new ObjectOptimisticLockingFailureException(Pedido.class, id);
+            }
+            actual = leerEstadoYVersion(id, false);
         }
+    }
 
-        if (pedido.getEstado() == EstadoPedido.SHIPPED && nuevoEstado == EstadoPedido.CANCELLED) {
-            throw new IllegalStateException("No se puede cancelar un pedido ya enviado (SHIPPED). " +
-                    "Considera marcarlo como RETURNED si es un error de entrega.");
+    /**
+     * IDs de los pedidos con un estado y creados en un rango de fechas.
+     *
+     * @param estado Estado actual de los pedidos
+     * @param desde  Fecha de creación mínima (inclusive)
+     * @param hasta  Fecha de creación máxima (inclusive)
+     * @param limite Número máximo de ids
+     * @return IDs ordenados de menor a mayor
+     */
+    public List<Long> listarIdsPorEstadoYFecha(EstadoPedido estado, LocalDateTime desde, LocalDateTime hasta,
+                                               int limite) {
+        return pedidoRepositorio.findIdsByEstadoAndFechaCreacionBetween(estado, desde, hasta, Limit.of(limite));
+    }
+
+    /**
+     * Cambia el estado de un bloque de pedidos con sentencias sobre el conjunto.
+     * - Lee id y estado de todo el bloque con una consulta que bloquea sus filas
+     * - Clasifica cada pedido según MaquinaEstadosPedido, igual que cambiarEstado
+     * - Aplica un UPDATE por cada estado de origen presente en el bloque
+     * - Publica un evento ESTADO_CAMBIADO por cada pedido modificado
+     *
+     * @param ids         IDs de los pedidos (sin repetidos)
+     * @param nuevoEstado Estado al que se pasan los pedidos
+     * @return Resultado de cada pedido en el orden de ids
+     */
+    @Transactional
+    public List<ResultadoTransicionDTO> cambiarEstadoBloque(List<Long> ids, EstadoPedido nuevoEstado) {
+        Map<Long, PedidoEstado> actuales = new HashMap<>(ids.size() * 2);
+        for (PedidoEstado pedido : pedidoRepositorio.findEstadosParaActualizar(ids)) {
+            actuales.put(pedido.id(), pedido);
+        }
+
+        Map<EstadoPedido, List<PedidoEstado>> aplicablesPorOrigen = new EnumMap<>(EstadoPedido.class);
+        List<ResultadoTransicionDTO> resultados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PedidoEstado pedido = actuales.get(id);
+            EstadoPedido actual = pedido != null ? pedido.estado() : null;
+            if (actual == null) {
+                resultados.add(ResultadoTransicionDTO.noEncontrado(id));
+            } else if (MaquinaEstadosPedido.permite(actual, nuevoEstado)) {
+                aplicablesPorOrigen.computeIfAbsent(actual, e -> new ArrayList<>()).add(pedido);
+                resultados.add(ResultadoTransicionDTO.aplicado(id, actual));
+            } else if (esEstadoFinal(actual)) {
+                resultados.add(ResultadoTransicionDTO.yaFinal(id, actual));
+            } else {
+                resultados.add(ResultadoTransicionDTO.ilegal(id, actual));
+            }
         }
 
-        pedido.setEstado(nuevoEstado);
-        return pedidoRepositorio.save(pedido);
+        LocalDateTime ahora = LocalDateTime.now();
+        aplicablesPorOrigen.forEach((origen, pedidosOrigen) -> {
+            List<Long> idsOrigen = new ArrayList<>(pedidosOrigen.size());
+            for (PedidoEstado pedido : pedidosOrigen) {
+                idsOrigen.add(pedido.id());
+            }
+            pedidoRepositorio.actualizarEstadoEnBloque(idsOrigen, origen, nuevoEstado, ahora);
+            for (PedidoEstado pedido : pedidosOrigen) {
+                eventos.publishEvent(new PedidoModificadoEvento(pedido.id(),
+                        PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO, origen, nuevoEstado,
+                        pedido.fechaCreacion().toLocalDate(), pedido.montoTotal(), pedido.montoTotal(),
+                        pedido.version() + 1));
+            }
+        });
+        return resultados;
+    }
+
+    /**
+     * Sustituye el monto total de pedidos descuadrados por la suma de sus líneas.
+     * - Cada UPDATE se condiciona a la versión leída: si el pedido cambió entretanto no se toca
+     * - Publica un evento ACTUALIZADO por cada pedido corregido (estadísticas, caché, feed...)
+     *
+     * @param descuadrados Pedidos con su monto guardado y la suma de sus líneas
+     * @return Número de pedidos corregidos
+     */
+    @Transactional
+    public int corregirMontos(List<MontoLineasPedido> descuadrados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        int corregidos = 0;
+        for (MontoLineasPedido pedido : descuadrados) {
+            BigDecimal monto = MontoPedido.normalizar(pedido.montoLineas());
+            if (pedidoRepositorio.corregirMonto(pedido.id(), pedido.version(), monto, ahora) == 1) {
+                corregidos++;
+                eventos.publishEvent(new PedidoModificadoEvento(pedido.id(), PedidoModificadoEvento.Tipo.ACTUALIZADO,
+                        pedido.estado(), pedido.estado(), pedido.fechaCreacion().toLocalDate(),
+                        pedido.montoTotal(), monto, pedido.version() + 1));
+            }
+        }
+        return corregidos;
+    }
+
+    /**
+     * Lee el estado y la versión de un pedido sin cargar la entidad.
+     *
+     * @param id       ID del pedido
+     * @param usarCache true para usar el pedido en caché si está disponible
+     * @return Estado y versión actuales
+     */
+    private EstadoYVersion leerEstadoYVersion(Long id, boolean usarCache) {
+        PedidoDTO enCache = usarCache ? cachePedidos.consultar(id) : null;
+        if (enCache != null) {
+            return new EstadoYVersion(enCache.getEstado(), enCache.getVersion(),
+                    enCache.getFechaCreacion(), enCache.getMontoTotal());
+        }
+        return pedidoRepositorio.findEstadoYVersionById(id)
+                .orElseThrow(() -> new PedidoNoEncontradoException(id));
+    }
+
+    /**
+     * Lanza la excepción correspondiente si la transición no está permitida.
+     */
+    private void validarTransicion(EstadoPedido origen, EstadoPedido destino) {
+        if (MaquinaEstadosPedido.permite(origen, destino)) {
+            return;
+        }
+        String motivo = MaquinaEstadosPedido.motivoRechazo(origen, destino);
+        if (esEstadoFinal(origen)) {
+            throw new EstadoFinalException(motivo);
+        }
+        throw new IllegalStateException(motivo);
     }
 
     /**
      * Elimina un pedido por su ID.
      * - Lanza excepción si el pedido no existe
+     * - El evento lleva el estado y el monto que tenía el pedido
      *
      * @param id ID del pedido a eliminar
      */
     @Transactional
     public void eliminarPedido(Long id) {
-        if (!pedidoRepositorio.existsById(id)) {
-            throw new PedidoNoEncontradoException(id);
-        }
+        EstadoYVersion actual = pedidoRepositorio.findEstadoYVersionById(id)
+                .orElseThrow(() -> new PedidoNoEncontradoException(id));
         pedidoRepositorio.deleteById(id);
+        eventos.publishEvent(new PedidoModificadoEvento(id, PedidoModificadoEvento.Tipo.ELIMINADO,
+                actual.estado(), null, actual.fechaCreacion().toLocalDate(), actual.montoTotal(), null,
+                actual.version()));
     }
 }
@@ -0,0 +1,13 @@
+package com.josemiguel.ordermanagement.dominio.servicio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.CambiosProductos;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+
+/**
+ * Resultado de PedidoServicio.actualizarPedido.
+ *
+ * @param pedido  Pedido actualizado
+ * @param cambios Líneas de producto insertadas, actualizadas y eliminadas
+ */
+public record ResultadoActualizacion(Pedido pedido, CambiosProductos cambios) {
+}
@@ -0,0 +1,14 @@
+package com.josemiguel.ordermanagement.dominio.servicio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+/**
+ * Resultado de PedidoServicio.cambiarEstado.
+ *
+ * @param pedidoId ID del pedido
+ * @param anterior Estado antes del cambio
+ * @param nuevo    Estado después del cambio
+ * @param version  Nueva versión del pedido
+ */
+public record TransicionEstado(Long pedidoId, EstadoPedido anterior, EstadoPedido nuevo, Long version) {
+}
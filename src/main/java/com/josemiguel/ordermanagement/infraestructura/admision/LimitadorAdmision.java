@@ -0,0 +1,96 @@
+package com.josemiguel.ordermanagement.infraestructura.admision;
+
+import com.josemiguel.ordermanagement.infraestructura.excepcion.ServicioSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Limita las peticiones en curso al número de conexiones del pool.
+ * - Cada petición toma un permiso antes de ejecutar el controlador y lo devuelve al terminar
+ * - Si no lo obtiene en el tiempo de espera, responde 503 con Retry-After en lugar de
+ *   bloquear un hilo hasta el connection-timeout de Hikari
+ * - Semáforo justo: los permisos se conceden por orden de llegada
+ * - Las peticiones que se pueden responder sin la base de datos (sinBaseDatos, p. ej. un
+ *   pedido en caché) no toman permiso
+ * - En peticiones asíncronas (exportación, SSE) el permiso se devuelve al iniciarse el
+ *   procesamiento asíncrono: cubre la parte síncrona (la lectura inicial de SSE), pero no
+ *   una exportación de una hora ni una conexión SSE ociosa
+ * Métricas: pedidos.admision.en_curso y pedidos.admision.rechazadas
+ */
+public class LimitadorAdmision implements AsyncHandlerInterceptor {
+
+    private static final String PERMISO = LimitadorAdmision.class.getName() + ".permiso";
+
+    private final Semaphore permisos;
+    private final int totalPermisos;
+    private final long esperaNanos;
+    private final Duration reintentarTras;
+    private final Counter rechazadas;
+    private final Predicate<HttpServletRequest> sinBaseDatos;
+
+    public LimitadorAdmision(int totalPermisos, Duration espera, Duration reintentarTras, MeterRegistry registro,
+                             Predicate<HttpServletRequest> sinBaseDatos) {
+        this.permisos = new Semaphore(totalPermisos, true);
+        this.totalPermisos = totalPermisos;
+        this.esperaNanos = espera.toNanos();
+        this.reintentarTras = reintentarTras;
+        this.sinBaseDatos = sinBaseDatos;
+        this.rechazadas = Counter.builder("pedidos.admision.rechazadas")
+                .description("Peticiones rechazadas con 503 por falta de conexiones libres")
+                .register(registro);
+        Gauge.builder("pedidos.admision.en_curso", this, LimitadorAdmision::enCurso)
+                .description("Peticiones admitidas que aún no han terminado")
+                .register(registro);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest peticion, HttpServletResponse respuesta, Object handler)
+            throws InterruptedException {
+        if (peticion.getDispatcherType() == DispatcherType.ASYNC || sinBaseDatos.test(peticion)) {
+            // Despacho asíncrono de una petición ya admitida, o respuesta sin base de datos
+            return true;
+        }
+        if (!permisos.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+            rechazadas.increment();
+            throw new ServicioSaturadoException(reintentarTras);
+        }
+        peticion.setAttribute(PERMISO, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest peticion, HttpServletResponse respuesta,
+                                               Object handler) {
+        liberar(peticion);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest peticion, HttpServletResponse respuesta, Object handler,
+                                Exception ex) {
+        liberar(peticion);
+    }
+
+    private void liberar(HttpServletRequest peticion) {
+        if (peticion.getAttribute(PERMISO) != null) {
+            peticion.removeAttribute(PERMISO);
+            permisos.release();
+        }
+    }
+
+    /**
+     * Peticiones admitidas en este momento.
+     */
+    public int enCurso() {
+        return totalPermisos - permisos.availablePermits();
+    }
+}
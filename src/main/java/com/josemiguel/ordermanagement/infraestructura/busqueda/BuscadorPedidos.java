@@ -0,0 +1,23 @@
+package com.josemiguel.ordermanagement.infraestructura.busqueda;
+
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+
+import java.util.List;
+
+/**
+ * Búsqueda indexada de pedidos por nombre de cliente.
+ * Devuelve los pedidos cuyo nombre contiene el texto o se parece a él,
+ * ordenados por puntuación descendente y, a igualdad, por id.
+ */
+public interface BuscadorPedidos {
+
+    /**
+     * Busca pedidos por nombre de cliente.
+     *
+     * @param texto  Texto a buscar (al menos Trigramas.LONGITUD_MINIMA caracteres)
+     * @param offset Número de resultados a saltar
+     * @param limite Número máximo de resultados
+     * @return Resultados ordenados por relevancia
+     */
+    List<ResultadoBusquedaDTO> buscar(String texto, int offset, int limite);
+}
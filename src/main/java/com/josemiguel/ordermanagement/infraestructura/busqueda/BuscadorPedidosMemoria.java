@@ -0,0 +1,161 @@
+package com.josemiguel.ordermanagement.infraestructura.busqueda;
+
+import com.josemiguel.ordermanagement.config.BusquedaProperties;
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice invertido de trigramas en memoria para entornos sin PostgreSQL (perfil embebido y tests).
+ * - Se construye al arrancar recorriendo los pedidos por bloques
+ * - Se mantiene con los PedidoModificadoEvento tras cada commit
+ * - Solo evalúa los pedidos que comparten algún trigrama con el texto buscado
+ * - Como BuscadorPedidosPostgres, ordena como mucho maximoCandidatos coincidencias
+ *   (las de menor id)
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.busqueda.motor", havingValue = "memoria")
+public class BuscadorPedidosMemoria implements BuscadorPedidos {
+
+    private final PedidoRepositorio pedidoRepositorio;
+    private final TransactionTemplate transactionTemplate;
+    private final double similitudMinima;
+    private final int maximoCandidatos;
+
+    /** Pedidos indexados por id */
+    private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /** Trigrama → ids de los pedidos cuyo nombre lo contiene */
+    private final Map<String, Set<Long>> indice = new ConcurrentHashMap<>();
+
+    public BuscadorPedidosMemoria(PedidoRepositorio pedidoRepositorio, TransactionTemplate transactionTemplate,
+                                  BusquedaProperties propiedades) {
+        this.pedidoRepositorio = pedidoRepositorio;
+        this.transactionTemplate = transactionTemplate;
+        this.similitudMinima = propiedades.similitudMinima();
+        this.maximoCandidatos = propiedades.maximoCandidatos();
+    }
+
+    /**
+     * Construye el índice con los pedidos existentes al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndice() {
+        transactionTemplate.executeWithoutResult(tx -> pedidoRepositorio.recorrerPedidos(
+                new FiltroPedidos(null, null, null, null),
+                bloque -> bloque.forEach(this::indexar)));
+    }
+
+    /**
+     * Actualiza el índice cuando se confirma la modificación de un pedido.
+     *
+     * @param evento Evento de modificación del pedido
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alModificarPedido(PedidoModificadoEvento evento) {
+        if (evento.tipo() == PedidoModificadoEvento.Tipo.ELIMINADO) {
+            desindexar(evento.pedidoId());
+        } else if (evento.tipo() == PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO) {
+            // El nombre no cambia: basta con actualizar el estado de la entrada, sin leer el pedido
+            entradas.computeIfPresent(evento.pedidoId(), (id, entrada) -> entrada.conEstado(evento.estadoNuevo()));
+        } else {
+            pedidoRepositorio.findById(evento.pedidoId()).ifPresent(this::indexar);
+        }
+    }
+
+    @Override
+    public List<ResultadoBusquedaDTO> buscar(String texto, int offset, int limite) {
+        Set<String> trigramasTexto = Trigramas.de(texto);
+        String textoNormalizado = texto.toLowerCase(Locale.ROOT);
+
+        // Candidatos: pedidos que comparten al menos un trigrama
+        Set<Long> candidatos = new HashSet<>();
+        for (String trigrama : trigramasTexto) {
+            Set<Long> ids = indice.get(trigrama);
+            if (ids != null) {
+                candidatos.addAll(ids);
+            }
+        }
+
+        List<ResultadoBusquedaDTO> coincidencias = new ArrayList<>();
+        for (Long id : candidatos.stream().sorted().toList()) {
+            if (coincidencias.size() == maximoCandidatos) {
+                break;
+            }
+            Entrada entrada = entradas.get(id);
+            if (entrada == null) {
+                continue;
+            }
+            double puntuacion = Trigramas.similitud(trigramasTexto, entrada.trigramas());
+            boolean contiene = entrada.nombreNormalizado().contains(textoNormalizado);
+            if (contiene || puntuacion >= similitudMinima) {
+                ResultadoBusquedaDTO base = entrada.resultado();
+                coincidencias.add(new ResultadoBusquedaDTO(base.id(), base.nombreCliente(), base.estado(),
+                        base.montoTotal(), base.fechaCreacion(), puntuacion));
+            }
+        }
+
+        return coincidencias.stream()
+                .sorted(Comparator.comparingDouble(ResultadoBusquedaDTO::puntuacion).reversed()
+                        .thenComparing(ResultadoBusquedaDTO::id))
+                .skip(offset)
+                .limit(limite)
+                .toList();
+    }
+
+    private synchronized void indexar(Pedido pedido) {
+        desindexar(pedido.getId());
+        Set<String> trigramas = Trigramas.de(pedido.getNombreCliente());
+        entradas.put(pedido.getId(), new Entrada(
+                pedido.getNombreCliente().toLowerCase(Locale.ROOT),
+                trigramas,
+                new ResultadoBusquedaDTO(pedido.getId(), pedido.getNombreCliente(), pedido.getEstado(),
+                        pedido.getMontoTotal(), pedido.getFechaCreacion(), 0)));
+        for (String trigrama : trigramas) {
+            indice.computeIfAbsent(trigrama, t -> ConcurrentHashMap.newKeySet()).add(pedido.getId());
+        }
+    }
+
+    private synchronized void desindexar(Long id) {
+        Entrada anterior = entradas.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (String trigrama : anterior.trigramas()) {
+            Set<Long> ids = indice.get(trigrama);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Datos de un pedido indexado.
+     */
+    private record Entrada(String nombreNormalizado, Set<String> trigramas, ResultadoBusquedaDTO resultado) {
+
+        Entrada conEstado(EstadoPedido estado) {
+            return new Entrada(nombreNormalizado, trigramas, new ResultadoBusquedaDTO(resultado.id(),
+                    resultado.nombreCliente(), estado, resultado.montoTotal(), resultado.fechaCreacion(), 0));
+        }
+    }
+}
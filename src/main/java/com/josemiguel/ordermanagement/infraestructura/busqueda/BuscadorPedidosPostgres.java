@@ -0,0 +1,90 @@
+package com.josemiguel.ordermanagement.infraestructura.busqueda;
+
+import com.josemiguel.ordermanagement.config.BusquedaProperties;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Búsqueda de pedidos sobre el índice GIN pg_trgm de pedidos.nombre_cliente (migración V3).
+ * - ILIKE '%texto%' conserva la semántica de findByNombreClienteContainingIgnoreCase
+ * - El operador {@code <%} añade coincidencias aproximadas (erratas) por similitud de palabra,
+ *   con el umbral pg_trgm.word_similarity_threshold, que se fija en cada búsqueda a
+ *   pedidos.busqueda.similitud-minima (set_config local a la transacción), como en BuscadorPedidosMemoria
+ * - Ambos predicados usan el índice de trigramas en lugar de recorrer la tabla
+ * - Solo se puntúan y ordenan las primeras pedidos.busqueda.maximo-candidatos coincidencias:
+ *   la subconsulta deja de leer filas al llegar al límite, por lo que un término muy frecuente
+ *   no obliga a puntuar todas sus coincidencias y el OFFSET recorre como mucho ese conjunto
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.busqueda.motor", havingValue = "postgres", matchIfMissing = true)
+public class BuscadorPedidosPostgres implements BuscadorPedidos {
+
+    private static final String UMBRAL = "SELECT set_config('pg_trgm.word_similarity_threshold', :umbral, true)";
+
+    private static final String CONSULTA = "SELECT c.id, c.nombre_cliente, c.estado, c.monto_total, c.fecha_creacion, "
+            + "CAST(word_similarity(:texto, c.nombre_cliente) AS double precision) AS puntuacion "
+            + "FROM (SELECT p.id, p.nombre_cliente, p.estado, p.monto_total, p.fecha_creacion "
+            + "FROM pedidos p "
+            + "WHERE p.nombre_cliente ILIKE :patron ESCAPE '\\' OR :texto <% p.nombre_cliente "
+            + "LIMIT :candidatos) c "
+            + "ORDER BY puntuacion DESC, c.id "
+            + "LIMIT :limite OFFSET :offset";
+
+    private final double similitudMinima;
+    private final int maximoCandidatos;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BuscadorPedidosPostgres(BusquedaProperties propiedades) {
+        this.similitudMinima = propiedades.similitudMinima();
+        this.maximoCandidatos = propiedades.maximoCandidatos();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<ResultadoBusquedaDTO> buscar(String texto, int offset, int limite) {
+        entityManager.createNativeQuery(UMBRAL)
+                .setParameter("umbral", Double.toString(similitudMinima))
+                .getSingleResult();
+        List<Object[]> filas = entityManager.createNativeQuery(CONSULTA)
+                .setParameter("texto", texto)
+                .setParameter("patron", "%" + escaparLike(texto) + "%")
+                .setParameter("candidatos", maximoCandidatos)
+                .setParameter("limite", limite)
+                .setParameter("offset", offset)
+                .getResultList();
+
+        List<ResultadoBusquedaDTO> resultados = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            resultados.add(new ResultadoBusquedaDTO(
+                    ((Number) fila[0]).longValue(),
+                    (String) fila[1],
+                    EstadoPedido.valueOf((String) fila[2]),
+                    (BigDecimal) fila[3],
+                    aFecha(fila[4]),
+                    ((Number) fila[5]).doubleValue()));
+        }
+        return resultados;
+    }
+
+    private static LocalDateTime aFecha(Object valor) {
+        return valor instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) valor;
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
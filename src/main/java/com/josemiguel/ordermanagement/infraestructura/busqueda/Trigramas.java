@@ -0,0 +1,67 @@
+package com.josemiguel.ordermanagement.infraestructura.busqueda;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Extracción de trigramas y similitud con la misma semántica que pg_trgm:
+ * - El texto se pasa a minúsculas y se divide en palabras alfanuméricas
+ * - Cada palabra se rodea con dos espacios delante y uno detrás
+ * - La similitud es |A ∩ B| / |A ∪ B|
+ */
+public final class Trigramas {
+
+    /**
+     * Longitud mínima del texto buscado para que pueda usarse un índice de trigramas.
+     */
+    public static final int LONGITUD_MINIMA = 3;
+
+    private Trigramas() {
+    }
+
+    /**
+     * Obtiene el conjunto de trigramas de un texto.
+     *
+     * @param texto Texto de entrada
+     * @return Trigramas sin repetir
+     */
+    public static Set<String> de(String texto) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        String normalizado = texto.toLowerCase(Locale.ROOT);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean alfanumerico = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (alfanumerico && inicio < 0) {
+                inicio = i;
+            } else if (!alfanumerico && inicio >= 0) {
+                String palabra = "  " + normalizado.substring(inicio, i) + " ";
+                for (int j = 0; j + 3 <= palabra.length(); j++) {
+                    trigramas.add(palabra.substring(j, j + 3));
+                }
+                inicio = -1;
+            }
+        }
+        return trigramas;
+    }
+
+    /**
+     * Similitud entre dos conjuntos de trigramas.
+     *
+     * @param a Trigramas del primer texto
+     * @param b Trigramas del segundo texto
+     * @return Valor entre 0 y 1
+     */
+    public static double similitud(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        int comunes = 0;
+        for (String trigrama : a) {
+            if (b.contains(trigrama)) {
+                comunes++;
+            }
+        }
+        return (double) comunes / (a.size() + b.size() - comunes);
+    }
+}
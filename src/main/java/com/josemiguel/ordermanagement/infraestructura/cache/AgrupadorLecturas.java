@@ -0,0 +1,207 @@
+package com.josemiguel.ordermanagement.infraestructura.cache;
+
+import com.josemiguel.ordermanagement.config.AgrupacionProperties;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa lecturas concurrentes idénticas (single-flight): la primera petición de una clave
+ * consulta la base de datos y las que llegan mientras tanto esperan y reciben su resultado,
+ * sin ocupar otra conexión del pool.
+ * - Las lecturas en curso se reparten en franjas, cada una con su propio cerrojo; el cerrojo
+ *   solo se toma para registrar o retirar la lectura, nunca durante la consulta
+ * - Si la lectura falla, todas las peticiones agrupadas reciben la misma excepción
+ * - Tras el commit de una modificación, las lecturas en curso de ese pedido y todas las
+ *   consultas de listados dejan de admitir peticiones nuevas, que empiezan otra lectura
+ *   y ven el cambio
+ * - Métricas: pedidos.lecturas (etiquetas operacion y resultado=ejecutada|agrupada) y
+ *   pedidos.lecturas.agrupacion (proporción de peticiones agrupadas sobre el total)
+ */
+@Component
+public class AgrupadorLecturas {
+
+    private final boolean habilitada;
+    private final Franja[] franjas;
+    private final MeterRegistry registro;
+    private final Map<String, Counter> contadores = new ConcurrentHashMap<>();
+
+    public AgrupadorLecturas(AgrupacionProperties propiedades, MeterRegistry registro) {
+        this.habilitada = propiedades.habilitada();
+        this.franjas = new Franja[Math.max(1, propiedades.franjas())];
+        for (int i = 0; i < franjas.length; i++) {
+            franjas[i] = new Franja();
+        }
+        this.registro = registro;
+        Gauge.builder("pedidos.lecturas.agrupacion", this, AgrupadorLecturas::proporcionAgrupadas)
+                .description("Proporción de lecturas resueltas con el resultado de otra petición en curso")
+                .register(registro);
+    }
+
+    /**
+     * Ejecuta una lectura de un pedido concreto, o espera a la misma lectura si ya está en curso.
+     *
+     * @param operacion Nombre de la lectura (forma parte de la clave y de las métricas)
+     * @param pedidoId  ID del pedido leído
+     * @param lectura   Consulta a la base de datos
+     * @return Resultado de la lectura, compartido con las peticiones agrupadas
+     */
+    public <V> V porPedido(String operacion, Long pedidoId, Supplier<V> lectura) {
+        return ejecutar(new Clave(operacion, pedidoId, List.of()), lectura);
+    }
+
+    /**
+     * Ejecuta una consulta de listado, o espera a la misma consulta si ya está en curso.
+     * Cualquier modificación confirmada invalida las consultas en curso.
+     *
+     * @param operacion  Nombre de la consulta (forma parte de la clave y de las métricas)
+     * @param parametros Parámetros de la consulta (admite null)
+     * @param lectura    Consulta a la base de datos
+     * @return Resultado de la consulta, compartido con las peticiones agrupadas
+     */
+    public <V> V consulta(String operacion, List<?> parametros, Supplier<V> lectura) {
+        return ejecutar(new Clave(operacion, null, parametros), lectura);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V ejecutar(Clave clave, Supplier<V> lectura) {
+        if (!habilitada) {
+            return lectura.get();
+        }
+        Franja franja = franja(clave);
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> enCurso;
+        synchronized (franja) {
+            enCurso = franja.enCurso.putIfAbsent(clave, propia);
+        }
+        if (enCurso != null) {
+            contador(clave.operacion(), "agrupada").increment();
+            return (V) esperar(enCurso);
+        }
+
+        contador(clave.operacion(), "ejecutada").increment();
+        V valor;
+        try {
+            valor = lectura.get();
+        } catch (RuntimeException | Error e) {
+            retirar(franja, clave, propia);
+            propia.completeExceptionally(e);
+            throw e;
+        }
+        // Se retira antes de completar para que ninguna petición se una a una lectura ya terminada
+        retirar(franja, clave, propia);
+        propia.complete(valor);
+        return valor;
+    }
+
+    private static Object esperar(CompletableFuture<Object> enCurso) {
+        try {
+            return enCurso.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private static void retirar(Franja franja, Clave clave, CompletableFuture<Object> propia) {
+        synchronized (franja) {
+            franja.enCurso.remove(clave, propia);
+        }
+    }
+
+    /**
+     * Tras el commit de una modificación, las lecturas en curso pueden haber leído el estado
+     * anterior: las del pedido y todas las consultas de listados dejan de admitir peticiones.
+     * Las peticiones ya agrupadas reciben igualmente su resultado.
+     * Se ejecuta antes que el resto de oyentes, como la invalidación de CachePedidos.
+     *
+     * @param evento Evento de modificación del pedido
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alModificarPedido(PedidoModificadoEvento evento) {
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                if (!franja.enCurso.isEmpty()) {
+                    franja.enCurso.keySet().removeIf(clave -> clave.afectadaPor(evento.pedidoId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Número de lecturas en curso en este momento.
+     *
+     * @return Lecturas registradas en todas las franjas
+     */
+    public int enCurso() {
+        int total = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                total += franja.enCurso.size();
+            }
+        }
+        return total;
+    }
+
+    private Franja franja(Clave clave) {
+        int hash = clave.hashCode();
+        return franjas[Math.floorMod(hash ^ (hash >>> 16), franjas.length)];
+    }
+
+    private Counter contador(String operacion, String resultado) {
+        return contadores.computeIfAbsent(operacion + '|' + resultado, k -> Counter.builder("pedidos.lecturas")
+                .description("Lecturas de pedidos ejecutadas o agrupadas con otra en curso")
+                .tags("operacion", operacion, "resultado", resultado)
+                .register(registro));
+    }
+
+    private double proporcionAgrupadas() {
+        double agrupadas = 0;
+        double total = 0;
+        for (Map.Entry<String, Counter> entrada : contadores.entrySet()) {
+            double valor = entrada.getValue().count();
+            total += valor;
+            if (entrada.getKey().endsWith("|agrupada")) {
+                agrupadas += valor;
+            }
+        }
+        return total == 0 ? 0 : agrupadas / total;
+    }
+
+    /**
+     * Identifica una lectura: operación, pedido (null en listados) y parámetros.
+     */
+    private record Clave(String operacion, Long pedidoId, List<?> parametros) {
+
+        boolean afectadaPor(Long modificado) {
+            return pedidoId == null || pedidoId.equals(modificado);
+        }
+    }
+
+    /**
+     * Lecturas en curso de una franja, protegidas por el monitor de la propia franja.
+     */
+    private static final class Franja {
+        private final Map<Clave, CompletableFuture<Object>> enCurso = new HashMap<>();
+    }
+}
@@ -0,0 +1,153 @@
+package com.josemiguel.ordermanagement.infraestructura.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.josemiguel.ordermanagement.config.CacheProperties;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Function;
+
+/**
+ * Caché de lectura de pedidos por id, con los PedidoDTO ya construidos.
+ * - Tamaño máximo y expiración por entrada: los pedidos en estado final son inmutables
+ *   y se conservan durante ttlFinal, el resto durante ttlActivo
+ * - Las cargas del mismo id son atómicas: una invalidación concurrente espera a que
+ *   termine la carga y la descarta, por lo que nunca queda un valor obsoleto
+ * - Se invalida tras el commit de cualquier modificación del pedido
+ * - Publica sus estadísticas como métricas cache.* con la etiqueta cache=pedidos
+ */
+@Component
+public class CachePedidos implements MeterBinder {
+
+    private final Cache<Long, PedidoDTO> cache;
+
+    public CachePedidos(CacheProperties propiedades) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(propiedades.tamanioMaximo())
+                .expireAfter(new ExpiracionPorEstado(propiedades))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene un pedido de la caché o lo carga si no está.
+     * - Si el cargador devuelve null (pedido inexistente) no se guarda nada
+     *
+     * @param id       ID del pedido
+     * @param cargador Función que construye el DTO desde la base de datos
+     * @return PedidoDTO o null si no existe
+     */
+    public PedidoDTO obtener(Long id, Function<Long, PedidoDTO> cargador) {
+        return cache.get(id, cargador);
+    }
+
+    /**
+     * Consulta un pedido en caché sin cargarlo si no está.
+     *
+     * @param id ID del pedido
+     * @return PedidoDTO en caché o null
+     */
+    public PedidoDTO consultar(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Consulta un pedido en caché sin registrar un fallo si no está.
+     * Permite comprobar la caché antes de agrupar la carga con obtener, que registra el fallo una sola vez.
+     *
+     * @param id ID del pedido
+     * @return PedidoDTO en caché o null
+     */
+    public PedidoDTO consultarSinFallo(Long id) {
+        return cache.policy().getIfPresentQuietly(id) != null ? cache.getIfPresent(id) : null;
+    }
+
+    /**
+     * Indica si un pedido está en caché, sin registrar un acierto ni un fallo.
+     *
+     * @param id ID del pedido
+     * @return true si está en caché
+     */
+    public boolean contiene(Long id) {
+        return cache.policy().getIfPresentQuietly(id) != null;
+    }
+
+    /**
+     * Elimina un pedido de la caché.
+     *
+     * @param id ID del pedido
+     */
+    public void invalidar(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Invalida el pedido una vez confirmada la transacción que lo modificó.
+     * Si la transacción se revierte, la entrada en caché sigue siendo válida.
+     * Se ejecuta antes que el resto de oyentes: quien reciba el cambio (p. ej. DifusorPedidos)
+     * ya no puede leer de la caché el estado anterior.
+     *
+     * @param evento Evento de modificación del pedido
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alModificarPedido(PedidoModificadoEvento evento) {
+        invalidar(evento.pedidoId());
+    }
+
+    /**
+     * Estadísticas acumuladas de aciertos, fallos y expulsiones.
+     *
+     * @return Estadísticas de la caché
+     */
+    public CacheStats estadisticas() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registro) {
+        CaffeineCacheMetrics.monitor(registro, cache, "pedidos");
+    }
+
+    /**
+     * Número aproximado de pedidos en caché.
+     *
+     * @return Tamaño estimado
+     */
+    public long tamanio() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Expiración por entrada según el estado del pedido.
+     */
+    private record ExpiracionPorEstado(CacheProperties propiedades) implements Expiry<Long, PedidoDTO> {
+
+        @Override
+        public long expireAfterCreate(Long id, PedidoDTO pedido, long ahora) {
+            boolean esFinal = pedido.getEstado() != null && pedido.getEstado().esFinal();
+            return (esFinal ? propiedades.ttlFinal() : propiedades.ttlActivo()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, PedidoDTO pedido, long ahora, long duracionActual) {
+            return expireAfterCreate(id, pedido, ahora);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, PedidoDTO pedido, long ahora, long duracionActual) {
+            return duracionActual;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.josemiguel.ordermanagement.infraestructura.cambios;
+
+import com.josemiguel.ordermanagement.config.CambiosProperties;
+import com.josemiguel.ordermanagement.config.PaginacionProperties;
+import com.josemiguel.ordermanagement.dominio.dto.CambioPedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PaginaCambiosDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.MarcaCambio;
+import com.josemiguel.ordermanagement.dominio.paginacion.CursorCambios;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.CambiosCaducadosException;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoEliminadoRepositorio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feed de cambios de pedidos para sincronización incremental (clientes offline, data warehouse).
+ * - Une dos recorridos keyset por (fecha, id): pedidos por fecha de modificación y marcas
+ *   de borrado por fecha de eliminación. Cada página cuesta dos lecturas de índice de
+ *   tamanio + 1 filas, sin importar el tamaño de la tabla
+ * - Un pedido modificado varias veces aparece una sola vez, en su última modificación
+ * - No entrega los cambios de los últimos pedidos.cambios.margen (ver CambiosProperties)
+ */
+@Component
+public class FeedCambiosPedidos {
+
+    private final PedidoRepositorio pedidoRepositorio;
+    private final PedidoEliminadoRepositorio pedidoEliminadoRepositorio;
+    private final PaginacionProperties paginacion;
+    private final CambiosProperties propiedades;
+
+    public FeedCambiosPedidos(PedidoRepositorio pedidoRepositorio,
+                              PedidoEliminadoRepositorio pedidoEliminadoRepositorio,
+                              PaginacionProperties paginacion, CambiosProperties propiedades) {
+        this.pedidoRepositorio = pedidoRepositorio;
+        this.pedidoEliminadoRepositorio = pedidoEliminadoRepositorio;
+        this.paginacion = paginacion;
+        this.propiedades = propiedades;
+    }
+
+    /**
+     * Cambios posteriores a un token de sincronización.
+     *
+     * @param desde   Token devuelto por la página anterior (null: desde el principio)
+     * @param tamanio Tamaño de página (limitado por la configuración de paginación)
+     * @return Página de cambios con el token desde el que continuar
+     * @throws CambiosCaducadosException si el token es anterior a la retención de eliminaciones
+     */
+    @Transactional(readOnly = true)
+    public PaginaCambiosDTO listarCambios(String desde, Integer tamanio) {
+        LocalDateTime ahora = LocalDateTime.now();
+        CursorCambios posicion = CursorCambios.INICIO;
+        if (desde != null && !desde.isBlank()) {
+            posicion = CursorCambios.decodificar(desde);
+            if (posicion.fecha().isBefore(ahora.minus(propiedades.retencionEliminados()))) {
+                throw new CambiosCaducadosException(desde);
+            }
+        }
+
+        int tamanioPagina = paginacion.tamanioEfectivo(tamanio);
+        Limit limite = Limit.of(tamanioPagina + 1);
+        LocalDateTime hasta = ahora.minus(propiedades.margen());
+        List<MarcaCambio> modificados = pedidoRepositorio.findModificadosTras(
+                posicion.fecha(), posicion.id(), hasta, limite);
+        List<MarcaCambio> eliminados = pedidoEliminadoRepositorio.findEliminadosTras(
+                posicion.fecha(), posicion.id(), hasta, limite);
+
+        List<CambioPedidoDTO> cambios = new ArrayList<>(Math.min(tamanioPagina, modificados.size() + eliminados.size()));
+        int m = 0;
+        int e = 0;
+        while (cambios.size() < tamanioPagina && (m < modificados.size() || e < eliminados.size())) {
+            if (e == eliminados.size() || (m < modificados.size() && anterior(modificados.get(m), eliminados.get(e)))) {
+                MarcaCambio marca = modificados.get(m++);
+                cambios.add(new CambioPedidoDTO(marca.id(), CambioPedidoDTO.Tipo.MODIFICADO, marca.fecha()));
+            } else {
+                MarcaCambio marca = eliminados.get(e++);
+                cambios.add(new CambioPedidoDTO(marca.id(), CambioPedidoDTO.Tipo.ELIMINADO, marca.fecha()));
+            }
+        }
+
+        boolean hayMas = m < modificados.size() || e < eliminados.size();
+        if (hayMas) {
+            CambioPedidoDTO ultimo = cambios.get(cambios.size() - 1);
+            posicion = new CursorCambios(ultimo.fecha(), ultimo.id());
+        } else {
+            // Entregado todo lo anterior a hasta: el token avanza hasta ahí aunque no haya
+            // cambios, para que un cliente al día no llegue a caducar
+            posicion = new CursorCambios(hasta, 0L);
+        }
+        return new PaginaCambiosDTO(cambios, posicion.codificar(), hayMas);
+    }
+
+    /**
+     * Borra las marcas de borrado fuera de la retención.
+     * Lo programa CambiosConfig cada hora.
+     *
+     * @return Número de marcas borradas
+     */
+    @Transactional
+    public int purgarEliminados() {
+        return pedidoEliminadoRepositorio.borrarAntesDe(
+                LocalDateTime.now().minus(propiedades.retencionEliminados()));
+    }
+
+    private static boolean anterior(MarcaCambio a, MarcaCambio b) {
+        int porFecha = a.fecha().compareTo(b.fecha());
+        return porFecha < 0 || (porFecha == 0 && a.id() < b.id());
+    }
+}
@@ -0,0 +1,31 @@
+package com.josemiguel.ordermanagement.infraestructura.cambios;
+
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoEliminadoRepositorio;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registra una marca de borrado por cada pedido eliminado, para el feed de cambios.
+ * Se ejecuta dentro de la transacción que elimina el pedido (MANDATORY): si se deshace,
+ * la marca también.
+ */
+@Component
+public class RegistroEliminaciones {
+
+    private final PedidoEliminadoRepositorio pedidoEliminadoRepositorio;
+
+    public RegistroEliminaciones(PedidoEliminadoRepositorio pedidoEliminadoRepositorio) {
+        this.pedidoEliminadoRepositorio = pedidoEliminadoRepositorio;
+    }
+
+    @EventListener(condition = "#evento.tipo() == T(com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento$Tipo).ELIMINADO")
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(PedidoModificadoEvento evento) {
+        pedidoEliminadoRepositorio.registrar(evento.pedidoId(), LocalDateTime.now());
+    }
+}
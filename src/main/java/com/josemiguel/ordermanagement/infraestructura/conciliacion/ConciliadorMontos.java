@@ -0,0 +1,170 @@
+package com.josemiguel.ordermanagement.infraestructura.conciliacion;
+
+import com.josemiguel.ordermanagement.config.ConciliacionProperties;
+import com.josemiguel.ordermanagement.dominio.dto.DescuadreMontoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.InformeConciliacionDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.MontoLineasPedido;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.ConciliacionEnCursoException;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Comprueba que el monto total de cada pedido coincide con la suma de sus líneas y, si se pide,
+ * corrige los descuadres (pedidos anteriores al cálculo en servidor, cargas directas en la base de datos...).
+ * - El rango de ids se divide recursivamente (fork/join) hasta tramos de tamanioBloque ids
+ * - Cada tramo se revisa con una consulta agregada que devuelve una fila por pedido, sin cargar líneas
+ * - Los tramos se revisan en paralelo en un ForkJoinPool propio de pedidos.conciliacion.hilos hilos,
+ *   para no ocupar más conexiones del pool que las configuradas
+ * - La corrección de cada tramo es una transacción (PedidoServicio.corregirMontos)
+ * - Solo se ejecuta una conciliación a la vez
+ * Métricas: pedidos.conciliacion.descuadres y pedidos.conciliacion.corregidos
+ */
+@Component
+public class ConciliadorMontos {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliadorMontos.class);
+
+    private final PedidoRepositorio pedidoRepositorio;
+    private final PedidoServicio pedidoServicio;
+    private final ConciliacionProperties propiedades;
+    private final Counter descuadres;
+    private final Counter corregidos;
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    public ConciliadorMontos(PedidoRepositorio pedidoRepositorio, PedidoServicio pedidoServicio,
+                             ConciliacionProperties propiedades, MeterRegistry registro) {
+        this.pedidoRepositorio = pedidoRepositorio;
+        this.pedidoServicio = pedidoServicio;
+        this.propiedades = propiedades;
+        this.descuadres = Counter.builder("pedidos.conciliacion.descuadres")
+                .description("Pedidos cuyo monto total no coincidía con la suma de sus líneas")
+                .register(registro);
+        this.corregidos = Counter.builder("pedidos.conciliacion.corregidos")
+                .description("Pedidos cuyo monto total se ha corregido con la suma de sus líneas")
+                .register(registro);
+    }
+
+    /**
+     * Revisa todos los pedidos con líneas.
+     *
+     * @param reparar true para sustituir los montos descuadrados por la suma de las líneas
+     * @return Informe con los pedidos revisados, descuadrados y corregidos
+     * @throws ConciliacionEnCursoException si ya hay otra conciliación en curso
+     */
+    public InformeConciliacionDTO conciliar(boolean reparar) {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new ConciliacionEnCursoException();
+        }
+        long inicio = System.nanoTime();
+        try {
+            Long desde = pedidoRepositorio.findIdMinimo();
+            Long hasta = pedidoRepositorio.findIdMaximo();
+            Parcial total = Parcial.VACIO;
+            if (desde != null && hasta != null) {
+                ForkJoinPool pool = new ForkJoinPool(Math.max(1, propiedades.hilos()));
+                try {
+                    total = pool.invoke(new Tramo(desde, hasta, reparar));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            log.info("Conciliación de montos: {} pedidos revisados, {} descuadrados, {} corregidos en {} ms",
+                    total.revisados(), total.descuadrados(), total.corregidos(), milisegundos);
+            return new InformeConciliacionDTO(total.revisados(), total.descuadrados(), total.corregidos(),
+                    reparar, milisegundos, total.muestra());
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    /**
+     * Revisa un tramo de ids y, si se pide, corrige sus descuadres.
+     */
+    private Parcial revisar(long desde, long hasta, boolean reparar) {
+        List<MontoLineasPedido> montos = pedidoRepositorio.findMontosLineas(desde, hasta);
+        List<MontoLineasPedido> descuadrados = new ArrayList<>();
+        for (MontoLineasPedido monto : montos) {
+            if (monto.descuadrado()) {
+                descuadrados.add(monto);
+            }
+        }
+        if (descuadrados.isEmpty()) {
+            return new Parcial(montos.size(), 0, 0, List.of());
+        }
+        descuadres.increment(descuadrados.size());
+        int corregidosTramo = 0;
+        if (reparar) {
+            corregidosTramo = pedidoServicio.corregirMontos(descuadrados);
+            corregidos.increment(corregidosTramo);
+        }
+        List<DescuadreMontoDTO> muestra = new ArrayList<>();
+        for (MontoLineasPedido monto : descuadrados) {
+            if (muestra.size() == propiedades.muestra()) {
+                break;
+            }
+            muestra.add(new DescuadreMontoDTO(monto.id(), monto.montoTotal(), monto.montoLineas()));
+        }
+        return new Parcial(montos.size(), descuadrados.size(), corregidosTramo, muestra);
+    }
+
+    /**
+     * Tramo [desde, hasta] de ids: se divide por la mitad hasta tener como mucho tamanioBloque ids.
+     */
+    private final class Tramo extends RecursiveTask<Parcial> {
+
+        private final long desde;
+        private final long hasta;
+        private final boolean reparar;
+
+        Tramo(long desde, long hasta, boolean reparar) {
+            this.desde = desde;
+            this.hasta = hasta;
+            this.reparar = reparar;
+        }
+
+        @Override
+        protected Parcial compute() {
+            if (hasta - desde < Math.max(1, propiedades.tamanioBloque())) {
+                return revisar(desde, hasta, reparar);
+            }
+            long mitad = desde + (hasta - desde) / 2;
+            Tramo izquierdo = new Tramo(desde, mitad, reparar);
+            izquierdo.fork();
+            Parcial derecho = new Tramo(mitad + 1, hasta, reparar).compute();
+            return izquierdo.join().combinar(derecho, propiedades.muestra());
+        }
+    }
+
+    /**
+     * Resultado acumulado de uno o varios tramos consecutivos.
+     */
+    private record Parcial(long revisados, long descuadrados, long corregidos, List<DescuadreMontoDTO> muestra) {
+
+        static final Parcial VACIO = new Parcial(0, 0, 0, List.of());
+
+        /**
+         * Suma los contadores y concatena las muestras (este tramo va antes que el siguiente).
+         */
+        Parcial combinar(Parcial siguiente, int maximo) {
+            List<DescuadreMontoDTO> juntos = muestra;
+            if (!siguiente.muestra.isEmpty() && muestra.size() < maximo) {
+                juntos = new ArrayList<>(muestra);
+                juntos.addAll(siguiente.muestra.subList(0, Math.min(siguiente.muestra.size(), maximo - muestra.size())));
+            }
+            return new Parcial(revisados + siguiente.revisados, descuadrados + siguiente.descuadrados,
+                    corregidos + siguiente.corregidos, juntos);
+        }
+    }
+}
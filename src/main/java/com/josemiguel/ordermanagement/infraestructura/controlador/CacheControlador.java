@@ -0,0 +1,42 @@
+package com.josemiguel.ordermanagement.infraestructura.controlador;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.josemiguel.ordermanagement.infraestructura.cache.CachePedidos;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST con las estadísticas de la caché de pedidos.
+ */
+@RestController
+@RequestMapping("/api/cache")
+public class CacheControlador {
+
+    private final CachePedidos cachePedidos;
+
+    public CacheControlador(CachePedidos cachePedidos) {
+        this.cachePedidos = cachePedidos;
+    }
+
+    /**
+     * Devuelve aciertos, fallos y expulsiones de la caché de pedidos.
+     *
+     * @return Estadísticas de la caché
+     */
+    @GetMapping("/pedidos")
+    public ResponseEntity<Map<String, Object>> estadisticasPedidos() {
+        CacheStats estadisticas = cachePedidos.estadisticas();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("tamanio", cachePedidos.tamanio());
+        body.put("aciertos", estadisticas.hitCount());
+        body.put("fallos", estadisticas.missCount());
+        body.put("tasaAciertos", estadisticas.hitRate());
+        body.put("expulsiones", estadisticas.evictionCount());
+        return ResponseEntity.ok(body);
+    }
+}
@@ -0,0 +1,36 @@
+package com.josemiguel.ordermanagement.infraestructura.controlador;
+
+import com.josemiguel.ordermanagement.dominio.dto.InformeConciliacionDTO;
+import com.josemiguel.ordermanagement.infraestructura.conciliacion.ConciliadorMontos;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador REST de la conciliación del monto total de los pedidos con sus líneas.
+ */
+@RestController
+@RequestMapping("/api/pedidos/conciliacion")
+public class ConciliacionControlador {
+
+    private final ConciliadorMontos conciliadorMontos;
+
+    public ConciliacionControlador(ConciliadorMontos conciliadorMontos) {
+        this.conciliadorMontos = conciliadorMontos;
+    }
+
+    /**
+     * Revisa todos los pedidos con líneas e informa de los montos descuadrados.
+     * - Con reparar=true sustituye cada monto descuadrado por la suma de sus líneas
+     * - 409 si ya hay otra conciliación en curso
+     *
+     * @param reparar Si se corrigen los descuadres (por defecto solo se informa)
+     * @return Informe de la conciliación
+     */
+    @PostMapping
+    public ResponseEntity<InformeConciliacionDTO> conciliar(@RequestParam(defaultValue = "false") boolean reparar) {
+        return ResponseEntity.ok(conciliadorMontos.conciliar(reparar));
+    }
+}
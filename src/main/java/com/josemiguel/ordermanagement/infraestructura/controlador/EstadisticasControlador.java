@@ -0,0 +1,61 @@
+package com.josemiguel.ordermanagement.infraestructura.controlador;
+
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticasPedidosDTO;
+import com.josemiguel.ordermanagement.infraestructura.estadisticas.EstadisticasPedidos;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Controlador REST de estadísticas de pedidos para los paneles de operaciones.
+ * Sustituye a descargar los pedidos y sumar montoTotal en el cliente.
+ */
+@RestController
+@RequestMapping("/api/pedidos/estadisticas")
+public class EstadisticasControlador {
+
+    /**
+     * Días incluidos por defecto si no se indica desde.
+     */
+    private static final int DIAS_DEFECTO = 30;
+
+    private final EstadisticasPedidos estadisticasPedidos;
+
+    public EstadisticasControlador(EstadisticasPedidos estadisticasPedidos) {
+        this.estadisticasPedidos = estadisticasPedidos;
+    }
+
+    /**
+     * Número de pedidos y monto total por estado y por día de creación.
+     * El coste depende del número de días del rango, no del número de pedidos.
+     *
+     * @param desde Primer día (opcional, por defecto los últimos 30 días)
+     * @param hasta Último día (opcional, por defecto hoy)
+     * @return Estadísticas del rango
+     */
+    @GetMapping
+    public ResponseEntity<EstadisticasPedidosDTO> obtenerEstadisticas(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(DIAS_DEFECTO - 1);
+        return ResponseEntity.ok(estadisticasPedidos.obtener(inicio, fin));
+    }
+
+    /**
+     * Recalcula las estadísticas desde la tabla de pedidos.
+     *
+     * @return Número de filas de agregado generadas
+     */
+    @PostMapping("/reconstruir")
+    public ResponseEntity<Map<String, Integer>> reconstruir() {
+        return ResponseEntity.ok(Map.of("filas", estadisticasPedidos.reconstruir()));
+    }
+}
@@ -1,16 +1,48 @@
 package com.josemiguel.ordermanagement.infraestructura.controlador;
 
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.dto.PaginaBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PaginaCambiosDTO;
 import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PedidosPorIdsDTO;
+import com.josemiguel.ordermanagement.dominio.dto.RespuestaLoteDTO;
+import com.josemiguel.ordermanagement.dominio.dto.RespuestaTransicionLoteDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ResumenPedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.SolicitudPedidosPorIdsDTO;
+import com.josemiguel.ordermanagement.dominio.dto.SolicitudTransicionLoteDTO;
 import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.CambiosProductos;
 import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.paginacion.Pagina;
 import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.dominio.servicio.ResultadoActualizacion;
+import com.josemiguel.ordermanagement.infraestructura.cambios.FeedCambiosPedidos;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.PedidoNoEncontradoException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.VersionNoCoincideException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.VistaInvalidaException;
+import com.josemiguel.ordermanagement.infraestructura.exportacion.ExportadorPedidos;
+import com.josemiguel.ordermanagement.infraestructura.exportacion.FormatoExportacion;
+import com.josemiguel.ordermanagement.infraestructura.exportacion.TiempoExportacion;
+import com.josemiguel.ordermanagement.infraestructura.ingesta.IngestorPedidos;
+import com.josemiguel.ordermanagement.infraestructura.transicion.TransicionadorPedidos;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controlador REST para la gestión de pedidos.
@@ -20,23 +52,164 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/pedidos")
 public class PedidoControlador {
 
+    public static final String CABECERA_LINEAS_MODIFICADAS = "X-Lineas-Modificadas";
+    public static final String CABECERA_LINEAS_INSERTADAS = "X-Lineas-Insertadas";
+    public static final String CABECERA_LINEAS_ACTUALIZADAS = "X-Lineas-Actualizadas";
+    public static final String CABECERA_LINEAS_ELIMINADAS = "X-Lineas-Eliminadas";
+
+    private static final String VISTA_COMPLETA = "completa";
+    private static final String VISTA_RESUMEN = "resumen";
+
     private final PedidoServicio pedidoServicio;
+    private final ExportadorPedidos exportadorPedidos;
+    private final IngestorPedidos ingestorPedidos;
+    private final TransicionadorPedidos transicionadorPedidos;
+    private final FeedCambiosPedidos feedCambiosPedidos;
 
-    public PedidoControlador(PedidoServicio pedidoServicio) {
+    public PedidoControlador(PedidoServicio pedidoServicio, ExportadorPedidos exportadorPedidos,
+                             IngestorPedidos ingestorPedidos, TransicionadorPedidos transicionadorPedidos,
+                             FeedCambiosPedidos feedCambiosPedidos) {
         this.pedidoServicio = pedidoServicio;
+        this.exportadorPedidos = exportadorPedidos;
+        this.ingestorPedidos = ingestorPedidos;
+        this.transicionadorPedidos = transicionadorPedidos;
+        this.feedCambiosPedidos = feedCambiosPedidos;
     }
 
     /**
-     * Lista todos los pedidos.
+     * Lista los pedidos más recientes, como mucho pedidos.paginacion.tamanio-maximo.
+     * - Mismo orden que /pagina; si hay más, la cabecera Link (rel="next") apunta a la
+     *   página siguiente de /pagina con la misma vista y campos
+     * - vista=resumen devuelve solo id, nombreCliente, estado, montoTotal y fechaCreacion,
+     *   leídos con una proyección que no toca los productos
+     * - fields=a,b,... limita el resumen a esos campos (implica vista=resumen; el id se incluye siempre)
      *
-     * @return Lista de pedidos en formato DTO
+     * @param vista  completa (por defecto) o resumen (opcional)
+     * @param fields Campos del resumen a devolver (opcional)
+     * @return Lista de pedidos en formato DTO o resumen
      */
     @GetMapping
-    public ResponseEntity<List<PedidoDTO>> listarPedidos() {
-        List<PedidoDTO> pedidosDTO = pedidoServicio.listarPedidos().stream()
-                .map(PedidoMapper::toDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(pedidosDTO);
+    public ResponseEntity<List<?>> listarPedidos(
+            @RequestParam(required = false) String vista,
+            @RequestParam(required = false) List<String> fields) {
+        Set<String> campos = camposResumen(vista, fields);
+        Pagina<?> pagina;
+        if (campos == null) {
+            pagina = pedidoServicio.listarPedidos();
+        } else {
+            Pagina<ResumenPedidoDTO> resumenes = pedidoServicio.listarResumenes();
+            pagina = new Pagina<>(recortar(resumenes.contenido(), campos), resumenes.siguienteCursor());
+        }
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.isHayMas()) {
+            String siguiente = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/pagina")
+                    .replaceQueryParam("cursor", pagina.siguienteCursor())
+                    .toUriString();
+            respuesta.header(HttpHeaders.LINK, "<" + siguiente + ">; rel=\"next\"");
+        }
+        return respuesta.body(pagina.contenido());
+    }
+
+    /**
+     * Lista pedidos paginados por cursor, del más reciente al más antiguo.
+     * - El coste de cada página es constante, independientemente del tamaño de la tabla
+     * - Para pedir la siguiente página se envía el siguienteCursor recibido
+     * - Admite vista y fields como el listado completo; los cursores valen para ambas vistas
+     *
+     * @param cursor  Cursor opaco de la página anterior (opcional)
+     * @param tamanio Tamaño de página (opcional, limitado por configuración)
+     * @param vista   completa (por defecto) o resumen (opcional)
+     * @param fields  Campos del resumen a devolver (opcional)
+     * @return Página de pedidos en formato DTO o resumen
+     */
+    @GetMapping("/pagina")
+    public ResponseEntity<Pagina<?>> listarPedidosPaginados(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamanio,
+            @RequestParam(required = false) String vista,
+            @RequestParam(required = false) List<String> fields) {
+        Set<String> campos = camposResumen(vista, fields);
+        if (campos == null) {
+            return ResponseEntity.ok(pedidoServicio.listarDTOsPaginados(cursor, tamanio));
+        }
+        Pagina<ResumenPedidoDTO> pagina = pedidoServicio.listarResumenesPaginados(cursor, tamanio);
+        return ResponseEntity.ok(new Pagina<>(recortar(pagina.contenido(), campos), pagina.siguienteCursor()));
+    }
+
+    /**
+     * Ids de los pedidos creados, modificados o eliminados desde la última sincronización.
+     * - Sin desde devuelve todos los pedidos existentes (sincronización inicial)
+     * - Se llama con el siguiente recibido hasta que hayMas sea false, y se guarda
+     *   el último siguiente para la próxima sincronización
+     * - 410 Gone si el token es anterior a la retención de eliminaciones
+     *
+     * @param desde   Token de la sincronización anterior (opcional)
+     * @param tamanio Tamaño de página (opcional, limitado por configuración)
+     * @return Página de cambios
+     */
+    @GetMapping("/cambios")
+    public ResponseEntity<PaginaCambiosDTO> listarCambios(
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) Integer tamanio) {
+        return ResponseEntity.ok(feedCambiosPedidos.listarCambios(desde, tamanio));
+    }
+
+    /**
+     * Busca pedidos por nombre de cliente, ordenados por relevancia.
+     * - Usa un índice de trigramas: no recorre la tabla completa
+     * - Incluye coincidencias aproximadas (erratas) además de las exactas
+     *
+     * @param q       Texto a buscar (mínimo 3 caracteres)
+     * @param pagina  Número de página (empezando en 0)
+     * @param tamanio Tamaño de página (opcional)
+     * @return Página de resultados
+     */
+    @GetMapping("/buscar")
+    public ResponseEntity<PaginaBusquedaDTO> buscarPedidos(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(required = false) Integer tamanio) {
+        return ResponseEntity.ok(pedidoServicio.buscarPedidos(q, pagina, tamanio));
+    }
+
+    /**
+     * Obtiene varios pedidos por id en una sola petición.
+     * - Los pedidos en caché se sirven sin acceder a la base de datos; el resto con una única consulta
+     * - Devuelve los pedidos en el orden de los ids y, aparte, los ids que no existen
+     * - 400 si se superan los ids permitidos (pedidos.lote.maximo-ids)
+     *
+     * @param solicitud IDs de los pedidos
+     * @return Pedidos encontrados e ids no encontrados
+     */
+    @PostMapping("/buscar-ids")
+    public ResponseEntity<PedidosPorIdsDTO> obtenerPedidosPorIds(@Valid @RequestBody SolicitudPedidosPorIdsDTO solicitud) {
+        return ResponseEntity.ok(pedidoServicio.obtenerDTOsPorIds(solicitud.ids()));
+    }
+
+    /**
+     * Exporta pedidos con sus productos en streaming (NDJSON o CSV).
+     * - Acepta los mismos filtros que los finders: estado, rango de fechas y nombre de cliente
+     * - La respuesta se escribe a medida que se leen los pedidos, sin cargarlos todos en memoria
+     * - Su timeout es pedidos.exportacion.timeout, no el general de las peticiones asíncronas
+     *
+     * @param formato  Formato de salida (NDJSON por defecto)
+     * @param filtro   Filtros opcionales: estado, desde, hasta, nombreCliente
+     * @param peticion Petición HTTP, que se marca como exportación (ver TiempoExportacion)
+     * @return Cuerpo de respuesta en streaming
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarPedidos(
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato,
+            FiltroPedidos filtro,
+            HttpServletRequest peticion) {
+        peticion.setAttribute(TiempoExportacion.ATRIBUTO, Boolean.TRUE);
+        StreamingResponseBody cuerpo = salida -> exportadorPedidos.exportar(filtro, formato, salida);
+        return ResponseEntity.ok()
+                .contentType(formato.getTipoContenido())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=pedidos." + formato.getExtension())
+                .body(cuerpo);
     }
 
     /**
@@ -50,39 +223,96 @@ public class PedidoControlador {
     public ResponseEntity<PedidoDTO> crearPedido(@Valid @RequestBody PedidoDTO pedidoDTO) {
         Pedido pedido = PedidoMapper.toEntity(pedidoDTO);
         Pedido nuevoPedido = pedidoServicio.crearPedido(pedido);
-        return new ResponseEntity<>(PedidoMapper.toDTO(nuevoPedido), HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(etag(nuevoPedido.getVersion()))
+                .body(PedidoMapper.toDTO(nuevoPedido));
+    }
+
+    /**
+     * Crea pedidos en bloque a partir de un array JSON o de un stream NDJSON.
+     * - Cada pedido se valida por separado y los inválidos no bloquean al resto
+     * - Retorna 201 si se crearon todos o 207 Multi-Status si alguno falló
+     *
+     * @param cuerpo Cuerpo de la petición con los pedidos
+     * @return Resumen y resultado por pedido
+     * @throws IOException si falla la lectura del cuerpo
+     */
+    @PostMapping(value = "/lote", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<RespuestaLoteDTO> crearPedidosEnLote(InputStream cuerpo) throws IOException {
+        RespuestaLoteDTO respuesta = RespuestaLoteDTO.de(ingestorPedidos.ingerir(cuerpo));
+        HttpStatus status = respuesta.fallidos() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(respuesta, status);
     }
 
     /**
      * Actualiza un pedido existente.
      * - Valida que el pedido no esté en estado final
+     * - Los productos se identifican por id: solo se escriben las líneas que cambian
+     * - Las cabeceras X-Lineas-* informan de las líneas insertadas, actualizadas y eliminadas
+     * - Con If-Match solo se actualiza si el ETag coincide con la versión actual (412 si no)
      *
      * @param id ID del pedido
      * @param pedidoDTO Datos a actualizar
-     * @return Pedido actualizado en formato DTO
+     * @param ifMatch ETag leído por el cliente (opcional)
+     * @return Pedido actualizado en formato DTO, con su nuevo ETag
      */
     @PutMapping("/{id}")
     public ResponseEntity<PedidoDTO> actualizarPedido(
             @PathVariable Long id,
-            @Valid @RequestBody PedidoDTO pedidoDTO) {
-        Pedido pedidoActualizado = pedidoServicio.actualizarPedido(id, PedidoMapper.toEntity(pedidoDTO));
-        return ResponseEntity.ok(PedidoMapper.toDTO(pedidoActualizado));
+            @Valid @RequestBody PedidoDTO pedidoDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ResultadoActualizacion resultado = pedidoServicio.actualizarPedido(
+                id, PedidoMapper.toEntityActualizacion(pedidoDTO), versionEsperada(ifMatch));
+        CambiosProductos cambios = resultado.cambios();
+        return ResponseEntity.ok()
+                .eTag(etag(resultado.pedido().getVersion()))
+                .header(CABECERA_LINEAS_MODIFICADAS, String.valueOf(cambios.total()))
+                .header(CABECERA_LINEAS_INSERTADAS, String.valueOf(cambios.insertadas()))
+                .header(CABECERA_LINEAS_ACTUALIZADAS, String.valueOf(cambios.actualizadas()))
+                .header(CABECERA_LINEAS_ELIMINADAS, String.valueOf(cambios.eliminadas()))
+                .body(PedidoMapper.toDTO(resultado.pedido()));
     }
 
     /**
      * Cambia el estado de un pedido.
      * - Valida que no se modifique si el pedido está en estado final
+     * - Con If-Match solo se cambia si el ETag coincide con la versión actual (412 si no)
+     * - El cambio se aplica con un único UPDATE; el pedido devuelto se lee después a través de la caché
      *
      * @param id ID del pedido
      * @param estado Nuevo estado como String
-     * @return Pedido con estado actualizado en formato DTO
+     * @param ifMatch ETag leído por el cliente (opcional)
+     * @return Pedido con estado actualizado en formato DTO, con su nuevo ETag
      */
     @PatchMapping("/{id}/estado")
     public ResponseEntity<PedidoDTO> cambiarEstado(
             @PathVariable Long id,
-            @RequestParam String estado) {
-        Pedido pedidoActualizado = pedidoServicio.cambiarEstado(id, estado);
-        return ResponseEntity.ok(PedidoMapper.toDTO(pedidoActualizado));
+            @RequestParam String estado,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        pedidoServicio.cambiarEstado(id, estado, versionEsperada(ifMatch));
+        PedidoDTO pedidoActualizado = pedidoServicio.obtenerDTOPorId(id)
+                .orElseThrow(() -> new PedidoNoEncontradoException(id));
+        return ResponseEntity.ok()
+                .eTag(etag(pedidoActualizado.getVersion()))
+                .body(pedidoActualizado);
+    }
+
+    /**
+     * Cambia el estado de muchos pedidos a la vez.
+     * - Los pedidos se indican por ids o por filtro (estado, desde, hasta)
+     * - Aplica las mismas reglas de transición que el cambio de estado individual
+     * - Retorna 200 si cambiaron todos o 207 Multi-Status con el resultado de cada pedido
+     *
+     * @param solicitud Pedidos a cambiar y estado nuevo
+     * @return Resumen y resultado por pedido
+     */
+    @PostMapping("/estado/lote")
+    public ResponseEntity<RespuestaTransicionLoteDTO> cambiarEstadoEnLote(
+            @Valid @RequestBody SolicitudTransicionLoteDTO solicitud) {
+        RespuestaTransicionLoteDTO respuesta = RespuestaTransicionLoteDTO.de(
+                transicionadorPedidos.transicionar(solicitud));
+        HttpStatus status = respuesta.rechazados() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(respuesta, status);
     }
 
     /**
@@ -97,11 +327,112 @@ public class PedidoControlador {
         pedidoServicio.eliminarPedido(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Obtiene un pedido por su ID.
+     * - Se sirve desde la caché de pedidos si está disponible
+     * - La cabecera ETag contiene la versión del pedido
+     * - Con If-None-Match igual a la versión actual retorna 304 sin cuerpo y sin cargar el pedido
+     *
+     * @param id ID del pedido
+     * @param ifNoneMatch ETag de la copia que ya tiene el cliente (opcional)
+     * @return Pedido en formato DTO, 304 si no ha cambiado o 404 si no existe
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<PedidoDTO> obtenerPedido(@PathVariable Long id) {
-        return pedidoServicio.obtenerPorId(id)
-                .map(PedidoMapper::toDTO)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<PedidoDTO> obtenerPedido(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = pedidoServicio.obtenerVersion(id);
+            if (version.isPresent() && coincideAlguno(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version.get())).build();
+            }
+        }
+        return pedidoServicio.obtenerDTOPorId(id)
+                .map(dto -> ResponseEntity.ok().eTag(etag(dto.getVersion())).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Campos del resumen pedidos con vista y fields.
+     *
+     * @param vista  completa, resumen o null
+     * @param fields Campos pedidos o null
+     * @return Campos del resumen, o null para la vista completa
+     */
+    private static Set<String> camposResumen(String vista, List<String> fields) {
+        boolean resumen = VISTA_RESUMEN.equalsIgnoreCase(vista);
+        if (vista != null && !resumen && !VISTA_COMPLETA.equalsIgnoreCase(vista)) {
+            throw new VistaInvalidaException("Vista no válida: " + vista + " (completa o resumen)");
+        }
+        if (fields == null || fields.isEmpty()) {
+            return resumen ? Set.copyOf(ResumenPedidoDTO.CAMPOS) : null;
+        }
+        if (vista != null && !resumen) {
+            throw new VistaInvalidaException("fields solo puede usarse con la vista resumen");
+        }
+        Set<String> campos = new HashSet<>();
+        for (String campo : fields) {
+            String nombre = campo.trim();
+            if (!ResumenPedidoDTO.CAMPOS.contains(nombre)) {
+                throw new VistaInvalidaException("Campo no válido: " + nombre + " " + ResumenPedidoDTO.CAMPOS);
+            }
+            campos.add(nombre);
+        }
+        return campos;
+    }
+
+    /**
+     * Quita de los resúmenes los campos no pedidos.
+     */
+    private static List<ResumenPedidoDTO> recortar(List<ResumenPedidoDTO> resumenes, Set<String> campos) {
+        if (campos.size() == ResumenPedidoDTO.CAMPOS.size()) {
+            return resumenes;
+        }
+        List<ResumenPedidoDTO> recortados = new ArrayList<>(resumenes.size());
+        for (ResumenPedidoDTO resumen : resumenes) {
+            recortados.add(resumen.conCampos(campos));
+        }
+        return recortados;
+    }
+
+    /**
+     * ETag fuerte a partir de la versión del pedido.
+     */
+    private static String etag(Long version) {
+        return ETag.create(String.valueOf(version)).formattedTag();
+    }
+
+    /**
+     * Comparación débil de If-None-Match: vale "*" o cualquier ETag con la misma versión.
+     */
+    private static boolean coincideAlguno(String cabecera, Long version) {
+        String actual = String.valueOf(version);
+        return ETag.parse(cabecera).stream()
+                .anyMatch(etag -> etag.isWildcard() || etag.tag().equals(actual));
+    }
+
+    /**
+     * Versión que exige If-Match.
+     * - Sin cabecera o con "*" no se comprueba la versión (null)
+     * - Solo se admite un ETag fuerte con una versión numérica; cualquier otro valor
+     *   no puede coincidir con el pedido y se responde 412
+     */
+    private static Long versionEsperada(String cabecera) {
+        if (cabecera == null || cabecera.isBlank()) {
+            return null;
+        }
+        List<ETag> etags = ETag.parse(cabecera);
+        if (etags.stream().anyMatch(ETag::isWildcard)) {
+            return null;
+        }
+        if (etags.size() != 1 || etags.get(0).weak()) {
+            throw new VersionNoCoincideException("If-Match debe indicar un único ETag fuerte: " + cabecera);
+        }
+        try {
+            return Long.valueOf(etags.get(0).tag());
+        } catch (NumberFormatException e) {
+            throw new VersionNoCoincideException("If-Match no corresponde a ninguna versión del pedido: " + cabecera);
+        }
+    }
 }
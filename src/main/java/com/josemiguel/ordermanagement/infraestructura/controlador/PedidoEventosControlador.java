@@ -0,0 +1,60 @@
+package com.josemiguel.ordermanagement.infraestructura.controlador;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.sse.DifusorPedidos;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Controlador de cambios de pedidos en directo (Server-Sent Events).
+ * Sustituye al sondeo periódico de GET /api/pedidos/{id}: el cliente abre una conexión
+ * y recibe cada cambio confirmado sin volver a consultar la base de datos.
+ */
+@RestController
+@RequestMapping("/api/pedidos")
+public class PedidoEventosControlador {
+
+    private final PedidoServicio pedidoServicio;
+    private final DifusorPedidos difusorPedidos;
+
+    public PedidoEventosControlador(PedidoServicio pedidoServicio, DifusorPedidos difusorPedidos) {
+        this.pedidoServicio = pedidoServicio;
+        this.difusorPedidos = difusorPedidos;
+    }
+
+    /**
+     * Cambios de un pedido.
+     * - Evento "pedido": el pedido actual, al conectar (desde la caché si está disponible)
+     * - Evento "cambio": cada modificación posterior; tras la eliminación se cierra la conexión
+     *
+     * @param id ID del pedido
+     * @return Conexión SSE, o 404 si el pedido no existe
+     */
+    @GetMapping(value = "/{id}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventosPedido(@PathVariable Long id) {
+        return difusorPedidos.suscribirPedido(id, () -> pedidoServicio.obtenerDTOPorId(id));
+    }
+
+    /**
+     * Cambios de todos los pedidos que pasan a alguno de los estados indicados.
+     *
+     * @param estados Estados de interés (opcional, repetible; sin él, cualquier cambio)
+     * @return Conexión SSE con un evento "cambio" por modificación
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventosPorEstado(@RequestParam(value = "estado", required = false) List<EstadoPedido> estados) {
+        Set<EstadoPedido> filtro = estados == null || estados.isEmpty()
+                ? Set.of() : EnumSet.copyOf(estados);
+        return difusorPedidos.suscribirEstados(filtro);
+    }
+}
@@ -0,0 +1,133 @@
+package com.josemiguel.ordermanagement.infraestructura.estadisticas;
+
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticaDiaDTO;
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticaEstadoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticasPedidosDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.EstadisticaPedidosRepositorio;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas de pedidos por estado y por día de creación, sobre agregados incrementales.
+ * - Cada PedidoModificadoEvento se traduce en incrementos de las filas (día, estado) afectadas
+ * - Los incrementos de una transacción se acumulan en memoria y se escriben justo antes del
+ *   commit, con una sentencia por fila: un cambio masivo de 500 pedidos del mismo día escribe
+ *   dos filas, no 500. Escribir al final también reduce el tiempo que se bloquean las filas
+ *   más concurridas (el día actual en CREATED)
+ * - Las filas se escriben en orden de día y estado para evitar interbloqueos entre transacciones
+ * - Si la transacción se deshace, los incrementos se descartan con ella
+ * - reconstruir() recalcula todo desde la tabla de pedidos
+ */
+@Component
+public class EstadisticasPedidos {
+
+    private static final Comparator<Cubo> ORDEN = Comparator.comparing(Cubo::dia).thenComparing(Cubo::estado);
+
+    private final EstadisticaPedidosRepositorio estadisticaPedidosRepositorio;
+
+    public EstadisticasPedidos(EstadisticaPedidosRepositorio estadisticaPedidosRepositorio) {
+        this.estadisticaPedidosRepositorio = estadisticaPedidosRepositorio;
+    }
+
+    /**
+     * Acumula los incrementos de un cambio en la transacción actual.
+     */
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alModificarPedido(PedidoModificadoEvento evento) {
+        if (evento.estadoAnterior() != null && evento.montoAnterior() != null) {
+            incrementos().sumar(new Cubo(evento.dia(), evento.estadoAnterior()), -1, evento.montoAnterior().negate());
+        }
+        if (evento.estadoNuevo() != null && evento.montoNuevo() != null) {
+            incrementos().sumar(new Cubo(evento.dia(), evento.estadoNuevo()), 1, evento.montoNuevo());
+        }
+    }
+
+    /**
+     * Estadísticas de los pedidos creados entre dos días.
+     * Lee como máximo una fila por día y estado del rango.
+     *
+     * @param desde Primer día (inclusive)
+     * @param hasta Último día (inclusive)
+     * @return Totales y desglose por estado y por día
+     */
+    @Transactional(readOnly = true)
+    public EstadisticasPedidosDTO obtener(LocalDate desde, LocalDate hasta) {
+        List<EstadisticaEstadoDTO> porEstado = estadisticaPedidosRepositorio.sumarPorEstado(desde, hasta);
+        List<EstadisticaDiaDTO> porDia = estadisticaPedidosRepositorio.sumarPorDia(desde, hasta);
+        long pedidos = 0;
+        BigDecimal montoTotal = BigDecimal.ZERO;
+        for (EstadisticaEstadoDTO estado : porEstado) {
+            pedidos += estado.pedidos();
+            montoTotal = montoTotal.add(estado.montoTotal());
+        }
+        return new EstadisticasPedidosDTO(desde, hasta, pedidos, montoTotal, porEstado, porDia);
+    }
+
+    /**
+     * Recalcula los agregados desde la tabla de pedidos, en una transacción.
+     * Para corregir desviaciones (cambios hechos directamente en la base de datos) o
+     * inicializar los agregados de pedidos anteriores a esta funcionalidad.
+     *
+     * @return Número de filas de agregado generadas
+     */
+    @Transactional
+    public int reconstruir() {
+        return estadisticaPedidosRepositorio.reconstruir();
+    }
+
+    private Incrementos incrementos() {
+        Incrementos incrementos = (Incrementos) TransactionSynchronizationManager.getResource(this);
+        if (incrementos == null) {
+            incrementos = new Incrementos();
+            TransactionSynchronizationManager.bindResource(this, incrementos);
+            TransactionSynchronizationManager.registerSynchronization(incrementos);
+        }
+        return incrementos;
+    }
+
+    private record Cubo(LocalDate dia, EstadoPedido estado) {
+    }
+
+    /**
+     * Incrementos pendientes de la transacción actual, por fila de agregado.
+     */
+    private final class Incrementos implements TransactionSynchronization {
+
+        private final Map<Cubo, long[]> pedidos = new TreeMap<>(ORDEN);
+        private final Map<Cubo, BigDecimal> montos = new TreeMap<>(ORDEN);
+
+        void sumar(Cubo cubo, long pedidosCubo, BigDecimal monto) {
+            pedidos.computeIfAbsent(cubo, c -> new long[1])[0] += pedidosCubo;
+            montos.merge(cubo, monto, BigDecimal::add);
+        }
+
+        @Override
+        public void beforeCommit(boolean soloLectura) {
+            pedidos.forEach((cubo, numero) -> {
+                BigDecimal monto = montos.get(cubo);
+                if (numero[0] != 0 || monto.signum() != 0) {
+                    estadisticaPedidosRepositorio.sumar(cubo.dia(), cubo.estado(), numero[0], monto);
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int estado) {
+            TransactionSynchronizationManager.unbindResource(EstadisticasPedidos.this);
+        }
+    }
+}
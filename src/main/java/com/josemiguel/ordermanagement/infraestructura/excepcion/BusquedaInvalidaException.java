@@ -0,0 +1,16 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando los parámetros de una búsqueda no son válidos.
+ */
+public class BusquedaInvalidaException extends RuntimeException {
+
+    /**
+     * Constructor con mensaje personalizado.
+     *
+     * @param mensaje Mensaje de error que describe la situación
+     */
+    public BusquedaInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando el token del feed de cambios es anterior a la retención
+ * de las marcas de borrado: el cliente debe hacer una sincronización completa.
+ */
+public class CambiosCaducadosException extends RuntimeException {
+
+    /**
+     * Constructor que genera el mensaje con el token recibido.
+     *
+     * @param token Token de sincronización caducado
+     */
+    public CambiosCaducadosException(String token) {
+        super("El token de sincronización ha caducado, sincroniza de nuevo sin desde: " + token);
+    }
+}
@@ -0,0 +1,16 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando la cabecera Idempotency-Key está vacía o es demasiado larga.
+ */
+public class ClaveIdempotenciaInvalidaException extends RuntimeException {
+
+    /**
+     * Constructor con mensaje personalizado.
+     *
+     * @param mensaje Descripción del error
+     */
+    public ClaveIdempotenciaInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando una clave de idempotencia ya usada llega con otra
+ * petición (distinto método, ruta, parámetros o cuerpo).
+ */
+public class ClaveIdempotenciaReutilizadaException extends RuntimeException {
+
+    /**
+     * Constructor que genera el mensaje con la clave recibida.
+     *
+     * @param clave Clave de idempotencia reutilizada
+     */
+    public ClaveIdempotenciaReutilizadaException(String clave) {
+        super("La clave de idempotencia " + clave + " ya se usó con una petición distinta");
+    }
+}
@@ -0,0 +1,11 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada al pedir una conciliación de montos mientras otra sigue en curso.
+ */
+public class ConciliacionEnCursoException extends RuntimeException {
+
+    public ConciliacionEnCursoException() {
+        super("Ya hay una conciliación de montos en curso, inténtalo más tarde");
+    }
+}
@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando el cursor de paginación recibido
+ * no puede decodificarse.
+ */
+public class CursorInvalidoException extends RuntimeException {
+
+    /**
+     * Constructor que genera el mensaje con el cursor recibido.
+     *
+     * @param cursor Cursor que no se pudo interpretar
+     */
+    public CursorInvalidoException(String cursor) {
+        super("Cursor de paginación inválido: " + cursor);
+    }
+}
@@ -1,6 +1,10 @@
 package com.josemiguel.ordermanagement.infraestructura.excepcion;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -17,12 +21,24 @@ import java.util.stream.Collectors;
  * Handler global de excepciones para la aplicación
  * - Captura errores de validación y otros tipos de excepciones
  * - Devuelve responses con el código HTTP y el mensaje correspondiente
+ * - Cuenta cada excepción en pedidos.excepciones (etiquetas manejador y excepcion)
  */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    private final MeterRegistry registro;
+
+    public GlobalExceptionHandler(MeterRegistry registro) {
+        this.registro = registro;
+    }
+
+    private void contar(String manejador, Exception ex) {
+        registro.counter("pedidos.excepciones",
+                "manejador", manejador, "excepcion", ex.getClass().getSimpleName()).increment();
+    }
+
     /**
      * Maneja errores de validación de los DTOs anotados con @Valid
      * - Recolecta todos los errores de campo y los devuelve como JSON
@@ -30,6 +46,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        contar("handleValidationExceptions", ex);
         Map<String, Object> body = new HashMap<>();
 
         List<Map<String, String>> errors = ex.getBindingResult().getFieldErrors().stream()
@@ -52,14 +69,16 @@ public class GlobalExceptionHandler {
     /**
      * Maneja excepciones de tipo PedidoNoEncontradoException
      * - Retorna mensaje con HTTP status 404 Not Found
+     * - Content-Type fijo: también se usa desde los endpoints SSE (Accept: text/event-stream)
      */
     @ExceptionHandler(PedidoNoEncontradoException.class)
     public ResponseEntity<Map<String, Object>> handlePedidoNoEncontrado(PedidoNoEncontradoException ex) {
+        contar("handlePedidoNoEncontrado", ex);
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now().format(FORMATTER));
         body.put("status", HttpStatus.NOT_FOUND.value());
         body.put("message", ex.getMessage());
-        return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -68,6 +87,77 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(EstadoFinalException.class)
     public ResponseEntity<Map<String, Object>> handleEstadoFinal(EstadoFinalException ex) {
+        contar("handleEstadoFinal", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja excepciones de tipo CursorInvalidoException
+     * - Retorna mensaje con HTTP status 400 Bad Request
+     */
+    @ExceptionHandler(CursorInvalidoException.class)
+    public ResponseEntity<Map<String, Object>> handleCursorInvalido(CursorInvalidoException ex) {
+        contar("handleCursorInvalido", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja excepciones de tipo CambiosCaducadosException
+     * - Retorna mensaje con HTTP status 410 Gone: el cliente debe sincronizar desde cero
+     */
+    @ExceptionHandler(CambiosCaducadosException.class)
+    public ResponseEntity<Map<String, Object>> handleCambiosCaducados(CambiosCaducadosException ex) {
+        contar("handleCambiosCaducados", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.GONE.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.GONE);
+    }
+
+    /**
+     * Maneja excepciones de tipo BusquedaInvalidaException
+     * - Retorna mensaje con HTTP status 400 Bad Request
+     */
+    @ExceptionHandler(BusquedaInvalidaException.class)
+    public ResponseEntity<Map<String, Object>> handleBusquedaInvalida(BusquedaInvalidaException ex) {
+        contar("handleBusquedaInvalida", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja excepciones de tipo LoteInvalidoException
+     * - Retorna mensaje con HTTP status 400 Bad Request
+     */
+    @ExceptionHandler(LoteInvalidoException.class)
+    public ResponseEntity<Map<String, Object>> handleLoteInvalido(LoteInvalidoException ex) {
+        contar("handleLoteInvalido", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja excepciones de tipo VistaInvalidaException
+     * - Retorna mensaje con HTTP status 400 Bad Request
+     */
+    @ExceptionHandler(VistaInvalidaException.class)
+    public ResponseEntity<Map<String, Object>> handleVistaInvalida(VistaInvalidaException ex) {
+        contar("handleVistaInvalida", ex);
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now().format(FORMATTER));
         body.put("status", HttpStatus.BAD_REQUEST.value());
@@ -75,12 +165,119 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja excepciones de tipo VersionNoCoincideException (If-Match no satisfecho)
+     * - Retorna mensaje con HTTP status 412 Precondition Failed
+     */
+    @ExceptionHandler(VersionNoCoincideException.class)
+    public ResponseEntity<Map<String, Object>> handleVersionNoCoincide(VersionNoCoincideException ex) {
+        contar("handleVersionNoCoincide", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.PRECONDITION_FAILED.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Maneja excepciones de tipo ClaveIdempotenciaInvalidaException
+     * - Retorna mensaje con HTTP status 400 Bad Request
+     */
+    @ExceptionHandler(ClaveIdempotenciaInvalidaException.class)
+    public ResponseEntity<Map<String, Object>> handleClaveIdempotenciaInvalida(ClaveIdempotenciaInvalidaException ex) {
+        contar("handleClaveIdempotenciaInvalida", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Maneja excepciones de tipo ClaveIdempotenciaReutilizadaException
+     * - Retorna mensaje con HTTP status 422 Unprocessable Entity
+     */
+    @ExceptionHandler(ClaveIdempotenciaReutilizadaException.class)
+    public ResponseEntity<Map<String, Object>> handleClaveIdempotenciaReutilizada(
+            ClaveIdempotenciaReutilizadaException ex) {
+        contar("handleClaveIdempotenciaReutilizada", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.UNPROCESSABLE_ENTITY.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Maneja excepciones de tipo PeticionEnCursoException
+     * - La petición original con la misma clave de idempotencia no ha terminado a tiempo
+     * - Retorna mensaje con HTTP status 409 Conflict
+     */
+    @ExceptionHandler(PeticionEnCursoException.class)
+    public ResponseEntity<Map<String, Object>> handlePeticionEnCurso(PeticionEnCursoException ex) {
+        contar("handlePeticionEnCurso", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja excepciones de tipo ConciliacionEnCursoException
+     * - Retorna mensaje con HTTP status 409 Conflict
+     */
+    @ExceptionHandler(ConciliacionEnCursoException.class)
+    public ResponseEntity<Map<String, Object>> handleConciliacionEnCurso(ConciliacionEnCursoException ex) {
+        contar("handleConciliacionEnCurso", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("message", ex.getMessage());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja conflictos de bloqueo optimista detectados al escribir (@Version)
+     * - Otra transacción modificó el pedido entre la lectura y la escritura
+     * - Retorna mensaje con HTTP status 409 Conflict
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleBloqueoOptimista(OptimisticLockingFailureException ex) {
+        contar("handleBloqueoOptimista", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("message", "El pedido ha sido modificado por otra petición, vuelve a leerlo e inténtalo de nuevo");
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Maneja excepciones de tipo ServicioSaturadoException (sin conexiones libres a tiempo)
+     * - Retorna mensaje con HTTP status 503 Service Unavailable y cabecera Retry-After en segundos
+     * - Content-Type fijo: también se usa desde los endpoints SSE (Accept: text/event-stream)
+     */
+    @ExceptionHandler(ServicioSaturadoException.class)
+    public ResponseEntity<Map<String, Object>> handleServicioSaturado(ServicioSaturadoException ex) {
+        contar("handleServicioSaturado", ex);
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now().format(FORMATTER));
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("message", ex.getMessage());
+        long segundos = Math.max(1, (ex.getReintentarTras().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(segundos))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
     /**
      * Maneja cualquier otra excepción no controlada
      * - Retorna mensaje genérico con HTTP status 500 Internal Server Error
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralException(Exception ex) {
+        contar("handleGeneralException", ex);
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now().format(FORMATTER));
         body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando una operación por lotes no se puede procesar
+ * (por ejemplo, porque supera el número máximo de pedidos).
+ */
+public class LoteInvalidoException extends RuntimeException {
+
+    /**
+     * Constructor con mensaje personalizado.
+     *
+     * @param mensaje Mensaje de error que describe la situación
+     */
+    public LoteInvalidoException(String mensaje) {
+        super(mensaje);
+    }
+}
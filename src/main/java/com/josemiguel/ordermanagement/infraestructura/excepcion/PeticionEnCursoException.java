@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando la petición original con la misma clave de idempotencia
+ * sigue en curso tras el tiempo máximo de espera.
+ */
+public class PeticionEnCursoException extends RuntimeException {
+
+    /**
+     * Constructor que genera el mensaje con la clave recibida.
+     *
+     * @param clave Clave de idempotencia
+     */
+    public PeticionEnCursoException(String clave) {
+        super("Hay otra petición en curso con la clave de idempotencia " + clave + ", inténtalo más tarde");
+    }
+}
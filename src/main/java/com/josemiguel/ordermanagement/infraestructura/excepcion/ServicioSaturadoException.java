@@ -0,0 +1,26 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+import java.time.Duration;
+
+/**
+ * Excepción para indicar que la petición no ha obtenido turno a tiempo
+ * porque todas las conexiones a base de datos están en uso.
+ */
+public class ServicioSaturadoException extends RuntimeException {
+
+    private final Duration reintentarTras;
+
+    /**
+     * Constructor con el tiempo tras el que el cliente puede reintentar.
+     *
+     * @param reintentarTras Tiempo sugerido antes de reintentar (cabecera Retry-After)
+     */
+    public ServicioSaturadoException(Duration reintentarTras) {
+        super("El servicio está saturado, inténtalo de nuevo en unos segundos");
+        this.reintentarTras = reintentarTras;
+    }
+
+    public Duration getReintentarTras() {
+        return reintentarTras;
+    }
+}
@@ -0,0 +1,29 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción para indicar que la versión enviada en If-Match no coincide
+ * con la versión actual del pedido (otro cliente lo modificó antes).
+ */
+public class VersionNoCoincideException extends RuntimeException {
+
+    /**
+     * Constructor con la versión esperada por el cliente y la actual del pedido.
+     *
+     * @param id        ID del pedido
+     * @param esperada  Versión indicada por el cliente
+     * @param actual    Versión actual del pedido
+     */
+    public VersionNoCoincideException(Long id, Long esperada, Long actual) {
+        super("El pedido " + id + " ha sido modificado: versión esperada " + esperada
+                + ", versión actual " + actual);
+    }
+
+    /**
+     * Constructor con mensaje personalizado.
+     *
+     * @param mensaje Mensaje de error que describe la situación
+     */
+    public VersionNoCoincideException(String mensaje) {
+        super(mensaje);
+    }
+}
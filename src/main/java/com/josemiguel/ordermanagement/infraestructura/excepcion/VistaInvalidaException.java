@@ -0,0 +1,17 @@
+package com.josemiguel.ordermanagement.infraestructura.excepcion;
+
+/**
+ * Excepción lanzada cuando la vista o los campos pedidos en un listado
+ * (parámetros vista y fields) no son válidos.
+ */
+public class VistaInvalidaException extends RuntimeException {
+
+    /**
+     * Constructor con mensaje personalizado.
+     *
+     * @param mensaje Descripción del error
+     */
+    public VistaInvalidaException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,119 @@
+package com.josemiguel.ordermanagement.infraestructura.exportacion;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ProductoDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Escribe pedidos con sus productos directamente en la salida de la respuesta.
+ * - NDJSON: un PedidoDTO por línea, con el mismo formato que la API
+ * - CSV: una línea por producto, repitiendo los datos del pedido
+ * Los pedidos se leen por bloques y se vuelcan a la salida al terminar cada bloque,
+ * de modo que nunca se acumula la exportación completa en memoria.
+ */
+@Component
+public class ExportadorPedidos {
+
+    private static final String CABECERA_CSV = "pedido_id,nombre_cliente,contacto_cliente,monto_total,estado,"
+            + "fecha_creacion,producto_id,producto_nombre,cantidad,precio_unitario";
+
+    private final PedidoServicio pedidoServicio;
+    private final ObjectMapper objectMapper;
+
+    public ExportadorPedidos(PedidoServicio pedidoServicio, ObjectMapper objectMapper) {
+        this.pedidoServicio = pedidoServicio;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exporta los pedidos que cumplen el filtro en el formato indicado.
+     *
+     * @param filtro  Filtro de pedidos
+     * @param formato Formato de salida
+     * @param salida  Stream de la respuesta HTTP
+     * @throws IOException si falla la escritura
+     */
+    public void exportar(FiltroPedidos filtro, FormatoExportacion formato, OutputStream salida) throws IOException {
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        if (formato == FormatoExportacion.CSV) {
+            escritor.write(CABECERA_CSV);
+            escritor.write('\n');
+        }
+        try {
+            pedidoServicio.recorrerPedidos(filtro, bloque -> escribirBloque(bloque, formato, escritor));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        escritor.flush();
+    }
+
+    private void escribirBloque(List<Pedido> bloque, FormatoExportacion formato, Writer escritor) {
+        try {
+            for (Pedido pedido : bloque) {
+                PedidoDTO dto = PedidoMapper.toDTO(pedido);
+                if (formato == FormatoExportacion.CSV) {
+                    escribirCsv(dto, escritor);
+                } else {
+                    escritor.write(objectMapper.writeValueAsString(dto));
+                    escritor.write('\n');
+                }
+            }
+            escritor.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void escribirCsv(PedidoDTO pedido, Writer escritor) throws IOException {
+        String columnasPedido = String.join(",",
+                String.valueOf(pedido.getId()),
+                csv(pedido.getNombreCliente()),
+                csv(pedido.getContactoCliente()),
+                pedido.getMontoTotal().toPlainString(),
+                pedido.getEstado().name(),
+                String.valueOf(pedido.getFechaCreacion()));
+
+        if (pedido.getProductos().isEmpty()) {
+            escritor.write(columnasPedido);
+            escritor.write(",,,,\n");
+            return;
+        }
+        for (ProductoDTO producto : pedido.getProductos()) {
+            escritor.write(columnasPedido);
+            escritor.write(',');
+            escritor.write(String.join(",",
+                    String.valueOf(producto.getId()),
+                    csv(producto.getNombre()),
+                    String.valueOf(producto.getCantidad()),
+                    producto.getPrecioUnitario().toPlainString()));
+            escritor.write('\n');
+        }
+    }
+
+    /**
+     * Escapa un valor de texto según RFC 4180.
+     */
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
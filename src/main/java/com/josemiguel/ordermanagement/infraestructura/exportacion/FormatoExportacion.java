@@ -0,0 +1,22 @@
+package com.josemiguel.ordermanagement.infraestructura.exportacion;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos disponibles para la exportación de pedidos.
+ */
+public enum FormatoExportacion {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"), // Un pedido JSON por línea
+    CSV(MediaType.parseMediaType("text/csv"), "csv");                    // Una línea por producto
+
+    private final MediaType tipoContenido;
+    private final String extension;
+
+    FormatoExportacion(MediaType tipoContenido, String extension) {
+        this.tipoContenido = tipoContenido;
+        this.extension = extension;
+    }
+
+    public MediaType getTipoContenido() { return tipoContenido; }
+    public String getExtension() { return extension; }
+}
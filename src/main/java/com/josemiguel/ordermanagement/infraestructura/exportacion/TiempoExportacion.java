@@ -0,0 +1,39 @@
+package com.josemiguel.ordermanagement.infraestructura.exportacion;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Aplica a las exportaciones su propio timeout asíncrono.
+ * - El cuerpo en streaming se escribe en un hilo aparte con el timeout general de Spring MVC
+ *   (spring.mvc.async.request-timeout o, sin él, el del contenedor: 30 s en Tomcat)
+ * - Una exportación completa tarda más: al agotarse se cortaría la respuesta a medias
+ * - Se invoca antes de iniciar el procesamiento asíncrono, de modo que el nuevo timeout
+ *   es el que recibe el contenedor; las peticiones no marcadas conservan el general
+ */
+public class TiempoExportacion implements CallableProcessingInterceptor {
+
+    /**
+     * Atributo de petición que marca una exportación.
+     */
+    public static final String ATRIBUTO = TiempoExportacion.class.getName() + ".EXPORTACION";
+
+    private final Duration timeout;
+
+    public TiempoExportacion(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest peticion, Callable<T> tarea) {
+        if (peticion.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST) != null
+                && peticion instanceof AsyncWebRequest asincrona) {
+            asincrona.setTimeout(timeout.toMillis());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+/**
+ * Almacén de claves de idempotencia y de las respuestas de sus peticiones.
+ * Implementaciones seleccionadas con pedidos.idempotencia.almacen:
+ * - memoria: mapa por franjas en el proceso, para un solo nodo
+ * - base-datos: tabla claves_idempotencia, compartida por todos los nodos
+ */
+public interface AlmacenIdempotencia {
+
+    /**
+     * Reserva la clave para una petición si está libre, caducada o abandonada.
+     * Es atómica: de varias peticiones simultáneas con la misma clave solo una obtiene RESERVADA.
+     *
+     * @param clave  Clave de idempotencia
+     * @param huella Huella de la petición (método, ruta, parámetros y cuerpo)
+     * @return Situación de la clave y, si ya se completó, su respuesta
+     */
+    Reserva reservar(String clave, String huella);
+
+    /**
+     * Guarda la respuesta de una petición reservada; las repeticiones la recibirán durante el TTL.
+     *
+     * @param clave     Clave de idempotencia
+     * @param respuesta Respuesta de la petición
+     */
+    void completar(String clave, RespuestaGuardada respuesta);
+
+    /**
+     * Libera una clave reservada cuya petición falló, para que un reintento pueda ejecutarse.
+     *
+     * @param clave Clave de idempotencia
+     */
+    void liberar(String clave);
+
+    /**
+     * Elimina las claves caducadas.
+     *
+     * @return Número de claves eliminadas
+     */
+    int purgarCaducadas();
+}
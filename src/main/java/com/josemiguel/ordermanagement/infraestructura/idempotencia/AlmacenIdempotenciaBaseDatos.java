@@ -0,0 +1,78 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+import com.josemiguel.ordermanagement.config.IdempotenciaProperties;
+import com.josemiguel.ordermanagement.dominio.modelo.ClaveIdempotencia;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.ClaveIdempotenciaRepositorio;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Almacén de claves de idempotencia en la tabla claves_idempotencia, compartido por todos los nodos.
+ * - La reserva es un INSERT ... ON CONFLICT DO NOTHING: la clave primaria decide qué petición se ejecuta
+ * - Cada operación es una transacción corta e independiente de la de la petición, de modo que la
+ *   reserva es visible para los demás nodos mientras la petición se ejecuta
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.idempotencia.almacen", havingValue = "base-datos")
+public class AlmacenIdempotenciaBaseDatos implements AlmacenIdempotencia {
+
+    private final ClaveIdempotenciaRepositorio claveIdempotenciaRepositorio;
+    private final Duration ttl;
+    private final Duration reservaMaxima;
+
+    public AlmacenIdempotenciaBaseDatos(ClaveIdempotenciaRepositorio claveIdempotenciaRepositorio,
+                                        IdempotenciaProperties propiedades) {
+        this.claveIdempotenciaRepositorio = claveIdempotenciaRepositorio;
+        this.ttl = propiedades.ttl();
+        this.reservaMaxima = propiedades.reservaMaxima();
+    }
+
+    @Override
+    @Transactional
+    public Reserva reservar(String clave, String huella) {
+        LocalDateTime ahora = LocalDateTime.now();
+        // Una clave caducada o abandonada se borra y se vuelve a reservar
+        claveIdempotenciaRepositorio.borrarSiNoVigente(clave, ahora);
+        if (claveIdempotenciaRepositorio.reservar(clave, huella, ahora.plus(reservaMaxima), ahora.plus(ttl)) == 1) {
+            return Reserva.RESERVADA;
+        }
+        Optional<ClaveIdempotencia> existente = claveIdempotenciaRepositorio.findById(clave);
+        if (existente.isEmpty()) {
+            // Liberada entre el INSERT y la lectura: se trata como en curso y se vuelve a intentar
+            return Reserva.EN_CURSO;
+        }
+        ClaveIdempotencia guardada = existente.get();
+        if (!guardada.getHuella().equals(huella)) {
+            return Reserva.HUELLA_DISTINTA;
+        }
+        if (guardada.getEstadoHttp() == null) {
+            return Reserva.EN_CURSO;
+        }
+        return Reserva.completada(new RespuestaGuardada(guardada.getEstadoHttp(),
+                RespuestaGuardada.cabecerasDesdeTexto(guardada.getCabeceras()), guardada.getCuerpo()));
+    }
+
+    @Override
+    @Transactional
+    public void completar(String clave, RespuestaGuardada respuesta) {
+        claveIdempotenciaRepositorio.completar(clave, respuesta.estado(), respuesta.cabecerasComoTexto(),
+                respuesta.cuerpo());
+    }
+
+    @Override
+    @Transactional
+    public void liberar(String clave) {
+        claveIdempotenciaRepositorio.liberar(clave);
+    }
+
+    @Override
+    @Transactional
+    public int purgarCaducadas() {
+        return claveIdempotenciaRepositorio.borrarCaducadas(LocalDateTime.now());
+    }
+}
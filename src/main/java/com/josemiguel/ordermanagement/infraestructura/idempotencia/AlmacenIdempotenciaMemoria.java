@@ -0,0 +1,121 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+import com.josemiguel.ordermanagement.config.IdempotenciaProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Almacén de claves de idempotencia en memoria, para un solo nodo.
+ * - Las claves se reparten por hash entre franjas, cada una con su propio cerrojo:
+ *   las peticiones con claves distintas casi nunca compiten por el mismo cerrojo
+ * - Cada franja conserva sus claves en orden de reserva (LinkedHashMap). Como el TTL es
+ *   el mismo para todas, ese es también el orden de caducidad: purgar y descartar las
+ *   más antiguas al superar el tamaño máximo solo recorre el principio de la franja
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.idempotencia.almacen", havingValue = "memoria", matchIfMissing = true)
+public class AlmacenIdempotenciaMemoria implements AlmacenIdempotencia {
+
+    private final Franja[] franjas;
+    private final int maximoPorFranja;
+    private final Duration ttl;
+    private final Duration reservaMaxima;
+
+    public AlmacenIdempotenciaMemoria(IdempotenciaProperties propiedades) {
+        this.franjas = new Franja[propiedades.franjas()];
+        for (int i = 0; i < franjas.length; i++) {
+            franjas[i] = new Franja();
+        }
+        this.maximoPorFranja = Math.max(1, propiedades.tamanioMaximo() / franjas.length);
+        this.ttl = propiedades.ttl();
+        this.reservaMaxima = propiedades.reservaMaxima();
+    }
+
+    @Override
+    public Reserva reservar(String clave, String huella) {
+        Franja franja = franja(clave);
+        LocalDateTime ahora = LocalDateTime.now();
+        synchronized (franja) {
+            Entrada entrada = franja.entradas.get(clave);
+            if (entrada != null && !entrada.vigente(ahora)) {
+                franja.entradas.remove(clave);
+                entrada = null;
+            }
+            if (entrada == null) {
+                if (franja.entradas.size() >= maximoPorFranja) {
+                    Iterator<Entrada> masAntigua = franja.entradas.values().iterator();
+                    masAntigua.next();
+                    masAntigua.remove();
+                }
+                franja.entradas.put(clave, new Entrada(huella, ahora.plus(reservaMaxima), ahora.plus(ttl), null));
+                return Reserva.RESERVADA;
+            }
+            if (!entrada.huella().equals(huella)) {
+                return Reserva.HUELLA_DISTINTA;
+            }
+            return entrada.respuesta() == null ? Reserva.EN_CURSO : Reserva.completada(entrada.respuesta());
+        }
+    }
+
+    @Override
+    public void completar(String clave, RespuestaGuardada respuesta) {
+        Franja franja = franja(clave);
+        synchronized (franja) {
+            // Reemplazar el valor conserva la posición de la clave en la franja
+            franja.entradas.computeIfPresent(clave, (c, entrada) ->
+                    new Entrada(entrada.huella(), entrada.reservadaHasta(), entrada.caduca(), respuesta));
+        }
+    }
+
+    @Override
+    public void liberar(String clave) {
+        Franja franja = franja(clave);
+        synchronized (franja) {
+            Entrada entrada = franja.entradas.get(clave);
+            if (entrada != null && entrada.respuesta() == null) {
+                franja.entradas.remove(clave);
+            }
+        }
+    }
+
+    @Override
+    public int purgarCaducadas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        int purgadas = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                Iterator<Entrada> entradas = franja.entradas.values().iterator();
+                while (entradas.hasNext() && !entradas.next().caduca().isAfter(ahora)) {
+                    entradas.remove();
+                    purgadas++;
+                }
+            }
+        }
+        return purgadas;
+    }
+
+    private Franja franja(String clave) {
+        return franjas[Math.floorMod(clave.hashCode(), franjas.length)];
+    }
+
+    private static final class Franja {
+        private final Map<String, Entrada> entradas = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param respuesta Respuesta de la petición, null mientras está en curso
+     */
+    private record Entrada(String huella, LocalDateTime reservadaHasta, LocalDateTime caduca,
+                           RespuestaGuardada respuesta) {
+
+        boolean vigente(LocalDateTime ahora) {
+            return caduca.isAfter(ahora) && (respuesta != null || reservadaHasta.isAfter(ahora));
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+import com.josemiguel.ordermanagement.config.IdempotenciaProperties;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.ClaveIdempotenciaInvalidaException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.ClaveIdempotenciaReutilizadaException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.PeticionEnCursoException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Idempotencia de la creación, actualización y cambio de estado de pedidos (cabecera Idempotency-Key).
+ * - La primera petición con una clave se ejecuta y su respuesta se guarda en el AlmacenIdempotencia
+ * - Las repeticiones reciben esa respuesta sin volver a ejecutar la lógica de negocio,
+ *   con la cabecera Idempotent-Replayed: true
+ * - Las repeticiones que llegan mientras la original está en curso en este nodo esperan su
+ *   respuesta; si está en curso en otro nodo, consultan el almacén hasta que termine.
+ *   Tras pedidos.idempotencia.espera se responde 409
+ * - Una clave usada con otra petición (método, ruta, parámetros o cuerpo) se rechaza con 422
+ * - Las respuestas 5xx no se guardan: la clave se libera y un reintento vuelve a ejecutarse
+ * Los errores se resuelven con el GlobalExceptionHandler, como los de los controladores.
+ */
+public class FiltroIdempotencia extends OncePerRequestFilter {
+
+    public static final String CABECERA = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    private static final int LONGITUD_MAXIMA = 255;
+    private static final long CONSULTA_MS = 50;
+
+    /** Cabeceras que describen la conexión y no se repiten */
+    private static final Set<String> CABECERAS_EXCLUIDAS = Set.of(
+            "content-length", "transfer-encoding", "date", "connection", "keep-alive");
+
+    /** Endpoints idempotentes por método */
+    private static final Map<String, Pattern> RUTAS = Map.of(
+            "POST", Pattern.compile("/api/pedidos"),
+            "PUT", Pattern.compile("/api/pedidos/[^/]+"),
+            "PATCH", Pattern.compile("/api/pedidos/[^/]+/estado"));
+
+    private final AlmacenIdempotencia almacen;
+    private final IdempotenciaProperties propiedades;
+    private final HandlerExceptionResolver resolutorExcepciones;
+    private final MeterRegistry registro;
+
+    /** Peticiones en ejecución en este nodo por clave, para que las repeticiones esperen su respuesta */
+    private final Map<String, EnCurso> enCurso = new ConcurrentHashMap<>();
+
+    public FiltroIdempotencia(AlmacenIdempotencia almacen, IdempotenciaProperties propiedades,
+                              HandlerExceptionResolver resolutorExcepciones, MeterRegistry registro) {
+        this.almacen = almacen;
+        this.propiedades = propiedades;
+        this.resolutorExcepciones = resolutorExcepciones;
+        this.registro = registro;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest peticion) {
+        Pattern ruta = RUTAS.get(peticion.getMethod());
+        return peticion.getHeader(CABECERA) == null || ruta == null
+                || !ruta.matcher(peticion.getRequestURI().substring(peticion.getContextPath().length())).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest peticion, HttpServletResponse respuesta, FilterChain cadena)
+            throws ServletException, IOException {
+        String clave = peticion.getHeader(CABECERA).trim();
+        if (clave.isEmpty() || clave.length() > LONGITUD_MAXIMA) {
+            resolver(peticion, respuesta, new ClaveIdempotenciaInvalidaException(
+                    "La cabecera " + CABECERA + " debe tener entre 1 y " + LONGITUD_MAXIMA + " caracteres"));
+            return;
+        }
+        byte[] cuerpo = peticion.getInputStream().readAllBytes();
+        String huella = huella(peticion, cuerpo);
+        HttpServletRequest peticionConCuerpo = new PeticionConCuerpo(peticion, cuerpo);
+        long limite = System.nanoTime() + propiedades.espera().toNanos();
+
+        while (true) {
+            EnCurso propia = new EnCurso(huella);
+            EnCurso existente = enCurso.putIfAbsent(clave, propia);
+            if (existente != null) {
+                // Repetición de una petición en curso en este nodo: se espera su respuesta
+                if (!existente.huella().equals(huella)) {
+                    contar("reutilizada");
+                    resolver(peticion, respuesta, new ClaveIdempotenciaReutilizadaException(clave));
+                    return;
+                }
+                RespuestaGuardada guardada;
+                try {
+                    guardada = existente.respuesta().get(restante(limite), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    contar("en-curso");
+                    resolver(peticion, respuesta, new PeticionEnCursoException(clave));
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ServletException(e);
+                } catch (ExecutionException e) {
+                    guardada = null;
+                }
+                if (guardada != null) {
+                    contar("agrupada");
+                    repetir(guardada, respuesta);
+                    return;
+                }
+                // La original falló sin guardar respuesta: esta petición intenta ejecutarse
+                continue;
+            }
+            try {
+                ejecutarUnaVez(clave, huella, limite, peticionConCuerpo, respuesta, cadena, propia);
+                return;
+            } finally {
+                enCurso.remove(clave, propia);
+                // Si no se completó antes (error o excepción), las peticiones agrupadas vuelven a intentarlo
+                propia.respuesta().complete(null);
+            }
+        }
+    }
+
+    private void ejecutarUnaVez(String clave, String huella, long limite, HttpServletRequest peticion,
+                                HttpServletResponse respuesta, FilterChain cadena, EnCurso propia)
+            throws ServletException, IOException {
+        Reserva reserva = almacen.reservar(clave, huella);
+        while (reserva.estado() == Reserva.Estado.EN_CURSO) {
+            // En curso en otro nodo: se consulta el almacén hasta que termine
+            if (restante(limite) <= 0) {
+                contar("en-curso");
+                resolver(peticion, respuesta, new PeticionEnCursoException(clave));
+                return;
+            }
+            dormir();
+            reserva = almacen.reservar(clave, huella);
+        }
+        switch (reserva.estado()) {
+            case HUELLA_DISTINTA -> {
+                contar("reutilizada");
+                resolver(peticion, respuesta, new ClaveIdempotenciaReutilizadaException(clave));
+            }
+            case COMPLETADA -> {
+                contar("repetida");
+                propia.respuesta().complete(reserva.respuesta());
+                repetir(reserva.respuesta(), respuesta);
+            }
+            default -> {
+                contar("nueva");
+                ejecutar(clave, peticion, respuesta, cadena, propia);
+            }
+        }
+    }
+
+    private void ejecutar(String clave, HttpServletRequest peticion, HttpServletResponse respuesta,
+                          FilterChain cadena, EnCurso propia) throws ServletException, IOException {
+        ContentCachingResponseWrapper envoltorio = new ContentCachingResponseWrapper(respuesta);
+        boolean guardada = false;
+        try {
+            cadena.doFilter(peticion, envoltorio);
+            if (envoltorio.getStatus() < 500) {
+                RespuestaGuardada resultado = guardar(envoltorio);
+                almacen.completar(clave, resultado);
+                guardada = true;
+                propia.respuesta().complete(resultado);
+            }
+        } finally {
+            if (!guardada) {
+                almacen.liberar(clave);
+            }
+            envoltorio.copyBodyToResponse();
+        }
+    }
+
+    private static RespuestaGuardada guardar(ContentCachingResponseWrapper envoltorio) {
+        Map<String, String> cabeceras = new LinkedHashMap<>();
+        for (String nombre : envoltorio.getHeaderNames()) {
+            if (!CABECERAS_EXCLUIDAS.contains(nombre.toLowerCase())) {
+                cabeceras.put(nombre, String.join(", ", envoltorio.getHeaders(nombre)));
+            }
+        }
+        if (envoltorio.getContentType() != null) {
+            cabeceras.put(HttpHeaders.CONTENT_TYPE, envoltorio.getContentType());
+        }
+        return new RespuestaGuardada(envoltorio.getStatus(), cabeceras, envoltorio.getContentAsByteArray());
+    }
+
+    private static void repetir(RespuestaGuardada guardada, HttpServletResponse respuesta) throws IOException {
+        respuesta.setStatus(guardada.estado());
+        guardada.cabeceras().forEach(respuesta::setHeader);
+        respuesta.setHeader(CABECERA_REPETIDA, "true");
+        respuesta.setContentLength(guardada.cuerpo().length);
+        respuesta.getOutputStream().write(guardada.cuerpo());
+    }
+
+    private void resolver(HttpServletRequest peticion, HttpServletResponse respuesta, RuntimeException ex) {
+        resolutorExcepciones.resolveException(peticion, respuesta, null, ex);
+    }
+
+    private void contar(String resultado) {
+        registro.counter("pedidos.idempotencia", "resultado", resultado).increment();
+    }
+
+    /**
+     * Huella SHA-256 de método, ruta, parámetros y cuerpo.
+     */
+    private static String huella(HttpServletRequest peticion, byte[] cuerpo) {
+        try {
+            MessageDigest resumen = MessageDigest.getInstance("SHA-256");
+            resumen.update((peticion.getMethod() + ' ' + peticion.getRequestURI() + '?'
+                    + (peticion.getQueryString() != null ? peticion.getQueryString() : "") + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            resumen.update(cuerpo);
+            return HexFormat.of().formatHex(resumen.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long restante(long limite) {
+        return limite - System.nanoTime();
+    }
+
+    private static void dormir() throws ServletException {
+        try {
+            Thread.sleep(CONSULTA_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+    }
+
+    /**
+     * Petición en ejecución en este nodo; respuesta se completa con la respuesta guardada,
+     * o con null si la petición falla sin guardarla.
+     */
+    private record EnCurso(String huella, CompletableFuture<RespuestaGuardada> respuesta) {
+
+        EnCurso(String huella) {
+            this(huella, new CompletableFuture<>());
+        }
+    }
+
+    /**
+     * Petición cuyo cuerpo ya se ha leído para calcular la huella y se vuelve a servir desde memoria,
+     * tanto por getInputStream() como por getReader().
+     */
+    private static final class PeticionConCuerpo extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        PeticionConCuerpo(HttpServletRequest peticion, byte[] cuerpo) {
+            super(peticion);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new CuerpoEnMemoria(cuerpo);
+        }
+
+        @Override
+        public BufferedReader getReader() throws UnsupportedEncodingException {
+            // Sin codificación declarada se usa la predeterminada de la especificación de servlets
+            String codificacion = getCharacterEncoding();
+            Charset juego;
+            try {
+                juego = codificacion != null ? Charset.forName(codificacion) : StandardCharsets.ISO_8859_1;
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(codificacion);
+            }
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(cuerpo), juego));
+        }
+    }
+
+    /**
+     * Cuerpo ya leído: siempre listo para leer sin bloquear.
+     */
+    private static final class CuerpoEnMemoria extends ServletInputStream {
+
+        private final ByteArrayInputStream entrada;
+
+        CuerpoEnMemoria(byte[] cuerpo) {
+            this.entrada = new ByteArrayInputStream(cuerpo);
+        }
+
+        @Override
+        public int read() {
+            return entrada.read();
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int longitud) {
+            return entrada.read(destino, desde, longitud);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return entrada.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * Todos los datos están disponibles desde el principio: se notifican en el acto.
+         * Como isReady() nunca devuelve false, el oyente debe leer hasta isFinished() en onDataAvailable().
+         */
+        @Override
+        public void setReadListener(ReadListener oyente) {
+            try {
+                if (!isFinished()) {
+                    oyente.onDataAvailable();
+                }
+                if (isFinished()) {
+                    oyente.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                oyente.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+/**
+ * Resultado de intentar reservar una clave de idempotencia.
+ *
+ * @param estado    Situación de la clave
+ * @param respuesta Respuesta guardada (solo si estado es COMPLETADA)
+ */
+public record Reserva(Estado estado, RespuestaGuardada respuesta) {
+
+    public static final Reserva RESERVADA = new Reserva(Estado.RESERVADA, null);
+    public static final Reserva EN_CURSO = new Reserva(Estado.EN_CURSO, null);
+    public static final Reserva HUELLA_DISTINTA = new Reserva(Estado.HUELLA_DISTINTA, null);
+
+    public static Reserva completada(RespuestaGuardada respuesta) {
+        return new Reserva(Estado.COMPLETADA, respuesta);
+    }
+
+    /**
+     * Situaciones de una clave de idempotencia.
+     * - RESERVADA: clave nueva, reservada para esta petición, que debe ejecutarse
+     * - EN_CURSO: otra petición con la misma clave se está ejecutando
+     * - COMPLETADA: la petición ya se ejecutó; se devuelve su respuesta
+     * - HUELLA_DISTINTA: la clave se usó con otra petición
+     */
+    public enum Estado {
+        RESERVADA,
+        EN_CURSO,
+        COMPLETADA,
+        HUELLA_DISTINTA
+    }
+}
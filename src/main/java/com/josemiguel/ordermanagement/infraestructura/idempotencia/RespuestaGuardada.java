@@ -0,0 +1,42 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Respuesta HTTP de una petición con clave de idempotencia, tal como se devuelve al repetirla.
+ *
+ * @param estado     Código HTTP
+ * @param cabeceras  Cabeceras de la respuesta (valores múltiples unidos por comas)
+ * @param cuerpo     Cuerpo de la respuesta
+ */
+public record RespuestaGuardada(int estado, Map<String, String> cabeceras, byte[] cuerpo) {
+
+    /**
+     * Cabeceras en texto, una por línea con el formato "Nombre: valor", para guardarlas en una columna.
+     *
+     * @return Cabeceras serializadas
+     */
+    public String cabecerasComoTexto() {
+        StringBuilder texto = new StringBuilder();
+        cabeceras.forEach((nombre, valor) -> texto.append(nombre).append(": ").append(valor).append('\n'));
+        return texto.toString();
+    }
+
+    /**
+     * Inversa de cabecerasComoTexto.
+     *
+     * @param texto Cabeceras serializadas
+     * @return Cabeceras en el orden original
+     */
+    public static Map<String, String> cabecerasDesdeTexto(String texto) {
+        Map<String, String> cabeceras = new LinkedHashMap<>();
+        for (String linea : texto.split("\n")) {
+            int separador = linea.indexOf(": ");
+            if (separador > 0) {
+                cabeceras.put(linea.substring(0, separador), linea.substring(separador + 2));
+            }
+        }
+        return cabeceras;
+    }
+}
@@ -0,0 +1,159 @@
+package com.josemiguel.ordermanagement.infraestructura.ingesta;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.josemiguel.ordermanagement.config.LoteProperties;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoLoteDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionSystemException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Carga masiva de pedidos desde un array JSON o un stream NDJSON.
+ * - Lee la entrada de forma incremental, sin materializar el lote completo
+ * - Valida cada pedido por separado; los inválidos no impiden crear el resto
+ * - Inserta los válidos en bloques, cada uno en su transacción con INSERT por lotes JDBC
+ * - Si un bloque falla, reintenta sus pedidos uno a uno para aislar los que dan error.
+ *   Cubre los errores de la base de datos y los de la validación de la entidad al guardar
+ *   (ConstraintViolationException, o TransactionSystemException si salta en el commit),
+ *   que rechazan pedidos que la validación del DTO dejó pasar
+ */
+@Component
+public class IngestorPedidos {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestorPedidos.class);
+
+    private final PedidoServicio pedidoServicio;
+    private final Validator validator;
+    private final ObjectReader lectorPedidos;
+    private final int tamanioBloque;
+
+    public IngestorPedidos(PedidoServicio pedidoServicio, Validator validator,
+                           ObjectMapper objectMapper, LoteProperties lote) {
+        this.pedidoServicio = pedidoServicio;
+        this.validator = validator;
+        this.lectorPedidos = objectMapper.readerFor(PedidoDTO.class);
+        this.tamanioBloque = lote.tamanioBloque();
+    }
+
+    /**
+     * Crea los pedidos leídos de la entrada.
+     *
+     * @param entrada Cuerpo de la petición: array JSON o un pedido JSON por línea
+     * @return Resultado de cada pedido en el orden de entrada
+     * @throws IOException si falla la lectura de la entrada; los pedidos leídos desde el último
+     *                     bloque insertado se descartan
+     */
+    public List<ResultadoLoteDTO> ingerir(InputStream entrada) throws IOException {
+        List<ResultadoLoteDTO> resultados = new ArrayList<>();
+        List<Pedido> bloque = new ArrayList<>(tamanioBloque);
+        List<Integer> indicesBloque = new ArrayList<>(tamanioBloque);
+
+        try (MappingIterator<PedidoDTO> pedidos = lectorPedidos.readValues(entrada)) {
+            int indice = 0;
+            while (true) {
+                PedidoDTO dto;
+                try {
+                    if (!pedidos.hasNextValue()) {
+                        break;
+                    }
+                    dto = pedidos.nextValue();
+                } catch (JsonProcessingException e) {
+                    // No es posible resincronizar el parser: se corta la lectura y se conservan los anteriores
+                    resultados.add(ResultadoLoteDTO.invalido(indice, List.of("JSON inválido: " + e.getOriginalMessage())));
+                    break;
+                }
+
+                List<String> errores = validar(dto);
+                if (errores.isEmpty()) {
+                    bloque.add(PedidoMapper.toEntity(dto));
+                    indicesBloque.add(indice);
+                    resultados.add(null); // Se rellena al insertar el bloque
+                } else {
+                    resultados.add(ResultadoLoteDTO.invalido(indice, errores));
+                }
+                indice++;
+
+                if (bloque.size() == tamanioBloque) {
+                    insertarBloque(bloque, indicesBloque, resultados);
+                }
+            }
+        }
+        // Solo al terminar la entrada o cortarla por JSON inválido: si falla la lectura
+        // (cliente desconectado, cuerpo interrumpido) el bloque en curso no se inserta
+        if (!bloque.isEmpty()) {
+            insertarBloque(bloque, indicesBloque, resultados);
+        }
+        return resultados;
+    }
+
+    private List<String> validar(PedidoDTO dto) {
+        return describir(validator.validate(dto));
+    }
+
+    private static List<String> describir(Set<? extends ConstraintViolation<?>> violaciones) {
+        List<String> errores = new ArrayList<>(violaciones.size());
+        for (ConstraintViolation<?> violacion : violaciones) {
+            errores.add(violacion.getPropertyPath() + ": " + violacion.getMessage());
+        }
+        return errores;
+    }
+
+    private void insertarBloque(List<Pedido> bloque, List<Integer> indices, List<ResultadoLoteDTO> resultados) {
+        try {
+            List<Pedido> creados = pedidoServicio.crearPedidos(bloque);
+            for (int i = 0; i < creados.size(); i++) {
+                resultados.set(indices.get(i), ResultadoLoteDTO.creado(indices.get(i), creados.get(i).getId()));
+            }
+        } catch (DataAccessException | ConstraintViolationException | TransactionSystemException e) {
+            log.warn("Falló la inserción de un bloque de {} pedidos, se reintenta uno a uno", bloque.size(), e);
+            for (int i = 0; i < bloque.size(); i++) {
+                resultados.set(indices.get(i), insertarIndividual(bloque.get(i), indices.get(i)));
+            }
+        }
+        bloque.clear();
+        indices.clear();
+    }
+
+    private ResultadoLoteDTO insertarIndividual(Pedido pedido, int indice) {
+        // El bloque fallido pudo dejar ids asignados en las entidades
+        pedido.setId(null);
+        pedido.setVersion(null);
+        pedido.getProductos().forEach(producto -> producto.setId(null));
+        try {
+            return ResultadoLoteDTO.creado(indice, pedidoServicio.crearPedido(pedido).getId());
+        } catch (DataAccessException | ConstraintViolationException | TransactionSystemException e) {
+            return ResultadoLoteDTO.error(indice, mensaje(e));
+        }
+    }
+
+    /**
+     * Motivo del fallo al guardar: las restricciones incumplidas de la entidad,
+     * o el mensaje de la causa más concreta para los errores de la base de datos.
+     */
+    private static String mensaje(RuntimeException e) {
+        Throwable causa = NestedExceptionUtils.getMostSpecificCause(e);
+        if (causa instanceof ConstraintViolationException violaciones) {
+            return String.join("; ", describir(violaciones.getConstraintViolations()));
+        }
+        return causa.getMessage();
+    }
+}
@@ -0,0 +1,87 @@
+package com.josemiguel.ordermanagement.infraestructura.metricas;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Cuenta las sentencias SQL y las entidades cargadas por Hibernate en el hilo actual.
+ * - Las estadísticas de Hibernate son globales; este contador se limita a una petición,
+ *   entre iniciar() y finalizar()
+ * - Se registra como StatementInspector (cada sentencia preparada) y como listener
+ *   POST_LOAD (cada entidad hidratada)
+ * - Fuera de una petición (tareas de arranque, otros hilos) no cuenta nada
+ */
+public class ContadorHibernate implements StatementInspector, PostLoadEventListener, Integrator {
+
+    private static final ThreadLocal<Contadores> CONTADORES = new ThreadLocal<>();
+
+    /**
+     * Empieza a contar en el hilo actual, descartando lo contado antes.
+     */
+    public void iniciar() {
+        CONTADORES.set(new Contadores());
+    }
+
+    /**
+     * Deja de contar en el hilo actual.
+     *
+     * @return Lo contado desde iniciar(), o null si no se había iniciado
+     */
+    public Contadores finalizar() {
+        Contadores contadores = CONTADORES.get();
+        CONTADORES.remove();
+        return contadores;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contadores contadores = CONTADORES.get();
+        if (contadores != null) {
+            contadores.sentencias++;
+        }
+        return sql;
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent evento) {
+        Contadores contadores = CONTADORES.get();
+        if (contadores != null) {
+            contadores.entidades++;
+        }
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext contexto, SessionFactoryImplementor sessionFactory) {
+        sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registro) {
+    }
+
+    /**
+     * Sentencias y entidades contadas durante una petición.
+     */
+    public static final class Contadores {
+
+        private long sentencias;
+        private long entidades;
+
+        public long sentencias() {
+            return sentencias;
+        }
+
+        public long entidades() {
+            return entidades;
+        }
+    }
+}
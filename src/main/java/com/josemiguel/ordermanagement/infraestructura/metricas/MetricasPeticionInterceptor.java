@@ -0,0 +1,54 @@
+package com.josemiguel.ordermanagement.infraestructura.metricas;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Registra cuántas sentencias SQL y entidades de Hibernate necesita cada petición.
+ * - pedidos.peticion.sentencias y pedidos.peticion.entidades, etiquetadas por método y uri
+ *   (el patrón del endpoint, no la ruta concreta, para acotar el número de series)
+ * - Las respuestas en streaming (exportación) se escriben en otro hilo y solo cuentan
+ *   las sentencias previas a empezar a escribir
+ */
+public class MetricasPeticionInterceptor implements HandlerInterceptor {
+
+    private final ContadorHibernate contadorHibernate;
+    private final MeterRegistry registro;
+
+    public MetricasPeticionInterceptor(ContadorHibernate contadorHibernate, MeterRegistry registro) {
+        this.contadorHibernate = contadorHibernate;
+        this.registro = registro;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        contadorHibernate.iniciar();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ContadorHibernate.Contadores contadores = contadorHibernate.finalizar();
+        if (contadores == null) {
+            return;
+        }
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = patron != null ? patron.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("pedidos.peticion.sentencias")
+                .description("Sentencias SQL preparadas por petición")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(registro)
+                .record(contadores.sentencias());
+        DistributionSummary.builder("pedidos.peticion.entidades")
+                .description("Entidades cargadas por Hibernate por petición")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(registro)
+                .record(contadores.entidades());
+    }
+}
@@ -0,0 +1,53 @@
+package com.josemiguel.ordermanagement.infraestructura.metricas;
+
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.MaquinaEstadosPedido;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contador pedidos.transiciones por arista de MaquinaEstadosPedido (etiquetas desde y hasta).
+ * - Se registran todas las aristas permitidas al arrancar, para que aparezcan con valor 0
+ * - Solo cuenta transiciones confirmadas (tras el commit), individuales o masivas
+ */
+@Component
+public class MetricasTransiciones {
+
+    private final Map<EstadoPedido, Map<EstadoPedido, Counter>> contadores = new EnumMap<>(EstadoPedido.class);
+
+    public MetricasTransiciones(MeterRegistry registro) {
+        for (EstadoPedido destino : EstadoPedido.values()) {
+            for (EstadoPedido origen : MaquinaEstadosPedido.origenesHacia(destino)) {
+                contadores.computeIfAbsent(origen, e -> new EnumMap<>(EstadoPedido.class))
+                        .put(destino, Counter.builder("pedidos.transiciones")
+                                .description("Cambios de estado de pedidos confirmados")
+                                .tags("desde", origen.name(), "hasta", destino.name())
+                                .register(registro));
+            }
+        }
+    }
+
+    /**
+     * Cuenta la transición una vez confirmada la transacción que la aplicó.
+     *
+     * @param evento Evento de modificación del pedido
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alModificarPedido(PedidoModificadoEvento evento) {
+        if (evento.tipo() != PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO) {
+            return;
+        }
+        Map<EstadoPedido, Counter> desde = contadores.get(evento.estadoAnterior());
+        Counter contador = desde != null ? desde.get(evento.estadoNuevo()) : null;
+        if (contador != null) {
+            contador.increment();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.josemiguel.ordermanagement.infraestructura.outbox;
+
+import com.josemiguel.ordermanagement.dominio.dto.EventoPedidoDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destino al que RelevoOutbox entrega los eventos de pedidos.
+ * - Recibe los eventos por lotes y en orden de id
+ * - Si lanza una excepción, el lote sigue pendiente y se reintenta en la siguiente pasada,
+ *   por lo que la entrega es "al menos una vez": el destino puede recibir duplicados
+ * La implementación se elige con pedidos.outbox.destino.
+ */
+public interface DestinoEventos {
+
+    /**
+     * Entrega un lote de eventos.
+     *
+     * @param eventos Eventos en orden de id
+     * @throws IOException si no se pueden entregar
+     */
+    void publicar(List<EventoPedidoDTO> eventos) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.josemiguel.ordermanagement.infraestructura.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.config.OutboxProperties;
+import com.josemiguel.ordermanagement.dominio.dto.EventoPedidoDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Destino de eventos en fichero: añade cada evento como una línea JSON (NDJSON).
+ * - El lote se escribe de una vez y se fuerza a disco antes de que el relevo lo marque como publicado
+ * - Si el proceso cae entre la escritura y la marca, el lote se vuelve a escribir (duplicados por id)
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.outbox.destino", havingValue = "fichero")
+public class DestinoEventosFichero implements DestinoEventos {
+
+    private final Path fichero;
+    private final ObjectMapper objectMapper;
+
+    public DestinoEventosFichero(OutboxProperties propiedades, ObjectMapper objectMapper) {
+        this.fichero = Path.of(propiedades.fichero());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoPedidoDTO> eventos) throws IOException {
+        StringBuilder lineas = new StringBuilder(eventos.size() * 160);
+        for (EventoPedidoDTO evento : eventos) {
+            lineas.append(objectMapper.writeValueAsString(evento)).append('\n');
+        }
+
+        Path directorio = fichero.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        try (FileOutputStream salida = new FileOutputStream(fichero.toFile(), true)) {
+            salida.write(lineas.toString().getBytes(StandardCharsets.UTF_8));
+            salida.getChannel().force(false);
+        }
+    }
+}
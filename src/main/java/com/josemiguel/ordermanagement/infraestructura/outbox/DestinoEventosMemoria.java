@@ -0,0 +1,47 @@
+package com.josemiguel.ordermanagement.infraestructura.outbox;
+
+import com.josemiguel.ordermanagement.dominio.dto.EventoPedidoDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Destino de eventos dentro del proceso: reparte cada lote entre los suscriptores registrados.
+ * - Un suscriptor que falla no impide la entrega a los demás ni hace reintentar el lote
+ * - Sin suscriptores, los eventos se descartan (quedan marcados como publicados)
+ */
+@Component
+@ConditionalOnProperty(name = "pedidos.outbox.destino", havingValue = "memoria", matchIfMissing = true)
+public class DestinoEventosMemoria implements DestinoEventos {
+
+    private static final Logger log = LoggerFactory.getLogger(DestinoEventosMemoria.class);
+
+    private final List<Consumer<List<EventoPedidoDTO>>> suscriptores = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registra un suscriptor que recibirá cada lote publicado a partir de ahora.
+     *
+     * @param suscriptor Consumidor de lotes de eventos
+     * @return Acción que cancela la suscripción
+     */
+    public Runnable suscribir(Consumer<List<EventoPedidoDTO>> suscriptor) {
+        suscriptores.add(suscriptor);
+        return () -> suscriptores.remove(suscriptor);
+    }
+
+    @Override
+    public void publicar(List<EventoPedidoDTO> eventos) {
+        for (Consumer<List<EventoPedidoDTO>> suscriptor : suscriptores) {
+            try {
+                suscriptor.accept(eventos);
+            } catch (RuntimeException e) {
+                log.warn("Un suscriptor de eventos de pedidos ha fallado: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.josemiguel.ordermanagement.infraestructura.outbox;
+
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EventoPedido;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.EventoPedidoRepositorio;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Escribe cada PedidoModificadoEvento en el outbox (tabla eventos_pedidos).
+ * - Se ejecuta de forma síncrona dentro de la transacción que modifica el pedido (MANDATORY):
+ *   si la transacción se deshace, el evento también
+ * - Los INSERT se agrupan en lotes JDBC con el resto de escrituras de la transacción
+ */
+@Component
+public class RegistroOutbox {
+
+    private final EventoPedidoRepositorio eventoPedidoRepositorio;
+
+    public RegistroOutbox(EventoPedidoRepositorio eventoPedidoRepositorio) {
+        this.eventoPedidoRepositorio = eventoPedidoRepositorio;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(PedidoModificadoEvento evento) {
+        eventoPedidoRepositorio.save(EventoPedido.builder()
+                .pedidoId(evento.pedidoId())
+                .tipo(evento.tipo())
+                .estadoAnterior(evento.estadoAnterior())
+                .estadoNuevo(evento.estadoNuevo())
+                .versionPedido(evento.version())
+                .fecha(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,103 @@
+package com.josemiguel.ordermanagement.infraestructura.outbox;
+
+import com.josemiguel.ordermanagement.config.OutboxProperties;
+import com.josemiguel.ordermanagement.dominio.dto.EventoPedidoDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EventoPedido;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.EventoPedidoRepositorio;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publica los eventos pendientes del outbox en el DestinoEventos configurado.
+ * - Cada lote se lee, se entrega y se marca como publicado en una misma transacción:
+ *   si el destino falla, la transacción se deshace y el lote se reintenta en la siguiente pasada
+ * - Repite lotes hasta vaciar los pendientes; OutboxConfig lo programa cada pedidos.outbox.intervalo
+ * Métricas: pedidos.outbox.publicados y pedidos.outbox.fallos
+ */
+@Component
+public class RelevoOutbox {
+
+    private final EventoPedidoRepositorio eventoPedidoRepositorio;
+    private final DestinoEventos destino;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties propiedades;
+    private final Counter publicados;
+    private final Counter fallos;
+
+    public RelevoOutbox(EventoPedidoRepositorio eventoPedidoRepositorio, DestinoEventos destino,
+                        TransactionTemplate transactionTemplate, OutboxProperties propiedades,
+                        MeterRegistry registro) {
+        this.eventoPedidoRepositorio = eventoPedidoRepositorio;
+        this.destino = destino;
+        this.transactionTemplate = transactionTemplate;
+        this.propiedades = propiedades;
+        this.publicados = Counter.builder("pedidos.outbox.publicados")
+                .description("Eventos de pedidos entregados al destino")
+                .register(registro);
+        this.fallos = Counter.builder("pedidos.outbox.fallos")
+                .description("Lotes de eventos que el destino no ha aceptado")
+                .register(registro);
+    }
+
+    /**
+     * Publica todos los eventos pendientes, por lotes de pedidos.outbox.tamanio-lote.
+     *
+     * @return Número de eventos publicados
+     */
+    public int publicarPendientes() {
+        int total = 0;
+        int publicadosLote;
+        do {
+            try {
+                publicadosLote = transactionTemplate.execute(estado -> publicarLote());
+            } catch (RuntimeException e) {
+                fallos.increment();
+                throw e;
+            }
+            total += publicadosLote;
+        } while (publicadosLote == propiedades.tamanioLote());
+        return total;
+    }
+
+    /**
+     * Elimina los eventos publicados hace más de pedidos.outbox.retencion.
+     *
+     * @return Número de eventos eliminados
+     */
+    public int purgarPublicados() {
+        LocalDateTime limite = LocalDateTime.now().minus(propiedades.retencion());
+        return transactionTemplate.execute(estado -> eventoPedidoRepositorio.borrarPublicadosAntesDe(limite));
+    }
+
+    private int publicarLote() {
+        List<EventoPedido> pendientes = eventoPedidoRepositorio.findPendientes(Limit.of(propiedades.tamanioLote()));
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        List<EventoPedidoDTO> eventos = new ArrayList<>(pendientes.size());
+        List<Long> ids = new ArrayList<>(pendientes.size());
+        for (EventoPedido pendiente : pendientes) {
+            eventos.add(EventoPedidoDTO.de(pendiente));
+            ids.add(pendiente.getId());
+        }
+
+        try {
+            destino.publicar(eventos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        eventoPedidoRepositorio.marcarPublicados(ids, LocalDateTime.now());
+        publicados.increment(eventos.size());
+        return eventos.size();
+    }
+}
@@ -0,0 +1,41 @@
+package com.josemiguel.ordermanagement.infraestructura.persistencia;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Generador de ids basado en secuencia cuyo tamaño de asignación es configurable.
+ * - Cada llamada a la secuencia reserva un bloque de ids, que se asignan en memoria
+ * - El INCREMENT BY de la secuencia debe coincidir con el tamaño de asignación
+ */
+public class GeneradorSecuenciaPorLotes extends SequenceStyleGenerator {
+
+    /**
+     * Propiedad de Hibernate (spring.jpa.properties.*) con el tamaño de asignación.
+     */
+    public static final String PROPIEDAD_TAMANIO_ASIGNACION = "pedidos.ids.tamanio-asignacion";
+
+    public static final int TAMANIO_ASIGNACION_DEFECTO = 50;
+
+    private final String secuencia;
+
+    public GeneradorSecuenciaPorLotes(SecuenciaPorLotes configuracion) {
+        this.secuencia = configuracion.value();
+    }
+
+    @Override
+    public void configure(Type type, Properties parametros, ServiceRegistry serviceRegistry) {
+        int tamanioAsignacion = serviceRegistry.requireService(ConfigurationService.class)
+                .getSetting(PROPIEDAD_TAMANIO_ASIGNACION, StandardConverters.INTEGER, TAMANIO_ASIGNACION_DEFECTO);
+
+        parametros.setProperty(SEQUENCE_PARAM, secuencia);
+        parametros.setProperty(INCREMENT_PARAM, String.valueOf(tamanioAsignacion));
+        parametros.setProperty(OPT_PARAM, "pooled");
+        super.configure(type, parametros, serviceRegistry);
+    }
+}
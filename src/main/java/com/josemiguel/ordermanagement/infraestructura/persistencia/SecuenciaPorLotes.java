@@ -0,0 +1,25 @@
+package com.josemiguel.ordermanagement.infraestructura.persistencia;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Genera el id de la entidad con una secuencia de base de datos y el optimizador "pooled".
+ * A diferencia de IDENTITY, permite a Hibernate agrupar los INSERT en lotes JDBC.
+ * El tamaño de asignación se configura con la propiedad
+ * {@value GeneradorSecuenciaPorLotes#PROPIEDAD_TAMANIO_ASIGNACION}.
+ */
+@IdGeneratorType(GeneradorSecuenciaPorLotes.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SecuenciaPorLotes {
+
+    /**
+     * Nombre de la secuencia en base de datos.
+     */
+    String value();
+}
@@ -0,0 +1,77 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio de las claves de idempotencia (almacén base-datos).
+ */
+@Repository
+public interface ClaveIdempotenciaRepositorio extends JpaRepository<ClaveIdempotencia, String> {
+
+    /**
+     * Reserva una clave si no existe, con un único INSERT atómico.
+     * Si otra transacción la ha insertado a la vez, espera a que termine y no inserta nada.
+     *
+     * @param clave          Clave de idempotencia
+     * @param huella         Huella de la petición
+     * @param reservadaHasta Fin de la reserva, tras el que se considera abandonada
+     * @param caduca         Caducidad de la clave
+     * @return 1 si se ha reservado, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT INTO claves_idempotencia (clave, huella, reservada_hasta, caduca) " +
+            "VALUES (:clave, :huella, :reservadaHasta, :caduca) ON CONFLICT (clave) DO NOTHING",
+            nativeQuery = true)
+    int reservar(@Param("clave") String clave,
+                 @Param("huella") String huella,
+                 @Param("reservadaHasta") LocalDateTime reservadaHasta,
+                 @Param("caduca") LocalDateTime caduca);
+
+    /**
+     * Guarda la respuesta de una clave reservada.
+     *
+     * @return Número de claves actualizadas
+     */
+    @Modifying
+    @Query("UPDATE ClaveIdempotencia c SET c.estadoHttp = :estadoHttp, c.cabeceras = :cabeceras, " +
+            "c.cuerpo = :cuerpo WHERE c.clave = :clave")
+    int completar(@Param("clave") String clave,
+                  @Param("estadoHttp") int estadoHttp,
+                  @Param("cabeceras") String cabeceras,
+                  @Param("cuerpo") byte[] cuerpo);
+
+    /**
+     * Borra una clave reservada que aún no tiene respuesta.
+     *
+     * @return Número de claves borradas
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.clave = :clave AND c.estadoHttp IS NULL")
+    int liberar(@Param("clave") String clave);
+
+    /**
+     * Borra una clave si ha caducado o si su reserva se ha abandonado.
+     *
+     * @return Número de claves borradas
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.clave = :clave " +
+            "AND (c.caduca <= :ahora OR (c.estadoHttp IS NULL AND c.reservadaHasta <= :ahora))")
+    int borrarSiNoVigente(@Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Borra las claves caducadas.
+     *
+     * @return Número de claves borradas
+     */
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.caduca <= :ahora")
+    int borrarCaducadas(@Param("ahora") LocalDateTime ahora);
+}
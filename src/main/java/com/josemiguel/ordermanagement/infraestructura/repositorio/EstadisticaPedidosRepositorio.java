@@ -0,0 +1,48 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticaDiaDTO;
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticaEstadoDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadisticaPedidos;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de los agregados de pedidos por día y estado.
+ * Las consultas agrupan filas del agregado: su coste depende del número de días
+ * del rango, no del número de pedidos.
+ */
+@Repository
+public interface EstadisticaPedidosRepositorio extends JpaRepository<EstadisticaPedidos, EstadisticaPedidos.Clave>,
+        EstadisticaPedidosRepositorioPersonalizado {
+
+    /**
+     * Pedidos y monto por estado en un rango de días.
+     *
+     * @param desde Primer día (inclusive)
+     * @param hasta Último día (inclusive)
+     * @return Un elemento por estado con pedidos, en orden alfabético de estado
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.dto.EstadisticaEstadoDTO(" +
+            "e.estado, SUM(e.pedidos), SUM(e.montoTotal)) " +
+            "FROM EstadisticaPedidos e WHERE e.dia BETWEEN :desde AND :hasta " +
+            "GROUP BY e.estado HAVING SUM(e.pedidos) > 0 ORDER BY e.estado")
+    List<EstadisticaEstadoDTO> sumarPorEstado(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    /**
+     * Pedidos y monto por día en un rango de días.
+     *
+     * @param desde Primer día (inclusive)
+     * @param hasta Último día (inclusive)
+     * @return Un elemento por día con pedidos, en orden de día
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.dto.EstadisticaDiaDTO(" +
+            "e.dia, SUM(e.pedidos), SUM(e.montoTotal)) " +
+            "FROM EstadisticaPedidos e WHERE e.dia BETWEEN :desde AND :hasta " +
+            "GROUP BY e.dia HAVING SUM(e.pedidos) > 0 ORDER BY e.dia")
+    List<EstadisticaDiaDTO> sumarPorDia(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+}
@@ -0,0 +1,30 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Escrituras de los agregados de pedidos que Spring Data no puede derivar.
+ */
+public interface EstadisticaPedidosRepositorioPersonalizado {
+
+    /**
+     * Suma un incremento a la fila (dia, estado), creándola si no existe,
+     * con una única sentencia (INSERT ... ON CONFLICT DO UPDATE).
+     *
+     * @param dia     Día de creación de los pedidos
+     * @param estado  Estado de los pedidos
+     * @param pedidos Incremento del número de pedidos (negativo para restar)
+     * @param monto   Incremento del monto total (negativo para restar)
+     */
+    void sumar(LocalDate dia, EstadoPedido estado, long pedidos, BigDecimal monto);
+
+    /**
+     * Recalcula todos los agregados desde la tabla de pedidos.
+     *
+     * @return Número de filas de agregado generadas
+     */
+    int reconstruir();
+}
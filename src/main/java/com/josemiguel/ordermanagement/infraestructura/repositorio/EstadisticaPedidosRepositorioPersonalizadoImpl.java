@@ -0,0 +1,41 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Implementación con HQL de las escrituras de los agregados de pedidos.
+ * Hibernate traduce el ON CONFLICT de HQL a la sintaxis de cada base de datos
+ * (ON CONFLICT en PostgreSQL, MERGE en H2).
+ */
+public class EstadisticaPedidosRepositorioPersonalizadoImpl implements EstadisticaPedidosRepositorioPersonalizado {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void sumar(LocalDate dia, EstadoPedido estado, long pedidos, BigDecimal monto) {
+        entityManager.createQuery("INSERT INTO EstadisticaPedidos (dia, estado, pedidos, montoTotal) " +
+                        "VALUES (:dia, :estado, :pedidos, :monto) " +
+                        "ON CONFLICT (dia, estado) DO UPDATE SET pedidos = pedidos + excluded.pedidos, " +
+                        "montoTotal = montoTotal + excluded.montoTotal")
+                .setParameter("dia", dia)
+                .setParameter("estado", estado)
+                .setParameter("pedidos", pedidos)
+                .setParameter("monto", monto)
+                .executeUpdate();
+    }
+
+    @Override
+    public int reconstruir() {
+        entityManager.createQuery("DELETE FROM EstadisticaPedidos").executeUpdate();
+        return entityManager.createQuery("INSERT INTO EstadisticaPedidos (dia, estado, pedidos, montoTotal) " +
+                        "SELECT cast(p.fechaCreacion as LocalDate), p.estado, count(p), sum(p.montoTotal) " +
+                        "FROM Pedido p GROUP BY cast(p.fechaCreacion as LocalDate), p.estado")
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,61 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.EventoPedido;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio JPA del outbox de eventos de pedidos.
+ */
+@Repository
+public interface EventoPedidoRepositorio extends JpaRepository<EventoPedido, Long> {
+
+    /**
+     * Eventos pendientes de publicar, por orden de id.
+     * El id no ordena los cambios de un pedido (secuencia por bloques, varias instancias):
+     * los consumidores ordenan por (pedidoId, versionPedido)
+     * - Bloquea las filas hasta el final de la transacción (SELECT ... FOR UPDATE)
+     * - SKIP LOCKED (timeout -2): si hay varias instancias, cada una publica eventos distintos
+     *   en lugar de esperar a que la otra termine
+     *
+     * @param limite Número máximo de eventos
+     * @return Eventos pendientes más antiguos
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoPedido e WHERE e.publicadoEn IS NULL ORDER BY e.id")
+    List<EventoPedido> findPendientes(Limit limite);
+
+    /**
+     * Marca un conjunto de eventos como publicados con una única sentencia UPDATE.
+     *
+     * @param ids   IDs de los eventos
+     * @param fecha Momento de la publicación
+     * @return Número de eventos marcados
+     */
+    @Modifying
+    @Query("UPDATE EventoPedido e SET e.publicadoEn = :fecha WHERE e.id IN :ids")
+    int marcarPublicados(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Elimina los eventos publicados antes de una fecha (retención del outbox).
+     *
+     * @param limite Fecha límite
+     * @return Número de eventos eliminados
+     */
+    @Modifying
+    @Query("DELETE FROM EventoPedido e WHERE e.publicadoEn < :limite")
+    int borrarPublicadosAntesDe(@Param("limite") LocalDateTime limite);
+}
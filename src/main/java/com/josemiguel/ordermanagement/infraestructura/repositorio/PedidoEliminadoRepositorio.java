@@ -0,0 +1,61 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.modelo.MarcaCambio;
+import com.josemiguel.ordermanagement.dominio.modelo.PedidoEliminado;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de las marcas de borrado de pedidos (feed de cambios).
+ */
+@Repository
+public interface PedidoEliminadoRepositorio extends JpaRepository<PedidoEliminado, Long> {
+
+    /**
+     * Registra la eliminación de un pedido con un único INSERT.
+     * save() haría antes un SELECT, al tener el id asignado.
+     *
+     * @param pedidoId ID del pedido eliminado
+     * @param fecha    Fecha de eliminación
+     */
+    @Modifying
+    @Query(value = "INSERT INTO pedidos_eliminados (pedido_id, fecha_eliminacion) VALUES (:pedidoId, :fecha)",
+            nativeQuery = true)
+    void registrar(@Param("pedidoId") Long pedidoId, @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Eliminaciones posteriores a una posición del feed de cambios (paginación keyset).
+     * Mismo criterio que PedidoRepositorio.findModificadosTras, sobre el índice
+     * (fecha_eliminacion, pedido_id).
+     *
+     * @param fecha  Fecha de la posición
+     * @param id     ID de la posición
+     * @param hasta  Fecha de eliminación máxima (exclusive)
+     * @param limite Número máximo de eliminaciones a devolver
+     * @return Id y fecha de eliminación, en orden de fecha e id
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.modelo.MarcaCambio(e.pedidoId, e.fechaEliminacion) " +
+            "FROM PedidoEliminado e WHERE (e.fechaEliminacion, e.pedidoId) > (:fecha, :id) " +
+            "AND e.fechaEliminacion < :hasta ORDER BY e.fechaEliminacion, e.pedidoId")
+    List<MarcaCambio> findEliminadosTras(@Param("fecha") LocalDateTime fecha,
+                                         @Param("id") Long id,
+                                         @Param("hasta") LocalDateTime hasta,
+                                         Limit limite);
+
+    /**
+     * Borra las marcas de borrado anteriores a una fecha (retención).
+     *
+     * @param limite Fecha de eliminación límite (exclusive)
+     * @return Número de marcas borradas
+     */
+    @Modifying
+    @Query("DELETE FROM PedidoEliminado e WHERE e.fechaEliminacion < :limite")
+    int borrarAntesDe(@Param("limite") LocalDateTime limite);
+}
@@ -1,19 +1,65 @@
 package com.josemiguel.ordermanagement.infraestructura.repositorio;
 
+import com.josemiguel.ordermanagement.dominio.dto.ResumenPedidoDTO;
 import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoYVersion;
+import com.josemiguel.ordermanagement.dominio.modelo.MarcaCambio;
+import com.josemiguel.ordermanagement.dominio.modelo.MontoLineasPedido;
 import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.PedidoEstado;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad Pedido.
  * Proporciona métodos de búsqueda por estado, fecha de creación y cliente.
+ * Las consultas que devuelven pedidos completos cargan sus productos en la misma
+ * sentencia (entity graph "productos") para evitar el problema N+1 al mapear a DTO.
  */
 @Repository
-public interface PedidoRepositorio extends JpaRepository<Pedido, Long> {
+public interface PedidoRepositorio extends JpaRepository<Pedido, Long>, PedidoRepositorioPersonalizado {
+
+    /**
+     * Lista todos los pedidos junto con sus productos en una única consulta.
+     *
+     * @return Lista de pedidos
+     */
+    @Override
+    @EntityGraph(attributePaths = "productos")
+    List<Pedido> findAll();
+
+    /**
+     * Obtiene un pedido junto con sus productos en una única consulta.
+     *
+     * @param id ID del pedido
+     * @return Optional con el pedido si existe
+     */
+    @Override
+    @EntityGraph(attributePaths = "productos")
+    Optional<Pedido> findById(Long id);
+
+    /**
+     * Pedidos de un conjunto de ids junto con sus productos en una única consulta (IN).
+     *
+     * @param ids IDs de los pedidos
+     * @return Pedidos que existen, sin orden definido
+     */
+    @EntityGraph(attributePaths = "productos")
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids")
+    List<Pedido> findConProductosByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Encuentra todos los pedidos con un estado específico.
@@ -21,6 +67,7 @@ public interface PedidoRepositorio extends JpaRepository<Pedido, Long> {
      * @param estado Estado del pedido
      * @return Lista de pedidos con el estado dado
      */
+    @EntityGraph(attributePaths = "productos")
     List<Pedido> findByEstado(EstadoPedido estado);
 
     /**
@@ -30,6 +77,7 @@ public interface PedidoRepositorio extends JpaRepository<Pedido, Long> {
      * @param fin    Fecha de fin
      * @return Lista de pedidos dentro del rango de fechas
      */
+    @EntityGraph(attributePaths = "productos")
     List<Pedido> findByFechaCreacionBetween(LocalDateTime inicio, LocalDateTime fin);
 
     /**
@@ -38,6 +86,7 @@ public interface PedidoRepositorio extends JpaRepository<Pedido, Long> {
      * @param nombreCliente Nombre o parte del nombre del cliente
      * @return Lista de pedidos que coinciden con el nombre
      */
+    @EntityGraph(attributePaths = "productos")
     List<Pedido> findByNombreClienteContainingIgnoreCase(String nombreCliente);
 
     /**
@@ -47,6 +96,7 @@ public interface PedidoRepositorio extends JpaRepository<Pedido, Long> {
      * @param nombreCliente Nombre del cliente
      * @return Lista de pedidos que cumplen ambos criterios
      */
+    @EntityGraph(attributePaths = "productos")
     List<Pedido> findByEstadoAndNombreClienteContainingIgnoreCase(EstadoPedido estado, String nombreCliente);
 
     /**
@@ -57,5 +107,229 @@ public interface PedidoRepositorio extends JpaRepository<Pedido, Long> {
      * @param fin    Fecha de fin
      * @return Lista de pedidos que cumplen ambos criterios
      */
+    @EntityGraph(attributePaths = "productos")
     List<Pedido> findByEstadoAndFechaCreacionBetween(EstadoPedido estado, LocalDateTime inicio, LocalDateTime fin);
+
+    /**
+     * Primera página del listado paginado por cursor.
+     * Ordena de más reciente a más antiguo, desempatando por id.
+     * - No usa entity graph: un JOIN con la colección impediría aplicar el límite en SQL.
+     *   Los productos de la página se cargan después en una sola consulta IN (@BatchSize)
+     *
+     * @param limite Número máximo de pedidos a devolver
+     * @return Pedidos más recientes
+     */
+    @Query("SELECT p FROM Pedido p ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<Pedido> findPrimeraPagina(Limit limite);
+
+    /**
+     * Página siguiente a un cursor (paginación keyset).
+     * - Busca por posición (fechaCreacion, id) en lugar de OFFSET,
+     *   por lo que el coste no crece con la profundidad de la página
+     * - La comparación de tuplas es una única condición de rango sobre el índice
+     *   (fecha_creacion, id); la forma equivalente con OR no se puede usar como tal
+     *
+     * @param fechaCreacion Fecha de creación del último pedido devuelto
+     * @param id            ID del último pedido devuelto
+     * @param limite        Número máximo de pedidos a devolver
+     * @return Pedidos posteriores al cursor en el orden del listado
+     */
+    @Query("SELECT p FROM Pedido p " +
+            "WHERE (p.fechaCreacion, p.id) < (:fechaCreacion, :id) " +
+            "ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<Pedido> findPaginaTras(@Param("fechaCreacion") LocalDateTime fechaCreacion,
+                                @Param("id") Long id,
+                                Limit limite);
+
+    /**
+     * Primera página del listado paginado por cursor, como resúmenes.
+     * Mismo orden que findPrimeraPagina.
+     *
+     * @param limite Número máximo de pedidos a devolver
+     * @return Resúmenes de los pedidos más recientes
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.dto.ResumenPedidoDTO(" +
+            "p.id, p.nombreCliente, p.estado, p.montoTotal, p.fechaCreacion) " +
+            "FROM Pedido p ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<ResumenPedidoDTO> findResumenesPrimeraPagina(Limit limite);
+
+    /**
+     * Página siguiente a un cursor, como resúmenes.
+     * Mismo orden y condición de posición (comparación de tuplas) que findPaginaTras.
+     *
+     * @param fechaCreacion Fecha de creación del último pedido devuelto
+     * @param id            ID del último pedido devuelto
+     * @param limite        Número máximo de pedidos a devolver
+     * @return Resúmenes de los pedidos posteriores al cursor
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.dto.ResumenPedidoDTO(" +
+            "p.id, p.nombreCliente, p.estado, p.montoTotal, p.fechaCreacion) " +
+            "FROM Pedido p " +
+            "WHERE (p.fechaCreacion, p.id) < (:fechaCreacion, :id) " +
+            "ORDER BY p.fechaCreacion DESC, p.id DESC")
+    List<ResumenPedidoDTO> findResumenesTras(@Param("fechaCreacion") LocalDateTime fechaCreacion,
+                                             @Param("id") Long id,
+                                             Limit limite);
+
+    /**
+     * Versión actual de un pedido, sin cargar el pedido ni sus productos.
+     * Permite responder 304 Not Modified con una consulta sobre la clave primaria.
+     *
+     * @param id ID del pedido
+     * @return Optional con la versión si el pedido existe
+     */
+    @Query("SELECT p.version FROM Pedido p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Estado, versión, fecha de creación y monto actuales de un pedido, sin cargar el pedido
+     * ni sus productos.
+     *
+     * @param id ID del pedido
+     * @return Optional con el estado y la versión si el pedido existe
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.modelo.EstadoYVersion(" +
+            "p.estado, p.version, p.fechaCreacion, p.montoTotal) " +
+            "FROM Pedido p WHERE p.id = :id")
+    Optional<EstadoYVersion> findEstadoYVersionById(@Param("id") Long id);
+
+    /**
+     * Aplica una transición de estado con una única sentencia UPDATE.
+     * - Solo se aplica si el estado actual es uno de los orígenes permitidos
+     *   y la versión no ha cambiado desde que se leyó (compare-and-set)
+     * - Incrementa la versión igual que lo haría @Version y asigna la fecha de modificación
+     *
+     * @param id       ID del pedido
+     * @param nuevo    Estado nuevo
+     * @param version  Versión leída del pedido
+     * @param origenes Estados desde los que se permite la transición
+     * @param fecha    Fecha de modificación
+     * @return Número de filas modificadas (0 si la condición no se cumple)
+     */
+    @Modifying
+    @Query("UPDATE Pedido p SET p.estado = :nuevo, p.version = p.version + 1, p.fechaModificacion = :fecha " +
+            "WHERE p.id = :id AND p.version = :version AND p.estado IN :origenes")
+    int actualizarEstado(@Param("id") Long id,
+                         @Param("nuevo") EstadoPedido nuevo,
+                         @Param("version") Long version,
+                         @Param("origenes") Collection<EstadoPedido> origenes,
+                         @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * IDs de los pedidos con un estado y creados en un rango de fechas, ordenados por id.
+     * Mismo criterio que findByEstadoAndFechaCreacionBetween, sin cargar los pedidos.
+     *
+     * @param estado Estado del pedido
+     * @param inicio Fecha inicial (inclusive)
+     * @param fin    Fecha final (inclusive)
+     * @param limite Número máximo de ids a devolver
+     * @return IDs de los pedidos
+     */
+    @Query("SELECT p.id FROM Pedido p " +
+            "WHERE p.estado = :estado AND p.fechaCreacion BETWEEN :inicio AND :fin ORDER BY p.id")
+    List<Long> findIdsByEstadoAndFechaCreacionBetween(@Param("estado") EstadoPedido estado,
+                                                      @Param("inicio") LocalDateTime inicio,
+                                                      @Param("fin") LocalDateTime fin,
+                                                      Limit limite);
+
+    /**
+     * Id y estado de un conjunto de pedidos, bloqueando sus filas (SELECT ... FOR UPDATE)
+     * hasta el final de la transacción para que nadie los cambie antes del UPDATE.
+     *
+     * @param ids IDs de los pedidos
+     * @return Id, estado, versión, fecha de creación y monto de los pedidos que existen
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.modelo.PedidoEstado(" +
+            "p.id, p.estado, p.version, p.fechaCreacion, p.montoTotal) " +
+            "FROM Pedido p WHERE p.id IN :ids")
+    List<PedidoEstado> findEstadosParaActualizar(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cambia el estado de un conjunto de pedidos con una única sentencia UPDATE.
+     * Solo modifica los que siguen en el estado de origen indicado, incrementa su versión
+     * y asigna la fecha de modificación.
+     *
+     * @param ids    IDs de los pedidos
+     * @param origen Estado actual de los pedidos
+     * @param nuevo  Estado nuevo
+     * @param fecha  Fecha de modificación
+     * @return Número de pedidos modificados
+     */
+    @Modifying
+    @Query("UPDATE Pedido p SET p.estado = :nuevo, p.version = p.version + 1, p.fechaModificacion = :fecha " +
+            "WHERE p.id IN :ids AND p.estado = :origen")
+    int actualizarEstadoEnBloque(@Param("ids") Collection<Long> ids,
+                                 @Param("origen") EstadoPedido origen,
+                                 @Param("nuevo") EstadoPedido nuevo,
+                                 @Param("fecha") LocalDateTime fecha);
+
+    /**
+     * Pedidos modificados después de una posición del feed de cambios (paginación keyset).
+     * - La comparación de tuplas recorre el índice (fecha_modificacion, id) desde la posición,
+     *   por lo que el coste depende de los cambios devueltos y no del tamaño de la tabla
+     *
+     * @param fecha  Fecha de modificación de la posición
+     * @param id     ID de la posición
+     * @param hasta  Fecha de modificación máxima (exclusive)
+     * @param limite Número máximo de pedidos a devolver
+     * @return Id y fecha de modificación, en orden de fecha e id
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.modelo.MarcaCambio(p.id, p.fechaModificacion) " +
+            "FROM Pedido p WHERE (p.fechaModificacion, p.id) > (:fecha, :id) AND p.fechaModificacion < :hasta " +
+            "ORDER BY p.fechaModificacion, p.id")
+    List<MarcaCambio> findModificadosTras(@Param("fecha") LocalDateTime fecha,
+                                          @Param("id") Long id,
+                                          @Param("hasta") LocalDateTime hasta,
+                                          Limit limite);
+
+    /**
+     * Menor id de pedido existente.
+     *
+     * @return ID mínimo, o null si no hay pedidos
+     */
+    @Query("SELECT MIN(p.id) FROM Pedido p")
+    Long findIdMinimo();
+
+    /**
+     * Mayor id de pedido existente.
+     *
+     * @return ID máximo, o null si no hay pedidos
+     */
+    @Query("SELECT MAX(p.id) FROM Pedido p")
+    Long findIdMaximo();
+
+    /**
+     * Monto guardado y suma de las líneas de los pedidos de un rango de ids.
+     * - La suma se calcula en la base de datos: devuelve una fila por pedido, no por línea
+     * - Los pedidos sin líneas no aparecen (conservan el monto indicado por el cliente)
+     *
+     * @param desde Primer id del rango (inclusive)
+     * @param hasta Último id del rango (inclusive)
+     * @return Montos de los pedidos con líneas del rango
+     */
+    @Query("SELECT new com.josemiguel.ordermanagement.dominio.modelo.MontoLineasPedido(" +
+            "p.id, p.version, p.estado, p.fechaCreacion, p.montoTotal, SUM(pr.precioUnitario * pr.cantidad)) " +
+            "FROM Pedido p JOIN p.productos pr " +
+            "WHERE p.id BETWEEN :desde AND :hasta " +
+            "GROUP BY p.id, p.version, p.estado, p.fechaCreacion, p.montoTotal")
+    List<MontoLineasPedido> findMontosLineas(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Sustituye el monto total de un pedido si no ha cambiado desde que se leyó.
+     * Incrementa la versión y la fecha de modificación, como cualquier otra modificación.
+     *
+     * @param id      ID del pedido
+     * @param version Versión leída
+     * @param monto   Nuevo monto total
+     * @param fecha   Fecha de modificación
+     * @return 1 si se actualizó, 0 si el pedido cambió o ya no existe
+     */
+    @Modifying
+    @Query("UPDATE Pedido p SET p.montoTotal = :monto, p.version = p.version + 1, p.fechaModificacion = :fecha " +
+            "WHERE p.id = :id AND p.version = :version")
+    int corregirMonto(@Param("id") Long id,
+                      @Param("version") Long version,
+                      @Param("monto") BigDecimal monto,
+                      @Param("fecha") LocalDateTime fecha);
 }
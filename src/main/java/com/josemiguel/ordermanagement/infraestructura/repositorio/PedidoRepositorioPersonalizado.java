@@ -0,0 +1,25 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Consultas de PedidoRepositorio que no se pueden expresar como finders derivados.
+ */
+public interface PedidoRepositorioPersonalizado {
+
+    /**
+     * Recorre los pedidos que cumplen el filtro con un cursor de solo avance.
+     * - Entrega los pedidos en bloques; los productos de cada bloque se cargan con una consulta IN
+     * - Tras procesar cada bloque se vacía el contexto de persistencia, por lo que la memoria
+     *   usada no depende del número total de pedidos
+     * - Debe invocarse dentro de una transacción
+     *
+     * @param filtro     Filtro a aplicar (campos null se ignoran)
+     * @param consumidor Recibe cada bloque de pedidos, ordenados por id
+     */
+    void recorrerPedidos(FiltroPedidos filtro, Consumer<List<Pedido>> consumidor);
+}
@@ -0,0 +1,96 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Implementación de las consultas personalizadas de PedidoRepositorio con Hibernate.
+ */
+class PedidoRepositorioPersonalizadoImpl implements PedidoRepositorioPersonalizado {
+
+    /**
+     * Pedidos por bloque. Coincide con el @BatchSize de productos para que
+     * cada bloque cargue sus productos con una sola consulta.
+     */
+    private static final int TAMANIO_BLOQUE = Pedido.TAMANIO_LOTE_PRODUCTOS;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void recorrerPedidos(FiltroPedidos filtro, Consumer<List<Pedido>> consumidor) {
+        Session session = entityManager.unwrap(Session.class);
+        SelectionQuery<Pedido> consulta = crearConsulta(session, filtro)
+                .setFetchSize(TAMANIO_BLOQUE)
+                .setReadOnly(true);
+
+        List<Pedido> bloque = new ArrayList<>(TAMANIO_BLOQUE);
+        try (ScrollableResults<Pedido> resultados = consulta.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (resultados.next()) {
+                bloque.add(resultados.get());
+                if (bloque.size() == TAMANIO_BLOQUE) {
+                    entregarBloque(session, bloque, consumidor);
+                }
+            }
+            if (!bloque.isEmpty()) {
+                entregarBloque(session, bloque, consumidor);
+            }
+        }
+    }
+
+    private void entregarBloque(Session session, List<Pedido> bloque, Consumer<List<Pedido>> consumidor) {
+        consumidor.accept(bloque);
+        bloque.clear();
+        session.clear();
+    }
+
+    private SelectionQuery<Pedido> crearConsulta(Session session, FiltroPedidos filtro) {
+        StringBuilder hql = new StringBuilder("SELECT p FROM Pedido p WHERE 1 = 1");
+        if (filtro.estado() != null) {
+            hql.append(" AND p.estado = :estado");
+        }
+        if (filtro.desde() != null) {
+            hql.append(" AND p.fechaCreacion >= :desde");
+        }
+        if (filtro.hasta() != null) {
+            hql.append(" AND p.fechaCreacion <= :hasta");
+        }
+        if (filtro.nombreCliente() != null && !filtro.nombreCliente().isBlank()) {
+            // Misma expresión que los finders Containing...IgnoreCase: usa el índice de trigramas de V4
+            hql.append(" AND upper(p.nombreCliente) LIKE upper(:nombreCliente) ESCAPE '\\'");
+        }
+        hql.append(" ORDER BY p.id");
+
+        SelectionQuery<Pedido> consulta = session.createSelectionQuery(hql.toString(), Pedido.class);
+        if (filtro.estado() != null) {
+            consulta.setParameter("estado", filtro.estado());
+        }
+        if (filtro.desde() != null) {
+            consulta.setParameter("desde", filtro.desde());
+        }
+        if (filtro.hasta() != null) {
+            consulta.setParameter("hasta", filtro.hasta());
+        }
+        if (filtro.nombreCliente() != null && !filtro.nombreCliente().isBlank()) {
+            consulta.setParameter("nombreCliente", "%" + escaparLike(filtro.nombreCliente()) + "%");
+        }
+        return consulta;
+    }
+
+    /**
+     * Escapa los comodines de LIKE para buscar el texto literal, como hacen los finders Containing.
+     */
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
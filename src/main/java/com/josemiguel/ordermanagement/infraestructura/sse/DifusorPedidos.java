@@ -0,0 +1,220 @@
+package com.josemiguel.ordermanagement.infraestructura.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.config.SseProperties;
+import com.josemiguel.ordermanagement.dominio.dto.NotificacionPedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.PedidoNoEncontradoException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.ServicioSaturadoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Difunde los cambios de pedidos confirmados a las conexiones SSE abiertas en este nodo.
+ * - Suscripción a un pedido (evento "pedido" inicial con el pedido completo y "cambio" por
+ *   cada modificación; la conexión se cierra al eliminarse el pedido) o a todos los pedidos
+ *   que pasan a unos estados dados
+ * - Las conexiones ociosas no ocupan hilos (servlet asíncrono); los envíos los hace un
+ *   pequeño ejecutor compartido, con un buffer acotado por suscriptor (ver Suscriptor)
+ * - Cada cambio se serializa una sola vez para todos sus suscriptores
+ * - Solo recibe los cambios confirmados en este nodo (AFTER_COMMIT)
+ * Métricas: pedidos.sse.suscriptores y pedidos.sse.descartados
+ */
+@Component
+public class DifusorPedidos {
+
+    static final String EVENTO_PEDIDO = "pedido";
+    static final String EVENTO_CAMBIO = "cambio";
+
+    private final SseProperties propiedades;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService ejecutor;
+    private final Counter descartados;
+
+    /** Suscriptores de un pedido concreto, por id de pedido */
+    private final Map<Long, Set<Suscriptor>> porPedido = new ConcurrentHashMap<>();
+
+    /** Suscriptores a cambios de estado, con los estados que les interesan */
+    private final Map<Suscriptor, Set<EstadoPedido>> porEstado = new ConcurrentHashMap<>();
+
+    private final AtomicInteger abiertas = new AtomicInteger();
+
+    public DifusorPedidos(SseProperties propiedades, ObjectMapper objectMapper, MeterRegistry registro) {
+        this.propiedades = propiedades;
+        this.objectMapper = objectMapper;
+        AtomicInteger hilo = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(propiedades.hilosEnvio(), tarea -> {
+            Thread t = new Thread(tarea, "sse-pedidos-" + hilo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.descartados = Counter.builder("pedidos.sse.descartados")
+                .description("Eventos descartados por suscriptores que no leen a tiempo")
+                .register(registro);
+        Gauge.builder("pedidos.sse.suscriptores", abiertas, AtomicInteger::get)
+                .description("Conexiones SSE abiertas")
+                .register(registro);
+    }
+
+    /**
+     * Abre una suscripción a los cambios de un pedido.
+     * - Primero se registra la suscripción y después se lee el pedido: un cambio confirmado antes
+     *   de la lectura ya está en ella y uno posterior llega como evento "cambio"
+     * - La caché y la agrupación de lecturas se invalidan antes de difundir cada cambio
+     *   (@Order de sus oyentes), de modo que un cambio difundido antes del registro
+     *   siempre es visible para la lectura
+     * - El pedido leído sale como primer evento aunque se reciban cambios mientras se lee;
+     *   esos cambios pueden estar ya incluidos en él, pero nunca se pierden
+     *
+     * @param id       ID del pedido
+     * @param cargador Lectura del pedido actual
+     * @return Conexión SSE
+     * @throws PedidoNoEncontradoException si el pedido no existe
+     */
+    public SseEmitter suscribirPedido(Long id, Supplier<Optional<PedidoDTO>> cargador) {
+        Suscriptor suscriptor = nuevoSuscriptor(true);
+        porPedido.computeIfAbsent(id, clave -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+        Runnable baja = alCerrar(suscriptor, () -> porPedido.computeIfPresent(id, (clave, suscriptores) -> {
+            suscriptores.remove(suscriptor);
+            return suscriptores.isEmpty() ? null : suscriptores;
+        }));
+        PedidoDTO pedido;
+        try {
+            pedido = cargador.get().orElseThrow(() -> new PedidoNoEncontradoException(id));
+        } catch (RuntimeException e) {
+            // La conexión no llega a abrirse: sus callbacks no se ejecutarán
+            baja.run();
+            throw e;
+        }
+        suscriptor.liberar(new Suscriptor.Mensaje(EVENTO_PEDIDO, json(pedido), false));
+        return suscriptor.emisor();
+    }
+
+    /**
+     * Abre una suscripción a los pedidos que pasan a alguno de los estados indicados.
+     *
+     * @param estados Estados de interés (vacío: cualquier cambio de cualquier pedido)
+     * @return Conexión SSE
+     */
+    public SseEmitter suscribirEstados(Set<EstadoPedido> estados) {
+        Suscriptor suscriptor = nuevoSuscriptor(false);
+        porEstado.put(suscriptor, estados);
+        alCerrar(suscriptor, () -> porEstado.remove(suscriptor));
+        return suscriptor.emisor();
+    }
+
+    /**
+     * Reparte cada cambio confirmado entre sus suscriptores.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void alModificarPedido(PedidoModificadoEvento evento) {
+        Set<Suscriptor> delPedido = porPedido.get(evento.pedidoId());
+        if ((delPedido == null || delPedido.isEmpty()) && porEstado.isEmpty()) {
+            return;
+        }
+
+        boolean eliminado = evento.tipo() == PedidoModificadoEvento.Tipo.ELIMINADO;
+        String datos = json(NotificacionPedidoDTO.de(evento));
+        Suscriptor.Mensaje cambio = new Suscriptor.Mensaje(EVENTO_CAMBIO, datos, false);
+        if (delPedido != null) {
+            Suscriptor.Mensaje mensaje = eliminado ? new Suscriptor.Mensaje(EVENTO_CAMBIO, datos, true) : cambio;
+            delPedido.forEach(suscriptor -> suscriptor.encolar(mensaje));
+        }
+        porEstado.forEach((suscriptor, estados) -> {
+            if (estados.isEmpty() || estados.contains(evento.estadoNuevo())) {
+                suscriptor.encolar(cambio);
+            }
+        });
+    }
+
+    /**
+     * Envía un latido a las conexiones sin eventos pendientes y da de baja las ya cerradas.
+     * Lo programa SseConfig cada pedidos.sse.latido.
+     */
+    public void latir() {
+        porPedido.values().forEach(suscriptores -> suscriptores.forEach(this::latir));
+        porEstado.keySet().forEach(this::latir);
+    }
+
+    /**
+     * Conexiones SSE abiertas en este nodo.
+     */
+    public int suscriptores() {
+        return abiertas.get();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+
+    private void latir(Suscriptor suscriptor) {
+        if (suscriptor.cerrado()) {
+            suscriptor.emisor().complete();
+        } else {
+            suscriptor.encolar(Suscriptor.LATIDO);
+        }
+    }
+
+    private Suscriptor nuevoSuscriptor(boolean retenido) {
+        if (abiertas.incrementAndGet() > propiedades.maximoSuscriptores()) {
+            abiertas.decrementAndGet();
+            throw new ServicioSaturadoException(propiedades.latido());
+        }
+        return new Suscriptor(new SseEmitter(propiedades.duracion().toMillis()), propiedades.buffer(),
+                ejecutor, descartados::increment, retenido);
+    }
+
+    /**
+     * Da de baja al suscriptor una sola vez, sea cual sea la forma en que termina la conexión.
+     *
+     * @return La baja, para ejecutarla directamente si la conexión no llega a abrirse
+     */
+    private Runnable alCerrar(Suscriptor suscriptor, Runnable baja) {
+        Runnable bajaUnica = new Runnable() {
+            private boolean hecho;
+
+            @Override
+            public synchronized void run() {
+                if (!hecho) {
+                    hecho = true;
+                    suscriptor.cerrar();
+                    baja.run();
+                    abiertas.decrementAndGet();
+                }
+            }
+        };
+        SseEmitter emisor = suscriptor.emisor();
+        emisor.onCompletion(bajaUnica);
+        emisor.onTimeout(bajaUnica);
+        emisor.onError(error -> bajaUnica.run());
+        return bajaUnica;
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
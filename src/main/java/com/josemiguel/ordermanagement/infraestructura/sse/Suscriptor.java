@@ -0,0 +1,141 @@
+package com.josemiguel.ordermanagement.infraestructura.sse;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conexión SSE abierta con su buffer de eventos pendientes.
+ * - encolar() nunca bloquea al que publica: añade al buffer y, si no hay un envío en curso,
+ *   programa uno en el ejecutor compartido
+ * - El buffer está acotado: si el cliente no lee al ritmo de los cambios se descarta el
+ *   evento más antiguo, de modo que un cliente lento solo pierde cambios intermedios
+ * - Un solo envío en curso por suscriptor, por lo que los eventos salen en orden
+ * - Un suscriptor retenido acumula los eventos sin enviarlos hasta liberar(), que antepone
+ *   el primer evento (el pedido actual leído después de registrar la suscripción)
+ */
+class Suscriptor {
+
+    /**
+     * Evento ya serializado, compartido entre todos los suscriptores que lo reciben.
+     * Con nombre null se envía como comentario (latido).
+     */
+    record Mensaje(String nombre, String datos, boolean ultimo) {
+    }
+
+    static final Mensaje LATIDO = new Mensaje(null, "", false);
+
+    private final SseEmitter emisor;
+    private final int capacidad;
+    private final Executor ejecutor;
+    private final Runnable alDescartar;
+    private final ArrayDeque<Mensaje> pendientes;
+    private final AtomicBoolean enviando = new AtomicBoolean();
+    private volatile boolean cerrado;
+    private volatile boolean retenido;
+
+    Suscriptor(SseEmitter emisor, int capacidad, Executor ejecutor, Runnable alDescartar) {
+        this(emisor, capacidad, ejecutor, alDescartar, false);
+    }
+
+    Suscriptor(SseEmitter emisor, int capacidad, Executor ejecutor, Runnable alDescartar, boolean retenido) {
+        this.emisor = emisor;
+        this.capacidad = capacidad;
+        this.ejecutor = ejecutor;
+        this.alDescartar = alDescartar;
+        this.pendientes = new ArrayDeque<>(capacidad);
+        this.retenido = retenido;
+    }
+
+    SseEmitter emisor() {
+        return emisor;
+    }
+
+    void encolar(Mensaje mensaje) {
+        if (cerrado) {
+            return;
+        }
+        synchronized (pendientes) {
+            if (mensaje == LATIDO && !pendientes.isEmpty()) {
+                // Ya hay algo que enviar: la conexión no está ociosa
+                return;
+            }
+            if (pendientes.size() == capacidad) {
+                pendientes.pollFirst();
+                alDescartar.run();
+            }
+            pendientes.addLast(mensaje);
+        }
+        if (!retenido) {
+            programarEnvio();
+        }
+    }
+
+    /**
+     * Antepone el primer evento a los acumulados mientras estaba retenido y empieza a enviarlos.
+     *
+     * @param primero Evento que debe salir antes que cualquier otro
+     */
+    void liberar(Mensaje primero) {
+        if (cerrado) {
+            return;
+        }
+        synchronized (pendientes) {
+            if (pendientes.size() == capacidad) {
+                pendientes.pollFirst();
+                alDescartar.run();
+            }
+            pendientes.addFirst(primero);
+            retenido = false;
+        }
+        programarEnvio();
+    }
+
+    boolean cerrado() {
+        return cerrado;
+    }
+
+    void cerrar() {
+        cerrado = true;
+        synchronized (pendientes) {
+            pendientes.clear();
+        }
+    }
+
+    private void programarEnvio() {
+        if (enviando.compareAndSet(false, true)) {
+            ejecutor.execute(this::enviarPendientes);
+        }
+    }
+
+    private void enviarPendientes() {
+        while (true) {
+            Mensaje mensaje;
+            synchronized (pendientes) {
+                mensaje = pendientes.pollFirst();
+                if (mensaje == null) {
+                    enviando.set(false);
+                    return;
+                }
+            }
+            try {
+                if (mensaje.nombre() == null) {
+                    emisor.send(SseEmitter.event().comment(mensaje.datos()));
+                } else {
+                    emisor.send(SseEmitter.event().name(mensaje.nombre()).data(mensaje.datos()));
+                }
+                if (mensaje.ultimo()) {
+                    cerrar();
+                    emisor.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado o conexión ya cerrada: onError/onCompletion lo dan de baja
+                cerrar();
+                emisor.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.josemiguel.ordermanagement.infraestructura.transicion;
+
+import com.josemiguel.ordermanagement.config.LoteProperties;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoTransicionDTO;
+import com.josemiguel.ordermanagement.dominio.dto.SolicitudTransicionLoteDTO;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.LoteInvalidoException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Cambio de estado masivo de pedidos (por ejemplo, pasar una oleada de CONFIRMED a SHIPPED).
+ * - Los pedidos se seleccionan por ids o por estado y rango de fechas de creación
+ * - Se procesan en bloques, cada uno en su transacción, con una lectura y un UPDATE
+ *   por estado de origen en lugar de una lectura y una escritura por pedido
+ * - Las reglas de transición son las mismas que las del cambio de estado individual
+ */
+@Component
+public class TransicionadorPedidos {
+
+    private final PedidoServicio pedidoServicio;
+    private final int tamanioBloque;
+    private final int maximoTransiciones;
+
+    public TransicionadorPedidos(PedidoServicio pedidoServicio, LoteProperties lote) {
+        this.pedidoServicio = pedidoServicio;
+        this.tamanioBloque = lote.tamanioBloque();
+        this.maximoTransiciones = lote.maximoTransiciones();
+    }
+
+    /**
+     * Cambia el estado de los pedidos indicados en la solicitud.
+     *
+     * @param solicitud Pedidos a cambiar (ids o filtro) y estado nuevo
+     * @return Resultado de cada pedido, en el orden de los ids recibidos o por id si se usó filtro
+     * @throws LoteInvalidoException si la solicitud supera el máximo de pedidos configurado
+     */
+    public List<ResultadoTransicionDTO> transicionar(SolicitudTransicionLoteDTO solicitud) {
+        List<Long> ids = seleccionarIds(solicitud);
+        if (ids.size() > maximoTransiciones) {
+            throw new LoteInvalidoException("Un cambio de estado masivo admite como máximo "
+                    + maximoTransiciones + " pedidos");
+        }
+
+        List<ResultadoTransicionDTO> resultados = new ArrayList<>(ids.size());
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanioBloque) {
+            List<Long> bloque = ids.subList(inicio, Math.min(inicio + tamanioBloque, ids.size()));
+            resultados.addAll(pedidoServicio.cambiarEstadoBloque(bloque, solicitud.estadoNuevo()));
+        }
+        return resultados;
+    }
+
+    private List<Long> seleccionarIds(SolicitudTransicionLoteDTO solicitud) {
+        if (solicitud.porIds()) {
+            // Un id repetido se procesa una sola vez
+            return new ArrayList<>(new LinkedHashSet<>(solicitud.ids()));
+        }
+        // Se pide uno más del máximo para poder rechazar la solicitud si lo supera
+        return pedidoServicio.listarIdsPorEstadoYFecha(solicitud.estado(), solicitud.desde(), solicitud.hasta(),
+                maximoTransiciones + 1);
+    }
+}
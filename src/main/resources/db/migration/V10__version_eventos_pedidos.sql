@@ -0,0 +1,7 @@
+-- Versión del pedido en cada evento del outbox.
+-- El id de eventos_pedidos sale de una secuencia reservada por bloques y varias instancias
+-- publican a la vez, así que el orden de publicación no es el de los cambios:
+-- los consumidores ordenan los eventos de un pedido por (pedido_id, version_pedido).
+-- Los eventos registrados antes de esta migración quedan con version_pedido nula.
+
+ALTER TABLE eventos_pedidos ADD COLUMN IF NOT EXISTS version_pedido BIGINT;
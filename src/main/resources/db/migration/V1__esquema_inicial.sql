@@ -0,0 +1,20 @@
+-- Esquema inicial de pedidos y productos.
+-- Usa IF NOT EXISTS para adoptar las tablas creadas previamente con ddl-auto=update.
+
+CREATE TABLE IF NOT EXISTS pedidos (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre_cliente   VARCHAR(255)   NOT NULL,
+    contacto_cliente VARCHAR(255)   NOT NULL,
+    monto_total      NUMERIC(38, 2) NOT NULL,
+    estado           VARCHAR(255)   NOT NULL
+        CHECK (estado IN ('CREATED', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED', 'RETURNED')),
+    fecha_creacion   TIMESTAMP(6)   NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS productos (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nombre          VARCHAR(255)   NOT NULL,
+    cantidad        INTEGER        NOT NULL,
+    precio_unitario NUMERIC(38, 2) NOT NULL,
+    pedido_id       BIGINT REFERENCES pedidos (id)
+);
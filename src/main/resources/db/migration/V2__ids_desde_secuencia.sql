@@ -0,0 +1,23 @@
+-- Los ids pasan de IDENTITY a secuencias con asignación por bloques ("pooled"),
+-- lo que permite a Hibernate agrupar los INSERT en lotes JDBC.
+-- INCREMENT BY debe coincidir con pedidos.ids.tamanio-asignacion.
+
+CREATE SEQUENCE IF NOT EXISTS pedidos_seq INCREMENT BY ${tamanio_asignacion_ids};
+CREATE SEQUENCE IF NOT EXISTS productos_seq INCREMENT BY ${tamanio_asignacion_ids};
+
+-- Continuar tras los ids ya asignados por IDENTITY.
+-- El optimizador pooled interpreta cada valor como el final de un bloque,
+-- así que el primer valor debe ser MAX(id) + tamaño del bloque.
+SELECT setval('pedidos_seq', COALESCE((SELECT MAX(id) FROM pedidos), 0) + ${tamanio_asignacion_ids}, false);
+SELECT setval('productos_seq', COALESCE((SELECT MAX(id) FROM productos), 0) + ${tamanio_asignacion_ids}, false);
+
+ALTER TABLE pedidos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE productos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- La clave ajena se escribe en el propio INSERT del producto.
+-- Las líneas sin pedido son huérfanas que ninguna consulta puede alcanzar, pero no se borran:
+-- se trasladan a productos_huerfanos para poder revisarlas o recuperarlas a mano.
+CREATE TABLE IF NOT EXISTS productos_huerfanos (LIKE productos);
+INSERT INTO productos_huerfanos SELECT * FROM productos WHERE pedido_id IS NULL;
+DELETE FROM productos WHERE pedido_id IS NULL;
+ALTER TABLE productos ALTER COLUMN pedido_id SET NOT NULL;
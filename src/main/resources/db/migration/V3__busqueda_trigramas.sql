@@ -0,0 +1,8 @@
+-- Índice de trigramas para la búsqueda por nombre de cliente.
+-- Permite resolver ILIKE '%texto%' y las búsquedas por similitud (<%) sin recorrer la tabla.
+-- Se crea CONCURRENTLY para no bloquear escrituras en tablas grandes (ver V3__busqueda_trigramas.sql.conf).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedidos_nombre_cliente_trgm
+    ON pedidos USING gin (nombre_cliente gin_trgm_ops);
@@ -0,0 +1,26 @@
+-- Índices para las consultas de PedidoRepositorio.
+-- Se crean CONCURRENTLY para no bloquear escrituras (ver V4__indices_finders.sql.conf).
+
+-- Carga de productos de uno o varios pedidos (entity graph, @BatchSize y borrado en cascada)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_productos_pedido_id
+    ON productos (pedido_id);
+
+-- findByFechaCreacionBetween y paginación por cursor (findPrimeraPagina / findPaginaTras)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedidos_fecha_creacion_id
+    ON pedidos (fecha_creacion, id);
+
+-- findByEstado y findByEstadoAndFechaCreacionBetween para cualquier estado
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedidos_estado_fecha_creacion
+    ON pedidos (estado, fecha_creacion);
+
+-- Mismas consultas sobre los estados no finales, que son las colas de trabajo habituales.
+-- Los pedidos en estado final son la mayoría de la tabla y no entran en este índice,
+-- por lo que se mantiene pequeño y en memoria.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedidos_activos_estado_fecha_creacion
+    ON pedidos (estado, fecha_creacion, id)
+    WHERE estado IN ('CREATED', 'CONFIRMED', 'SHIPPED');
+
+-- findByNombreClienteContainingIgnoreCase y findByEstadoAndNombreClienteContainingIgnoreCase
+-- generan upper(nombre_cliente) LIKE upper(?), que solo puede usar un índice de trigramas sobre la expresión
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedidos_nombre_cliente_upper_trgm
+    ON pedidos USING gin (upper(nombre_cliente) gin_trgm_ops);
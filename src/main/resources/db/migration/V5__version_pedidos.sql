@@ -0,0 +1,4 @@
+-- Versión para bloqueo optimista (@Version en Pedido), expuesta como ETag.
+-- Los pedidos existentes empiezan en la versión 0.
+
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
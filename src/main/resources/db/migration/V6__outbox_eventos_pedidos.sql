@@ -0,0 +1,29 @@
+-- Outbox transaccional: un evento por cada modificación de un pedido,
+-- escrito en la misma transacción que el cambio y publicado después por RelevoOutbox.
+-- INCREMENT BY debe coincidir con pedidos.ids.tamanio-asignacion.
+
+CREATE SEQUENCE IF NOT EXISTS eventos_pedidos_seq INCREMENT BY ${tamanio_asignacion_ids};
+
+-- Sin clave ajena a pedidos: el evento ELIMINADO debe sobrevivir al pedido
+CREATE TABLE IF NOT EXISTS eventos_pedidos (
+    id              BIGINT       PRIMARY KEY,
+    pedido_id       BIGINT       NOT NULL,
+    tipo            VARCHAR(255) NOT NULL
+        CHECK (tipo IN ('CREADO', 'ACTUALIZADO', 'ESTADO_CAMBIADO', 'ELIMINADO')),
+    estado_anterior VARCHAR(255)
+        CHECK (estado_anterior IN ('CREATED', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED', 'RETURNED')),
+    estado_nuevo    VARCHAR(255)
+        CHECK (estado_nuevo IN ('CREATED', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED', 'RETURNED')),
+    fecha           TIMESTAMP(6) NOT NULL,
+    publicado_en    TIMESTAMP(6)
+);
+
+-- findPendientes: solo contiene los eventos aún no publicados, así que se mantiene pequeño
+CREATE INDEX IF NOT EXISTS idx_eventos_pedidos_pendientes
+    ON eventos_pedidos (id)
+    WHERE publicado_en IS NULL;
+
+-- borrarPublicadosAntesDe (purga por retención)
+CREATE INDEX IF NOT EXISTS idx_eventos_pedidos_publicado_en
+    ON eventos_pedidos (publicado_en)
+    WHERE publicado_en IS NOT NULL;
@@ -0,0 +1,20 @@
+-- Feed de cambios de pedidos (GET /api/pedidos/cambios).
+
+-- Fecha de la última modificación; los pedidos existentes parten de su fecha de creación
+ALTER TABLE pedidos ADD COLUMN IF NOT EXISTS fecha_modificacion TIMESTAMP(6);
+UPDATE pedidos SET fecha_modificacion = fecha_creacion WHERE fecha_modificacion IS NULL;
+ALTER TABLE pedidos ALTER COLUMN fecha_modificacion SET NOT NULL;
+
+-- findModificadosTras: recorrido keyset por (fecha_modificacion, id)
+CREATE INDEX IF NOT EXISTS idx_pedidos_fecha_modificacion_id
+    ON pedidos (fecha_modificacion, id);
+
+-- Marcas de borrado. Sin clave ajena a pedidos: sobreviven al pedido
+CREATE TABLE IF NOT EXISTS pedidos_eliminados (
+    pedido_id         BIGINT       PRIMARY KEY,
+    fecha_eliminacion TIMESTAMP(6) NOT NULL
+);
+
+-- findEliminadosTras y borrarAntesDe
+CREATE INDEX IF NOT EXISTS idx_pedidos_eliminados_fecha_pedido_id
+    ON pedidos_eliminados (fecha_eliminacion, pedido_id);
@@ -0,0 +1,18 @@
+-- Agregados de pedidos por día de creación y estado (ver EstadisticasPedidos).
+-- La clave primaria sirve tanto al ON CONFLICT de los incrementos como a las consultas por rango de días.
+
+CREATE TABLE IF NOT EXISTS estadisticas_pedidos (
+    dia         DATE           NOT NULL,
+    estado      VARCHAR(255)   NOT NULL
+        CHECK (estado IN ('CREATED', 'CONFIRMED', 'SHIPPED', 'DELIVERED', 'CANCELLED', 'RETURNED')),
+    pedidos     BIGINT         NOT NULL,
+    monto_total NUMERIC(38, 2) NOT NULL,
+    PRIMARY KEY (dia, estado)
+);
+
+-- Agregados iniciales de los pedidos existentes
+INSERT INTO estadisticas_pedidos (dia, estado, pedidos, monto_total)
+SELECT CAST(fecha_creacion AS DATE), estado, COUNT(*), SUM(monto_total)
+FROM pedidos
+GROUP BY CAST(fecha_creacion AS DATE), estado
+ON CONFLICT (dia, estado) DO NOTHING;
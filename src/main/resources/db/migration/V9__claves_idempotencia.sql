@@ -0,0 +1,16 @@
+-- Claves de idempotencia (cabecera Idempotency-Key) compartidas entre nodos,
+-- con pedidos.idempotencia.almacen=base-datos (ver AlmacenIdempotenciaBaseDatos).
+-- estado_http es NULL mientras la petición está en curso.
+
+CREATE TABLE IF NOT EXISTS claves_idempotencia (
+    clave           VARCHAR(255) PRIMARY KEY,
+    huella          VARCHAR(64)  NOT NULL,
+    estado_http     INTEGER,
+    cabeceras       VARCHAR(4000),
+    cuerpo          BYTEA,
+    reservada_hasta TIMESTAMP(6) NOT NULL,
+    caduca          TIMESTAMP(6) NOT NULL
+);
+
+-- Purga de claves caducadas
+CREATE INDEX IF NOT EXISTS idx_claves_idempotencia_caduca ON claves_idempotencia (caduca);
@@ -0,0 +1,71 @@
+package com.josemiguel.ordermanagement.carga;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Parámetros de la prueba de carga, leídos de propiedades del sistema (-Dcarga.xxx=...).
+ *
+ * @param pedidos            Pedidos sembrados antes de medir (carga.pedidos, 10000)
+ * @param productosPorPedido Líneas de cada pedido sembrado o creado (carga.productos-por-pedido, 5)
+ * @param hilos              Clientes concurrentes en bucle cerrado (carga.hilos, 16)
+ * @param calentamiento      Tiempo inicial cuyas medidas se descartan (carga.calentamiento, 10s)
+ * @param duracion           Tiempo medido (carga.duracion, 30s)
+ * @param mezcla             Peso de cada operación (carga.mezcla, crear=10,listar=15,...)
+ * @param salida             Fichero JSON del informe (carga.salida, target/carga/carga-fecha.json)
+ * @param etiqueta           Texto libre para identificar la ejecución, p. ej. el commit (carga.etiqueta)
+ */
+record ConfiguracionCarga(
+        int pedidos,
+        int productosPorPedido,
+        int hilos,
+        Duration calentamiento,
+        Duration duracion,
+        Map<Operacion, Integer> mezcla,
+        Path salida,
+        String etiqueta) {
+
+    static final String MEZCLA_DEFECTO =
+            "crear=10,listar=10,listar-resumen=5,obtener=50,transicion=15,eliminar=10";
+
+    static ConfiguracionCarga desdePropiedades() {
+        String fecha = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        return new ConfiguracionCarga(
+                Integer.getInteger("carga.pedidos", 10_000),
+                Integer.getInteger("carga.productos-por-pedido", 5),
+                Integer.getInteger("carga.hilos", 16),
+                DurationStyle.detectAndParse(System.getProperty("carga.calentamiento", "10s")),
+                DurationStyle.detectAndParse(System.getProperty("carga.duracion", "30s")),
+                mezcla(System.getProperty("carga.mezcla", MEZCLA_DEFECTO)),
+                Path.of(System.getProperty("carga.salida", "target/carga/carga-" + fecha + ".json")),
+                System.getProperty("carga.etiqueta", ""));
+    }
+
+    /**
+     * Interpreta una mezcla con el formato operacion=peso,operacion=peso.
+     * Las operaciones no indicadas no se ejecutan.
+     */
+    static Map<Operacion, Integer> mezcla(String texto) {
+        Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+        for (String par : texto.split(",")) {
+            String[] partes = par.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Mezcla no válida: " + texto);
+            }
+            int peso = Integer.parseInt(partes[1].trim());
+            if (peso > 0) {
+                pesos.put(Operacion.desdeNombre(partes[0].trim()), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene ninguna operación: " + texto);
+        }
+        return pesos;
+    }
+}
@@ -0,0 +1,59 @@
+package com.josemiguel.ordermanagement.carga;
+
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ProductoDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pedidos de la prueba de carga: los sembrados en la base de datos y el cuerpo de los creados por la API.
+ */
+final class DatosCarga {
+
+    private static final BigDecimal PRECIO = new BigDecimal("9.95");
+
+    private DatosCarga() {
+    }
+
+    static Pedido nuevoPedido(int numero, int lineas) {
+        List<Producto> productos = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            productos.add(Producto.builder().nombre("Producto " + i).cantidad(1 + i % 3).precioUnitario(PRECIO).build());
+        }
+        return Pedido.builder()
+                .nombreCliente("Cliente " + numero)
+                .contactoCliente("cliente" + numero + "@ejemplo.com")
+                .montoTotal(total(lineas))
+                .productos(productos)
+                .build();
+    }
+
+    static PedidoDTO nuevoPedidoDTO(int lineas) {
+        List<ProductoDTO> productos = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            ProductoDTO producto = new ProductoDTO();
+            producto.setNombre("Producto " + i);
+            producto.setCantidad(1 + i % 3);
+            producto.setPrecioUnitario(PRECIO);
+            productos.add(producto);
+        }
+        PedidoDTO pedido = new PedidoDTO();
+        pedido.setNombreCliente("Cliente carga");
+        pedido.setContactoCliente("carga@ejemplo.com");
+        pedido.setMontoTotal(total(lineas));
+        pedido.setProductos(productos);
+        return pedido;
+    }
+
+    private static BigDecimal total(int lineas) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lineas; i++) {
+            total = total.add(PRECIO.multiply(BigDecimal.valueOf(1 + i % 3)));
+        }
+        return total;
+    }
+}
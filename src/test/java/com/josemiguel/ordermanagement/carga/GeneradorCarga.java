@@ -0,0 +1,178 @@
+package com.josemiguel.ordermanagement.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generador de carga en bucle cerrado: cada hilo elige una operación según los pesos
+ * de la mezcla, la ejecuta contra la API y mide su latencia, sin pausas entre peticiones.
+ * - Las medidas del calentamiento se descartan (JIT, cachés, pool de conexiones)
+ * - Obtener usa pedidos sembrados que nunca se eliminan
+ * - Transición confirma pedidos sembrados en CREATED, cada uno una sola vez
+ * - Eliminar borra primero los pedidos creados durante la prueba y después una reserva sembrada
+ * - Si se agotan los pedidos a confirmar o eliminar, la operación se omite sin medirse
+ */
+final class GeneradorCarga {
+
+    private static final int TAMANIO_PAGINA = 20;
+    private static final int OMITIDA = -1;
+
+    private final ConfiguracionCarga configuracion;
+    private final String base;
+    private final ObjectMapper objectMapper;
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final long[] lectura;
+    private final Queue<Long> porConfirmar;
+    private final Deque<Long> eliminables;
+    private final Operacion[] ruleta;
+    private final String cuerpoPedido;
+    private final String hilosServidor;
+
+    GeneradorCarga(ConfiguracionCarga configuracion, int puerto, ObjectMapper objectMapper,
+                   List<Long> sembrados, List<Long> reserva, String hilosServidor) throws IOException {
+        this.configuracion = configuracion;
+        this.hilosServidor = hilosServidor;
+        this.base = "http://localhost:" + puerto + "/api/pedidos";
+        this.objectMapper = objectMapper;
+        this.lectura = sembrados.stream().mapToLong(Long::longValue).toArray();
+        this.porConfirmar = new ConcurrentLinkedQueue<>(sembrados);
+        this.eliminables = new ConcurrentLinkedDeque<>(reserva);
+        List<Operacion> pesos = new ArrayList<>();
+        configuracion.mezcla().forEach((operacion, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                pesos.add(operacion);
+            }
+        });
+        this.ruleta = pesos.toArray(Operacion[]::new);
+        this.cuerpoPedido = objectMapper.writeValueAsString(DatosCarga.nuevoPedidoDTO(configuracion.productosPorPedido()));
+    }
+
+    InformeCarga ejecutar() throws Exception {
+        long inicioMedicion = System.nanoTime() + configuracion.calentamiento().toNanos();
+        long fin = inicioMedicion + configuracion.duracion().toNanos();
+
+        ExecutorService hilos = Executors.newFixedThreadPool(configuracion.hilos());
+        try {
+            List<Future<Map<Operacion, Latencias>>> futuras = new ArrayList<>(configuracion.hilos());
+            for (int i = 0; i < configuracion.hilos(); i++) {
+                futuras.add(hilos.submit(() -> cliente(inicioMedicion, fin)));
+            }
+            Map<Operacion, Latencias> combinadas = new EnumMap<>(Operacion.class);
+            for (Future<Map<Operacion, Latencias>> futura : futuras) {
+                futura.get().forEach((operacion, latencias) ->
+                        combinadas.computeIfAbsent(operacion, o -> new Latencias()).combinar(latencias));
+            }
+            double segundos = (System.nanoTime() - inicioMedicion) / 1e9;
+            return informe(combinadas, segundos);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private Map<Operacion, Latencias> cliente(long inicioMedicion, long fin) {
+        Map<Operacion, Latencias> latencias = new EnumMap<>(Operacion.class);
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        long ahora;
+        while ((ahora = System.nanoTime()) < fin) {
+            Operacion operacion = ruleta[aleatorio.nextInt(ruleta.length)];
+            int estado = ejecutar(operacion, aleatorio);
+            long duracion = System.nanoTime() - ahora;
+            if (estado != OMITIDA && ahora >= inicioMedicion) {
+                latencias.computeIfAbsent(operacion, o -> new Latencias()).registrar(duracion, estado);
+            }
+        }
+        return latencias;
+    }
+
+    private int ejecutar(Operacion operacion, ThreadLocalRandom aleatorio) {
+        try {
+            return switch (operacion) {
+                case CREAR -> crear();
+                case LISTAR -> enviar(HttpRequest.newBuilder(URI.create(base + "/pagina?tamanio=" + TAMANIO_PAGINA)).GET());
+                case LISTAR_RESUMEN -> enviar(HttpRequest.newBuilder(
+                        URI.create(base + "/pagina?vista=resumen&tamanio=" + TAMANIO_PAGINA)).GET());
+                case OBTENER -> enviar(HttpRequest.newBuilder(
+                        URI.create(base + "/" + lectura[aleatorio.nextInt(lectura.length)])).GET());
+                case TRANSICION -> {
+                    Long id = porConfirmar.poll();
+                    yield id == null ? OMITIDA : enviar(HttpRequest.newBuilder(
+                            URI.create(base + "/" + id + "/estado?estado=CONFIRMED"))
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                }
+                case ELIMINAR -> {
+                    Long id = eliminables.poll();
+                    yield id == null ? OMITIDA : enviar(HttpRequest.newBuilder(URI.create(base + "/" + id)).DELETE());
+                }
+            };
+        } catch (IOException ex) {
+            return 0;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private int crear() throws IOException, InterruptedException {
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(base))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpoPedido))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (respuesta.statusCode() == 201) {
+            // Los creados se eliminan antes que la reserva: la tabla mantiene un tamaño estable
+            eliminables.addFirst(objectMapper.readTree(respuesta.body()).get("id").asLong());
+        }
+        return respuesta.statusCode();
+    }
+
+    private int enviar(HttpRequest.Builder peticion) throws IOException, InterruptedException {
+        return cliente.send(peticion.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private InformeCarga informe(Map<Operacion, Latencias> latencias, double segundos) {
+        Map<String, InformeCarga.ResultadoOperacion> operaciones = new LinkedHashMap<>();
+        Latencias todas = new Latencias();
+        latencias.forEach((operacion, registro) -> {
+            operaciones.put(operacion.nombre(), registro.resumir(operacion.endpoint(), segundos));
+            todas.combinar(registro);
+        });
+
+        Map<String, Object> entorno = new LinkedHashMap<>();
+        entorno.put("java", System.getProperty("java.version"));
+        entorno.put("procesadores", Runtime.getRuntime().availableProcessors());
+        entorno.put("memoriaMaximaMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        entorno.put("baseDatos", "H2 en memoria (modo PostgreSQL)");
+        entorno.put("hilosServidor", hilosServidor);
+
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("pedidos", configuracion.pedidos());
+        parametros.put("productosPorPedido", configuracion.productosPorPedido());
+        parametros.put("hilos", configuracion.hilos());
+        parametros.put("calentamiento", configuracion.calentamiento().toString());
+        parametros.put("duracion", configuracion.duracion().toString());
+        Map<String, Integer> mezcla = new LinkedHashMap<>();
+        configuracion.mezcla().forEach((operacion, peso) -> mezcla.put(operacion.nombre(), peso));
+        parametros.put("mezcla", mezcla);
+
+        return new InformeCarga(configuracion.etiqueta(), LocalDateTime.now(), entorno, parametros, segundos,
+                todas.resumir("todas", segundos), operaciones);
+    }
+}
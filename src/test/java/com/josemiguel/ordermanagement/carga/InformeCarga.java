@@ -0,0 +1,51 @@
+package com.josemiguel.ordermanagement.carga;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Informe de una ejecución de la prueba de carga, serializado a JSON.
+ * Los tiempos están en milisegundos y el rendimiento en peticiones por segundo.
+ *
+ * @param etiqueta    Etiqueta de la ejecución (carga.etiqueta)
+ * @param fecha       Fin de la medición
+ * @param entorno     Versión de Java y procesadores disponibles
+ * @param parametros  Parámetros de la ejecución
+ * @param segundos    Duración real de la medición
+ * @param total       Resultado agregado de todas las operaciones
+ * @param operaciones Resultado por operación
+ */
+record InformeCarga(
+        String etiqueta,
+        LocalDateTime fecha,
+        Map<String, Object> entorno,
+        Map<String, Object> parametros,
+        double segundos,
+        ResultadoOperacion total,
+        Map<String, ResultadoOperacion> operaciones) {
+
+    /**
+     * Resultado de una operación.
+     *
+     * @param endpoint           Endpoint ejercitado
+     * @param peticiones         Peticiones completadas durante la medición
+     * @param errores            Respuestas 4xx/5xx o fallos de conexión (estado 0)
+     * @param peticionesSegundo  Rendimiento
+     * @param p50                Mediana de latencia
+     * @param p90                Percentil 90 de latencia
+     * @param p99                Percentil 99 de latencia
+     * @param maximo             Latencia máxima
+     * @param porEstado          Respuestas por código HTTP
+     */
+    record ResultadoOperacion(
+            String endpoint,
+            long peticiones,
+            long errores,
+            double peticionesSegundo,
+            double p50,
+            double p90,
+            double p99,
+            double maximo,
+            Map<Integer, Long> porEstado) {
+    }
+}
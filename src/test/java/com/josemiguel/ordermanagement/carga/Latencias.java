@@ -0,0 +1,63 @@
+package com.josemiguel.ordermanagement.carga;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencias y códigos HTTP de una operación, registrados por un solo hilo.
+ * Cada hilo de carga tiene las suyas y se combinan al terminar, sin sincronización al medir.
+ */
+final class Latencias {
+
+    private long[] microsegundos = new long[1024];
+    private int total;
+    private final Map<Integer, Long> porEstado = new TreeMap<>();
+
+    void registrar(long nanos, int estadoHttp) {
+        if (total == microsegundos.length) {
+            microsegundos = Arrays.copyOf(microsegundos, total * 2);
+        }
+        microsegundos[total++] = nanos / 1_000;
+        porEstado.merge(estadoHttp, 1L, Long::sum);
+    }
+
+    void combinar(Latencias otras) {
+        for (int i = 0; i < otras.total; i++) {
+            if (total == microsegundos.length) {
+                microsegundos = Arrays.copyOf(microsegundos, total * 2);
+            }
+            microsegundos[total++] = otras.microsegundos[i];
+        }
+        otras.porEstado.forEach((estado, numero) -> porEstado.merge(estado, numero, Long::sum));
+    }
+
+    /**
+     * Resumen de la operación: percentiles por rango más cercano sobre todas las muestras.
+     */
+    InformeCarga.ResultadoOperacion resumir(String endpoint, double segundos) {
+        long[] ordenadas = Arrays.copyOf(microsegundos, total);
+        Arrays.sort(ordenadas);
+        long errores = porEstado.entrySet().stream()
+                .filter(e -> e.getKey() >= 400 || e.getKey() == 0)
+                .mapToLong(Map.Entry::getValue).sum();
+        return new InformeCarga.ResultadoOperacion(
+                endpoint,
+                total,
+                errores,
+                total / segundos,
+                percentil(ordenadas, 0.50),
+                percentil(ordenadas, 0.90),
+                percentil(ordenadas, 0.99),
+                total == 0 ? 0 : ordenadas[total - 1] / 1_000.0,
+                porEstado);
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int rango = (int) Math.ceil(p * ordenadas.length);
+        return ordenadas[Math.max(0, rango - 1)] / 1_000.0;
+    }
+}
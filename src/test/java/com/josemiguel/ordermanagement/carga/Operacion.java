@@ -0,0 +1,39 @@
+package com.josemiguel.ordermanagement.carga;
+
+/**
+ * Operaciones de la prueba de carga y el endpoint que ejercita cada una.
+ */
+enum Operacion {
+
+    CREAR("crear", "POST /api/pedidos"),
+    LISTAR("listar", "GET /api/pedidos/pagina"),
+    LISTAR_RESUMEN("listar-resumen", "GET /api/pedidos/pagina?vista=resumen"),
+    OBTENER("obtener", "GET /api/pedidos/{id}"),
+    TRANSICION("transicion", "PATCH /api/pedidos/{id}/estado"),
+    ELIMINAR("eliminar", "DELETE /api/pedidos/{id}");
+
+    private final String nombre;
+    private final String endpoint;
+
+    Operacion(String nombre, String endpoint) {
+        this.nombre = nombre;
+        this.endpoint = endpoint;
+    }
+
+    String nombre() {
+        return nombre;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operacion desdeNombre(String nombre) {
+        for (Operacion operacion : values()) {
+            if (operacion.nombre.equals(nombre)) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación desconocida: " + nombre);
+    }
+}
@@ -0,0 +1,102 @@
+package com.josemiguel.ordermanagement.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de carga de la API sobre la base de datos H2 en modo PostgreSQL de los tests.
+ * Siembra pedidos, lanza una mezcla de operaciones con varios clientes HTTP concurrentes
+ * y escribe latencias (p50, p90, p99) y rendimiento por endpoint en un fichero JSON,
+ * para comparar ejecuciones entre commits. Los parámetros se describen en ConfiguracionCarga.
+ * <p>
+ * Se ejecuta con -Dcarga=true, por ejemplo:
+ * <pre>
+ * ./mvnw test -Dtest=PruebaCargaPedidosTest -Dcarga=true -Dcarga.duracion=60s -Dcarga.etiqueta=$(git rev-parse --short HEAD)
+ * </pre>
+ * Con PEDIDOS_HILOS_VIRTUALES=true (Java 21+) Tomcat atiende las peticiones en hilos virtuales;
+ * el informe indica en entorno.hilosServidor con qué hilos se ejecutó, para comparar ambos modos.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.org.hibernate.SQL=warn"
+})
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class PruebaCargaPedidosTest {
+
+    private static final int BLOQUE_SIEMBRA = 1_000;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment entorno;
+
+    @Test
+    void cargaMixta() throws Exception {
+        ConfiguracionCarga configuracion = ConfiguracionCarga.desdePropiedades();
+        List<Long> sembrados = sembrar(configuracion.pedidos(), configuracion.productosPorPedido());
+        List<Long> reserva = sembrar(Math.max(1, configuracion.pedidos() / 10), configuracion.productosPorPedido());
+
+        InformeCarga informe = new GeneradorCarga(configuracion, puerto, objectMapper, sembrados, reserva,
+                Threading.VIRTUAL.isActive(entorno) ? "virtuales" : "plataforma").ejecutar();
+
+        Files.createDirectories(configuracion.salida().toAbsolutePath().getParent());
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(configuracion.salida().toFile(), informe);
+        imprimir(informe);
+        System.out.println("Informe: " + configuracion.salida().toAbsolutePath());
+
+        assertFalse(informe.operaciones().isEmpty());
+        // Los 503 del limitador de admisión son rechazos esperados bajo carga; un 500 es un fallo
+        assertTrue(informe.operaciones().values().stream().noneMatch(r -> r.porEstado().containsKey(500)),
+                "Errores 500: " + informe.operaciones());
+    }
+
+    private List<Long> sembrar(int numero, int lineas) {
+        List<Long> ids = new ArrayList<>(numero);
+        for (int inicio = 0; inicio < numero; inicio += BLOQUE_SIEMBRA) {
+            int fin = Math.min(numero, inicio + BLOQUE_SIEMBRA);
+            List<Pedido> bloque = new ArrayList<>(fin - inicio);
+            for (int i = inicio; i < fin; i++) {
+                bloque.add(DatosCarga.nuevoPedido(i, lineas));
+            }
+            for (Pedido creado : pedidoServicio.crearPedidos(bloque)) {
+                ids.add(creado.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static void imprimir(InformeCarga informe) {
+        System.out.printf("%-16s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operación", "peticiones", "errores", "pet/s", "p50 ms", "p90 ms", "p99 ms", "máx ms");
+        informe.operaciones().forEach((nombre, r) -> imprimir(nombre, r));
+        imprimir("total", informe.total());
+    }
+
+    private static void imprimir(String nombre, InformeCarga.ResultadoOperacion r) {
+        System.out.printf("%-16s %9d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                nombre, r.peticiones(), r.errores(), r.peticionesSegundo(), r.p50(), r.p90(), r.p99(), r.maximo());
+    }
+}
@@ -0,0 +1,85 @@
+package com.josemiguel.ordermanagement.dominio.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ProductoDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PedidoMapperTest {
+
+    /**
+     * Misma configuración que aplica Spring Boot: fechas ISO-8601 en lugar de arrays.
+     */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void toDTO_deberiaSerializarExactamenteIgualQueAntes() throws Exception {
+        Pedido pedido = new Pedido(7L, "Ana", "ana@example.com", new BigDecimal("25.50"), EstadoPedido.SHIPPED,
+                LocalDateTime.of(2025, 3, 14, 10, 15, 30), LocalDateTime.of(2025, 3, 15, 9, 0), 2L, new ArrayList<>(List.of(
+                        new Producto(11L, "Teclado", 1, new BigDecimal("20.00")),
+                        new Producto(12L, "Cable", 2, new BigDecimal("2.75")))));
+
+        assertEquals("{\"id\":7,\"nombreCliente\":\"Ana\",\"contactoCliente\":\"ana@example.com\","
+                        + "\"montoTotal\":25.50,\"estado\":\"SHIPPED\",\"fechaCreacion\":\"2025-03-14T10:15:30\","
+                        + "\"version\":2,\"productos\":[{\"id\":11,\"nombre\":\"Teclado\",\"cantidad\":1,"
+                        + "\"precioUnitario\":20.00},{\"id\":12,\"nombre\":\"Cable\",\"cantidad\":2,"
+                        + "\"precioUnitario\":2.75}]}",
+                objectMapper.writeValueAsString(PedidoMapper.toDTO(pedido)));
+    }
+
+    @Test
+    void toEntity_deberiaDescartarIdsYAsignarCreatedPorDefecto() {
+        PedidoDTO dto = dto();
+
+        Pedido pedido = PedidoMapper.toEntity(dto);
+
+        assertNull(pedido.getId());
+        assertEquals(EstadoPedido.CREATED, pedido.getEstado());
+        assertEquals(2, pedido.getProductos().size());
+        assertNull(pedido.getProductos().get(0).getId());
+        assertEquals("Cable", pedido.getProductos().get(1).getNombre());
+        assertEquals(new BigDecimal("2.75"), pedido.getProductos().get(1).getPrecioUnitario());
+    }
+
+    @Test
+    void toEntityActualizacion_deberiaConservarIdsDeProductos() {
+        Pedido pedido = PedidoMapper.toEntityActualizacion(dto());
+
+        assertEquals(11L, pedido.getProductos().get(0).getId());
+        assertNull(pedido.getProductos().get(1).getId());
+    }
+
+    private PedidoDTO dto() {
+        ProductoDTO existente = new ProductoDTO();
+        existente.setId(11L);
+        existente.setNombre("Teclado");
+        existente.setCantidad(1);
+        existente.setPrecioUnitario(new BigDecimal("20.00"));
+        ProductoDTO nuevo = new ProductoDTO();
+        nuevo.setNombre("Cable");
+        nuevo.setCantidad(2);
+        nuevo.setPrecioUnitario(new BigDecimal("2.75"));
+
+        PedidoDTO dto = new PedidoDTO();
+        dto.setId(7L);
+        dto.setNombreCliente("Ana");
+        dto.setContactoCliente("ana@example.com");
+        dto.setMontoTotal(new BigDecimal("25.50"));
+        dto.setProductos(List.of(existente, nuevo));
+        return dto;
+    }
+}
@@ -1,30 +1,74 @@
 package com.josemiguel.ordermanagement.dominio.servicio;
 
+import com.josemiguel.ordermanagement.config.AgrupacionProperties;
+import com.josemiguel.ordermanagement.config.BusquedaProperties;
+import com.josemiguel.ordermanagement.config.CacheProperties;
+import com.josemiguel.ordermanagement.config.LoteProperties;
+import com.josemiguel.ordermanagement.config.PaginacionProperties;
+import com.josemiguel.ordermanagement.dominio.dto.PaginaBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.PedidosPorIdsDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.CambiosProductos;
 import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoYVersion;
 import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.paginacion.CursorPedido;
+import com.josemiguel.ordermanagement.dominio.paginacion.Pagina;
+import com.josemiguel.ordermanagement.infraestructura.busqueda.BuscadorPedidos;
+import com.josemiguel.ordermanagement.infraestructura.cache.AgrupadorLecturas;
+import com.josemiguel.ordermanagement.infraestructura.cache.CachePedidos;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.BusquedaInvalidaException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.CursorInvalidoException;
 import com.josemiguel.ordermanagement.infraestructura.excepcion.EstadoFinalException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.LoteInvalidoException;
 import com.josemiguel.ordermanagement.infraestructura.excepcion.PedidoNoEncontradoException;
+import com.josemiguel.ordermanagement.infraestructura.excepcion.VersionNoCoincideException;
 import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class PedidoServicioTest {
 
+    private static final LocalDateTime CREACION = LocalDateTime.of(2025, 3, 14, 10, 0);
+
     private PedidoRepositorio pedidoRepositorio;
+    private CachePedidos cachePedidos;
+    private ApplicationEventPublisher eventos;
+    private BuscadorPedidos buscadorPedidos;
     private PedidoServicio pedidoServicio;
 
     @BeforeEach
     void setUp() {
         pedidoRepositorio = mock(PedidoRepositorio.class);
-        pedidoServicio = new PedidoServicio(pedidoRepositorio);
+        cachePedidos = new CachePedidos(new CacheProperties(100, Duration.ofSeconds(30), Duration.ofHours(1)));
+        eventos = mock(ApplicationEventPublisher.class);
+        buscadorPedidos = mock(BuscadorPedidos.class);
+        pedidoServicio = new PedidoServicio(pedidoRepositorio, new PaginacionProperties(2, 3), cachePedidos, eventos,
+                buscadorPedidos, new BusquedaProperties("memoria", 0.3, 5, 1000),
+                new AgrupadorLecturas(new AgrupacionProperties(true, 4), new SimpleMeterRegistry()),
+                new LoteProperties(500, 50000, 3));
     }
 
     @Test
@@ -33,6 +77,7 @@ class PedidoServicioTest {
                 .nombreCliente("Jose")
                 .contactoCliente("12345")
                 .montoTotal(BigDecimal.valueOf(100))
+                .fechaCreacion(CREACION)
                 .build();
 
         when(pedidoRepositorio.save(any(Pedido.class))).thenReturn(pedido);
@@ -44,14 +89,122 @@ class PedidoServicioTest {
     }
 
     @Test
-    void listarPedidos_deberiaRetornarTodos() {
-        Pedido pedido1 = Pedido.builder().id(1L).build();
-        Pedido pedido2 = Pedido.builder().id(2L).build();
-        when(pedidoRepositorio.findAll()).thenReturn(List.of(pedido1, pedido2));
+    void crearPedido_conProductos_deberiaCalcularElMontoAPartirDeLasLineas() {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(3).precioUnitario(new BigDecimal("3.335")).build());
+        productos.add(Producto.builder().nombre("Lápiz").cantidad(2).precioUnitario(new BigDecimal("0.1")).build());
+        Pedido pedido = Pedido.builder()
+                .nombreCliente("Jose")
+                .contactoCliente("12345")
+                .montoTotal(new BigDecimal("999"))
+                .fechaCreacion(CREACION)
+                .productos(productos)
+                .build();
+        when(pedidoRepositorio.save(any(Pedido.class))).thenAnswer(i -> i.getArgument(0));
+
+        Pedido resultado = pedidoServicio.crearPedido(pedido);
+
+        // 3.335 se redondea a 3.34 (HALF_EVEN): 3 x 3.34 + 2 x 0.10
+        assertEquals(new BigDecimal("3.34"), productos.get(0).getPrecioUnitario());
+        assertEquals(new BigDecimal("10.22"), resultado.getMontoTotal());
+    }
+
+    @Test
+    void actualizarPedido_conLineasPorPrimeraVez_deberiaSumarTodasLasLineas() {
+        Pedido existente = Pedido.builder()
+                .id(1L)
+                .estado(EstadoPedido.CREATED)
+                .fechaCreacion(CREACION)
+                .montoTotal(new BigDecimal("500.00"))
+                .productos(new ArrayList<>())
+                .build();
+        Pedido actualizado = Pedido.builder()
+                .montoTotal(new BigDecimal("500.00"))
+                .productos(List.of(Producto.builder().nombre("Regla").cantidad(2).precioUnitario(BigDecimal.TEN).build()))
+                .build();
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(existente));
+        when(pedidoRepositorio.save(any(Pedido.class))).thenAnswer(i -> i.getArgument(0));
+
+        Pedido resultado = pedidoServicio.actualizarPedido(1L, actualizado).pedido();
+
+        assertEquals(new BigDecimal("20.00"), resultado.getMontoTotal());
+    }
+
+    @Test
+    void listarPedidos_deberiaDevolverComoMuchoElTamanioMaximo() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<Pedido> pedidos = new ArrayList<>();
+        for (long id = 4; id >= 1; id--) {
+            pedidos.add(Pedido.builder().id(id).fechaCreacion(fecha).build());
+        }
+        when(pedidoRepositorio.findPrimeraPagina(Limit.of(4))).thenReturn(pedidos);
+
+        Pagina<PedidoDTO> resultado = pedidoServicio.listarPedidos();
+
+        assertEquals(List.of(4L, 3L, 2L), resultado.contenido().stream().map(PedidoDTO::getId).toList());
+        assertEquals(2L, CursorPedido.decodificar(resultado.siguienteCursor()).id());
+        verify(pedidoRepositorio, never()).findAll();
+    }
+
+    @Test
+    void listarPedidosPaginados_sinCursor_deberiaDevolverPrimeraPaginaYCursor() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        Pedido pedido1 = Pedido.builder().id(3L).fechaCreacion(fecha).build();
+        Pedido pedido2 = Pedido.builder().id(2L).fechaCreacion(fecha).build();
+        Pedido pedido3 = Pedido.builder().id(1L).fechaCreacion(fecha).build();
+        when(pedidoRepositorio.findPrimeraPagina(Limit.of(3))).thenReturn(List.of(pedido1, pedido2, pedido3));
+
+        Pagina<Pedido> resultado = pedidoServicio.listarPedidosPaginados(null, null);
+
+        assertEquals(2, resultado.contenido().size());
+        assertTrue(resultado.isHayMas());
+        CursorPedido cursor = CursorPedido.decodificar(resultado.siguienteCursor());
+        assertEquals(fecha, cursor.fechaCreacion());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void listarPedidosPaginados_conCursor_deberiaBuscarTrasLaPosicion() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        String cursor = new CursorPedido(fecha, 2L).codificar();
+        Pedido pedido = Pedido.builder().id(1L).fechaCreacion(fecha).build();
+        when(pedidoRepositorio.findPaginaTras(fecha, 2L, Limit.of(4))).thenReturn(List.of(pedido));
 
-        List<Pedido> resultado = pedidoServicio.listarPedidos();
+        Pagina<Pedido> resultado = pedidoServicio.listarPedidosPaginados(cursor, 50);
 
-        assertEquals(2, resultado.size());
+        assertEquals(1, resultado.contenido().size());
+        assertNull(resultado.siguienteCursor());
+        verify(pedidoRepositorio).findPaginaTras(fecha, 2L, Limit.of(4));
+    }
+
+    @Test
+    void listarPedidosPaginados_cursorInvalido_deberiaLanzarExcepcion() {
+        assertThrows(CursorInvalidoException.class,
+                () -> pedidoServicio.listarPedidosPaginados("no-es-un-cursor", 10));
+    }
+
+    @Test
+    void buscarPedidos_deberiaPedirUnResultadoExtraParaSaberSiHayMas() {
+        when(buscadorPedidos.buscar("jose", 2, 3)).thenReturn(List.of(
+                new ResultadoBusquedaDTO(1L, "Jose", EstadoPedido.CREATED, BigDecimal.TEN, null, 1.0),
+                new ResultadoBusquedaDTO(2L, "Josefa", EstadoPedido.CREATED, BigDecimal.TEN, null, 0.5),
+                new ResultadoBusquedaDTO(3L, "Josema", EstadoPedido.CREATED, BigDecimal.TEN, null, 0.4)));
+
+        PaginaBusquedaDTO resultado = pedidoServicio.buscarPedidos(" jose ", 1, null);
+
+        assertEquals(2, resultado.resultados().size());
+        assertTrue(resultado.hayMas());
+    }
+
+    @Test
+    void buscarPedidos_textoCorto_deberiaLanzarExcepcion() {
+        assertThrows(BusquedaInvalidaException.class, () -> pedidoServicio.buscarPedidos("jo", 0, null));
+        verifyNoInteractions(buscadorPedidos);
+    }
+
+    @Test
+    void buscarPedidos_paginaFueraDeRango_deberiaLanzarExcepcion() {
+        assertThrows(BusquedaInvalidaException.class, () -> pedidoServicio.buscarPedidos("jose", 6, null));
     }
 
     @Test
@@ -74,6 +227,104 @@ class PedidoServicioTest {
         assertTrue(resultado.isEmpty());
     }
 
+    @Test
+    void obtenerDTOPorId_segundaLlamada_deberiaServirseDeCache() {
+        Pedido pedido = Pedido.builder().id(1L).estado(EstadoPedido.CREATED).build();
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(pedido));
+
+        Optional<PedidoDTO> primera = pedidoServicio.obtenerDTOPorId(1L);
+        Optional<PedidoDTO> segunda = pedidoServicio.obtenerDTOPorId(1L);
+
+        assertTrue(primera.isPresent());
+        assertSame(primera.get(), segunda.get());
+        verify(pedidoRepositorio, times(1)).findById(1L);
+        assertEquals(1, cachePedidos.estadisticas().hitCount());
+    }
+
+    @Test
+    void obtenerDTOPorId_noExistente_noDeberiaCachearse() {
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(pedidoServicio.obtenerDTOPorId(1L).isEmpty());
+        assertTrue(pedidoServicio.obtenerDTOPorId(1L).isEmpty());
+
+        verify(pedidoRepositorio, times(2)).findById(1L);
+    }
+
+    @Test
+    void obtenerDTOPorId_concurrentesNoExistente_deberianCompartirUnaConsulta() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(pedidoRepositorio.findById(1L)).thenAnswer(invocacion -> {
+            assertTrue(liberar.await(5, TimeUnit.SECONDS));
+            return Optional.empty();
+        });
+        ExecutorService hilos = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Optional<PedidoDTO>>> resultados = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                resultados.add(hilos.submit(() -> pedidoServicio.obtenerDTOPorId(1L)));
+            }
+            Thread.sleep(200);
+            liberar.countDown();
+
+            for (Future<Optional<PedidoDTO>> resultado : resultados) {
+                assertTrue(resultado.get(5, TimeUnit.SECONDS).isEmpty());
+            }
+            verify(pedidoRepositorio, times(1)).findById(1L);
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    @Test
+    void obtenerDTOPorId_trasModificacion_deberiaRecargar() {
+        Pedido pedido = Pedido.builder().id(1L).estado(EstadoPedido.CREATED).build();
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(pedido));
+
+        pedidoServicio.obtenerDTOPorId(1L);
+        cachePedidos.alModificarPedido(new PedidoModificadoEvento(
+                1L, PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO, EstadoPedido.CREATED, EstadoPedido.CONFIRMED,
+                LocalDate.now(), BigDecimal.TEN, BigDecimal.TEN, 1L));
+        pedidoServicio.obtenerDTOPorId(1L);
+
+        verify(pedidoRepositorio, times(2)).findById(1L);
+    }
+
+    @Test
+    void obtenerDTOsPorIds_deberiaServirLosCacheadosYCargarElRestoEnUnaConsulta() {
+        Pedido pedido1 = Pedido.builder().id(1L).estado(EstadoPedido.CREATED).build();
+        Pedido pedido2 = Pedido.builder().id(2L).estado(EstadoPedido.CREATED).build();
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(pedido1));
+        when(pedidoRepositorio.findConProductosByIdIn(List.of(2L, 9L))).thenReturn(List.of(pedido2));
+        PedidoDTO enCache = pedidoServicio.obtenerDTOPorId(1L).orElseThrow();
+
+        PedidosPorIdsDTO resultado = pedidoServicio.obtenerDTOsPorIds(List.of(2L, 1L, 9L, 2L));
+
+        assertEquals(List.of(2L, 1L), resultado.pedidos().stream().map(PedidoDTO::getId).toList());
+        assertSame(enCache, resultado.pedidos().get(1));
+        assertEquals(List.of(9L), resultado.noEncontrados());
+        verify(pedidoRepositorio, times(1)).findConProductosByIdIn(List.of(2L, 9L));
+    }
+
+    @Test
+    void obtenerDTOsPorIds_todosEnCache_noDeberiaConsultar() {
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(Pedido.builder().id(1L).build()));
+        pedidoServicio.obtenerDTOPorId(1L);
+
+        PedidosPorIdsDTO resultado = pedidoServicio.obtenerDTOsPorIds(List.of(1L));
+
+        assertEquals(1, resultado.pedidos().size());
+        verify(pedidoRepositorio, never()).findConProductosByIdIn(anyCollection());
+    }
+
+    @Test
+    void obtenerDTOsPorIds_masIdsDelMaximo_deberiaLanzarExcepcion() {
+        // Máximo de 3 ids distintos: los repetidos no cuentan
+        pedidoServicio.obtenerDTOsPorIds(List.of(1L, 2L, 3L, 1L));
+
+        assertThrows(LoteInvalidoException.class, () -> pedidoServicio.obtenerDTOsPorIds(List.of(1L, 2L, 3L, 4L)));
+    }
+
     @Test
     void actualizarPedido_deberiaCambiarDatos() {
         Pedido existente = Pedido.builder()
@@ -82,6 +333,7 @@ class PedidoServicioTest {
                 .contactoCliente("12345")
                 .montoTotal(BigDecimal.valueOf(100))
                 .estado(EstadoPedido.CREATED)
+                .fechaCreacion(CREACION)
                 .build();
 
         Pedido actualizado = Pedido.builder()
@@ -93,11 +345,48 @@ class PedidoServicioTest {
         when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(existente));
         when(pedidoRepositorio.save(any(Pedido.class))).thenAnswer(i -> i.getArgument(0));
 
-        Pedido resultado = pedidoServicio.actualizarPedido(1L, actualizado);
+        Pedido resultado = pedidoServicio.actualizarPedido(1L, actualizado).pedido();
 
         assertEquals("Juan", resultado.getNombreCliente());
         assertEquals("67890", resultado.getContactoCliente());
-        assertEquals(BigDecimal.valueOf(200), resultado.getMontoTotal());
+        // Sin líneas se conserva el monto del cliente, con la escala de la base de datos
+        assertEquals(new BigDecimal("200.00"), resultado.getMontoTotal());
+    }
+
+    @Test
+    void actualizarPedido_deberiaAplicarSoloLasDiferenciasDeProductos() {
+        Producto sinCambios = Producto.builder().id(10L).nombre("Libro").cantidad(1).precioUnitario(new BigDecimal("10.00")).build();
+        Producto aModificar = Producto.builder().id(11L).nombre("Lápiz").cantidad(1).precioUnitario(BigDecimal.ONE).build();
+        Producto aEliminar = Producto.builder().id(12L).nombre("Goma").cantidad(1).precioUnitario(BigDecimal.ONE).build();
+        Pedido existente = Pedido.builder()
+                .id(1L)
+                .estado(EstadoPedido.CREATED)
+                .fechaCreacion(CREACION)
+                .montoTotal(new BigDecimal("12.00"))
+                .productos(new ArrayList<>(List.of(sinCambios, aModificar, aEliminar)))
+                .build();
+
+        Pedido actualizado = Pedido.builder()
+                .nombreCliente("Jose")
+                .productos(List.of(
+                        Producto.builder().id(10L).nombre("Libro").cantidad(1).precioUnitario(new BigDecimal("10.0")).build(),
+                        Producto.builder().id(11L).nombre("Lápiz").cantidad(5).precioUnitario(BigDecimal.ONE).build(),
+                        Producto.builder().nombre("Regla").cantidad(2).precioUnitario(BigDecimal.TEN).build()))
+                .build();
+
+        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(existente));
+        when(pedidoRepositorio.save(any(Pedido.class))).thenAnswer(i -> i.getArgument(0));
+
+        ResultadoActualizacion resultado = pedidoServicio.actualizarPedido(1L, actualizado);
+
+        // Lápiz 1 -> 5 (+4), Goma eliminada (-1), Regla 2 x 10 (+20)
+        assertEquals(new CambiosProductos(1, 1, 1, new BigDecimal("23.00")), resultado.cambios());
+        assertEquals(new BigDecimal("35.00"), resultado.pedido().getMontoTotal());
+        assertEquals(3, resultado.pedido().getProductos().size());
+        assertSame(sinCambios, resultado.pedido().getProductos().get(0));
+        assertSame(aModificar, resultado.pedido().getProductos().get(1));
+        assertEquals(5, aModificar.getCantidad());
+        assertNull(resultado.pedido().getProductos().get(2).getId());
     }
 
     @Test
@@ -117,42 +406,37 @@ class PedidoServicioTest {
 
     @Test
     void cambiarEstado_deberiaActualizarEstado() {
-        Pedido pedido = Pedido.builder()
-                .id(1L)
-                .estado(EstadoPedido.CREATED)
-                .build();
-
-        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(pedido));
-        when(pedidoRepositorio.save(any(Pedido.class))).thenAnswer(i -> i.getArgument(0));
-
-        Pedido resultado = pedidoServicio.cambiarEstado(1L, "CONFIRMED");
-
-        assertEquals(EstadoPedido.CONFIRMED, resultado.getEstado());
+        when(pedidoRepositorio.findEstadoYVersionById(1L))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.CREATED, 4L, CREACION, BigDecimal.TEN)));
+        when(pedidoRepositorio.actualizarEstado(eq(1L), eq(EstadoPedido.CONFIRMED), eq(4L), anyCollection(), any()))
+                .thenReturn(1);
+
+        TransicionEstado resultado = pedidoServicio.cambiarEstado(1L, "CONFIRMED");
+
+        assertEquals(EstadoPedido.CONFIRMED, resultado.nuevo());
+        assertEquals(5L, resultado.version());
+        verify(pedidoRepositorio, never()).findById(any());
+        verify(eventos).publishEvent(new PedidoModificadoEvento(
+                1L, PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO, EstadoPedido.CREATED, EstadoPedido.CONFIRMED,
+                CREACION.toLocalDate(), BigDecimal.TEN, BigDecimal.TEN, 5L));
     }
 
     @Test
     void cambiarEstado_aFinal_deberiaLanzarExcepcion() {
-        Pedido pedido = Pedido.builder()
-                .id(1L)
-                .estado(EstadoPedido.DELIVERED)
-                .build();
-
-        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepositorio.findEstadoYVersionById(1L))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.DELIVERED, 0L, CREACION, BigDecimal.TEN)));
 
         EstadoFinalException ex = assertThrows(EstadoFinalException.class,
                 () -> pedidoServicio.cambiarEstado(1L, "CREATED"));
 
         assertTrue(ex.getMessage().contains("No se puede cambiar el estado de un pedido en estado final"));
+        verify(pedidoRepositorio, never()).actualizarEstado(any(), any(), any(), anyCollection(), any());
     }
 
     @Test
     void cambiarEstado_cancelarShipped_deberiaLanzarIllegalStateException() {
-        Pedido pedido = Pedido.builder()
-                .id(1L)
-                .estado(EstadoPedido.SHIPPED)
-                .build();
-
-        when(pedidoRepositorio.findById(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoRepositorio.findEstadoYVersionById(1L))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.SHIPPED, 0L, CREACION, BigDecimal.TEN)));
 
         IllegalStateException ex = assertThrows(IllegalStateException.class,
                 () -> pedidoServicio.cambiarEstado(1L, "CANCELLED"));
@@ -160,9 +444,32 @@ class PedidoServicioTest {
         assertTrue(ex.getMessage().contains("No se puede cancelar un pedido ya enviado"));
     }
 
+    @Test
+    void cambiarEstado_modificadoALaVez_deberiaVolverALeerYValidar() {
+        when(pedidoRepositorio.findEstadoYVersionById(1L))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.SHIPPED, 2L, CREACION, BigDecimal.TEN)))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.DELIVERED, 3L, CREACION, BigDecimal.TEN)));
+        when(pedidoRepositorio.actualizarEstado(eq(1L), eq(EstadoPedido.RETURNED), eq(2L), anyCollection(), any()))
+                .thenReturn(0);
+
+        assertThrows(EstadoFinalException.class, () -> pedidoServicio.cambiarEstado(1L, "RETURNED"));
+        verify(eventos, never()).publishEvent(any());
+    }
+
+    @Test
+    void cambiarEstado_conVersionDistinta_deberiaLanzarVersionNoCoincide() {
+        when(pedidoRepositorio.findEstadoYVersionById(1L))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.CREATED, 2L, CREACION, BigDecimal.TEN)));
+
+        assertThrows(VersionNoCoincideException.class,
+                () -> pedidoServicio.cambiarEstado(1L, "CONFIRMED", 1L));
+        verify(pedidoRepositorio, never()).actualizarEstado(any(), any(), any(), anyCollection(), any());
+    }
+
     @Test
     void eliminarPedido_deberiaEliminarExistente() {
-        when(pedidoRepositorio.existsById(1L)).thenReturn(true);
+        when(pedidoRepositorio.findEstadoYVersionById(1L))
+                .thenReturn(Optional.of(new EstadoYVersion(EstadoPedido.CREATED, 0L, CREACION, BigDecimal.TEN)));
 
         pedidoServicio.eliminarPedido(1L);
 
@@ -171,7 +478,7 @@ class PedidoServicioTest {
 
     @Test
     void eliminarPedido_noExistente_deberiaLanzarExcepcion() {
-        when(pedidoRepositorio.existsById(1L)).thenReturn(false);
+        when(pedidoRepositorio.findEstadoYVersionById(1L)).thenReturn(Optional.empty());
 
         PedidoNoEncontradoException ex = assertThrows(PedidoNoEncontradoException.class,
                 () -> pedidoServicio.eliminarPedido(1L));
@@ -0,0 +1,270 @@
+package com.josemiguel.ordermanagement.infraestructura.admision;
+
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del limitador de admisión con un pool de 4 conexiones y una carga de
+ * peticiones concurrentes que ocupan su conexión 250 ms cada una.
+ * Con -Dbenchmark=true se compara con el modo sin limitador (SinLimitador),
+ * en el que las peticiones esperan a Hikari hasta su connection-timeout.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "pedidos.admision.espera=200ms",
+        "pedidos.admision.reintentar-tras=1s"
+})
+@Import(AdmisionPeticionesTest.ControladorLento.class)
+class AdmisionPeticionesTest {
+
+    private static final int PETICIONES = 40;
+    private static final long DURACION_MS = 250;
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private LimitadorAdmision limitadorAdmision;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @AfterEach
+    void tearDown() {
+        ControladorLento.liberar();
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void cargaPorEncimaDelPool_deberiaResponder503RapidoEnLugarDeAgotarElTimeout() throws Exception {
+        List<Respuesta> respuestas = lanzar(puerto, PETICIONES);
+
+        List<Respuesta> rechazadas = respuestas.stream().filter(r -> r.estado() == 503).toList();
+        assertTrue(respuestas.stream().allMatch(r -> r.estado() == 200 || r.estado() == 503));
+        assertTrue(respuestas.stream().anyMatch(r -> r.estado() == 200));
+        assertFalse(rechazadas.isEmpty());
+        assertTrue(rechazadas.stream().allMatch(r -> "1".equals(r.reintentarTras())));
+        // Rechazo tras la espera de admisión (200 ms), muy por debajo del connection-timeout (2 s)
+        assertTrue(rechazadas.stream().allMatch(r -> r.milisegundos() < 1_500),
+                "503 lentos: " + rechazadas);
+        assertEquals(0, limitadorAdmision.enCurso());
+    }
+
+    @Test
+    void sinPermisosLibres_pedidoEnCache_deberiaServirseSinEsperarAdmision() throws Exception {
+        Long enCache = crearPedido();
+        Long sinCache = crearPedido();
+        assertEquals(200, enviar(puerto, "/api/pedidos/" + enCache).statusCode());
+
+        // Cuatro peticiones retenidas ocupan todos los permisos
+        List<CompletableFuture<HttpResponse<String>>> retenidas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            retenidas.add(enviarAsincrona(puerto, "/api/prueba/retenida"));
+        }
+        esperar(() -> limitadorAdmision.enCurso() == 4);
+
+        assertEquals(200, enviar(puerto, "/api/pedidos/" + enCache).statusCode());
+        assertEquals(503, enviar(puerto, "/api/pedidos/" + sinCache).statusCode());
+
+        ControladorLento.liberar();
+        for (CompletableFuture<HttpResponse<String>> retenida : retenidas) {
+            assertEquals(200, retenida.get(5, TimeUnit.SECONDS).statusCode());
+        }
+        assertEquals(0, limitadorAdmision.enCurso());
+    }
+
+    @Test
+    void respuestaAsincrona_deberiaDevolverElPermisoAlIniciarse() throws Exception {
+        // Más respuestas en streaming abiertas que permisos: ninguna los conserva mientras escribe
+        List<CompletableFuture<HttpResponse<String>>> abiertas = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            abiertas.add(enviarAsincrona(puerto, "/api/prueba/streaming"));
+        }
+        esperar(() -> ControladorLento.escribiendo() == 6);
+
+        assertEquals(0, limitadorAdmision.enCurso());
+        assertEquals(200, enviar(puerto, "/api/prueba/lenta").statusCode());
+
+        ControladorLento.liberar();
+        for (CompletableFuture<HttpResponse<String>> abierta : abiertas) {
+            assertEquals("fin", abierta.get(5, TimeUnit.SECONDS).body());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_conLimitador() throws Exception {
+        informar("Con limitador", lanzar(puerto, PETICIONES * 5));
+    }
+
+    @Nested
+    @TestPropertySource(properties = "pedidos.admision.habilitada=false")
+    class SinLimitador {
+
+        @LocalServerPort
+        private int puerto;
+
+        @Test
+        @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+        void benchmark_sinLimitador() throws Exception {
+            informar("Sin limitador", lanzar(puerto, PETICIONES * 5));
+        }
+    }
+
+    /**
+     * Endpoints de prueba: uno ocupa una conexión del pool durante DURACION_MS; los otros
+     * esperan a liberar(), en el hilo de la petición o escribiendo una respuesta en streaming.
+     */
+    @RestController
+    static class ControladorLento {
+
+        private static volatile CountDownLatch liberacion = new CountDownLatch(1);
+        private static final AtomicInteger ESCRIBIENDO = new AtomicInteger();
+
+        private final PedidoRepositorio pedidoRepositorio;
+
+        ControladorLento(PedidoRepositorio pedidoRepositorio) {
+            this.pedidoRepositorio = pedidoRepositorio;
+        }
+
+        @GetMapping("/api/prueba/lenta")
+        @Transactional(readOnly = true)
+        public long lenta() throws InterruptedException {
+            long total = pedidoRepositorio.count();
+            Thread.sleep(DURACION_MS);
+            return total;
+        }
+
+        @GetMapping("/api/prueba/retenida")
+        public String retenida() throws InterruptedException {
+            liberacion.await(5, TimeUnit.SECONDS);
+            return "fin";
+        }
+
+        @GetMapping("/api/prueba/streaming")
+        public StreamingResponseBody streaming() {
+            CountDownLatch espera = liberacion;
+            return salida -> {
+                ESCRIBIENDO.incrementAndGet();
+                try {
+                    espera.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    ESCRIBIENDO.decrementAndGet();
+                }
+                salida.write("fin".getBytes());
+            };
+        }
+
+        static int escribiendo() {
+            return ESCRIBIENDO.get();
+        }
+
+        static void liberar() {
+            liberacion.countDown();
+            liberacion = new CountDownLatch(1);
+        }
+    }
+
+    private Long crearPedido() {
+        return pedidoServicio.crearPedido(Pedido.builder()
+                .nombreCliente("Cliente")
+                .contactoCliente("600000000")
+                .montoTotal(BigDecimal.TEN)
+                .build()).getId();
+    }
+
+    private static HttpResponse<String> enviar(int puerto, String ruta) throws Exception {
+        return HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static CompletableFuture<HttpResponse<String>> enviarAsincrona(int puerto, String ruta) {
+        return HttpClient.newHttpClient().sendAsync(HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condición no alcanzada");
+            Thread.sleep(10);
+        }
+    }
+
+    private record Respuesta(int estado, long milisegundos, String reintentarTras) {
+    }
+
+    private static List<Respuesta> lanzar(int puerto, int peticiones) throws Exception {
+        HttpClient cliente = HttpClient.newHttpClient();
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/prueba/lenta"))
+                .GET().build();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(peticiones);
+        try {
+            List<Future<Respuesta>> futuras = new ArrayList<>(peticiones);
+            for (int i = 0; i < peticiones; i++) {
+                futuras.add(ejecutor.submit(() -> {
+                    long inicio = System.nanoTime();
+                    HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                    return new Respuesta(respuesta.statusCode(), (System.nanoTime() - inicio) / 1_000_000,
+                            respuesta.headers().firstValue("Retry-After").orElse(null));
+                }));
+            }
+            List<Respuesta> respuestas = new ArrayList<>(peticiones);
+            for (Future<Respuesta> futura : futuras) {
+                respuestas.add(futura.get());
+            }
+            return respuestas;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private static void informar(String modo, List<Respuesta> respuestas) {
+        System.out.println(modo + " (" + respuestas.size() + " peticiones concurrentes):");
+        respuestas.stream().map(Respuesta::estado).distinct().sorted().forEach(estado -> {
+            long[] tiempos = respuestas.stream().filter(r -> r.estado() == estado)
+                    .mapToLong(Respuesta::milisegundos).sorted().toArray();
+            System.out.printf("  HTTP %d: %4d  p50 %5d ms  p99 %5d ms  máx %5d ms%n", estado, tiempos.length,
+                    tiempos[tiempos.length / 2], tiempos[Math.min(tiempos.length - 1, tiempos.length * 99 / 100)],
+                    tiempos[tiempos.length - 1]);
+        });
+    }
+}
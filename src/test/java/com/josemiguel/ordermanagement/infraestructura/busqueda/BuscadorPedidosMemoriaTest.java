@@ -0,0 +1,99 @@
+package com.josemiguel.ordermanagement.infraestructura.busqueda;
+
+import com.josemiguel.ordermanagement.config.BusquedaProperties;
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BuscadorPedidosMemoriaTest {
+
+    private PedidoRepositorio pedidoRepositorio;
+    private BuscadorPedidosMemoria buscador;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepositorio = mock(PedidoRepositorio.class);
+        buscador = new BuscadorPedidosMemoria(pedidoRepositorio, mock(TransactionTemplate.class),
+                new BusquedaProperties("memoria", 0.3, 50, 1000));
+        indexar(1L, "José García");
+        indexar(2L, "Josefa Martínez");
+        indexar(3L, "Luis Pérez");
+    }
+
+    @Test
+    void buscar_deberiaDevolverCoincidenciasOrdenadasPorPuntuacion() {
+        List<ResultadoBusquedaDTO> resultados = buscador.buscar("josé garcía", 0, 10);
+
+        assertEquals(1L, resultados.get(0).id());
+        assertTrue(resultados.stream().noneMatch(r -> r.id() == 3L));
+    }
+
+    @Test
+    void buscar_deberiaEncontrarSubcadenas() {
+        List<ResultadoBusquedaDTO> resultados = buscador.buscar("mart", 0, 10);
+
+        assertEquals(1, resultados.size());
+        assertEquals(2L, resultados.get(0).id());
+    }
+
+    @Test
+    void buscar_deberiaTolerarErratas() {
+        List<ResultadoBusquedaDTO> resultados = buscador.buscar("Luis Peres", 0, 10);
+
+        assertEquals(3L, resultados.get(0).id());
+    }
+
+    @Test
+    void buscar_deberiaPaginar() {
+        assertEquals(2, buscador.buscar("jos", 0, 10).size());
+        assertEquals(1, buscador.buscar("jos", 1, 10).size());
+        assertEquals(1, buscador.buscar("jos", 0, 1).size());
+    }
+
+    @Test
+    void buscar_masCoincidenciasQueElMaximo_deberiaOrdenarSoloLasPrimeras() {
+        buscador = new BuscadorPedidosMemoria(pedidoRepositorio, mock(TransactionTemplate.class),
+                new BusquedaProperties("memoria", 0.3, 50, 1));
+        indexar(1L, "José García");
+        indexar(2L, "José Martínez");
+
+        // Ambos contienen el texto; con un máximo de 1 solo se ordena el de menor id
+        List<ResultadoBusquedaDTO> resultados = buscador.buscar("José", 0, 10);
+
+        assertEquals(List.of(1L), resultados.stream().map(ResultadoBusquedaDTO::id).toList());
+    }
+
+    @Test
+    void alModificarPedido_eliminado_deberiaQuitarloDelIndice() {
+        buscador.alModificarPedido(new PedidoModificadoEvento(3L, PedidoModificadoEvento.Tipo.ELIMINADO, null, null,
+                null, null, null, 0L));
+
+        assertTrue(buscador.buscar("luis", 0, 10).isEmpty());
+    }
+
+    @Test
+    void alModificarPedido_actualizado_deberiaReindexarElNombre() {
+        indexar(3L, "Ana Ruiz");
+
+        assertTrue(buscador.buscar("luis", 0, 10).isEmpty());
+        assertEquals(3L, buscador.buscar("ruiz", 0, 10).get(0).id());
+    }
+
+    private void indexar(Long id, String nombreCliente) {
+        Pedido pedido = Pedido.builder().id(id).nombreCliente(nombreCliente).estado(EstadoPedido.CREATED).build();
+        when(pedidoRepositorio.findById(id)).thenReturn(Optional.of(pedido));
+        buscador.alModificarPedido(new PedidoModificadoEvento(id, PedidoModificadoEvento.Tipo.ACTUALIZADO,
+                EstadoPedido.CREATED, EstadoPedido.CREATED, null, null, null, 1L));
+    }
+}
@@ -0,0 +1,96 @@
+package com.josemiguel.ordermanagement.infraestructura.busqueda;
+
+import com.josemiguel.ordermanagement.dominio.dto.ResultadoBusquedaDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de BuscadorPedidosPostgres sobre un PostgreSQL desechable (Testcontainers; sin Docker se omiten).
+ * similitud-minima es 0.3, por debajo del umbral por defecto de pg_trgm (0.6).
+ */
+@SpringBootTest(properties = {
+        "pedidos.busqueda.motor=postgres",
+        "pedidos.busqueda.similitud-minima=0.3",
+        "pedidos.busqueda.maximo-candidatos=10"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BuscadorPedidosPostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private BuscadorPedidos buscador;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registro) {
+        registro.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registro.add("spring.flyway.enabled", () -> "true");
+        registro.add("spring.flyway.placeholders.tamanio_asignacion_ids", () -> "50");
+        registro.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE productos, pedidos");
+    }
+
+    @Test
+    void buscar_deberiaAplicarLaSimilitudMinimaConfigurada() {
+        insertar(1, "Luis Pérez");
+
+        String umbral = transactionTemplate.execute(tx -> {
+            buscador.buscar("Luis Peres", 0, 10);
+            return jdbcTemplate.queryForObject("SELECT current_setting('pg_trgm.word_similarity_threshold')",
+                    String.class);
+        });
+
+        assertEquals(0.3, Double.parseDouble(umbral));
+        // La errata no es una subcadena: solo la encuentra el operador <% con el umbral configurado
+        assertEquals(List.of(1L), ids(buscador.buscar("Luis Peres", 0, 10)));
+        // set_config local: el umbral no queda fijado en la conexión del pool
+        assertNotEquals("0.3", jdbcTemplate.queryForObject(
+                "SELECT current_setting('pg_trgm.word_similarity_threshold', true)", String.class));
+    }
+
+    @Test
+    void buscar_masCoincidenciasQueElMaximo_deberiaOrdenarSoloElMaximo() {
+        for (int i = 1; i <= 30; i++) {
+            insertar(i, "Cliente " + i);
+        }
+
+        assertEquals(10, buscador.buscar("cliente", 0, 100).size());
+        assertTrue(buscador.buscar("cliente", 10, 100).isEmpty());
+    }
+
+    private void insertar(long id, String nombre) {
+        jdbcTemplate.update("INSERT INTO pedidos (id, nombre_cliente, contacto_cliente, monto_total, estado, "
+                + "fecha_creacion, fecha_modificacion, version) VALUES (?, ?, 'contacto', 10, 'CREATED', now(), now(), 0)",
+                id, nombre);
+    }
+
+    private static List<Long> ids(List<ResultadoBusquedaDTO> resultados) {
+        return resultados.stream().map(ResultadoBusquedaDTO::id).toList();
+    }
+}
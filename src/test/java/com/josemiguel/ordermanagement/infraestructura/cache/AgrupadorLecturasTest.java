@@ -0,0 +1,197 @@
+package com.josemiguel.ordermanagement.infraestructura.cache;
+
+import com.josemiguel.ordermanagement.config.AgrupacionProperties;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la agrupación de lecturas: una lectura lenta retenida con un latch
+ * y peticiones concurrentes que llegan mientras está en curso.
+ */
+class AgrupadorLecturasTest {
+
+    private static final int CONCURRENTES = 8;
+
+    private SimpleMeterRegistry registro;
+    private AgrupadorLecturas agrupador;
+    private ExecutorService hilos;
+
+    @BeforeEach
+    void setUp() {
+        registro = new SimpleMeterRegistry();
+        agrupador = new AgrupadorLecturas(new AgrupacionProperties(true, 4), registro);
+        hilos = Executors.newFixedThreadPool(CONCURRENTES + 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hilos.shutdownNow();
+    }
+
+    @Test
+    void lecturasConcurrentesDelMismoPedido_deberianCompartirUnaConsulta() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+        Supplier<Object> lectura = () -> {
+            consultas.incrementAndGet();
+            esperar(liberar);
+            return new Object();
+        };
+
+        List<Future<Object>> resultados = new ArrayList<>();
+        resultados.add(hilos.submit(() -> agrupador.porPedido("obtener", 1L, lectura)));
+        esperarHasta(() -> consultas.get() == 1);
+        for (int i = 0; i < CONCURRENTES; i++) {
+            resultados.add(hilos.submit(() -> agrupador.porPedido("obtener", 1L, lectura)));
+        }
+        esperarHasta(() -> contador("agrupada") == CONCURRENTES);
+        liberar.countDown();
+
+        Object primero = resultados.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> resultado : resultados) {
+            assertSame(primero, resultado.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, consultas.get());
+        assertEquals(1, contador("ejecutada"));
+        assertEquals((double) CONCURRENTES / (CONCURRENTES + 1),
+                registro.get("pedidos.lecturas.agrupacion").gauge().value(), 1e-9);
+        assertEquals(0, agrupador.enCurso());
+    }
+
+    @Test
+    void lecturasDeClavesDistintas_noDeberianAgruparse() {
+        AtomicInteger consultas = new AtomicInteger();
+
+        agrupador.porPedido("obtener", 1L, consultas::incrementAndGet);
+        agrupador.porPedido("obtener", 2L, consultas::incrementAndGet);
+        agrupador.consulta("buscar", List.of("ana", 0), consultas::incrementAndGet);
+        agrupador.consulta("buscar", List.of("ana", 1), consultas::incrementAndGet);
+        // Secuenciales: la segunda lectura de la misma clave ya no encuentra la primera en curso
+        agrupador.consulta("buscar", List.of("ana", 1), consultas::incrementAndGet);
+
+        assertEquals(5, consultas.get());
+        assertEquals(0, contador("agrupada"));
+    }
+
+    @Test
+    void lecturaFallida_deberiaPropagarLaExcepcionATodasLasAgrupadas() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+        Supplier<Object> lectura = () -> {
+            consultas.incrementAndGet();
+            esperar(liberar);
+            throw new IllegalStateException("sin conexión");
+        };
+
+        List<Future<Object>> resultados = new ArrayList<>();
+        resultados.add(hilos.submit(() -> agrupador.consulta("buscar", List.of("ana"), lectura)));
+        esperarHasta(() -> consultas.get() == 1);
+        for (int i = 0; i < CONCURRENTES; i++) {
+            resultados.add(hilos.submit(() -> agrupador.consulta("buscar", List.of("ana"), lectura)));
+        }
+        esperarHasta(() -> contador("agrupada") == CONCURRENTES);
+        liberar.countDown();
+
+        for (Future<Object> resultado : resultados) {
+            Exception e = assertThrows(Exception.class, () -> resultado.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(1, consultas.get());
+        assertEquals(0, agrupador.enCurso());
+    }
+
+    @Test
+    void modificacionConfirmada_deberiaSepararLasLecturasPosterioresDelPedidoYDeLosListados() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+        Supplier<Object> lectura = () -> {
+            consultas.incrementAndGet();
+            esperar(liberar);
+            return new Object();
+        };
+        Future<Object> pedido = hilos.submit(() -> agrupador.porPedido("obtener", 1L, lectura));
+        Future<Object> otroPedido = hilos.submit(() -> agrupador.porPedido("obtener", 2L, lectura));
+        Future<Object> listado = hilos.submit(() -> agrupador.consulta("buscar", List.of("ana"), lectura));
+        esperarHasta(() -> consultas.get() == 3);
+
+        agrupador.alModificarPedido(new PedidoModificadoEvento(1L, PedidoModificadoEvento.Tipo.ACTUALIZADO,
+                EstadoPedido.CREATED, EstadoPedido.CREATED, LocalDate.now(), BigDecimal.ONE, BigDecimal.TEN,
+                1L));
+
+        // El pedido 2 sigue en curso: la nueva petición se agrupa con la lectura anterior
+        Future<Object> otroPedidoTras = hilos.submit(() -> agrupador.porPedido("obtener", 2L, lectura));
+        esperarHasta(() -> contador("agrupada") == 1);
+        // El pedido 1 y el listado empiezan una lectura nueva, que ya verá la modificación
+        Future<Object> pedidoTras = hilos.submit(() -> agrupador.porPedido("obtener", 1L, lectura));
+        Future<Object> listadoTras = hilos.submit(() -> agrupador.consulta("buscar", List.of("ana"), lectura));
+        esperarHasta(() -> consultas.get() == 5);
+        liberar.countDown();
+
+        assertSame(otroPedido.get(5, TimeUnit.SECONDS), otroPedidoTras.get(5, TimeUnit.SECONDS));
+        assertNotSame(pedido.get(5, TimeUnit.SECONDS), pedidoTras.get(5, TimeUnit.SECONDS));
+        assertNotSame(listado.get(5, TimeUnit.SECONDS), listadoTras.get(5, TimeUnit.SECONDS));
+        assertEquals(0, agrupador.enCurso());
+    }
+
+    @Test
+    void deshabilitada_cadaLecturaDeberiaConsultarPorSuCuenta() throws Exception {
+        agrupador = new AgrupadorLecturas(new AgrupacionProperties(false, 4), new SimpleMeterRegistry());
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger consultas = new AtomicInteger();
+        Supplier<Object> lectura = () -> {
+            consultas.incrementAndGet();
+            esperar(liberar);
+            return new Object();
+        };
+
+        List<Future<Object>> resultados = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            resultados.add(hilos.submit(() -> agrupador.porPedido("obtener", 1L, lectura)));
+        }
+        esperarHasta(() -> consultas.get() == 3);
+        liberar.countDown();
+        for (Future<Object> resultado : resultados) {
+            assertNotNull(resultado.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private double contador(String resultado) {
+        return registro.find("pedidos.lecturas").tag("resultado", resultado).counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void esperarHasta(Supplier<Boolean> condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.get()) {
+            assertTrue(System.nanoTime() < limite, "Condición no alcanzada");
+            Thread.sleep(5);
+        }
+    }
+}
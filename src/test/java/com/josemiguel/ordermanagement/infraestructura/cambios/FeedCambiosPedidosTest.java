@@ -0,0 +1,206 @@
+package com.josemiguel.ordermanagement.infraestructura.cambios;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.config.CambiosProperties;
+import com.josemiguel.ordermanagement.config.PaginacionProperties;
+import com.josemiguel.ordermanagement.dominio.dto.SolicitudTransicionLoteDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.paginacion.CursorCambios;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoEliminadoRepositorio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import com.josemiguel.ordermanagement.infraestructura.transicion.TransicionadorPedidos;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del feed de cambios de pedidos (GET /api/pedidos/cambios).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FeedCambiosPedidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private TransicionadorPedidos transicionadorPedidos;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private PedidoEliminadoRepositorio pedidoEliminadoRepositorio;
+
+    @Autowired
+    private FeedCambiosPedidos feedCambiosPedidos;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Token al día antes de cada test: el feed solo contiene los cambios del test.
+     */
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        token = sincronizar(null, 200).token();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+        pedidoEliminadoRepositorio.deleteAll();
+    }
+
+    @Test
+    void cambios_deberiaPaginarLosPedidosCreadosHastaAgotarlos() throws Exception {
+        List<Long> ids = List.of(crearPedido(), crearPedido(), crearPedido());
+
+        Sincronizacion primera = sincronizar(token, 2);
+        assertEquals(ids.subList(0, 2), primera.ids());
+        assertTrue(primera.hayMas());
+
+        Sincronizacion segunda = sincronizar(primera.token(), 2);
+        assertEquals(ids.subList(2, 3), segunda.ids());
+        assertFalse(segunda.hayMas());
+
+        Sincronizacion tercera = sincronizar(segunda.token(), 2);
+        assertTrue(tercera.ids().isEmpty());
+        assertFalse(tercera.hayMas());
+    }
+
+    @Test
+    void cambios_deberiaIncluirModificacionesYEliminacionesEnOrden() throws Exception {
+        Long modificado = crearPedido();
+        Long eliminado = crearPedido();
+        Long enLote = crearPedido();
+        Long sinCambios = crearPedido();
+        String tokenTrasCrear = sincronizar(token, 200).token();
+
+        pedidoServicio.cambiarEstado(modificado, "CONFIRMED");
+        pedidoServicio.eliminarPedido(eliminado);
+        transicionadorPedidos.transicionar(
+                new SolicitudTransicionLoteDTO(List.of(enLote), null, null, null, EstadoPedido.CANCELLED));
+
+        Sincronizacion cambios = sincronizar(tokenTrasCrear, 200);
+        assertEquals(List.of(modificado, eliminado, enLote), cambios.ids());
+        assertEquals(List.of("MODIFICADO", "ELIMINADO", "MODIFICADO"), cambios.tipos());
+        assertFalse(cambios.ids().contains(sinCambios));
+    }
+
+    @Test
+    void cambios_actualizarPedido_deberiaAvanzarLaFechaDeModificacion() throws Exception {
+        Long id = crearPedido();
+        LocalDateTime creado = pedidoRepositorio.findById(id).orElseThrow().getFechaModificacion();
+
+        pedidoServicio.actualizarPedido(id, nuevoPedido("Cliente renombrado"));
+
+        Pedido actualizado = pedidoRepositorio.findById(id).orElseThrow();
+        assertTrue(actualizado.getFechaModificacion().isAfter(creado));
+        assertEquals(1L, actualizado.getVersion());
+    }
+
+    @Test
+    void cambios_deberiaLeerSoloLosCambiosPosterioresAlToken() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            crearPedido();
+        }
+        String alDia = sincronizar(token, 200).token();
+        Long nuevo = crearPedido();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        assertEquals(List.of(nuevo), sincronizar(alDia, 200).ids());
+        // Una consulta keyset por origen (pedidos y marcas de borrado)
+        assertEquals(2, estadisticas.getQueryExecutionCount());
+    }
+
+    @Test
+    void cambios_dentroDelMargen_noDeberianEntregarseTodavia() {
+        FeedCambiosPedidos conMargen = new FeedCambiosPedidos(pedidoRepositorio, pedidoEliminadoRepositorio,
+                new PaginacionProperties(20, 200), new CambiosProperties(Duration.ofHours(1), Duration.ofDays(30)));
+        crearPedido();
+
+        assertTrue(conMargen.listarCambios(token, null).cambios().isEmpty());
+        assertEquals(1, feedCambiosPedidos.listarCambios(token, null).cambios().size());
+    }
+
+    @Test
+    void cambios_tokenCaducado_deberiaRetornar410() throws Exception {
+        String caducado = new CursorCambios(LocalDateTime.now().minusDays(31), 1L).codificar();
+
+        mockMvc.perform(get("/api/pedidos/cambios").param("desde", caducado))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void cambios_tokenInvalido_deberiaRetornar400() throws Exception {
+        mockMvc.perform(get("/api/pedidos/cambios").param("desde", "no-es-un-token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private record Sincronizacion(List<Long> ids, List<String> tipos, String token, boolean hayMas) {
+    }
+
+    private Sincronizacion sincronizar(String desde, int tamanio) throws Exception {
+        var peticion = get("/api/pedidos/cambios").param("tamanio", String.valueOf(tamanio));
+        if (desde != null) {
+            peticion.param("desde", desde);
+        }
+        String cuerpo = mockMvc.perform(peticion)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode pagina = objectMapper.readTree(cuerpo);
+        List<Long> ids = new ArrayList<>();
+        List<String> tipos = new ArrayList<>();
+        for (JsonNode cambio : pagina.get("cambios")) {
+            ids.add(cambio.get("id").asLong());
+            tipos.add(cambio.get("tipo").asText());
+        }
+        return new Sincronizacion(ids, tipos, pagina.get("siguiente").asText(), pagina.get("hayMas").asBoolean());
+    }
+
+    private Long crearPedido() {
+        return pedidoServicio.crearPedido(nuevoPedido("Cliente")).getId();
+    }
+
+    private static Pedido nuevoPedido(String cliente) {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(1).precioUnitario(BigDecimal.TEN).build());
+        return Pedido.builder()
+                .nombreCliente(cliente)
+                .contactoCliente("600000000")
+                .montoTotal(BigDecimal.TEN)
+                .productos(productos)
+                .build();
+    }
+}
@@ -0,0 +1,228 @@
+package com.josemiguel.ordermanagement.infraestructura.conciliacion;
+
+import com.jayway.jsonpath.JsonPath;
+import com.josemiguel.ordermanagement.dominio.dto.InformeConciliacionDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.estadisticas.EstadisticasPedidos;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del monto total calculado en servidor y de la conciliación de montos
+ * (POST /api/pedidos/conciliacion), con tramos de 4 ids para repartir los pedidos
+ * en varias tareas fork/join.
+ */
+@SpringBootTest(properties = "pedidos.conciliacion.tamanio-bloque=4")
+@AutoConfigureMockMvc
+class ConciliacionMontosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConciliadorMontos conciliadorMontos;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private EstadisticasPedidos estadisticasPedidos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepositorio.deleteAll();
+        estadisticasPedidos.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void crearYActualizar_deberianCalcularElMontoAPartirDeLasLineas() throws Exception {
+        String cuerpo = mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombreCliente":"Cliente","contactoCliente":"600000000","montoTotal":1,
+                                 "productos":[{"nombre":"Libro","cantidad":2,"precioUnitario":10.005},
+                                              {"nombre":"Lápiz","cantidad":3,"precioUnitario":0.1}]}"""))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.montoTotal").value(20.3))
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(cuerpo, "$.id")).longValue();
+        long libro = ((Number) JsonPath.read(cuerpo, "$.productos[0].id")).longValue();
+
+        mockMvc.perform(put("/api/pedidos/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombreCliente":"Cliente","contactoCliente":"600000000","montoTotal":1,
+                                 "productos":[{"id":%d,"nombre":"Libro","cantidad":1,"precioUnitario":10.00},
+                                              {"nombre":"Regla","cantidad":1,"precioUnitario":2.50}]}"""
+                                .formatted(libro)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.montoTotal").value(12.5));
+
+        assertEquals(0, new BigDecimal("12.50").compareTo(pedidoRepositorio.findById(id).orElseThrow().getMontoTotal()));
+        assertEquals(0, conciliadorMontos.conciliar(false).descuadrados());
+    }
+
+    @Test
+    void crearYActualizar_conProductos_noDeberianExigirElMonto() throws Exception {
+        String cuerpo = mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombreCliente":"Cliente","contactoCliente":"600000000",
+                                 "productos":[{"nombre":"Libro","cantidad":2,"precioUnitario":4.50}]}"""))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.montoTotal").value(9.0))
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(cuerpo, "$.id")).longValue();
+
+        // Con productos el monto recibido se ignora, aunque no sea válido
+        mockMvc.perform(put("/api/pedidos/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombreCliente":"Cliente","contactoCliente":"600000000","montoTotal":-1,
+                                 "productos":[{"nombre":"Regla","cantidad":1,"precioUnitario":2.50}]}"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.montoTotal").value(2.5));
+    }
+
+    @Test
+    void crear_sinProductosNiMonto_deberiaRetornar400EnElCampoMonto() throws Exception {
+        mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombreCliente":"Cliente","contactoCliente":"600000000"}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field").value("montoTotal"));
+        mockMvc.perform(post("/api/pedidos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"nombreCliente":"Cliente","contactoCliente":"600000000","montoTotal":0}"""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field").value("montoTotal"));
+
+        assertEquals(0, pedidoRepositorio.count());
+    }
+
+    @Test
+    void crearPedidos_deberiaCalcularElMontoDeCadaPedido() {
+        List<Pedido> creados = pedidoServicio.crearPedidos(List.of(
+                nuevoPedido("99", 2, "5.00"), nuevoPedido("1", 1, "7.25")));
+
+        assertEquals(0, new BigDecimal("10.00").compareTo(creados.get(0).getMontoTotal()));
+        assertEquals(0, new BigDecimal("7.25").compareTo(creados.get(1).getMontoTotal()));
+    }
+
+    @Test
+    void conciliar_sinReparar_deberiaInformarDeLosDescuadresSinCambiarNada() throws Exception {
+        List<Long> ids = crearPedidos(10);
+        descuadrar(ids.get(1), "1.00");
+        descuadrar(ids.get(8), "999.99");
+        Pedido sinLineas = pedidoServicio.crearPedido(Pedido.builder()
+                .nombreCliente("Cliente").contactoCliente("600000000").montoTotal(new BigDecimal("50")).build());
+
+        mockMvc.perform(post("/api/pedidos/conciliacion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revisados").value(10))
+                .andExpect(jsonPath("$.descuadrados").value(2))
+                .andExpect(jsonPath("$.corregidos").value(0))
+                .andExpect(jsonPath("$.reparar").value(false))
+                .andExpect(jsonPath("$.muestra[0].id").value(ids.get(1)))
+                .andExpect(jsonPath("$.muestra[0].montoLineas").value(10.0))
+                .andExpect(jsonPath("$.muestra[1].id").value(ids.get(8)));
+
+        assertEquals(0, new BigDecimal("1.00").compareTo(pedidoRepositorio.findById(ids.get(1)).orElseThrow().getMontoTotal()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(pedidoRepositorio.findById(sinLineas.getId()).orElseThrow().getMontoTotal()));
+    }
+
+    @Test
+    void conciliar_reparando_deberiaCorregirLosMontosYMantenerLasEstadisticas() throws Exception {
+        List<Long> ids = crearPedidos(10);
+        LocalDate hoy = LocalDate.now();
+        // Lectura en caché antes del descuadre: la corrección debe invalidarla
+        mockMvc.perform(get("/api/pedidos/" + ids.get(3))).andExpect(status().isOk());
+        descuadrar(ids.get(3), "3.00");
+        descuadrar(ids.get(4), "4.00");
+        estadisticasPedidos.reconstruir();
+        Long versionAntes = pedidoRepositorio.findVersionById(ids.get(3)).orElseThrow();
+
+        InformeConciliacionDTO informe = conciliadorMontos.conciliar(true);
+
+        assertEquals(10, informe.revisados());
+        assertEquals(2, informe.descuadrados());
+        assertEquals(2, informe.corregidos());
+        assertEquals(0, new BigDecimal("10.00").compareTo(pedidoRepositorio.findById(ids.get(3)).orElseThrow().getMontoTotal()));
+        assertEquals(versionAntes + 1, pedidoRepositorio.findVersionById(ids.get(3)).orElseThrow());
+        mockMvc.perform(get("/api/pedidos/" + ids.get(3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.montoTotal").value(10.0));
+        // Los agregados incrementales reciben la diferencia de monto de cada corrección
+        assertEquals(0, new BigDecimal("100.00").compareTo(estadisticasPedidos.obtener(hoy, hoy).montoTotal()));
+        assertEquals(0, conciliadorMontos.conciliar(false).descuadrados());
+    }
+
+    @Test
+    void conciliar_sinPedidos_deberiaDevolverUnInformeVacio() {
+        InformeConciliacionDTO informe = conciliadorMontos.conciliar(true);
+
+        assertEquals(0, informe.revisados());
+        assertTrue(informe.muestra().isEmpty());
+    }
+
+    private List<Long> crearPedidos(int numero) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < numero; i++) {
+            ids.add(pedidoServicio.crearPedido(nuevoPedido("10", 1, "10.00")).getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Cambia el monto directamente en la base de datos, como una carga anterior al cálculo en servidor.
+     */
+    private void descuadrar(Long id, String monto) {
+        jdbcTemplate.update("UPDATE pedidos SET monto_total = ? WHERE id = ?", new BigDecimal(monto), id);
+    }
+
+    private static Pedido nuevoPedido(String montoCliente, int cantidad, String precio) {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(cantidad).precioUnitario(new BigDecimal(precio)).build());
+        return Pedido.builder()
+                .nombreCliente("Cliente")
+                .contactoCliente("600000000")
+                .montoTotal(new BigDecimal(montoCliente))
+                .productos(productos)
+                .build();
+    }
+}
@@ -0,0 +1,506 @@
+package com.josemiguel.ordermanagement.infraestructura.controlador;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.ProductoDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.EventoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Cuenta las sentencias SQL que emite cada endpoint de lectura y cada finder del repositorio.
+ * Sirve de guarda contra el problema N+1 al recorrer los productos de los pedidos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PedidoConsultasSqlTest {
+
+    private static final int NUM_PEDIDOS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics estadisticas;
+    private Long idPedido;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < NUM_PEDIDOS; i++) {
+            List<Producto> productos = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                productos.add(Producto.builder()
+                        .nombre("Producto " + j)
+                        .cantidad(1)
+                        .precioUnitario(BigDecimal.TEN)
+                        .build());
+            }
+            idPedido = pedidoRepositorio.save(Pedido.builder()
+                    .nombreCliente("Cliente " + i)
+                    .contactoCliente("contacto" + i)
+                    .montoTotal(BigDecimal.valueOf(30))
+                    .productos(productos)
+                    .build()).getId();
+        }
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void listarPedidos_deberiaEjecutarDosSentencias() throws Exception {
+        mockMvc.perform(get("/api/pedidos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(NUM_PEDIDOS))
+                .andExpect(jsonPath("$[0].productos.length()").value(3))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+
+        // Primera página de /pagina con el tamaño máximo + productos con un IN
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void listarPedidos_masQueElTamanioMaximo_deberiaLimitarseYEnlazarLaSiguientePagina() throws Exception {
+        List<Pedido> mas = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            mas.add(Pedido.builder().nombreCliente("Otro " + i).contactoCliente("otro")
+                    .montoTotal(BigDecimal.ONE).build());
+        }
+        pedidoServicio.crearPedidos(mas);
+
+        String enlace = mockMvc.perform(get("/api/pedidos?vista=resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(200))
+                .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+
+        assertTrue(enlace.startsWith("<http://localhost/api/pedidos/pagina?vista=resumen&cursor="), enlace);
+        assertTrue(enlace.endsWith(">; rel=\"next\""), enlace);
+        String cursor = enlace.substring(enlace.indexOf("cursor=") + 7, enlace.indexOf('>'));
+        mockMvc.perform(get("/api/pedidos/pagina").param("vista", "resumen").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(NUM_PEDIDOS))
+                .andExpect(jsonPath("$.hayMas").value(false));
+    }
+
+    @Test
+    void listarPedidosPaginados_deberiaEjecutarDosSentencias() throws Exception {
+        mockMvc.perform(get("/api/pedidos/pagina").param("tamanio", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(3))
+                .andExpect(jsonPath("$.contenido[0].productos.length()").value(3));
+
+        // Página de pedidos + productos de toda la página con un IN
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void listarPedidos_vistaResumen_noDeberiaCargarProductos() throws Exception {
+        mockMvc.perform(get("/api/pedidos").param("vista", "resumen"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(NUM_PEDIDOS))
+                .andExpect(jsonPath("$[0].nombreCliente").value("Cliente " + (NUM_PEDIDOS - 1)))
+                .andExpect(jsonPath("$[0].montoTotal").value(30))
+                .andExpect(jsonPath("$[0].productos").doesNotExist())
+                .andExpect(jsonPath("$[0].contactoCliente").doesNotExist());
+
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+    }
+
+    @Test
+    void listarPedidosPaginados_conFields_deberiaEjecutarUnaSentenciaYDevolverSoloEsosCampos() throws Exception {
+        String cuerpo = mockMvc.perform(get("/api/pedidos/pagina")
+                        .param("tamanio", "3")
+                        .param("fields", "estado,montoTotal"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(3))
+                .andExpect(jsonPath("$.contenido[0].id").value(idPedido))
+                .andExpect(jsonPath("$.contenido[0].estado").value("CREATED"))
+                .andExpect(jsonPath("$.contenido[0].nombreCliente").doesNotExist())
+                .andExpect(jsonPath("$.contenido[0].fechaCreacion").doesNotExist())
+                .andExpect(jsonPath("$.hayMas").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        // Solo la página de resúmenes: ni entidades ni productos
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+
+        // El cursor de la vista resumen sirve también para la vista completa
+        String cursor = objectMapper.readTree(cuerpo).get("siguienteCursor").asText();
+        mockMvc.perform(get("/api/pedidos/pagina").param("tamanio", "3").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.contenido.length()").value(NUM_PEDIDOS - 3))
+                .andExpect(jsonPath("$.contenido[0].productos.length()").value(3));
+    }
+
+    @Test
+    void listarPedidos_vistaOCampoNoValido_deberiaRetornar400() throws Exception {
+        mockMvc.perform(get("/api/pedidos").param("vista", "minima"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pedidos").param("fields", "productos"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pedidos/pagina").param("vista", "completa").param("fields", "estado"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void obtenerPedido_deberiaEjecutarUnaSentencia() throws Exception {
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productos.length()").value(3));
+
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void obtenerPedido_segundaLectura_deberiaServirseDeCache() throws Exception {
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido)).andExpect(status().isOk());
+        estadisticas.clear();
+
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CREATED"));
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", idPedido).param("estado", "CONFIRMED"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CONFIRMED"));
+    }
+
+    @Test
+    void obtenerPedido_conIfNoneMatchVigente_deberiaRetornar304SinCargarElPedido() throws Exception {
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+
+        // Solo la consulta de la versión por clave primaria: ni el pedido ni sus productos
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido)).andExpect(status().isOk());
+        estadisticas.clear();
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+                .andExpect(status().isNotModified());
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void obtenerPedido_conIfNoneMatchObsoleto_deberiaRetornarElPedidoConSuEtag() throws Exception {
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", idPedido).param("estado", "CONFIRMED"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.version").value(1))
+                .andExpect(jsonPath("$.estado").value("CONFIRMED"));
+    }
+
+    @Test
+    void obtenerPedidosPorIds_deberiaEjecutarUnaSentenciaYRespetarElOrden() throws Exception {
+        List<Long> ids = pedidoRepositorio.findAll().stream().map(Pedido::getId).sorted().toList();
+        Long inexistente = idPedido + 1000;
+        estadisticas.clear();
+
+        mockMvc.perform(post("/api/pedidos/buscar-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                Map.of("ids", List.of(ids.get(3), inexistente, ids.get(0), ids.get(3))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pedidos.length()").value(2))
+                .andExpect(jsonPath("$.pedidos[0].id").value(ids.get(3)))
+                .andExpect(jsonPath("$.pedidos[0].productos.length()").value(3))
+                .andExpect(jsonPath("$.pedidos[1].id").value(ids.get(0)))
+                .andExpect(jsonPath("$.noEncontrados[0]").value(inexistente));
+
+        // Pedidos y productos con un único IN
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void obtenerPedidosPorIds_enCache_noDeberiaConsultarLaBaseDeDatos() throws Exception {
+        mockMvc.perform(get("/api/pedidos/{id}", idPedido)).andExpect(status().isOk());
+        estadisticas.clear();
+
+        mockMvc.perform(post("/api/pedidos/buscar-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + idPedido + "]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pedidos[0].productos.length()").value(3))
+                .andExpect(jsonPath("$.noEncontrados.length()").value(0));
+
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void obtenerPedidosPorIds_sinIds_deberiaRetornar400() throws Exception {
+        mockMvc.perform(post("/api/pedidos/buscar-ids")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cambiarEstado_deberiaAplicarseSinCargarElPedido() {
+        pedidoServicio.cambiarEstado(idPedido, "SHIPPED");
+
+        // Lectura de estado y versión + UPDATE condicionado + INSERT del evento en el outbox
+        // + un upsert por fila de estadísticas (estado de origen y de destino),
+        // más la consulta a la secuencia del outbox cuando se agota su bloque de ids
+        assertEquals(1, estadisticas.getQueryExecutionCount());
+        assertEquals(1, estadisticas.getEntityInsertCount());
+        assertSentenciasConOutbox(5);
+        assertEquals(0, estadisticas.getEntityUpdateCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+        assertEquals(0, estadisticas.getCollectionLoadCount());
+
+        Pedido pedido = pedidoRepositorio.findById(idPedido).orElseThrow();
+        assertEquals(EstadoPedido.SHIPPED, pedido.getEstado());
+        assertEquals(1L, pedido.getVersion());
+    }
+
+    @Test
+    void cambiarEstado_conIfMatchObsoleto_deberiaRetornar412SinModificar() throws Exception {
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", idPedido)
+                        .param("estado", "CONFIRMED")
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", idPedido)
+                        .param("estado", "CANCELLED")
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(EstadoPedido.CONFIRMED, pedidoRepositorio.findById(idPedido).orElseThrow().getEstado());
+    }
+
+    @Test
+    void cambiarEstado_conIfMatchObsoletoYTransicionNoPermitida_deberiaRetornar412() throws Exception {
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", idPedido)
+                        .param("estado", "SHIPPED")
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isOk());
+
+        // Cancelar un pedido enviado no está permitido, pero primero cuenta que el ETag es obsoleto
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", idPedido)
+                        .param("estado", "CANCELLED")
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(EstadoPedido.SHIPPED, pedidoRepositorio.findById(idPedido).orElseThrow().getEstado());
+    }
+
+    @Test
+    void actualizarPedido_soloCambiaUnProducto_deberiaIncrementarLaVersion() throws Exception {
+        PedidoDTO pedido = PedidoMapper.toDTO(pedidoRepositorio.findById(idPedido).orElseThrow());
+        pedido.getProductos().get(0).setCantidad(9);
+
+        mockMvc.perform(put("/api/pedidos/{id}", idPedido)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedido)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        mockMvc.perform(put("/api/pedidos/{id}", idPedido)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedido)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void actualizarPedido_cambiarUnaCantidad_deberiaEscribirSoloEsaLinea() throws Exception {
+        PedidoDTO pedido = PedidoMapper.toDTO(pedidoRepositorio.findById(idPedido).orElseThrow());
+        pedido.getProductos().get(1).setCantidad(7);
+        estadisticas.clear();
+
+        mockMvc.perform(put("/api/pedidos/{id}", idPedido)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedido)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PedidoControlador.CABECERA_LINEAS_MODIFICADAS, "1"))
+                .andExpect(header().string(PedidoControlador.CABECERA_LINEAS_ACTUALIZADAS, "1"))
+                .andExpect(jsonPath("$.productos.length()").value(3));
+
+        // La línea cambiada y la cabecera del pedido (versión y fecha de modificación)
+        assertEquals(1, estadisticas.getEntityStatistics(Producto.class.getName()).getUpdateCount());
+        assertEquals(1, estadisticas.getEntityStatistics(Pedido.class.getName()).getUpdateCount());
+        assertEquals(0, inserciones(Producto.class));
+        assertEquals(1, inserciones(EventoPedido.class));
+        assertEquals(0, estadisticas.getEntityDeleteCount());
+    }
+
+    @Test
+    void actualizarPedido_anadirYQuitarLineas_deberiaInsertarYEliminarSoloEsas() throws Exception {
+        PedidoDTO pedido = PedidoMapper.toDTO(pedidoRepositorio.findById(idPedido).orElseThrow());
+        pedido.getProductos().remove(0);
+        ProductoDTO nuevo = new ProductoDTO();
+        nuevo.setNombre("Nuevo");
+        nuevo.setCantidad(1);
+        nuevo.setPrecioUnitario(BigDecimal.ONE);
+        pedido.getProductos().add(nuevo);
+        estadisticas.clear();
+
+        mockMvc.perform(put("/api/pedidos/{id}", idPedido)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pedido)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PedidoControlador.CABECERA_LINEAS_MODIFICADAS, "2"))
+                .andExpect(jsonPath("$.productos.length()").value(3));
+
+        // El único UPDATE es el de la versión del pedido, ninguna línea conservada se reescribe
+        assertEquals(1, estadisticas.getEntityUpdateCount());
+        assertEquals(1, inserciones(Producto.class));
+        assertEquals(1, inserciones(EventoPedido.class));
+        assertEquals(1, estadisticas.getEntityDeleteCount());
+    }
+
+    @Test
+    void exportarPedidosNdjson_deberiaEjecutarDosSentencias() throws Exception {
+        String cuerpo = exportar("NDJSON");
+
+        assertEquals(NUM_PEDIDOS, cuerpo.lines().count());
+        // Cursor de pedidos + productos del bloque con un IN
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void exportarPedidosCsv_deberiaEscribirUnaLineaPorProducto() throws Exception {
+        String cuerpo = exportar("CSV");
+
+        assertEquals(1 + NUM_PEDIDOS * 3, cuerpo.lines().count());
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void findersDelRepositorio_deberianEjecutarUnaSentenciaCadaUno() {
+        LocalDateTime inicio = LocalDateTime.now().minusDays(1);
+        LocalDateTime fin = LocalDateTime.now().plusDays(1);
+
+        assertSentenciasAlRecorrer(1, () -> pedidoRepositorio.findByEstado(EstadoPedido.CREATED));
+        assertSentenciasAlRecorrer(1, () -> pedidoRepositorio.findByFechaCreacionBetween(inicio, fin));
+        assertSentenciasAlRecorrer(1, () -> pedidoRepositorio.findByNombreClienteContainingIgnoreCase("cliente"));
+        assertSentenciasAlRecorrer(1, () -> pedidoRepositorio
+                .findByEstadoAndNombreClienteContainingIgnoreCase(EstadoPedido.CREATED, "cliente"));
+        assertSentenciasAlRecorrer(1, () -> pedidoRepositorio
+                .findByEstadoAndFechaCreacionBetween(EstadoPedido.CREATED, inicio, fin));
+    }
+
+    @Test
+    void recorrerPedidos_filtroPorNombre_deberiaCoincidirConLosFindersYTratarLosComodinesComoLiterales() {
+        for (String nombre : List.of("Ana_Perez", "AnaXPerez", "100% Ana", "1000 Ana")) {
+            pedidoRepositorio.save(Pedido.builder()
+                    .nombreCliente(nombre)
+                    .contactoCliente("600000000")
+                    .montoTotal(BigDecimal.TEN)
+                    .build());
+        }
+
+        assertEquals(List.of("Ana_Perez"), nombresRecorridos("a_p"));
+        assertEquals(List.of("100% Ana"), nombresRecorridos("0% a"));
+        for (String texto : List.of("a_p", "0% a")) {
+            assertEquals(nombresRecorridos(texto), pedidoRepositorio.findByNombreClienteContainingIgnoreCase(texto)
+                    .stream().map(Pedido::getNombreCliente).toList());
+        }
+    }
+
+    private List<String> nombresRecorridos(String nombreCliente) {
+        List<String> nombres = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> pedidoRepositorio.recorrerPedidos(
+                new FiltroPedidos(null, null, null, nombreCliente),
+                bloque -> bloque.forEach(p -> nombres.add(p.getNombreCliente()))));
+        return nombres;
+    }
+
+    private String exportar(String formato) throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/exportar")
+                        .param("formato", formato)
+                        .param("estado", "CREATED"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    private void assertSentenciasConOutbox(long esperadas) {
+        long sentencias = estadisticas.getPrepareStatementCount();
+        assertTrue(sentencias == esperadas || sentencias == esperadas + 1, "Sentencias: " + sentencias);
+    }
+
+    private long inserciones(Class<?> entidad) {
+        return estadisticas.getEntityStatistics(entidad.getName()).getInsertCount();
+    }
+
+    private void assertSentenciasAlRecorrer(long esperadas, Supplier<List<Pedido>> consulta) {
+        estadisticas.clear();
+        transactionTemplate.executeWithoutResult(tx -> {
+            List<Pedido> pedidos = consulta.get();
+            assertEquals(NUM_PEDIDOS, pedidos.size());
+            pedidos.forEach(p -> assertEquals(3, p.getProductos().size()));
+        });
+        assertEquals(esperadas, estadisticas.getPrepareStatementCount());
+    }
+}
@@ -4,6 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
 import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
 import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.cambios.FeedCambiosPedidos;
+import com.josemiguel.ordermanagement.infraestructura.exportacion.ExportadorPedidos;
+import com.josemiguel.ordermanagement.infraestructura.ingesta.IngestorPedidos;
+import com.josemiguel.ordermanagement.infraestructura.transicion.TransicionadorPedidos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -26,6 +31,18 @@ class PedidoControladorTest {
     @Mock
     private PedidoServicio pedidoServicio;
 
+    @Mock
+    private ExportadorPedidos exportadorPedidos;
+
+    @Mock
+    private IngestorPedidos ingestorPedidos;
+
+    @Mock
+    private TransicionadorPedidos transicionadorPedidos;
+
+    @Mock
+    private FeedCambiosPedidos feedCambiosPedidos;
+
     @InjectMocks
     private PedidoControlador pedidoControlador;
 
@@ -33,7 +50,7 @@ class PedidoControladorTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         mockMvc = MockMvcBuilders.standaloneSetup(pedidoControlador)
-                .setControllerAdvice(new com.josemiguel.ordermanagement.infraestructura.excepcion.GlobalExceptionHandler()) // si tienes handler
+                .setControllerAdvice(new com.josemiguel.ordermanagement.infraestructura.excepcion.GlobalExceptionHandler(new SimpleMeterRegistry())) // si tienes handler
                 .build();
         objectMapper = new ObjectMapper();
     }
@@ -0,0 +1,190 @@
+package com.josemiguel.ordermanagement.infraestructura.estadisticas;
+
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticaEstadoDTO;
+import com.josemiguel.ordermanagement.dominio.dto.EstadisticasPedidosDTO;
+import com.josemiguel.ordermanagement.dominio.dto.SolicitudTransicionLoteDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import com.josemiguel.ordermanagement.infraestructura.transicion.TransicionadorPedidos;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de las estadísticas de pedidos (GET /api/pedidos/estadisticas): los agregados
+ * incrementales deben coincidir siempre con los recalculados desde la tabla de pedidos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EstadisticasPedidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EstadisticasPedidos estadisticasPedidos;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private TransicionadorPedidos transicionadorPedidos;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final LocalDate hoy = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        // Otros tests del contexto borran pedidos sin pasar por el servicio
+        pedidoRepositorio.deleteAll();
+        estadisticasPedidos.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void cambiosDelCicloDeVida_deberianReflejarseEnLosAgregados() {
+        Long primero = pedidoServicio.crearPedido(nuevoPedido("10.00")).getId();
+        Long segundo = pedidoServicio.crearPedido(nuevoPedido("20.00")).getId();
+        Long tercero = pedidoServicio.crearPedido(nuevoPedido("5.50")).getId();
+
+        pedidoServicio.cambiarEstado(primero, "CONFIRMED");
+        pedidoServicio.actualizarPedido(segundo, nuevoPedido("25.00"));
+        pedidoServicio.eliminarPedido(tercero);
+
+        EstadisticasPedidosDTO estadisticas = estadisticasPedidos.obtener(hoy, hoy);
+        assertEquals(2, estadisticas.pedidos());
+        assertEquals(0, new BigDecimal("35.00").compareTo(estadisticas.montoTotal()));
+        Map<EstadoPedido, EstadisticaEstadoDTO> porEstado = porEstado(estadisticas);
+        assertEquals(Map.of(EstadoPedido.CONFIRMED, 1L, EstadoPedido.CREATED, 1L),
+                porEstado.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().pedidos())));
+        assertEquals(0, new BigDecimal("25.00").compareTo(porEstado.get(EstadoPedido.CREATED).montoTotal()));
+        assertEquals(1, estadisticas.porDia().size());
+        assertEquals(2, estadisticas.porDia().get(0).pedidos());
+
+        assertEquals(estadisticas, reconstruidas());
+    }
+
+    @Test
+    void cambioMasivo_deberiaMoverTodosLosPedidosDeEstado() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(pedidoServicio.crearPedido(nuevoPedido("10.00")).getId());
+        }
+
+        transicionadorPedidos.transicionar(new SolicitudTransicionLoteDTO(ids, null, null, null, EstadoPedido.CONFIRMED));
+
+        Map<EstadoPedido, EstadisticaEstadoDTO> porEstado = porEstado(estadisticasPedidos.obtener(hoy, hoy));
+        assertEquals(List.of(EstadoPedido.CONFIRMED), List.copyOf(porEstado.keySet()));
+        assertEquals(50, porEstado.get(EstadoPedido.CONFIRMED).pedidos());
+        assertEquals(0, new BigDecimal("500.00").compareTo(porEstado.get(EstadoPedido.CONFIRMED).montoTotal()));
+        assertEquals(estadisticasPedidos.obtener(hoy, hoy), reconstruidas());
+    }
+
+    @Test
+    void transaccionDeshecha_noDeberiaCambiarLosAgregados() {
+        pedidoServicio.crearPedido(nuevoPedido("10.00"));
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            pedidoServicio.crearPedido(nuevoPedido("99.00"));
+            estado.setRollbackOnly();
+        });
+
+        assertEquals(1, estadisticasPedidos.obtener(hoy, hoy).pedidos());
+    }
+
+    @Test
+    void obtener_deberiaLeerLosAgregadosYNoLosPedidos() {
+        for (int i = 0; i < 20; i++) {
+            pedidoServicio.crearPedido(nuevoPedido("1.00"));
+        }
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        assertEquals(20, estadisticasPedidos.obtener(hoy.minusDays(30), hoy).pedidos());
+
+        // Una consulta por estado y otra por día, con independencia del número de pedidos
+        assertEquals(2, estadisticas.getQueryExecutionCount());
+        assertEquals(0, estadisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void endpoint_deberiaDevolverLasEstadisticasDelRango() throws Exception {
+        pedidoServicio.crearPedido(nuevoPedido("10.00"));
+
+        mockMvc.perform(get("/api/pedidos/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasta").value(hoy.toString()))
+                .andExpect(jsonPath("$.desde").value(hoy.minusDays(29).toString()))
+                .andExpect(jsonPath("$.pedidos").value(1))
+                .andExpect(jsonPath("$.porEstado[0].estado").value("CREATED"))
+                .andExpect(jsonPath("$.porDia[0].dia").value(hoy.toString()));
+
+        mockMvc.perform(get("/api/pedidos/estadisticas")
+                        .param("desde", hoy.minusDays(10).toString())
+                        .param("hasta", hoy.minusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pedidos").value(0))
+                .andExpect(jsonPath("$.porDia").isEmpty());
+
+        mockMvc.perform(post("/api/pedidos/estadisticas/reconstruir"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filas").value(1));
+    }
+
+    private EstadisticasPedidosDTO reconstruidas() {
+        estadisticasPedidos.reconstruir();
+        return estadisticasPedidos.obtener(hoy, hoy);
+    }
+
+    private static Map<EstadoPedido, EstadisticaEstadoDTO> porEstado(EstadisticasPedidosDTO estadisticas) {
+        return estadisticas.porEstado().stream()
+                .collect(Collectors.toMap(EstadisticaEstadoDTO::estado, e -> e));
+    }
+
+    private static Pedido nuevoPedido(String monto) {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(1).precioUnitario(new BigDecimal(monto)).build());
+        return Pedido.builder()
+                .nombreCliente("Cliente")
+                .contactoCliente("600000000")
+                .montoTotal(new BigDecimal(monto))
+                .productos(productos)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.josemiguel.ordermanagement.infraestructura.exportacion;
+
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Tests del timeout de las exportaciones con un servidor real: el timeout general de las
+ * peticiones asíncronas es de 200 ms y cada exportación tarda al menos 800 ms.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.mvc.async.request-timeout=200ms",
+        "pedidos.exportacion.timeout=10s"
+})
+class TiempoExportacionTest {
+
+    private static final long DURACION_MS = 800;
+
+    @LocalServerPort
+    private int puerto;
+
+    @MockitoSpyBean
+    private ExportadorPedidos exportadorPedidos;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            pedidoRepositorio.save(Pedido.builder()
+                    .nombreCliente("Cliente " + i)
+                    .contactoCliente("600000000")
+                    .montoTotal(BigDecimal.TEN)
+                    .build());
+        }
+        ralentizar(exportadorPedidos);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void exportacionMasLargaQueElTimeoutGeneral_deberiaCompletarse() throws Exception {
+        HttpResponse<String> respuesta = exportar(puerto);
+
+        assertEquals(200, respuesta.statusCode());
+        assertEquals(3, respuesta.body().lines().count());
+    }
+
+    @Nested
+    @TestPropertySource(properties = "pedidos.exportacion.timeout=100ms")
+    class TimeoutDeExportacionCorto {
+
+        @LocalServerPort
+        private int puerto;
+
+        @Autowired
+        private ExportadorPedidos exportadorPedidos;
+
+        @BeforeEach
+        void setUp() throws Exception {
+            ralentizar(exportadorPedidos);
+        }
+
+        @Test
+        void exportacionMasLargaQueSuTimeout_deberiaCortarse() throws Exception {
+            // Las cabeceras (y el 200) ya se enviaron al devolver el cuerpo en streaming: el corte
+            // se ve como una respuesta sin pedidos o como una conexión cerrada a medias
+            String cuerpo;
+            try {
+                cuerpo = exportar(puerto).body();
+            } catch (IOException e) {
+                cuerpo = "";
+            }
+
+            assertFalse(cuerpo.contains("Cliente"));
+        }
+    }
+
+    private static void ralentizar(ExportadorPedidos exportador) throws Exception {
+        doAnswer(invocacion -> {
+            Thread.sleep(DURACION_MS);
+            return invocacion.callRealMethod();
+        }).when(exportador).exportar(any(FiltroPedidos.class), any(FormatoExportacion.class), any(OutputStream.class));
+    }
+
+    private static HttpResponse<String> exportar(int puerto) throws Exception {
+        HttpRequest peticion = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + puerto + "/api/pedidos/exportar?formato=NDJSON")).GET().build();
+        return HttpClient.newHttpClient().send(peticion, HttpResponse.BodyHandlers.ofString());
+    }
+}
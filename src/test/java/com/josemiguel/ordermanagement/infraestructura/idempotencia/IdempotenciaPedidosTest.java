@@ -0,0 +1,245 @@
+package com.josemiguel.ordermanagement.infraestructura.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.config.IdempotenciaProperties;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de la cabecera Idempotency-Key en la creación y el cambio de estado de pedidos,
+ * con el almacén en memoria y (BaseDatos) con la tabla claves_idempotencia.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotenciaPedidosTest {
+
+    private static final String PEDIDO = """
+            {"nombreCliente":"Cliente","contactoCliente":"600000000","montoTotal":10,
+             "productos":[{"nombre":"Libro","cantidad":1,"precioUnitario":10}]}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void crearRepetido_deberiaDevolverLaRespuestaOriginalSinCrearOtroPedido() throws Exception {
+        comprobarCrearRepetido("crear-1");
+    }
+
+    @Test
+    void crearConcurrente_deberiaCrearUnSoloPedido() throws Exception {
+        comprobarCrearConcurrente("crear-concurrente");
+    }
+
+    @Test
+    void mismaClaveConOtroCuerpo_deberiaRetornar422() throws Exception {
+        crear("crear-2", PEDIDO).andExpect(status().isCreated());
+
+        crear("crear-2", PEDIDO.replace("Cliente", "Otro cliente"))
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(1, pedidoRepositorio.count());
+    }
+
+    @Test
+    void cambiarEstadoRepetido_noDeberiaAplicarseDosVeces() throws Exception {
+        long id = idDe(crear(null, PEDIDO).andExpect(status().isCreated()).andReturn());
+
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", id).param("estado", "CONFIRMED")
+                        .header(FiltroIdempotencia.CABECERA, "estado-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""));
+        // Sin idempotencia, CONFIRMED → CONFIRMED se rechazaría; la repetición recibe la respuesta original
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", id).param("estado", "CONFIRMED")
+                        .header(FiltroIdempotencia.CABECERA, "estado-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(FiltroIdempotencia.CABECERA_REPETIDA, "true"))
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.estado").value("CONFIRMED"));
+
+        assertEquals(1L, pedidoRepositorio.findById(id).orElseThrow().getVersion());
+    }
+
+    @Test
+    void sinCabecera_noDeberiaAplicarIdempotencia() throws Exception {
+        crear(null, PEDIDO).andExpect(status().isCreated());
+        crear(null, PEDIDO).andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(FiltroIdempotencia.CABECERA_REPETIDA));
+
+        assertEquals(2, pedidoRepositorio.count());
+    }
+
+    @Test
+    void claveDemasiadoLarga_deberiaRetornar400() throws Exception {
+        crear("x".repeat(256), PEDIDO).andExpect(status().isBadRequest());
+        assertEquals(0, pedidoRepositorio.count());
+    }
+
+    @Test
+    void cuerpoLeido_deberiaPoderLeerseConReaderYConReadListener() throws Exception {
+        IdempotenciaProperties propiedades = new IdempotenciaProperties(
+                true, "memoria", Duration.ofHours(1), Duration.ofSeconds(1), Duration.ofMinutes(1), 100, 4);
+        FiltroIdempotencia filtro = new FiltroIdempotencia(
+                new AlmacenIdempotenciaMemoria(propiedades), propiedades, null, new SimpleMeterRegistry());
+        String cuerpo = "{\"nombreCliente\":\"Peña\"}";
+
+        // Consumidor basado en getReader()
+        List<String> lineas = new ArrayList<>();
+        filtro.doFilter(peticion("lector", cuerpo), new MockHttpServletResponse(), (peticion, salida) ->
+                lineas.add(peticion.getReader().readLine()));
+        assertEquals(List.of(cuerpo), lineas);
+
+        // Consumidor no bloqueante: recibe todo el cuerpo y el fin de datos al registrar el oyente
+        StringBuilder leido = new StringBuilder();
+        List<String> avisos = new ArrayList<>();
+        filtro.doFilter(peticion("oyente", cuerpo), new MockHttpServletResponse(), (peticion, salida) -> {
+            ServletInputStream entrada = peticion.getInputStream();
+            entrada.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    avisos.add("datos");
+                    while (entrada.isReady() && !entrada.isFinished()) {
+                        leido.append((char) entrada.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    avisos.add("fin");
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    avisos.add("error");
+                }
+            });
+        });
+        assertEquals(List.of("datos", "fin"), avisos);
+        assertEquals(cuerpo, new String(leido.toString().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8));
+    }
+
+    private static MockHttpServletRequest peticion(String clave, String cuerpo) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("POST", "/api/pedidos");
+        peticion.addHeader(FiltroIdempotencia.CABECERA, clave);
+        peticion.setCharacterEncoding("UTF-8");
+        peticion.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return peticion;
+    }
+
+    @Nested
+    @TestPropertySource(properties = "pedidos.idempotencia.almacen=base-datos")
+    class BaseDatos {
+
+        @Autowired
+        private AlmacenIdempotencia almacen;
+
+        @Test
+        void crearRepetido_deberiaDevolverLaRespuestaOriginalSinCrearOtroPedido() throws Exception {
+            assertInstanceOf(AlmacenIdempotenciaBaseDatos.class, almacen);
+            comprobarCrearRepetido("bd-crear-1");
+        }
+
+        @Test
+        void crearConcurrente_deberiaCrearUnSoloPedido() throws Exception {
+            comprobarCrearConcurrente("bd-crear-concurrente");
+        }
+    }
+
+    private void comprobarCrearRepetido(String clave) throws Exception {
+        MvcResult original = crear(clave, PEDIDO)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(FiltroIdempotencia.CABECERA_REPETIDA))
+                .andReturn();
+
+        MvcResult repetida = crear(clave, PEDIDO)
+                .andExpect(status().isCreated())
+                .andExpect(header().string(FiltroIdempotencia.CABECERA_REPETIDA, "true"))
+                .andExpect(header().string("ETag", original.getResponse().getHeader("ETag")))
+                .andReturn();
+
+        assertEquals(original.getResponse().getContentAsString(), repetida.getResponse().getContentAsString());
+        assertEquals(1, pedidoRepositorio.count());
+    }
+
+    private void comprobarCrearConcurrente(String clave) throws Exception {
+        int peticiones = 8;
+        ExecutorService hilos = Executors.newFixedThreadPool(peticiones);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<MvcResult>> futuras = new ArrayList<>();
+            for (int i = 0; i < peticiones; i++) {
+                futuras.add(hilos.submit(() -> {
+                    salida.await();
+                    return crear(clave, PEDIDO).andReturn();
+                }));
+            }
+            salida.countDown();
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<MvcResult> futura : futuras) {
+                MvcResult resultado = futura.get();
+                assertEquals(201, resultado.getResponse().getStatus());
+                ids.add(idDe(resultado));
+            }
+            assertEquals(1, ids.size());
+            assertEquals(1, pedidoRepositorio.count());
+        } finally {
+            hilos.shutdownNow();
+        }
+    }
+
+    private ResultActions crear(String clave, String cuerpo) throws Exception {
+        var peticion = post("/api/pedidos").contentType(MediaType.APPLICATION_JSON).content(cuerpo);
+        if (clave != null) {
+            peticion.header(FiltroIdempotencia.CABECERA, clave);
+        }
+        return mockMvc.perform(peticion);
+    }
+
+    private long idDe(MvcResult resultado) throws Exception {
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
+    }
+}
@@ -0,0 +1,219 @@
+package com.josemiguel.ordermanagement.infraestructura.ingesta;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.mapper.PedidoMapper;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de la carga de pedidos por lotes (POST /api/pedidos/lote).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IngestaPedidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IngestorPedidos ingestorPedidos;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void crearPedidosEnLote_array_deberiaRetornar201() throws Exception {
+        String cuerpo = "[" + pedidoJson("Ana") + "," + pedidoJson("Luis") + "]";
+
+        mockMvc.perform(post("/api/pedidos/lote")
+                        .contentType("application/json")
+                        .content(cuerpo))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.creados").value(2))
+                .andExpect(jsonPath("$.resultados[1].estado").value("CREADO"))
+                .andExpect(jsonPath("$.resultados[1].id").isNumber());
+
+        assertEquals(2, pedidoRepositorio.count());
+    }
+
+    @Test
+    void crearPedidosEnLote_ndjsonConInvalidos_deberiaRetornar207() throws Exception {
+        String cuerpo = pedidoJson("Ana") + "\n"
+                + pedidoJson("") + "\n"
+                + pedidoJson("Luis") + "\n";
+
+        mockMvc.perform(post("/api/pedidos/lote")
+                        .contentType("application/x-ndjson")
+                        .content(cuerpo))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.creados").value(2))
+                .andExpect(jsonPath("$.fallidos").value(1))
+                .andExpect(jsonPath("$.resultados[0].estado").value("CREADO"))
+                .andExpect(jsonPath("$.resultados[1].estado").value("INVALIDO"))
+                .andExpect(jsonPath("$.resultados[1].errores[0]").exists())
+                .andExpect(jsonPath("$.resultados[2].estado").value("CREADO"));
+
+        assertEquals(2, pedidoRepositorio.count());
+    }
+
+    @Test
+    void crearPedidosEnLote_rechazadoAlGuardar_deberiaInformarDelPedidoYCrearElResto() throws Exception {
+        // Pasa la validación del DTO (precio > 0), pero al normalizarlo a dos decimales
+        // el precio y el total quedan en 0.00 y los rechaza la validación de la entidad
+        String rechazado = "{\"nombreCliente\":\"Eva\",\"contactoCliente\":\"600000000\","
+                + "\"productos\":[{\"nombre\":\"Clip\",\"cantidad\":1,\"precioUnitario\":0.001}]}";
+        String cuerpo = pedidoJson("Ana") + "\n" + rechazado + "\n" + pedidoJson("Luis") + "\n";
+
+        mockMvc.perform(post("/api/pedidos/lote")
+                        .contentType("application/x-ndjson")
+                        .content(cuerpo))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.creados").value(2))
+                .andExpect(jsonPath("$.fallidos").value(1))
+                .andExpect(jsonPath("$.resultados[0].estado").value("CREADO"))
+                .andExpect(jsonPath("$.resultados[1].estado").value("ERROR"))
+                .andExpect(jsonPath("$.resultados[1].errores[0]").value(containsString("mayor a cero")))
+                .andExpect(jsonPath("$.resultados[2].estado").value("CREADO"));
+
+        assertEquals(2, pedidoRepositorio.count());
+    }
+
+    @Test
+    void crearPedidosEnLote_deberiaAgruparLosInsert() throws Exception {
+        int pedidos = 100;
+        StringBuilder cuerpo = new StringBuilder();
+        for (int i = 0; i < pedidos; i++) {
+            cuerpo.append(pedidoJson("Cliente " + i)).append('\n');
+        }
+
+        ingestorPedidos.ingerir(entrada(cuerpo.toString()));
+
+        // 100 pedidos y 200 productos con batch_size=50: 2 + 4 lotes, más las llamadas a las secuencias
+        assertEquals(pedidos, pedidoRepositorio.count());
+        assertTrue(estadisticas.getPrepareStatementCount() < 20,
+                "Sentencias preparadas: " + estadisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void ingerir_lecturaInterrumpida_noDeberiaInsertarElBloqueEnCurso() {
+        byte[] leidos = (pedidoJson("Ana") + "\n" + pedidoJson("Luis") + "\n").getBytes(StandardCharsets.UTF_8);
+        // Entrega dos pedidos completos y después falla, como un cliente que se desconecta
+        InputStream interrumpida = new SequenceInputStream(new ByteArrayInputStream(leidos), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Conexión cerrada por el cliente");
+            }
+        });
+
+        IOException e = assertThrows(IOException.class, () -> ingestorPedidos.ingerir(interrumpida));
+
+        assertFalse(e instanceof JsonProcessingException);
+        assertEquals(0, pedidoRepositorio.count());
+    }
+
+    @Test
+    void crearPedidosEnLote_jsonTruncado_deberiaCrearLosAnteriores() throws Exception {
+        String cuerpo = pedidoJson("Ana") + "\n" + pedidoJson("Luis").substring(0, 20);
+
+        mockMvc.perform(post("/api/pedidos/lote")
+                        .contentType("application/x-ndjson")
+                        .content(cuerpo))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.creados").value(1))
+                .andExpect(jsonPath("$.resultados[1].estado").value("INVALIDO"));
+
+        assertEquals(1, pedidoRepositorio.count());
+    }
+
+    /**
+     * Compara el rendimiento de la carga por lotes con la creación pedido a pedido.
+     * Se ejecuta con -Dbenchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_loteFrenteAInsercionIndividual() throws Exception {
+        int pedidos = 5_000;
+        StringBuilder cuerpo = new StringBuilder();
+        for (int i = 0; i < pedidos; i++) {
+            cuerpo.append(pedidoJson("Cliente " + i)).append('\n');
+        }
+        String ndjson = cuerpo.toString();
+
+        long inicioIndividual = System.nanoTime();
+        for (String linea : ndjson.split("\n")) {
+            pedidoServicio.crearPedido(PedidoMapper.toEntity(
+                    objectMapper.readValue(linea, PedidoDTO.class)));
+        }
+        double segundosIndividual = (System.nanoTime() - inicioIndividual) / 1e9;
+
+        long inicioLote = System.nanoTime();
+        ingestorPedidos.ingerir(entrada(ndjson));
+        double segundosLote = (System.nanoTime() - inicioLote) / 1e9;
+
+        System.out.printf("Individual: %.0f pedidos/s%n", pedidos / segundosIndividual);
+        System.out.printf("Lote:       %.0f pedidos/s%n", pedidos / segundosLote);
+        System.out.printf("Aceleración: %.1fx%n", segundosIndividual / segundosLote);
+    }
+
+    private static ByteArrayInputStream entrada(String cuerpo) {
+        return new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String pedidoJson(String nombreCliente) {
+        return "{\"nombreCliente\":\"" + nombreCliente + "\",\"contactoCliente\":\"600000000\","
+                + "\"montoTotal\":30.00,\"productos\":["
+                + "{\"nombre\":\"Libro\",\"cantidad\":1,\"precioUnitario\":10.00},"
+                + "{\"nombre\":\"Lámpara\",\"cantidad\":1,\"precioUnitario\":20.00}]}";
+    }
+}
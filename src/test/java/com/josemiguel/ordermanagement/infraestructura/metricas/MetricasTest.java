@@ -0,0 +1,81 @@
+package com.josemiguel.ordermanagement.infraestructura.metricas;
+
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Comprueba que las métricas de los caminos principales se exportan en /actuator/prometheus.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void prometheus_deberiaExponerLasMetricasDePedidos() throws Exception {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(1).precioUnitario(BigDecimal.TEN).build());
+        Long id = pedidoRepositorio.save(Pedido.builder()
+                .nombreCliente("Cliente")
+                .contactoCliente("600000000")
+                .montoTotal(BigDecimal.TEN)
+                .productos(productos)
+                .build()).getId();
+
+        mockMvc.perform(get("/api/pedidos/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", id).param("estado", "CONFIRMED"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", id).param("estado", "DELIVERED"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/pedidos/{id}/estado", id).param("estado", "CREATED"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{application=\"order-management\"")))
+                .andExpect(content().string(containsString("method=\"cambiarEstado\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds")))
+                // GET /{id} en frío: una consulta con el pedido y su producto
+                .andExpect(content().string(containsString(
+                        "pedidos_peticion_sentencias_sum{application=\"order-management\",method=\"GET\",uri=\"/api/pedidos/{id}\"} 1.0")))
+                .andExpect(content().string(containsString(
+                        "pedidos_peticion_entidades_sum{application=\"order-management\",method=\"GET\",uri=\"/api/pedidos/{id}\"} 2.0")))
+                .andExpect(content().string(containsString(
+                        "pedidos_transiciones_total{application=\"order-management\",desde=\"CREATED\",hasta=\"CONFIRMED\"} 1.0")))
+                .andExpect(content().string(containsString(
+                        "pedidos_transiciones_total{application=\"order-management\",desde=\"CONFIRMED\",hasta=\"DELIVERED\"} 1.0")))
+                .andExpect(content().string(containsString(
+                        "pedidos_excepciones_total{application=\"order-management\",excepcion=\"EstadoFinalException\",manejador=\"handleEstadoFinal\"} 1.0")))
+                .andExpect(content().string(containsString("cache_gets_total{application=\"order-management\",cache=\"pedidos\"")));
+    }
+}
@@ -0,0 +1,220 @@
+package com.josemiguel.ordermanagement.infraestructura.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.josemiguel.ordermanagement.config.OutboxProperties;
+import com.josemiguel.ordermanagement.dominio.dto.EventoPedidoDTO;
+import com.josemiguel.ordermanagement.dominio.evento.PedidoModificadoEvento;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.EventoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.EventoPedidoRepositorio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del outbox transaccional: registro en la transacción del cambio y publicación por lotes.
+ */
+@SpringBootTest
+class OutboxPedidosTest {
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private EventoPedidoRepositorio eventoPedidoRepositorio;
+
+    @Autowired
+    private RelevoOutbox relevoOutbox;
+
+    @Autowired
+    private DestinoEventosMemoria destinoMemoria;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventos;
+
+    @Autowired
+    private OutboxProperties propiedades;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<EventoPedidoDTO> recibidos = new CopyOnWriteArrayList<>();
+    private Runnable cancelarSuscripcion;
+
+    @BeforeEach
+    void setUp() {
+        // Eventos pendientes de otros tests que comparten el contexto
+        relevoOutbox.publicarPendientes();
+        cancelarSuscripcion = destinoMemoria.suscribir(recibidos::addAll);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cancelarSuscripcion.run();
+        pedidoRepositorio.deleteAll();
+        eventoPedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void modificaciones_deberianRegistrarseYPublicarseEnOrden() {
+        Pedido pedido = pedidoServicio.crearPedido(nuevoPedido("Cliente"));
+        pedidoServicio.actualizarPedido(pedido.getId(), nuevoPedido("Cliente renombrado"));
+        pedidoServicio.cambiarEstado(pedido.getId(), "CONFIRMED");
+        pedidoServicio.eliminarPedido(pedido.getId());
+
+        assertEquals(4, pendientes());
+        assertTrue(recibidos.isEmpty());
+
+        assertEquals(4, relevoOutbox.publicarPendientes());
+
+        assertEquals(List.of(PedidoModificadoEvento.Tipo.CREADO, PedidoModificadoEvento.Tipo.ACTUALIZADO,
+                        PedidoModificadoEvento.Tipo.ESTADO_CAMBIADO, PedidoModificadoEvento.Tipo.ELIMINADO),
+                recibidos.stream().map(EventoPedidoDTO::tipo).toList());
+        assertTrue(recibidos.stream().allMatch(e -> e.pedidoId().equals(pedido.getId())));
+        assertEquals(EstadoPedido.CREATED, recibidos.get(2).estadoAnterior());
+        assertEquals(EstadoPedido.CONFIRMED, recibidos.get(2).estadoNuevo());
+        // Versión tras cada cambio; la eliminación lleva la última que tuvo el pedido
+        assertEquals(List.of(0L, 1L, 2L, 2L), recibidos.stream().map(EventoPedidoDTO::versionPedido).toList());
+        assertEquals(0, pendientes());
+        assertEquals(0, relevoOutbox.publicarPendientes());
+    }
+
+    @Test
+    void cambiosEnBloque_deberianLlevarLaVersionResultanteDeCadaPedido() {
+        Pedido primero = pedidoServicio.crearPedido(nuevoPedido("Cliente 1"));
+        Pedido segundo = pedidoServicio.crearPedido(nuevoPedido("Cliente 2"));
+        pedidoServicio.cambiarEstado(segundo.getId(), "CONFIRMED");
+        relevoOutbox.publicarPendientes();
+        recibidos.clear();
+
+        pedidoServicio.cambiarEstadoBloque(List.of(primero.getId(), segundo.getId()), EstadoPedido.CANCELLED);
+        relevoOutbox.publicarPendientes();
+
+        assertEquals(2, recibidos.size());
+        for (EventoPedidoDTO evento : recibidos) {
+            assertEquals(pedidoRepositorio.findVersionById(evento.pedidoId()).orElseThrow(),
+                    evento.versionPedido());
+        }
+    }
+
+    @Test
+    void transaccionDeshecha_noDeberiaDejarEvento() {
+        transactionTemplate.executeWithoutResult(estado -> {
+            pedidoServicio.crearPedido(nuevoPedido("Cliente"));
+            estado.setRollbackOnly();
+        });
+
+        assertEquals(0, eventoPedidoRepositorio.count());
+    }
+
+    @Test
+    void eventoFueraDeTransaccion_deberiaRechazarse() {
+        assertThrows(IllegalTransactionStateException.class, () -> eventos.publishEvent(
+                new PedidoModificadoEvento(1L, PedidoModificadoEvento.Tipo.ELIMINADO, null, null,
+                        null, null, null, 0L)));
+    }
+
+    @Test
+    void destinoQueFalla_deberiaDejarLosEventosPendientesParaReintentar() {
+        pedidoServicio.crearPedido(nuevoPedido("Cliente"));
+        RelevoOutbox relevoFallido = new RelevoOutbox(eventoPedidoRepositorio, eventosLote -> {
+            throw new IOException("destino caído");
+        }, transactionTemplate, propiedades, new SimpleMeterRegistry());
+
+        assertThrows(UncheckedIOException.class, relevoFallido::publicarPendientes);
+        assertEquals(1, pendientes());
+
+        assertEquals(1, relevoOutbox.publicarPendientes());
+        assertEquals(1, recibidos.size());
+    }
+
+    @Test
+    void variosLotes_deberianPublicarseTodos() {
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int i = 0; i < propiedades.tamanioLote() + 10; i++) {
+            pedidos.add(nuevoPedido("Cliente " + i));
+        }
+        pedidoServicio.crearPedidos(pedidos);
+
+        assertEquals(pedidos.size(), relevoOutbox.publicarPendientes());
+        assertEquals(pedidos.size(), recibidos.size());
+        List<Long> ids = recibidos.stream().map(EventoPedidoDTO::id).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    @Test
+    void purgarPublicados_deberiaConservarLosPendientes() {
+        eventoPedidoRepositorio.save(EventoPedido.builder().pedidoId(1L).tipo(PedidoModificadoEvento.Tipo.CREADO)
+                .fecha(LocalDateTime.now().minusDays(30))
+                .publicadoEn(LocalDateTime.now().minus(propiedades.retencion()).minusDays(1))
+                .build());
+        pedidoServicio.crearPedido(nuevoPedido("Cliente"));
+
+        assertEquals(1, relevoOutbox.purgarPublicados());
+        assertEquals(1, pendientes());
+    }
+
+    @Test
+    void destinoFichero_deberiaAnadirUnaLineaJsonPorEvento(@TempDir Path directorio) throws IOException {
+        Path fichero = directorio.resolve("eventos.ndjson");
+        DestinoEventosFichero destino = new DestinoEventosFichero(
+                new OutboxProperties("fichero", fichero.toString(), false, propiedades.intervalo(), 500,
+                        propiedades.retencion()), objectMapper);
+        EventoPedidoDTO creado = new EventoPedidoDTO(1L, 10L, PedidoModificadoEvento.Tipo.CREADO,
+                null, EstadoPedido.CREATED, 0L, LocalDateTime.of(2025, 3, 14, 10, 15, 30));
+        EventoPedidoDTO eliminado = new EventoPedidoDTO(2L, 10L, PedidoModificadoEvento.Tipo.ELIMINADO,
+                EstadoPedido.CREATED, null, 0L, LocalDateTime.of(2025, 3, 14, 10, 16, 0));
+
+        destino.publicar(List.of(creado));
+        destino.publicar(List.of(eliminado));
+
+        List<String> lineas = Files.readAllLines(fichero);
+        assertEquals(2, lineas.size());
+        assertEquals(creado, objectMapper.readValue(lineas.get(0), EventoPedidoDTO.class));
+        assertEquals(eliminado, objectMapper.readValue(lineas.get(1), EventoPedidoDTO.class));
+    }
+
+    private long pendientes() {
+        return eventoPedidoRepositorio.findAll().stream().filter(e -> e.getPublicadoEn() == null).count();
+    }
+
+    private static Pedido nuevoPedido(String cliente) {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(1).precioUnitario(BigDecimal.TEN).build());
+        return Pedido.builder()
+                .nombreCliente(cliente)
+                .contactoCliente("600000000")
+                .montoTotal(BigDecimal.TEN)
+                .productos(productos)
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.josemiguel.ordermanagement.infraestructura.repositorio;
+
+import com.josemiguel.ordermanagement.dominio.dto.FiltroPedidos;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comprueba que ninguna consulta de PedidoRepositorio planifica un recorrido secuencial.
+ * - Arranca un PostgreSQL desechable con Testcontainers; sin Docker el test se omite
+ * - Aplica las migraciones de Flyway (V1 en adelante), siembra datos y ejecuta EXPLAIN sobre
+ *   el SQL real que genera Hibernate para cada finder, con enable_seqscan desactivado: si aun
+ *   así el plan contiene un Seq Scan es que no existe un índice utilizable
+ * - Las páginas por cursor deben además resolver la posición como condición del índice
+ *   (fecha_creacion, id), sin filtrar filas: un recorrido del índice con Filter no tiene Seq Scan,
+ *   pero su coste crece con la profundidad de la página
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers(disabledWithoutDocker = true)
+class PedidoRepositorioPlanesTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int NUM_PEDIDOS = 20_000;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registro) {
+        // URL, usuario y contraseña los aporta @ServiceConnection
+        registro.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registro.add("spring.flyway.enabled", () -> "true");
+        registro.add("spring.flyway.placeholders.tamanio_asignacion_ids", () -> "50");
+        registro.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registro.add("pedidos.busqueda.motor", () -> "postgres");
+        registro.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                () -> CapturadorSql.class.getName());
+    }
+
+    @BeforeAll
+    void sembrarDatos() {
+        jdbcTemplate.update("INSERT INTO pedidos (id, nombre_cliente, contacto_cliente, monto_total, estado, "
+                + "fecha_creacion, fecha_modificacion) "
+                + "SELECT nextval('pedidos_seq'), 'Cliente ' || g, 'contacto ' || g, 10, "
+                + "(ARRAY['CREATED','CONFIRMED','SHIPPED','DELIVERED','CANCELLED','RETURNED'])[1 + g % 6], "
+                + "now() - make_interval(mins => g), now() - make_interval(mins => g) "
+                + "FROM generate_series(1, ?) g", NUM_PEDIDOS);
+        jdbcTemplate.update("INSERT INTO productos (id, nombre, cantidad, precio_unitario, pedido_id) "
+                + "SELECT nextval('productos_seq'), 'Producto ' || n, 1, 5, p.id "
+                + "FROM pedidos p CROSS JOIN generate_series(1, 2) n");
+        jdbcTemplate.execute("ANALYZE pedidos");
+        jdbcTemplate.execute("ANALYZE productos");
+    }
+
+    @AfterAll
+    void limpiarDatos() {
+        jdbcTemplate.execute("TRUNCATE productos, pedidos");
+    }
+
+    @Test
+    void ningunFinder_deberiaPlanificarUnRecorridoSecuencial() {
+        LocalDateTime fin = LocalDateTime.now();
+        LocalDateTime inicio = fin.minusHours(2);
+        Long idExistente = jdbcTemplate.queryForObject("SELECT MIN(id) FROM pedidos", Long.class);
+
+        comprobar("findById", () -> pedidoRepositorio.findById(idExistente), idExistente);
+        comprobar("findByEstado", () -> pedidoRepositorio.findByEstado(EstadoPedido.CREATED), "CREATED");
+        comprobar("findByFechaCreacionBetween",
+                () -> pedidoRepositorio.findByFechaCreacionBetween(inicio, fin), inicio, fin);
+        comprobar("findByNombreClienteContainingIgnoreCase",
+                () -> pedidoRepositorio.findByNombreClienteContainingIgnoreCase("cliente 1234"), "%cliente 1234%");
+        comprobar("findByEstadoAndNombreClienteContainingIgnoreCase",
+                () -> pedidoRepositorio.findByEstadoAndNombreClienteContainingIgnoreCase(EstadoPedido.SHIPPED, "cliente 1234"),
+                "SHIPPED", "%cliente 1234%");
+        // Sin recorrer los productos: solo la consulta de pedidos de la exportación
+        comprobar("recorrerPedidos (nombreCliente)",
+                () -> transactionTemplate.executeWithoutResult(tx -> pedidoRepositorio.recorrerPedidos(
+                        new FiltroPedidos(null, null, null, "cliente 1234"), bloque -> { })),
+                "%cliente 1234%");
+        comprobar("findByEstadoAndFechaCreacionBetween",
+                () -> pedidoRepositorio.findByEstadoAndFechaCreacionBetween(EstadoPedido.CONFIRMED, inicio, fin),
+                "CONFIRMED", inicio, fin);
+        comprobar("findByEstadoAndFechaCreacionBetween (estado final)",
+                () -> pedidoRepositorio.findByEstadoAndFechaCreacionBetween(EstadoPedido.DELIVERED, inicio, fin),
+                "DELIVERED", inicio, fin);
+        comprobar("findPrimeraPagina", () -> pedidoRepositorio.findPrimeraPagina(Limit.of(20)), 20);
+        comprobar("findPaginaTras", () -> pedidoRepositorio.findPaginaTras(fin, 1L, Limit.of(20)), fin, 1L, 20);
+    }
+
+    @Test
+    void paginasPorCursor_deberianBuscarLaPosicionEnElIndice() {
+        // Una posición profunda: con la condición en un Filter se recorrerían casi todas las filas
+        LocalDateTime posicion = jdbcTemplate.queryForObject(
+                "SELECT MIN(fecha_creacion) + interval '1 minute' FROM pedidos", LocalDateTime.class);
+        Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM pedidos", Long.class);
+
+        comprobarRango("findPaginaTras",
+                () -> pedidoRepositorio.findPaginaTras(posicion, id, Limit.of(20)), posicion, id, 20);
+        comprobarRango("findResumenesTras",
+                () -> pedidoRepositorio.findResumenesTras(posicion, id, Limit.of(20)), posicion, id, 20);
+    }
+
+    /**
+     * Ejecuta el finder para capturar su SQL y lo analiza con EXPLAIN usando los parámetros dados.
+     */
+    private void comprobar(String finder, Runnable consulta, Object... parametros) {
+        CapturadorSql.limpiar();
+        consulta.run();
+        List<String> sentencias = CapturadorSql.capturadas();
+
+        for (String sql : sentencias) {
+            String plan = explicar(sql, parametros);
+            assertFalse(plan.contains("Seq Scan"), finder + " planifica un recorrido secuencial:\n" + sql + "\n" + plan);
+        }
+    }
+
+    /**
+     * Como comprobar, y además exige una condición de índice sobre (fecha_creacion, id) sin Filter.
+     */
+    private void comprobarRango(String finder, Runnable consulta, Object... parametros) {
+        CapturadorSql.limpiar();
+        consulta.run();
+        List<String> sentencias = CapturadorSql.capturadas();
+        assertFalse(sentencias.isEmpty(), finder + " no ha ejecutado ninguna consulta");
+
+        for (String sql : sentencias) {
+            String plan = explicar(sql, parametros);
+            String detalle = finder + ":\n" + sql + "\n" + plan;
+            assertTrue(plan.contains("idx_pedidos_fecha_creacion_id"), "Sin el índice (fecha_creacion, id) en " + detalle);
+            assertTrue(plan.lines().anyMatch(linea -> linea.contains("Index Cond:")
+                    && linea.contains("fecha_creacion") && linea.contains("id")), "Sin Index Cond en " + detalle);
+            assertFalse(plan.contains("Filter:"), "La posición se filtra en lugar de buscarse en " + detalle);
+        }
+    }
+
+    private String explicar(String sql, Object[] parametros) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) conexion -> {
+            try (Statement ajuste = conexion.createStatement()) {
+                ajuste.execute("SET enable_seqscan = off");
+            }
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sql)) {
+                int numParametros = explain.getParameterMetaData().getParameterCount();
+                for (int i = 0; i < numParametros; i++) {
+                    explain.setObject(i + 1, parametros[i]);
+                }
+                try (ResultSet filas = explain.executeQuery()) {
+                    while (filas.next()) {
+                        plan.append(filas.getString(1)).append('\n');
+                    }
+                }
+            } finally {
+                try (Statement ajuste = conexion.createStatement()) {
+                    ajuste.execute("RESET enable_seqscan");
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Registra el SQL de cada SELECT que prepara Hibernate.
+     */
+    public static class CapturadorSql implements StatementInspector {
+
+        private static final List<String> SENTENCIAS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                synchronized (SENTENCIAS) {
+                    SENTENCIAS.add(sql);
+                }
+            }
+            return sql;
+        }
+
+        static void limpiar() {
+            synchronized (SENTENCIAS) {
+                SENTENCIAS.clear();
+            }
+        }
+
+        static List<String> capturadas() {
+            synchronized (SENTENCIAS) {
+                return new ArrayList<>(SENTENCIAS);
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.josemiguel.ordermanagement.infraestructura.sse;
+
+import com.josemiguel.ordermanagement.dominio.dto.PedidoDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.cache.CachePedidos;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de los cambios de pedidos en directo por SSE.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(EventosPedidosTest.ControladorCarrera.class)
+class EventosPedidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private DifusorPedidos difusorPedidos;
+
+    @Autowired
+    private CachePedidos cachePedidos;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void eventosPedido_deberiaEnviarElPedidoYSusCambiosHastaEliminarlo() throws Exception {
+        Pedido pedido = pedidoServicio.crearPedido(nuevoPedido());
+        int abiertas = difusorPedidos.suscriptores();
+
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/{id}/eventos", pedido.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse respuesta = resultado.getResponse();
+        esperar(respuesta, contenido -> contenido.contains("event:pedido"));
+
+        pedidoServicio.cambiarEstado(pedido.getId(), "CONFIRMED");
+        esperar(respuesta, contenido -> contenido.contains("\"estadoNuevo\":\"CONFIRMED\""));
+
+        pedidoServicio.eliminarPedido(pedido.getId());
+        esperar(respuesta, contenido -> contenido.contains("\"tipo\":\"ELIMINADO\""));
+
+        String contenido = respuesta.getContentAsString();
+        assertTrue(contenido.indexOf("event:pedido") < contenido.indexOf("event:cambio"));
+        assertTrue(contenido.contains("\"estadoAnterior\":\"CREATED\""));
+        // La eliminación cierra la conexión y da de baja al suscriptor
+        mockMvc.perform(asyncDispatch(resultado)).andExpect(status().isOk());
+        esperar(() -> difusorPedidos.suscriptores() == abiertas);
+    }
+
+    @Test
+    void eventosPedido_cambioConfirmadoTrasLeerElPedido_noDeberiaPerderse() throws Exception {
+        Pedido pedido = pedidoServicio.crearPedido(nuevoPedido());
+
+        // La lectura del pedido devuelve CREATED y, antes de que se envíe, se confirma CONFIRMED
+        MockHttpServletResponse respuesta = mockMvc.perform(get("/api/prueba/carrera/{id}", pedido.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        esperar(respuesta, contenido -> contenido.contains("\"estadoNuevo\":\"CONFIRMED\""));
+
+        String contenido = respuesta.getContentAsString();
+        assertTrue(contenido.contains("\"estado\":\"CREATED\""));
+        assertTrue(contenido.indexOf("event:pedido") < contenido.indexOf("event:cambio"));
+    }
+
+    @Test
+    void eventosPedido_conexionesAbiertas_noDeberianRetenerConexionesDelPool() throws Exception {
+        HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+        List<MockHttpServletResponse> respuestas = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Pedido pedido = pedidoServicio.crearPedido(nuevoPedido());
+            // Sin el pedido en caché: la primera lectura va a la base de datos
+            cachePedidos.invalidar(pedido.getId());
+            MockHttpServletResponse respuesta = mockMvc.perform(get("/api/pedidos/{id}/eventos", pedido.getId())
+                            .accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(request().asyncStarted())
+                    .andReturn().getResponse();
+            esperar(respuesta, contenido -> contenido.contains("event:pedido"));
+            respuestas.add(respuesta);
+        }
+
+        // Las conexiones siguen abiertas y ninguna ocupa una conexión JDBC
+        assertEquals(3, respuestas.size());
+        esperar(() -> pool.getActiveConnections() == 0);
+    }
+
+    @Test
+    void eventosPedido_inexistente_deberiaRetornar404() throws Exception {
+        int abiertas = difusorPedidos.suscriptores();
+
+        mockMvc.perform(get("/api/pedidos/{id}/eventos", -1).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+
+        // La suscripción registrada antes de la lectura se da de baja
+        assertEquals(abiertas, difusorPedidos.suscriptores());
+    }
+
+    @Test
+    void eventosPorEstado_deberiaEnviarSoloLosEstadosPedidos() throws Exception {
+        Pedido confirmado = pedidoServicio.crearPedido(nuevoPedido());
+        Pedido cancelado = pedidoServicio.crearPedido(nuevoPedido());
+
+        MockHttpServletResponse respuesta = mockMvc.perform(get("/api/pedidos/eventos")
+                        .param("estado", "CANCELLED")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        pedidoServicio.cambiarEstado(confirmado.getId(), "CONFIRMED");
+        pedidoServicio.cambiarEstado(cancelado.getId(), "CANCELLED");
+        esperar(respuesta, contenido -> contenido.contains("\"pedidoId\":" + cancelado.getId()));
+
+        assertFalse(respuesta.getContentAsString().contains("\"pedidoId\":" + confirmado.getId() + ","));
+    }
+
+    @Test
+    void clienteLento_deberiaDescartarLosEventosMasAntiguos() throws Exception {
+        CountDownLatch enviando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        List<String> enviados = new CopyOnWriteArrayList<>();
+        SseEmitter emisorLento = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder evento) {
+                try {
+                    enviando.countDown();
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                evento.build().stream().map(dato -> dato.getData().toString()).filter(d -> d.startsWith("{"))
+                        .forEach(enviados::add);
+            }
+        };
+        AtomicInteger descartados = new AtomicInteger();
+        ExecutorService ejecutor = Executors.newSingleThreadExecutor();
+        try {
+            Suscriptor suscriptor = new Suscriptor(emisorLento, 3, ejecutor, descartados::incrementAndGet);
+            // El primero queda bloqueado en send(); los siguientes llenan el buffer de 3
+            suscriptor.encolar(mensaje(0));
+            assertTrue(enviando.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 10; i++) {
+                suscriptor.encolar(mensaje(i));
+                suscriptor.encolar(Suscriptor.LATIDO);
+            }
+            liberar.countDown();
+            esperar(() -> enviados.size() == 4);
+
+            assertEquals(List.of("{\"n\":0}", "{\"n\":8}", "{\"n\":9}", "{\"n\":10}"), enviados);
+            assertEquals(7, descartados.get());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Suscripción cuya lectura del pedido se adelanta a un cambio confirmado antes de devolverla.
+     */
+    @RestController
+    static class ControladorCarrera {
+
+        private final PedidoServicio pedidoServicio;
+        private final DifusorPedidos difusorPedidos;
+
+        ControladorCarrera(PedidoServicio pedidoServicio, DifusorPedidos difusorPedidos) {
+            this.pedidoServicio = pedidoServicio;
+            this.difusorPedidos = difusorPedidos;
+        }
+
+        @GetMapping(value = "/api/prueba/carrera/{id}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter carrera(@PathVariable Long id) {
+            return difusorPedidos.suscribirPedido(id, () -> {
+                Optional<PedidoDTO> leido = pedidoServicio.obtenerDTOPorId(id);
+                pedidoServicio.cambiarEstado(id, "CONFIRMED");
+                return leido;
+            });
+        }
+    }
+
+    private static Suscriptor.Mensaje mensaje(int n) {
+        return new Suscriptor.Mensaje("cambio", "{\"n\":" + n + "}", false);
+    }
+
+    private static void esperar(MockHttpServletResponse respuesta, Predicate<String> condicion) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.test(respuesta.getContentAsString())) {
+            assertTrue(System.nanoTime() < limite, "Sin el evento esperado: " + respuesta.getContentAsString());
+            Thread.sleep(10);
+        }
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condición no alcanzada");
+            Thread.sleep(10);
+        }
+    }
+
+    private static Pedido nuevoPedido() {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(1).precioUnitario(BigDecimal.TEN).build());
+        return Pedido.builder()
+                .nombreCliente("Cliente")
+                .contactoCliente("600000000")
+                .montoTotal(BigDecimal.TEN)
+                .productos(productos)
+                .build();
+    }
+}
@@ -0,0 +1,187 @@
+package com.josemiguel.ordermanagement.infraestructura.transicion;
+
+import com.josemiguel.ordermanagement.dominio.dto.SolicitudTransicionLoteDTO;
+import com.josemiguel.ordermanagement.dominio.modelo.EstadoPedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Pedido;
+import com.josemiguel.ordermanagement.dominio.modelo.Producto;
+import com.josemiguel.ordermanagement.dominio.servicio.PedidoServicio;
+import com.josemiguel.ordermanagement.infraestructura.repositorio.PedidoRepositorio;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del cambio de estado masivo (POST /api/pedidos/estado/lote).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransicionLotePedidosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransicionadorPedidos transicionadorPedidos;
+
+    @Autowired
+    private PedidoServicio pedidoServicio;
+
+    @Autowired
+    private PedidoRepositorio pedidoRepositorio;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pedidoRepositorio.deleteAll();
+    }
+
+    @Test
+    void cambiarEstadoEnLote_porIds_deberiaInformarDeCadaPedido() throws Exception {
+        Long confirmado = crearPedido(EstadoPedido.CONFIRMED);
+        Long entregado = crearPedido(EstadoPedido.DELIVERED);
+        Long enviado = crearPedido(EstadoPedido.SHIPPED);
+        estadisticas.clear();
+
+        mockMvc.perform(post("/api/pedidos/estado/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + confirmado + "," + entregado + "," + enviado + ",-1],"
+                                + "\"estadoNuevo\":\"CANCELLED\"}"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.aplicados").value(1))
+                .andExpect(jsonPath("$.rechazados").value(3))
+                .andExpect(jsonPath("$.resultados[0].resultado").value("APLICADO"))
+                .andExpect(jsonPath("$.resultados[0].estadoAnterior").value("CONFIRMED"))
+                .andExpect(jsonPath("$.resultados[1].resultado").value("YA_FINAL"))
+                .andExpect(jsonPath("$.resultados[2].resultado").value("TRANSICION_ILEGAL"))
+                .andExpect(jsonPath("$.resultados[3].resultado").value("NO_ENCONTRADO"));
+
+        // Lectura bloqueante del bloque + un UPDATE para el único estado de origen aplicable
+        // + el evento del pedido cambiado en el outbox (y la secuencia si se agota su bloque de ids)
+        // + un upsert por fila de estadísticas afectada (CONFIRMED y CANCELLED del día)
+        assertEquals(1, estadisticas.getQueryExecutionCount());
+        assertEquals(1, estadisticas.getEntityInsertCount());
+        long sentencias = estadisticas.getPrepareStatementCount();
+        assertTrue(sentencias == 5 || sentencias == 6, "Sentencias: " + sentencias);
+        assertEquals(EstadoPedido.CANCELLED, pedidoRepositorio.findById(confirmado).orElseThrow().getEstado());
+        assertEquals(EstadoPedido.SHIPPED, pedidoRepositorio.findById(enviado).orElseThrow().getEstado());
+    }
+
+    @Test
+    void cambiarEstadoEnLote_porFiltro_deberiaCambiarSoloLosQueCumplen() throws Exception {
+        List<Long> confirmados = List.of(crearPedido(EstadoPedido.CONFIRMED), crearPedido(EstadoPedido.CONFIRMED));
+        Long creado = crearPedido(EstadoPedido.CREATED);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        mockMvc.perform(post("/api/pedidos/estado/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"estado\":\"CONFIRMED\",\"desde\":\"" + ahora.minusDays(1)
+                                + "\",\"hasta\":\"" + ahora.plusDays(1) + "\",\"estadoNuevo\":\"SHIPPED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aplicados").value(2))
+                .andExpect(jsonPath("$.resultados[0].id").value(confirmados.get(0)));
+
+        for (Long id : confirmados) {
+            Pedido pedido = pedidoRepositorio.findById(id).orElseThrow();
+            assertEquals(EstadoPedido.SHIPPED, pedido.getEstado());
+            assertEquals(2L, pedido.getVersion());
+        }
+        assertEquals(EstadoPedido.CREATED, pedidoRepositorio.findById(creado).orElseThrow().getEstado());
+    }
+
+    @Test
+    void cambiarEstadoEnLote_idsYFiltro_deberiaRetornar400() throws Exception {
+        mockMvc.perform(post("/api/pedidos/estado/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1],\"estado\":\"CONFIRMED\",\"estadoNuevo\":\"SHIPPED\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Compara el rendimiento del cambio masivo con un PATCH /api/pedidos/{id}/estado por pedido.
+     * Se ejecuta con -Dbenchmark=true.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_loteFrenteACambioIndividual() throws Exception {
+        int pedidos = 5_000;
+        List<Long> individuales = crearPedidosConfirmados(pedidos);
+        List<Long> enLote = crearPedidosConfirmados(pedidos);
+
+        long inicioIndividual = System.nanoTime();
+        for (Long id : individuales) {
+            mockMvc.perform(patch("/api/pedidos/{id}/estado", id).param("estado", "SHIPPED"))
+                    .andExpect(status().isOk());
+        }
+        double segundosIndividual = (System.nanoTime() - inicioIndividual) / 1e9;
+
+        long inicioLote = System.nanoTime();
+        transicionadorPedidos.transicionar(
+                new SolicitudTransicionLoteDTO(enLote, null, null, null, EstadoPedido.SHIPPED));
+        double segundosLote = (System.nanoTime() - inicioLote) / 1e9;
+
+        System.out.printf("Individual: %.0f pedidos/s%n", pedidos / segundosIndividual);
+        System.out.printf("Lote:       %.0f pedidos/s%n", pedidos / segundosLote);
+        System.out.printf("Aceleración: %.1fx%n", segundosIndividual / segundosLote);
+    }
+
+    private Long crearPedido(EstadoPedido estado) {
+        Long id = pedidoRepositorio.save(nuevoPedido()).getId();
+        if (estado != EstadoPedido.CREATED) {
+            pedidoServicio.cambiarEstado(id, estado.name());
+        }
+        return id;
+    }
+
+    private List<Long> crearPedidosConfirmados(int numero) {
+        List<Pedido> nuevos = new ArrayList<>(numero);
+        for (int i = 0; i < numero; i++) {
+            nuevos.add(nuevoPedido());
+        }
+        List<Long> ids = pedidoServicio.crearPedidos(nuevos).stream().map(Pedido::getId).toList();
+        transicionadorPedidos.transicionar(
+                new SolicitudTransicionLoteDTO(ids, null, null, null, EstadoPedido.CONFIRMED));
+        return ids;
+    }
+
+    private static Pedido nuevoPedido() {
+        List<Producto> productos = new ArrayList<>();
+        productos.add(Producto.builder().nombre("Libro").cantidad(1).precioUnitario(BigDecimal.TEN).build());
+        return Pedido.builder()
+                .nombreCliente("Cliente")
+                .contactoCliente("600000000")
+                .montoTotal(BigDecimal.TEN)
+                .productos(productos)
+                .build();
+    }
+}